@@ -1,8 +1,29 @@
 package santorini;
 
+import santorini.engine.GreedyEngine;
 import santorini.frames.MainFrame;
+import santorini.game.TimeControl;
+import santorini.network.MatchServer;
+import santorini.tournament.BalanceAnalyzer;
+import santorini.tournament.BalanceStats;
+import santorini.tournament.Tournament;
+import santorini.tournament.TournamentConfig;
+import santorini.tournament.TournamentReport;
+import santorini.utils.JsonlEventSink;
+import santorini.utils.LogLevel;
+import santorini.utils.Logger;
 
 import javax.swing.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 
 /**
  * Entry point for the application.
@@ -13,6 +34,53 @@ import javax.swing.*;
  */
 public class App {
 
+    // Constants
+
+    /**
+     * The system property naming the directory game events are exported to.
+     */
+    private static final String EVENT_EXPORT_PROPERTY = "santorini.eventExport";
+
+    /**
+     * The system property naming the file log events are spilled to once they drop out of the log.
+     */
+    private static final String LOG_SPILL_PROPERTY = "santorini.logSpill";
+
+    /**
+     * The size in bytes after which a new event export file is started.
+     */
+    private static final long EVENT_EXPORT_FILE_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * The age in milliseconds after which a new event export file is started.
+     */
+    private static final long EVENT_EXPORT_FILE_AGE = 60 * 60 * 1000;
+
+    /**
+     * The command-line argument that runs a match server instead of the game window.
+     */
+    private static final String SERVER_ARGUMENT = "--server";
+
+    /**
+     * The command-line argument that runs the built-in engine over standard input and output.
+     */
+    private static final String ENGINE_ARGUMENT = "--engine";
+
+    /**
+     * The command-line argument that plays a tournament between computer players instead of the game window.
+     */
+    private static final String TOURNAMENT_ARGUMENT = "--tournament";
+
+    /**
+     * The command-line argument that counts the results of tournaments for balancing instead of the game window.
+     */
+    private static final String ANALYZE_ARGUMENT = "--analyze";
+
+    /**
+     * The port the match server listens on if none is given.
+     */
+    private static final int DEFAULT_SERVER_PORT = 7777;
+
     // Methods
 
     /**
@@ -21,9 +89,155 @@ public class App {
      * @param args Command-line arguments.
      */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals(SERVER_ARGUMENT)) {
+            runServer(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SERVER_PORT,
+                args.length > 2 ? TimeControl.parse(args[2]) : null);
+            return;
+        }
+        if (args.length > 0 && args[0].equals(ENGINE_ARGUMENT)) {
+            runEngine();
+            return;
+        }
+        if (args.length > 0 && args[0].equals(TOURNAMENT_ARGUMENT)) {
+            runTournament(Arrays.asList(args).subList(1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals(ANALYZE_ARGUMENT)) {
+            runAnalysis(Arrays.stream(args).skip(1).map(Path::of).toList());
+            return;
+        }
+
+        startEventExport();
+        startLogSpill();
         SwingUtilities.invokeLater(() -> {
             MainFrame mainFrame = new MainFrame();
             mainFrame.startFrame();
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Runs a match server until the process is stopped. The headless matches do not log,
+     * as no one reads their logs.
+     *
+     * @param port The port to listen on.
+     * @param timeControl The time each player of a match is given, or null if matches are untimed.
+     */
+    private static void runServer(int port, TimeControl timeControl) {
+        Logger.getInstance().setLevel(LogLevel.OFF);
+        MatchServer server = new MatchServer(port, timeControl);
+        try {
+            server.start();
+            System.out.println("Match server listening on port " + server.getPort());
+            server.awaitClose();
+        } catch (IOException e) {
+            System.err.println("Could not start match server: " + e.getMessage());
+        } catch (InterruptedException e) {
+            server.close();
+        }
+    }
+
+    /**
+     * Runs the built-in engine over standard input and output until the host tells it to
+     * quit. Nothing else may be written to standard output, so the engine's games do not log.
+     */
+    private static void runEngine() {
+        Logger.getInstance().setLevel(LogLevel.OFF);
+        new GreedyEngine().run(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)), System.out);
+    }
+
+    /**
+     * Plays a tournament, printing its summary and writing the result of every game to the
+     * output file if one is given. The games do not log, as they are played many at once.
+     *
+     * @param options The options of the tournament.
+     */
+    private static void runTournament(List<String> options) {
+        TournamentConfig config;
+        try {
+            config = TournamentConfig.parse(options);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(TournamentConfig.USAGE);
+            return;
+        }
+
+        Logger.getInstance().setLevel(LogLevel.OFF);
+        try {
+            TournamentReport report = new Tournament(config).run();
+            System.out.println(report.summarize());
+            if (config.output() != null) {
+                try (Writer writer = Files.newBufferedWriter(config.output(), StandardCharsets.UTF_8)) {
+                    report.write(config.format(), writer);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write the results: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Counts the games of tournament result files and directories of them, printing how
+     * balanced the gods and game modes are.
+     *
+     * @param paths The result files and directories.
+     */
+    private static void runAnalysis(List<Path> paths) {
+        if (paths.isEmpty()) {
+            System.err.println("Usage: --analyze FILE|DIRECTORY...");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            BalanceStats stats = BalanceAnalyzer.analyze(paths);
+            System.out.println(stats.summarize());
+            System.out.printf(Locale.ROOT, "Analyzed in %.2f s%n", (System.nanoTime() - start) / 1e9);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not analyze the results: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Exports every game event as JSON lines if the event export directory
+     * system property is set.
+     */
+    private static void startEventExport() {
+        String directory = System.getProperty(EVENT_EXPORT_PROPERTY);
+        if (directory == null) {
+            return;
+        }
+
+        try {
+            JsonlEventSink sink = new JsonlEventSink(Path.of(directory), "events", EVENT_EXPORT_FILE_SIZE, EVENT_EXPORT_FILE_AGE);
+            Logger.getInstance().addSink(sink);
+            Runtime.getRuntime().addShutdownHook(new Thread(sink::close));
+        } catch (IOException e) {
+            System.err.println("Could not start event export: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Spills log events that drop out of the in-memory log to a file if the log spill system
+     * property is set. The file is closed at shutdown, so the last events spilled are kept.
+     */
+    private static void startLogSpill() {
+        String file = System.getProperty(LOG_SPILL_PROPERTY);
+        if (file == null) {
+            return;
+        }
+
+        try {
+            Logger.getInstance().setSpillFile(Path.of(file));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    Logger.getInstance().setSpillFile(null);
+                } catch (IOException e) {
+                    System.err.println("Could not close the log spill file: " + e.getMessage());
+                }
+            }));
+        } catch (IOException e) {
+            System.err.println("Could not start log spill: " + e.getMessage());
+        }
+    }
+}
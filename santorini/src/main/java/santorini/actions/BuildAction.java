@@ -1,11 +1,11 @@
 package santorini.actions;
 
+import santorini.utils.LogEventType;
 import santorini.utils.Logger;
 import santorini.board.Board;
 import santorini.game.Position;
 import santorini.players.Player;
 import santorini.players.Worker;
-import santorini.towers.Tower;
 
 /**
  * Represents a build action performed by a worker.
@@ -42,14 +42,15 @@ public class BuildAction extends Action {
      */
     @Override
     public boolean execute(Player player, Worker worker, Board board) {
-        // Get the current position of the worker
-        Position current = board.getPositionOf(worker);
-
-        Tower targetTower = board.getTower(this.target);
+        // Get the current position of the worker, which is only needed for the log
+        Logger logger = Logger.getInstance();
+        Position current = logger.isEnabled(LogEventType.BUILD.getLevel()) ? board.getPositionOf(worker) : null;
 
         // Build the extra floor on the tower
-        targetTower.buildFloor();
-        Logger.getInstance().log(String.format("%s's worker at (%d, %d) built at (%d, %d) ", player, current.x(), current.y(), target.x(), target.y()));
+        board.buildFloor(this.target);
+        if (current != null) {
+            logger.log(LogEventType.BUILD, player, current, target);
+        }
         return true;
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package santorini.actions;
 
+import santorini.utils.LogEventType;
 import santorini.utils.Logger;
 import santorini.board.Board;
 import santorini.game.Position;
@@ -41,12 +42,15 @@ public class MoveAction extends Action {
      */
     @Override
     public boolean execute(Player player, Worker worker, Board board) {
-        // Get the current position of the worker
-        Position current = board.getPositionOf(worker);
+        // Get the current position of the worker, which is only needed for the log
+        Logger logger = Logger.getInstance();
+        Position current = logger.isEnabled(LogEventType.MOVE.getLevel()) ? board.getPositionOf(worker) : null;
 
         // Move to worker to the target tower
         board.moveWorker(target, worker);
-        Logger.getInstance().log(String.format("%s's worker at (%d, %d) moved to (%d, %d) ", player, current.x(), current.y(), target.x(), target.y()));
+        if (current != null) {
+            logger.log(LogEventType.MOVE, player, current, target);
+        }
         return true;
     }
 }
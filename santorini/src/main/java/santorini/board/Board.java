@@ -14,6 +14,7 @@ import java.util.*;
 /**
  * Represents the game board, which manages the placement and state of towers and workers.
  * Implements both {@link BoardState} for read-only access and {@link BoardActions} for modifying the board.
+ * Every modification marks the cells it changed as dirty, so that views only redraw those cells.
  *
  * Created by:
  * author Diana, Yuan Yi, Zi Yang, Hsu Chyi
@@ -42,6 +43,11 @@ public class Board implements BoardState, BoardActions, Saveable {
      */
     private final WorkerPositions workerPositions;
 
+    /**
+     * The cells changed since the dirty cells were last taken, by cell index.
+     */
+    private final BitSet dirtyCells;
+
     // Constructor
 
     /**
@@ -55,25 +61,10 @@ public class Board implements BoardState, BoardActions, Saveable {
         this.height = height;
         this.towers = new HashMap<>();
         this.workerPositions = new WorkerPositions();
+        this.dirtyCells = new BitSet(width * height);
 
         initializeBoard();
-    }
-
-    /**
-     * Constructor for loading a game.
-     *
-     * @param buildString The string to be parsed as a board.
-     */
-    public Board(String buildString) {
-        String[] lines = buildString.trim().split(SaveConfig.NEWLINE_REGEX);
-        String[] dimensionString = lines[0].trim().split(SaveConfig.DELIMITER_REGEX);
-
-        this.width = Integer.parseInt(dimensionString[0]);
-        this.height = Integer.parseInt(dimensionString[1]);
-        this.towers = new HashMap<>();
-        this.workerPositions = new WorkerPositions();
-
-        initializeBoard(buildString);
+        dirtyCells.set(0, width * height);
     }
 
     /**
@@ -88,33 +79,6 @@ public class Board implements BoardState, BoardActions, Saveable {
         }
     }
 
-    /**
-     * Populates the board with previously built towers
-     *
-     * @param buildString The string to be parsed as a board.
-     */
-    private void initializeBoard(String buildString) {
-        String[] lines = buildString.trim().split(SaveConfig.NEWLINE_REGEX);
-
-        for (int x = 0; x < width; x++) {
-            String[] rowString = lines[x + 1].trim().split(SaveConfig.DELIMITER_REGEX);
-
-            for (int y = 0; y < width; y++) {
-                String[] towerString = rowString[y].split(SaveConfig.COMMA_REGEX);
-                int towerHeight = Integer.parseInt(towerString[0]);
-
-                Position position = new Position(x, y);
-                Tower tower = new Tower();
-
-                tower.setFogged(Boolean.parseBoolean(towerString[1]));
-                for (int i = 0; i < towerHeight; i++) {
-                    tower.buildFloor();
-                }
-                towers.put(position, tower);
-            }
-        }
-    }
-
     // Inherited Methods from BoardState
 
     @Override
@@ -169,19 +133,88 @@ public class Board implements BoardState, BoardActions, Saveable {
     public void addWorker(Position position, Worker worker) {
         if (isValidPosition(position) && !isOccupied(position)) {
             workerPositions.addWorker(position, worker);
+            markDirty(position);
         }
     }
 
     @Override
     public void removeWorker(Worker worker) {
+        Position position = getPositionOf(worker);
         workerPositions.removeWorker(worker);
+        if (position != null) {
+            markDirty(position);
+        }
     }
 
     @Override
     public void moveWorker(Position newPosition, Worker worker) {
         if (isValidPosition(newPosition) && !isOccupied(newPosition)) {
+            Position oldPosition = getPositionOf(worker);
             workerPositions.moveWorker(newPosition, worker);
+            if (oldPosition != null) {
+                markDirty(oldPosition);
+            }
+            markDirty(newPosition);
+        }
+    }
+
+    @Override
+    public void buildFloor(Position position) {
+        getTower(position).buildFloor();
+        markDirty(position);
+    }
+
+    @Override
+    public void destroyFloor(Position position) {
+        getTower(position).destroyFloor();
+        markDirty(position);
+    }
+
+    @Override
+    public void setFogged(Position position, boolean fogged) {
+        getTower(position).setFogged(fogged);
+        markDirty(position);
+    }
+
+    @Override
+    public void markDirty(Position position) {
+        if (isValidPosition(position)) {
+            dirtyCells.set(getIndex(position));
+        }
+    }
+
+    /**
+     * Gets the index of a cell, numbering cells row by row from 0 to width * height - 1.
+     *
+     * @param position The position of the cell.
+     * @return The index of the cell.
+     */
+    public int getIndex(Position position) {
+        return position.x() * height + position.y();
+    }
+
+    /**
+     * Gets the position of a cell from its index.
+     *
+     * @param index The index of the cell.
+     * @return The position of the cell.
+     */
+    public Position getPosition(int index) {
+        return new Position(index / height, index % height);
+    }
+
+    /**
+     * Takes the cells changed since this method was last called, clearing them.
+     *
+     * @return The positions of the changed cells.
+     */
+    public List<Position> takeDirtyCells() {
+        List<Position> positions = new ArrayList<>(dirtyCells.cardinality());
+        for (int index = dirtyCells.nextSetBit(0); index >= 0; index = dirtyCells.nextSetBit(index + 1)) {
+            positions.add(getPosition(index));
         }
+        dirtyCells.clear();
+        return positions;
     }
 
     @Override
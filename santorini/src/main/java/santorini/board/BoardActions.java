@@ -37,4 +37,33 @@ public interface BoardActions {
      * @param worker The worker to move.
      */
     void moveWorker(Position newPosition, Worker worker);
+
+    /**
+     * Builds a floor on the tower at the given position.
+     *
+     * @param position The position of the tower.
+     */
+    void buildFloor(Position position);
+
+    /**
+     * Removes the top floor of the tower at the given position.
+     *
+     * @param position The position of the tower.
+     */
+    void destroyFloor(Position position);
+
+    /**
+     * Covers or uncovers the tower at the given position with fog.
+     *
+     * @param position The position of the tower.
+     * @param fogged Whether the tower should be fogged.
+     */
+    void setFogged(Position position, boolean fogged);
+
+    /**
+     * Marks a cell as changed so that it is redrawn.
+     *
+     * @param position The position of the changed cell.
+     */
+    void markDirty(Position position);
 }
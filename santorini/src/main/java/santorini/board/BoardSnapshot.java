@@ -0,0 +1,206 @@
+package santorini.board;
+
+import santorini.game.Position;
+import santorini.players.Worker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable picture of the board at one moment, holding the image of the tower and
+ * worker on each cell. Snapshots are taken on the game thread and drawn on the event
+ * dispatch thread, so drawing never reads a board the rules are still changing.
+ * Each snapshot also records which cells changed since the previous one, so that only
+ * those cells need repainting.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public final class BoardSnapshot {
+
+    // Attributes
+
+    /**
+     * The width of the board.
+     */
+    private final int width;
+
+    /**
+     * The height of the board.
+     */
+    private final int height;
+
+    /**
+     * The resource path of the tower image of each cell, by cell index.
+     */
+    private final String[] towerImages;
+
+    /**
+     * The resource path of the worker image of each cell, or null if it is unoccupied, by cell index.
+     */
+    private final String[] workerImages;
+
+    /**
+     * The cells changed since the previous snapshot.
+     */
+    private final List<Position> changedCells;
+
+    /**
+     * Whether the snapshot is of a different board than the previous one, so every cell changed.
+     */
+    private final boolean replaced;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param width The width of the board.
+     * @param height The height of the board.
+     * @param towerImages The resource path of the tower image of each cell, by cell index.
+     * @param workerImages The resource path of the worker image of each cell, by cell index.
+     * @param changedCells The cells changed since the previous snapshot.
+     * @param replaced Whether the board is a different board than the previous snapshot was of.
+     */
+    private BoardSnapshot(int width, int height, String[] towerImages, String[] workerImages,
+                          List<Position> changedCells, boolean replaced) {
+        this.width = width;
+        this.height = height;
+        this.towerImages = towerImages;
+        this.workerImages = workerImages;
+        this.changedCells = List.copyOf(changedCells);
+        this.replaced = replaced;
+    }
+
+    // Methods
+
+    /**
+     * Takes a snapshot of a board, taking its dirty cells as the cells that changed.
+     * This must be called on the thread that changes the board.
+     *
+     * @param board The board to take a picture of.
+     * @param replaced Whether the board is a different board than the previous snapshot was of.
+     * @return The snapshot of the board.
+     */
+    public static BoardSnapshot of(Board board, boolean replaced) {
+        int width = board.getWidth();
+        int height = board.getHeight();
+        String[] towerImages = new String[width * height];
+        String[] workerImages = new String[width * height];
+
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                Position position = new Position(x, y);
+                int index = board.getIndex(position);
+                towerImages[index] = board.getTower(position).getImagePath(board, position);
+                Worker worker = board.getWorkerAt(position);
+                workerImages[index] = worker != null ? worker.getIconPath() : null;
+            }
+        }
+        return new BoardSnapshot(width, height, towerImages, workerImages, board.takeDirtyCells(), replaced);
+    }
+
+    /**
+     * Creates a snapshot of a board known only by its images, such as a board hosted by a
+     * server, taking the cells whose images differ from the previous snapshot as the cells that changed.
+     *
+     * @param width The width of the board.
+     * @param height The height of the board.
+     * @param towerImages The resource path of the tower image of each cell, by cell index.
+     * @param workerImages The resource path of the worker image of each cell, or null if it is unoccupied, by cell index.
+     * @param previous The previous snapshot, or null if there is none.
+     * @return The snapshot of the board.
+     */
+    public static BoardSnapshot of(int width, int height, String[] towerImages, String[] workerImages, BoardSnapshot previous) {
+        boolean replaced = previous == null || previous.width != width || previous.height != height;
+        List<Position> changedCells = new ArrayList<>();
+        if (!replaced) {
+            for (int index = 0; index < towerImages.length; index++) {
+                if (!Objects.equals(towerImages[index], previous.towerImages[index])
+                    || !Objects.equals(workerImages[index], previous.workerImages[index])) {
+                    changedCells.add(new Position(index / height, index % height));
+                }
+            }
+        }
+        return new BoardSnapshot(width, height, towerImages.clone(), workerImages.clone(), changedCells, replaced);
+    }
+
+    /**
+     * Gets the index of a cell, numbering cells the same way as the board.
+     *
+     * @param position The position of the cell.
+     * @return The index of the cell.
+     */
+    public int getIndex(Position position) {
+        return position.x() * height + position.y();
+    }
+
+    /**
+     * Gets the position of a cell from its index.
+     *
+     * @param index The index of the cell.
+     * @return The position of the cell.
+     */
+    public Position getPosition(int index) {
+        return new Position(index / height, index % height);
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the width of the board.
+     *
+     * @return The width of the board.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the board.
+     *
+     * @return The height of the board.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the resource path of the tower image of a cell.
+     *
+     * @param index The index of the cell.
+     * @return The resource path of the tower image.
+     */
+    public String getTowerImage(int index) {
+        return towerImages[index];
+    }
+
+    /**
+     * Gets the resource path of the worker image of a cell.
+     *
+     * @param index The index of the cell.
+     * @return The resource path of the worker image, or null if the cell is unoccupied.
+     */
+    public String getWorkerImage(int index) {
+        return workerImages[index];
+    }
+
+    /**
+     * Gets the cells changed since the previous snapshot.
+     *
+     * @return The positions of the changed cells.
+     */
+    public List<Position> getChangedCells() {
+        return changedCells;
+    }
+
+    /**
+     * Checks whether the snapshot is of a different board than the previous one.
+     *
+     * @return True if every cell should be considered changed, false otherwise.
+     */
+    public boolean isReplaced() {
+        return replaced;
+    }
+}
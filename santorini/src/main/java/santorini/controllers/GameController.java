@@ -1,21 +1,31 @@
 package santorini.controllers;
 
-import santorini.actions.BuildAction;
-import santorini.actions.MoveAction;
 import santorini.board.Board;
-import santorini.board.MovementValidator;
+import santorini.board.BoardSnapshot;
 import santorini.frames.PanelManager;
 import santorini.game.*;
+import santorini.network.ErrorCode;
+import santorini.network.MatchClient;
+import santorini.network.MatchListener;
+import santorini.network.MatchSnapshot;
+import santorini.network.MatchStart;
 import santorini.panels.ButtonName;
 import santorini.panels.GamePanel;
 import santorini.panels.PanelName;
+import santorini.panels.RenderSnapshot;
+import santorini.players.God;
 import santorini.players.Player;
 import santorini.players.Worker;
+import santorini.utils.LogEventType;
+import santorini.utils.Logger;
 import santorini.utils.SaveManager;
+import santorini.utils.TimingWheel;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,25 +34,72 @@ import java.util.List;
  * Handles player actions, UI updates, turn progression, and communicates with the Game model.
  * Extends the generic Controller for GamePanel and implements the Subscriber interface.
  *
+ * Input from the panel is turned into commands run on the game thread. Once a command
+ * has finished, the controller publishes a single immutable snapshot of the game to the
+ * event dispatch thread, which is the only thing the panel draws from.
+ *
+ * In client mode the game is instead played on a match server: clicks are sent to the
+ * server, and the panel draws the states the server sends back.
+ *
  * Created by:
  * author Lai Zi Yang, Diana Wijaya, See Hsu Chyi, Wong Yuan Yi
  */
 public class GameController extends Controller<GamePanel> implements Subscriber {
 
+    // Constants
+
+    /**
+     * How often the clocks of a timed game are refreshed between snapshots.
+     */
+    private static final Duration CLOCK_REFRESH = Duration.ofMillis(100);
+
     // Attributes
 
     /**
-     * The current state of the game.
+     * The current state of the game, only used on the game thread.
      */
     private GameState gameState;
     /**
-     * A list of active positions available for move or build actions.
+     * The driver playing the cells the current player clicks, only used on the game thread.
+     */
+    private final TurnDriver turnDriver;
+    /**
+     * The board of the last published snapshot, used to detect a replaced board.
+     */
+    private Board lastBoard;
+    /**
+     * Whether a command is running, during which updates are not published.
+     */
+    private boolean inCommand;
+    /**
+     * The latest snapshot received on the event dispatch thread, or null if there is none yet.
+     */
+    private RenderSnapshot latestSnapshot;
+    /**
+     * The clock of the game shown on the event dispatch thread, refreshed while it runs, or null if the game is untimed.
+     */
+    private GameClock displayedClock;
+    /**
+     * The connection to the match server in client mode, or null when playing locally.
+     * Only used on the event dispatch thread, as are the other fields of client mode.
+     */
+    private MatchClient matchClient;
+    /**
+     * The listener of the current connection to the match server, so that messages of earlier connections are ignored.
+     */
+    private MatchListener matchListener;
+    /**
+     * The seat of the player in the match hosted by the server.
+     */
+    private int seat;
+    /**
+     * The players of the match hosted by the server, used to show the player information.
      */
-    private List<Position> activeActionPositions;
+    private GameState remoteGameState;
     /**
-     * A list of active worker positions for the current player.
+     * The snapshot of the board of the last state received from the server.
      */
-    private List<Position> activeWorkerPositions;
+    private BoardSnapshot remoteBoard;
 
     // Constructor
 
@@ -54,37 +111,39 @@ public class GameController extends Controller<GamePanel> implements Subscriber
     public GameController(PanelManager panelManager) {
         super(panelManager);
         panel = new GamePanel();
-        activeActionPositions = new ArrayList<>();
-        activeWorkerPositions = new ArrayList<>();
+        turnDriver = new TurnDriver(Game.getInstance());
     }
 
     // Methods
 
     /**
-     * Updates the controller with the latest GameState and initializes the UI.
+     * Updates the controller with the latest GameState. Called on the game thread, after the
+     * turn driver has started worker selection if a turn has started. Unless the update is
+     * part of a command, which publishes once it has finished, a snapshot is published straight away.
      *
      * @param gameState The current game state to use for rendering and logic.
      */
     @Override
     public void update(GameState gameState) {
         this.gameState = gameState;
-        initializePanelUI();
+        if (!inCommand) {
+            publish();
+        }
     }
 
     /**
-     * Initializes the UI of the GamePanel and sets up the end phase button and worker selection.
+     * Initializes the UI of the GamePanel, sets up its buttons and draws the latest snapshot.
+     * Called on the event dispatch thread.
      */
     @Override
     public void initializePanelUI() {
-        panel.initializeUI(gameState);
+        panel.initializeUI(remoteGameState != null ? remoteGameState : Game.getInstance().getGameState());
+        panel.setCellHandler(this::handleCellClick);
         setupEndPhaseButton();
         setupSaveListener();
 
-        // Only allow worker selection at the start of a turn
-        if (gameState.getCurrentPlayer().canSelectWorker()) {
-            panel.enableButton(ButtonName.SAVE_GAME_BUTTON.toString());
-            panel.disableButton(ButtonName.END_PHASE_BUTTON.toString());
-            setupWorkerListener();
+        if (latestSnapshot != null) {
+            panel.render(latestSnapshot);
         }
     }
 
@@ -97,246 +156,333 @@ public class GameController extends Controller<GamePanel> implements Subscriber
     }
 
     /**
-     * Sets up listeners for the current player's workers, allowing them to be selected.
+     * Handles a click on one of the target cells of the board by queueing it on the game thread.
+     *
+     * @param position The clicked cell.
      */
-    public void setupWorkerListener() {
-        Board board = gameState.getBoard();
-        Player currentPlayer = gameState.getCurrentPlayer();
-        currentPlayer.setCanSelectWorker(false);
-        List<Worker> workers = currentPlayer.getWorkers();
-
-        clearActiveWorkerListeners();
-        activeWorkerPositions.clear();
-
-        // Setup action listeners for each workers of the player
-        for (Worker worker : workers) {
-            Position position = board.getPositionOf(worker);
-
-            ActionListener actionListener = e -> {
-                // Set the selected worker in the game state
-                gameState.setSelectedWorker(worker);
-
-                Game.getInstance().processTurn();
-                if (gameState.getWinner() != null) {
-                    switchPanel(PanelName.WINNER.toString());
-                    return;
-                }
+    public void handleCellClick(Position position) {
+        if (matchClient != null) {
+            matchClient.click(position);
+            return;
+        }
+        runCommand(() -> turnDriver.pick(position));
+    }
 
-                // Disable all worker buttons
-                clearActiveWorkerListeners();
-                panel.disableButton(ButtonName.SAVE_GAME_BUTTON.toString());
+    /**
+     * Runs a command on the game thread, publishing a single snapshot once it has finished,
+     * even if it failed, so the panel never keeps showing targets from before the command.
+     *
+     * @param command The command to run.
+     */
+    private void runCommand(Runnable command) {
+        GameThread.getInstance().submit(() -> {
+            inCommand = true;
+            try {
+                command.run();
+            } finally {
+                inCommand = false;
+                publish();
+            }
+        });
+    }
 
-                // Proceed to the movement phase
-                setupMoveListener(position);
-            };
+    /**
+     * Gets the colour the targets of a step of the turn are highlighted in.
+     *
+     * @param step The step of the turn.
+     * @return The highlight colour.
+     */
+    private static Color getTargetColor(TurnStep step) {
+        return switch (step) {
+            case MOVE -> Color.GREEN;
+            case BUILD -> Color.BLUE;
+            case SELECT_WORKER, NONE -> Color.YELLOW;
+        };
+    }
 
-            // Assign listeners
-            activeWorkerPositions.add(position);
-            panel.addListener(position.toString(), actionListener);
+    /**
+     * Publishes a snapshot of the game to the event dispatch thread. Called on the game thread.
+     */
+    private void publish() {
+        Board board = gameState.getBoard();
+        boolean replaced = board != lastBoard;
+        lastBoard = board;
+
+        TurnStep step = turnDriver.getStep();
+        GameClock clock = gameState.getClock();
+        RenderSnapshot snapshot = new RenderSnapshot(BoardSnapshot.of(board, replaced), turnDriver.getTargets(),
+            getTargetColor(step), step == TurnStep.SELECT_WORKER, turnDriver.canEndPhase(), gameState.getWinner() != null,
+            clock != null ? clock.snapshot() : null);
+        SwingUtilities.invokeLater(() -> {
+            render(snapshot);
+            showClock(clock);
+        });
+    }
 
-            // Highlight worker buttons
-            AbstractButton workerButton = panel.getButton(position.toString());
-            workerButton.setBackground(Color.YELLOW);
-            workerButton.setEnabled(true);
-            workerButton.setOpaque(true);
+    /**
+     * Starts refreshing the clocks of a newly shown game. Called on the event dispatch thread.
+     *
+     * @param clock The clock of the game, or null if the game is untimed.
+     */
+    private void showClock(GameClock clock) {
+        if (clock != displayedClock) {
+            displayedClock = clock;
+            if (clock != null) {
+                scheduleClockRefresh(clock);
+            }
         }
     }
 
     /**
-     * Sets up listeners on valid positions the worker can move to.
+     * Schedules the next refresh of the clocks on the shared timing wheel, rather than on a timer of the window's own.
      *
-     * @param position The position of the worker before moving.
+     * @param clock The clock to refresh.
      */
-    public void setupMoveListener(Position position) {
-        Board board = gameState.getBoard();
-        Player currentPlayer = gameState.getCurrentPlayer();
-        Worker currentWorker = board.getWorkerAt(position);
-
-        MovementValidator validator = new MovementValidator(board);
-        List<Position> adjacentPositions = validator.getMoveablePositions(position);
+    private void scheduleClockRefresh(GameClock clock) {
+        TimingWheel.getInstance().schedule(() -> SwingUtilities.invokeLater(() -> refreshClock(clock)), CLOCK_REFRESH);
+    }
 
-        // Declare winner if there are no available moves
-        if (adjacentPositions.isEmpty() && gameState.getWinner() != null) {
-            reset();
-            switchPanel(PanelName.WINNER.toString());
+    /**
+     * Shows the time left on a clock, until it stops or another game is shown. Only the
+     * clock labels are updated. Called on the event dispatch thread.
+     *
+     * @param clock The clock to refresh.
+     */
+    private void refreshClock(GameClock clock) {
+        if (clock != displayedClock || matchClient != null) {
             return;
         }
-
-        // Prevent moving back to the original position (for gods with multiple moves)
-        adjacentPositions.removeIf(adjacentPosition -> adjacentPosition.equals(gameState.getOriginalWorkerPosition()));
-
-        for (Position adjacentPosition : adjacentPositions) {
-            ActionListener actionListener = e -> {
-                MoveAction action = new MoveAction(adjacentPosition);
-
-                clearActiveWorkerListeners();
-                clearActiveActionListeners();
-                Game.getInstance().processTurn(currentPlayer, currentWorker, action);
-                if (gameState.getWinner() != null) {
-                    reset();
-                    switchPanel(PanelName.WINNER.toString());
-                    return;
-                }
-
-                gameState.setOriginalWorkerPosition(position);
-                gameState.setLastWorkerMovePosition(adjacentPosition);
-
-                // Setup move or build listeners depending on the moves remaining
-                if (gameState.getMovesRemaining() > 0) {
-                    setupMoveListener(adjacentPosition);
-                }
-                else {
-                    setupBuildListener(adjacentPosition);
-                }
-
-                checkEndPhaseButton();
-            };
-
-            // Assign listeners
-            activeActionPositions.add(adjacentPosition);
-            panel.addListener(adjacentPosition.toString(), actionListener);
-
-            // Highlight move buttons
-            AbstractButton moveButton = panel.getButton(adjacentPosition.toString());
-            moveButton.setBackground(Color.GREEN);
-            moveButton.setEnabled(true);
-            moveButton.setOpaque(true);
+        panel.updateClocks(clock.snapshot());
+        if (clock.getRunningIndex() >= 0) {
+            scheduleClockRefresh(clock);
         }
     }
 
     /**
-     * Sets up listeners on valid positions for the worker to build.
+     * Draws a snapshot of the game, switching to the winner panel when the game has just been won.
+     * Called on the event dispatch thread.
      *
-     * @param position The position of the worker before building.
+     * @param snapshot The snapshot to draw.
      */
-    public void setupBuildListener(Position position) {
-        Board board = gameState.getBoard();
-        Player currentPlayer = gameState.getCurrentPlayer();
-        Worker currentWorker = board.getWorkerAt(position);
-
-        MovementValidator validator = new MovementValidator(board);
-        List<Position> adjacentPositions = validator.getBuildablePositions(position);
+    private void render(RenderSnapshot snapshot) {
+        boolean wasOver = latestSnapshot != null && latestSnapshot.gameOver();
+        latestSnapshot = snapshot;
+        panel.render(snapshot);
 
-        if (adjacentPositions.isEmpty() && gameState.getWinner() != null) {
-            reset();
+        if (snapshot.gameOver() && !wasOver) {
             switchPanel(PanelName.WINNER.toString());
-            return;
         }
+    }
 
-        adjacentPositions.removeIf(adjacentPosition -> adjacentPosition.equals(gameState.getLastWorkerBuildPosition()));
-
-        for (Position adjacentPosition : adjacentPositions) {
-            ActionListener actionListener = e -> {
-                BuildAction action = new BuildAction(adjacentPosition);
+    /**
+     * Sets up the End Phase button with a listener to advance game phase or turn on the game thread.
+     */
+    public void setupEndPhaseButton() {
+        panel.removeListener(ButtonName.END_PHASE_BUTTON.toString());
+        ActionListener actionListener = e -> {
+            if (matchClient != null) {
+                matchClient.endPhase();
+            }
+            else {
+                runCommand(turnDriver::endPhase);
+            }
+        };
 
-                clearActiveActionListeners(); // Clear current player's possible builds
-                gameState.setLastWorkerBuildPosition(adjacentPosition);
-                Game.getInstance().processTurn(currentPlayer, currentWorker, action);
-                if (gameState.getHasBuilt() && gameState.getBuildsRemaining() > 0) {
-                    setupBuildListener(position);
-                }
-                if (gameState.getWinner() != null) {
-                    reset();
-                    switchPanel(PanelName.WINNER.toString());
-                    return;
-                }
+        panel.addListener(ButtonName.END_PHASE_BUTTON.toString(), actionListener);
+        panel.disableButton(ButtonName.END_PHASE_BUTTON.toString());
+    }
 
-                checkEndPhaseButton();
-            };
+    /**
+     * Resets the controller state by clearing the target cells. Called on the game thread.
+     */
+    public void reset() {
+        turnDriver.reset();
+    }
 
-            // Assign listeners
-            activeActionPositions.add(adjacentPosition);
-            panel.addListener(adjacentPosition.toString(), actionListener);
+    /**
+     * Joins a match hosted by a match server instead of playing locally. The connection is
+     * made on a virtual thread, and the game panel is shown once an opponent has been found.
+     * Called on the event dispatch thread.
+     *
+     * @param host The host name of the server.
+     * @param port The port of the server.
+     * @param mode The game mode of the match.
+     */
+    public void joinMatch(String host, int port, GameMode mode) {
+        leaveMatch();
+        MatchListener listener = new RemoteMatchListener();
+        matchListener = listener;
+
+        Thread.ofVirtual().name("match-connect").start(() -> {
+            try {
+                MatchClient client = MatchClient.connect(host, port, listener);
+                SwingUtilities.invokeLater(() -> {
+                    if (matchListener == listener) {
+                        matchClient = client;
+                    }
+                    else {
+                        client.close();
+                    }
+                });
+                client.join(mode);
+            } catch (IOException e) {
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(panel,
+                    "Could not connect to the server at " + host + ":" + port + "."));
+            }
+        });
+    }
 
-            // Highlight build buttons
-            AbstractButton buildButton = panel.getButton(adjacentPosition.toString());
-            buildButton.setBackground(Color.BLUE);
-            buildButton.setEnabled(true);
-            buildButton.setOpaque(true);
+    /**
+     * Disconnects from the match server, if connected. Called on the event dispatch thread.
+     */
+    public void leaveMatch() {
+        matchListener = null;
+        remoteGameState = null;
+        remoteBoard = null;
+        if (matchClient != null) {
+            matchClient.close();
+            matchClient = null;
         }
     }
 
     /**
-     * Enables or disables the End Phase button depending on remaining moves/builds.
+     * Shows a match hosted by the server once an opponent has been found.
+     *
+     * @param start The announcement of the match.
      */
-    private void checkEndPhaseButton() {
-        Player currentPlayer = gameState.getCurrentPlayer();
-        if (gameState.getGamePhase() == GamePhase.MOVE) {
-            if (gameState.getHasMoved()) {
-                panel.enableButton(ButtonName.END_PHASE_BUTTON.toString());
-            } else {
-                panel.disableButton(ButtonName.END_PHASE_BUTTON.toString());
-            }
-        }
-        else if (gameState.getGamePhase() == GamePhase.BUILD) {
-            if (gameState.getHasBuilt()) {
-                panel.enableButton(ButtonName.END_PHASE_BUTTON.toString());
-            } else {
-                panel.disableButton(ButtonName.END_PHASE_BUTTON.toString());
-            }
-        }
+    private void startRemoteMatch(MatchStart start) {
+        seat = start.seat();
+        remoteGameState = createRemoteGameState(start);
+        remoteBoard = null;
+        latestSnapshot = null;
+
+        Logger.getInstance().clearLogs();
+        Logger.getInstance().log(LogEventType.GAME_START);
+        switchPanel(PanelName.GAME.toString());
     }
 
     /**
-     * Clears all listeners and highlights for action buttons.
+     * Draws a state of the match sent by the server, returning to the menu once it has been won.
+     *
+     * @param state The state of the match.
      */
-    public void clearActiveActionListeners() {
-        for (Position position : activeActionPositions) {
-            panel.removeListener(position.toString());
+    private void renderRemoteState(MatchSnapshot state) {
+        int cellCount = state.width() * state.height();
+        String[] towerImages = new String[cellCount];
+        String[] workerImages = new String[cellCount];
+        for (int index = 0; index < cellCount; index++) {
+            towerImages[index] = state.getTowerImage(index);
+            workerImages[index] = state.getWorkerImage(index);
+        }
+        remoteBoard = BoardSnapshot.of(state.width(), state.height(), towerImages, workerImages, remoteBoard);
 
-            AbstractButton button = panel.getButton(position.toString());
-            button.setBackground(null);
-            button.setEnabled(false);
+        // Saving is left to the server, and the winner is announced here rather than on the winner panel
+        boolean playing = state.currentSeat() == seat && state.winnerSeat() < 0;
+        render(new RenderSnapshot(remoteBoard, state.targets(), getTargetColor(state.step()),
+            false, playing && state.canEndPhase(), false, null));
+
+        if (state.winnerSeat() >= 0) {
+            Player winner = remoteGameState.getPlayer(state.winnerSeat());
+            Logger.getInstance().log(LogEventType.WINNER, winner);
+            endRemoteMatch(winner.getName() + " wins!");
         }
     }
 
     /**
-     * Clears all listeners and highlights for worker buttons.
+     * Disconnects from the match server and returns to the menu after telling the player why.
+     *
+     * @param message The reason the match ended.
      */
-    public void clearActiveWorkerListeners() {
-        for (Position position : activeWorkerPositions) {
-            panel.removeListener(position.toString());
+    private void endRemoteMatch(String message) {
+        leaveMatch();
+        JOptionPane.showMessageDialog(panel, message);
+        switchPanel(PanelName.MENU.toString());
+    }
 
-            AbstractButton button = panel.getButton(position.toString());
-            button.setBackground(null);
-            button.setEnabled(false);
+    /**
+     * Creates the players of a match hosted by the server, used to show the player information.
+     *
+     * @param start The announcement of the match.
+     * @return A game state holding the players and an empty board.
+     */
+    private static GameState createRemoteGameState(MatchStart start) {
+        GameMode mode = start.mode();
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < start.gods().size(); i++) {
+            String name = String.format("Player %d", i + 1) + (i == start.seat() ? " (You)" : "");
+            Player player = new Player(name);
+            for (int j = 0; j < mode.getNumberOfWorkers(); j++) {
+                player.addWorker(new Worker());
+            }
+            player.initialiseWorkerIcon(i);
+            player.setGod(God.parseName(start.gods().get(i)));
+            players.add(player);
         }
+        return new GameState(new Board(mode.getBoardWidth(), mode.getBoardHeight()), players, mode.getStartingPlayerIndex());
     }
 
     /**
-     * Sets up the End Phase button with a listener to advance game phase or turn.
+     * Passes the messages of one connection to the match server to the controller on the
+     * event dispatch thread, ignoring them once the controller has moved on to another connection.
      */
-    public void setupEndPhaseButton() {
-        panel.removeListener(ButtonName.END_PHASE_BUTTON.toString());
-        ActionListener actionListener = e -> {
-            clearActiveActionListeners();
-            clearActiveWorkerListeners();
+    private class RemoteMatchListener implements MatchListener {
+
+        /**
+         * Shows the match once an opponent has been found.
+         *
+         * @param start The announcement of the match.
+         */
+        @Override
+        public void onMatchStarted(MatchStart start) {
+            runIfCurrent(() -> startRemoteMatch(start));
+        }
 
-            Game game = Game.getInstance();
-            GameState state = game.getGameState();
+        /**
+         * Draws the new state of the match.
+         *
+         * @param snapshot The state of the match.
+         */
+        @Override
+        public void onState(MatchSnapshot snapshot) {
+            runIfCurrent(() -> renderRemoteState(snapshot));
+        }
 
-            if (state.getGamePhase() == GamePhase.MOVE) {
-                game.forceEndPhase();
-                Position lastPosition = state.getLastWorkerMovePosition();
-                setupBuildListener(lastPosition);
-            }
-            else if (state.getGamePhase() == GamePhase.BUILD) {
-                game.forceEndPhase();
-                game.processTurn(null, null, null); // End turn
-            }
-        };
+        /**
+         * Ends the match if the opponent left, and logs any other error.
+         *
+         * @param code The error.
+         */
+        @Override
+        public void onError(ErrorCode code) {
+            runIfCurrent(() -> {
+                if (code == ErrorCode.OPPONENT_LEFT) {
+                    endRemoteMatch("Your opponent has left the match.");
+                }
+                else {
+                    Logger.getInstance().log("The server rejected the action: " + code);
+                }
+            });
+        }
 
-        panel.addListener(ButtonName.END_PHASE_BUTTON.toString(), actionListener);
-        panel.disableButton(ButtonName.END_PHASE_BUTTON.toString());
-    }
+        /**
+         * Returns to the menu if the server closed the connection.
+         */
+        @Override
+        public void onClosed() {
+            runIfCurrent(() -> endRemoteMatch("The connection to the server was lost."));
+        }
 
-    /**
-     * Resets the controller state by clearing listeners and active positions.
-     */
-    public void reset() {
-        clearActiveActionListeners();
-        clearActiveWorkerListeners();
-        activeActionPositions.clear();
-        activeWorkerPositions.clear();
+        /**
+         * Runs an action on the event dispatch thread, as long as this is still the current connection.
+         *
+         * @param action The action to run.
+         */
+        private void runIfCurrent(Runnable action) {
+            SwingUtilities.invokeLater(() -> {
+                if (matchListener == this) {
+                    action.run();
+                }
+            });
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package santorini.controllers;
 
+import santorini.utils.LogEventType;
 import santorini.utils.Logger;
 import santorini.frames.PanelManager;
 import santorini.game.*;
@@ -12,6 +13,7 @@ import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.event.ActionListener;
 import java.io.File;
+import java.util.function.Consumer;
 
 /**
  * The MenuController manages interactions on the main menu of the Santorini game.
@@ -22,6 +24,18 @@ import java.io.File;
  */
 public class MenuController extends Controller<MenuPanel> {
 
+    // Attributes
+
+    /**
+     * Starts a match of a game mode on a match server, or null to start games locally.
+     */
+    private Consumer<GameMode> onlineGameStarter;
+
+    /**
+     * The time each player of a local game is given, or null to play untimed games.
+     */
+    private TimeControl timeControl;
+
     // Constructor
 
     /**
@@ -43,6 +57,7 @@ public class MenuController extends Controller<MenuPanel> {
     public void initializePanelUI() {
         panel.initializeUI();
         setupLoadGameListener();
+        setupBrowseSavesListener();
         setupStartGameListener();
         setupInstructionsListener();
         setupQuitListener();
@@ -50,33 +65,52 @@ public class MenuController extends Controller<MenuPanel> {
 
     public void setupLoadGameListener() {
         ActionListener actionListener = e -> {
-            boolean result = SaveManager.getInstance().loadGame(panel);
-
-            if (result) {
-                switchPanel(PanelName.GAME.toString());
-            }
+            SaveManager.getInstance().loadGame(panel, () -> switchPanel(PanelName.GAME.toString()));
         };
         panel.addListener(ButtonName.LOAD_GAME_BUTTON.toString(), actionListener);
     }
 
+    /**
+     * Sets up the listener for the Browse Saves button, navigates to the save browser panel.
+     */
+    public void setupBrowseSavesListener() {
+        ActionListener actionListener = e -> {
+            switchPanel(PanelName.SAVE_BROWSER.toString());
+        };
+        panel.addListener(ButtonName.BROWSE_SAVES_BUTTON.toString(), actionListener);
+    }
+
     /**
      * Sets up the listener for the Start Game button, creates a new game and switch to the game panel.
      */
     public void setupStartGameListener() {
         ActionListener actionListener = e -> {
-            GameFactory gameFactory = new GameFactory();
-            if (panel.getButton(ButtonName.STANDARD_GAME_BUTTON.toString()).isSelected()) {
-                gameFactory.createStandardGame();
-            }
-            else if (panel.getButton(ButtonName.CHAOS_GAME_BUTTON.toString()).isSelected()) {
-                gameFactory.createChaosGame();
+            boolean standard = panel.getButton(ButtonName.STANDARD_GAME_BUTTON.toString()).isSelected();
+            boolean chaos = panel.getButton(ButtonName.CHAOS_GAME_BUTTON.toString()).isSelected();
+
+            // In client mode, the game is played on the server once an opponent has been found
+            if (onlineGameStarter != null) {
+                onlineGameStarter.accept(chaos ? GameMode.CHAOS : GameMode.STANDARD);
+                return;
             }
 
-            Logger.getInstance().log("Game Start!");
-            Logger.getInstance().log("Turn 1");
-            Logger.getInstance().log(String.format("%s's Turn", Game.getInstance().getGameState().getCurrentPlayer().toString()));
+            // Create the game on the game thread, then show it once it exists
+            GameThread.getInstance().submit(() -> {
+                GameFactory gameFactory = new GameFactory();
+                if (standard) {
+                    gameFactory.createStandardGame();
+                }
+                else if (chaos) {
+                    gameFactory.createChaosGame();
+                }
+                if (timeControl != null) {
+                    Game.getInstance().startClock(timeControl, command -> GameThread.getInstance().submit(command));
+                }
 
-            switchPanel(PanelName.GAME.toString());
+                Logger.getInstance().log(LogEventType.GAME_START);
+                Logger.getInstance().log(LogEventType.TURN_NUMBER, 1);
+                Logger.getInstance().log(LogEventType.PLAYER_TURN, Game.getInstance().getGameState().getCurrentPlayer());
+            }).thenRun(() -> SwingUtilities.invokeLater(() -> switchPanel(PanelName.GAME.toString())));
         };
         panel.addListener(ButtonName.START_GAME_BUTTON.toString(), actionListener);
     }
@@ -100,4 +134,24 @@ public class MenuController extends Controller<MenuPanel> {
         };
         panel.addListener(ButtonName.QUIT_BUTTON.toString(), actionListener);
     }
-}
\ No newline at end of file
+
+    // Getters and Setters
+
+    /**
+     * Sets how matches are started on a match server, making Start Game join an online match.
+     *
+     * @param onlineGameStarter Starts a match of a game mode, or null to start games locally.
+     */
+    public void setOnlineGameStarter(Consumer<GameMode> onlineGameStarter) {
+        this.onlineGameStarter = onlineGameStarter;
+    }
+
+    /**
+     * Sets the time each player of a local game is given.
+     *
+     * @param timeControl The time control, or null to play untimed games.
+     */
+    public void setTimeControl(TimeControl timeControl) {
+        this.timeControl = timeControl;
+    }
+}
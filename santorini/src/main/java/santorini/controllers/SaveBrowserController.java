@@ -0,0 +1,120 @@
+package santorini.controllers;
+
+import santorini.frames.PanelManager;
+import santorini.panels.ButtonName;
+import santorini.panels.LabelName;
+import santorini.panels.PanelName;
+import santorini.panels.SaveBrowserPanel;
+import santorini.utils.SaveIndex;
+import santorini.utils.SaveManager;
+
+import javax.swing.*;
+import java.awt.event.ActionListener;
+import java.io.File;
+
+/**
+ * The SaveBrowserController manages interactions on the save browser screen.
+ * Lists the saves of a chosen directory through its save index and loads the selected save.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class SaveBrowserController extends Controller<SaveBrowserPanel> {
+
+    // Attributes
+
+    /**
+     * The directory whose saves are listed.
+     */
+    private File directory;
+
+    /**
+     * The index of the listed directory, kept so that later refreshes only read changed saves.
+     */
+    private SaveIndex saveIndex;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param panelManager The PanelManager to switch between game panels.
+     */
+    public SaveBrowserController(PanelManager panelManager) {
+        super(panelManager);
+        panel = new SaveBrowserPanel();
+        directory = new JFileChooser().getCurrentDirectory();
+    }
+
+    // Methods
+
+    /**
+     * Initializes the save browser UI, sets up its button listeners and lists the saves
+     * of the current directory.
+     */
+    @Override
+    public void initializePanelUI() {
+        panel.initializeUI();
+        setupChooseDirectoryListener();
+        setupLoadSelectedListener();
+        setupReturnMenuListener();
+        refreshSaves();
+    }
+
+    /**
+     * Sets up the listener for the Choose Folder button, which changes the listed directory.
+     */
+    public void setupChooseDirectoryListener() {
+        panel.removeListener(ButtonName.CHOOSE_DIRECTORY_BUTTON.toString());
+        ActionListener actionListener = e -> {
+            JFileChooser fileChooser = new JFileChooser(directory);
+            fileChooser.setDialogTitle("Choose Save Folder");
+            fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+
+            if (fileChooser.showOpenDialog(panel) == JFileChooser.APPROVE_OPTION) {
+                directory = fileChooser.getSelectedFile();
+                saveIndex = null;
+                refreshSaves();
+            }
+        };
+        panel.addListener(ButtonName.CHOOSE_DIRECTORY_BUTTON.toString(), actionListener);
+    }
+
+    /**
+     * Sets up the listener for the Load Save button, which loads the selected save and
+     * switches to the game panel.
+     */
+    public void setupLoadSelectedListener() {
+        panel.removeListener(ButtonName.LOAD_SELECTED_BUTTON.toString());
+        ActionListener actionListener = e -> {
+            SaveIndex.Entry entry = panel.getSelectedSave();
+            if (entry != null) {
+                File file = saveIndex.resolve(entry).toFile();
+                SaveManager.getInstance().loadGame(panel, file, () -> switchPanel(PanelName.GAME.toString()));
+            }
+        };
+        panel.addListener(ButtonName.LOAD_SELECTED_BUTTON.toString(), actionListener);
+    }
+
+    /**
+     * Sets up the listener for the return to menu button, navigates to the menu panel.
+     */
+    public void setupReturnMenuListener() {
+        panel.removeListener(ButtonName.RETURN_MENU_BUTTON.toString());
+        ActionListener actionListener = e -> {
+            switchPanel(PanelName.MENU.toString());
+        };
+        panel.addListener(ButtonName.RETURN_MENU_BUTTON.toString(), actionListener);
+    }
+
+    /**
+     * Refreshes the index of the current directory in the background and lists its saves.
+     */
+    private void refreshSaves() {
+        if (saveIndex == null) {
+            saveIndex = new SaveIndex(directory.toPath());
+        }
+        panel.setLabel(LabelName.SAVE_DIRECTORY_LABEL.toString(), directory.getAbsolutePath());
+        SaveManager.getInstance().refreshIndex(panel, saveIndex, panel::setSaves);
+    }
+}
@@ -1,10 +1,12 @@
 package santorini.controllers;
 
+import santorini.utils.LogEventType;
 import santorini.utils.Logger;
 import santorini.frames.PanelManager;
 import santorini.game.*;
 import santorini.panels.*;
 
+import javax.swing.*;
 import java.awt.event.ActionListener;
 
 /**
@@ -68,15 +70,16 @@ public class WinnerController extends Controller<WinnerPanel>{
      */
     public void setupRestartListener() {
         ActionListener actionListener = e -> {
-            GameFactory factory = new GameFactory();
-            factory.createStandardGame();
+            // Create the game on the game thread, then show it once it exists
+            GameThread.getInstance().submit(() -> {
+                GameFactory factory = new GameFactory();
+                factory.createStandardGame();
 
-            Logger.getInstance().clearLogs();
-            Logger.getInstance().log("Game Start!");
-            Logger.getInstance().log("Turn 1");
-            Logger.getInstance().log(String.format("%s's Turn", Game.getInstance().getGameState().getCurrentPlayer().toString()));
-
-            switchPanel(PanelName.GAME.toString());
+                Logger.getInstance().clearLogs();
+                Logger.getInstance().log(LogEventType.GAME_START);
+                Logger.getInstance().log(LogEventType.TURN_NUMBER, 1);
+                Logger.getInstance().log(LogEventType.PLAYER_TURN, Game.getInstance().getGameState().getCurrentPlayer());
+            }).thenRun(() -> SwingUtilities.invokeLater(() -> switchPanel(PanelName.GAME.toString())));
         };
         panel.addListener(ButtonName.RESTART_GAME_BUTTON.toString(), actionListener);
     }
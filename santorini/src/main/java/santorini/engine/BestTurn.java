@@ -0,0 +1,13 @@
+package santorini.engine;
+
+/**
+ * The turn an engine chose to play, with the last progress it reported.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param turn The chosen turn, in turn notation.
+ * @param info The last progress reported before the turn was chosen, or null if none was.
+ */
+public record BestTurn(String turn, EngineInfo info) {
+}
@@ -0,0 +1,320 @@
+package santorini.engine;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Drives an external engine process through its standard input and output with the
+ * engine protocol. Callers never wait on the pipes: commands are queued and written by a
+ * writer thread, which flushes once it has caught up, so several commands sent together
+ * reach the engine in one write, while a reader thread matches the answers to the
+ * commands that asked for them, in order. Searches can therefore be pipelined, the next
+ * position and go being sent before the previous answer has come back.
+ * Pipes to a process cannot be selected on in Java, so both threads are virtual threads,
+ * which cost no platform thread while they wait.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class EngineHost implements EnginePlayer, Closeable {
+
+    // Constants
+
+    /**
+     * How long the engine is given to exit after being told to quit, in milliseconds.
+     */
+    private static final long QUIT_TIMEOUT_MILLIS = 1000;
+
+    // Attributes
+
+    /**
+     * The engine process.
+     */
+    private final Process process;
+
+    /**
+     * The command lines waiting to be written to the engine.
+     */
+    private final BlockingQueue<String> outgoing;
+
+    /**
+     * The searches sent to the engine and not answered yet, in the order they were sent.
+     */
+    private final Queue<CompletableFuture<BestTurn>> searches;
+
+    /**
+     * The isready commands sent to the engine and not answered yet, in the order they were sent.
+     */
+    private final Queue<CompletableFuture<Void>> readyChecks;
+
+    /**
+     * Completed with the engine's name once it has introduced itself.
+     */
+    private final CompletableFuture<String> introduction;
+
+    /**
+     * Notified of every info line the engine writes.
+     */
+    private final Consumer<EngineInfo> infoListener;
+
+    /**
+     * The name the engine gave itself, or null until it has.
+     */
+    private volatile String name;
+
+    /**
+     * The last progress reported by the engine for the search it is running, only used on the reader thread.
+     */
+    private EngineInfo lastInfo;
+
+    /**
+     * Whether the host has been closed.
+     */
+    private volatile boolean closed;
+
+    // Constructor
+
+    /**
+     * Constructor. Starts the writer and reader threads and asks the engine to introduce itself.
+     *
+     * @param process The engine process.
+     * @param infoListener Notified of every info line the engine writes.
+     */
+    private EngineHost(Process process, Consumer<EngineInfo> infoListener) {
+        this.process = process;
+        this.outgoing = new LinkedBlockingQueue<>();
+        this.searches = new ConcurrentLinkedQueue<>();
+        this.readyChecks = new ConcurrentLinkedQueue<>();
+        this.introduction = new CompletableFuture<>();
+        this.infoListener = infoListener;
+        Thread.ofVirtual().name("engine-writer").start(this::writeCommands);
+        Thread.ofVirtual().name("engine-reader").start(this::readAnswers);
+        send(EngineProtocol.SEI);
+    }
+
+    // Methods
+
+    /**
+     * Starts an engine process.
+     *
+     * @param command The command line starting the engine.
+     * @param infoListener Notified of every info line the engine writes.
+     * @return The host driving the engine.
+     * @throws IOException If the process cannot be started.
+     */
+    public static EngineHost start(List<String> command, Consumer<EngineInfo> infoListener) throws IOException {
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        return new EngineHost(process, infoListener);
+    }
+
+    /**
+     * Waits for the engine to introduce itself.
+     *
+     * @return A future completed with the engine's name.
+     */
+    public CompletableFuture<String> introduction() {
+        return introduction;
+    }
+
+    /**
+     * Asks whether the engine is done with every command sent so far.
+     *
+     * @return A future completed once the engine has answered.
+     */
+    public CompletableFuture<Void> isReady() {
+        CompletableFuture<Void> readyCheck = new CompletableFuture<>();
+        synchronized (this) {
+            readyChecks.add(readyCheck);
+            send(EngineProtocol.IS_READY);
+        }
+        failIfClosed(readyCheck);
+        return readyCheck;
+    }
+
+    /**
+     * Tells the engine that the next position belongs to a new game.
+     */
+    public void newGame() {
+        send(EngineProtocol.NEW_GAME);
+    }
+
+    /**
+     * Sends a position and a search of it to the engine, without waiting for earlier searches to be answered.
+     *
+     * @param position The position.
+     * @param limits How long the engine may search for.
+     * @return A future completed with the engine's answer, or exceptionally if the engine exits first.
+     */
+    @Override
+    public CompletableFuture<BestTurn> search(EnginePosition position, SearchLimits limits) {
+        CompletableFuture<BestTurn> search = new CompletableFuture<>();
+        synchronized (this) {
+            searches.add(search);
+            send(position.toCommand());
+            send(EngineProtocol.formatGo(limits));
+        }
+        failIfClosed(search);
+        return search;
+    }
+
+    /**
+     * Asks the engine to answer its current search as soon as possible.
+     */
+    public void stop() {
+        send(EngineProtocol.STOP);
+    }
+
+    /**
+     * Tells the engine to quit, ending the process if it has not exited shortly after.
+     * Searches not answered yet fail.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        send(EngineProtocol.QUIT);
+        closed = true;
+        try {
+            if (!process.waitFor(QUIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues a command line for the writer thread.
+     *
+     * @param line The command line.
+     */
+    private void send(String line) {
+        if (!closed) {
+            outgoing.add(line);
+        }
+    }
+
+    /**
+     * Fails a future of an answer if the engine is already gone, as it would never be completed.
+     *
+     * @param answer The future of the answer.
+     */
+    private void failIfClosed(CompletableFuture<?> answer) {
+        if (closed || !process.isAlive()) {
+            answer.completeExceptionally(new IOException("The engine has exited"));
+        }
+    }
+
+    /**
+     * Runs on the writer thread, writing queued commands until the engine is told to quit.
+     */
+    private void writeCommands() {
+        try (Writer writer = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8)) {
+            while (true) {
+                String line = outgoing.take();
+                writer.write(line);
+                writer.write('\n');
+                if (line.equals(EngineProtocol.QUIT)) {
+                    return;
+                }
+
+                // Flush once every queued command has been written
+                if (outgoing.isEmpty()) {
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            // The engine has exited, which the reader thread reports
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs on the reader thread, matching the engine's answers to the commands that asked for them until it exits.
+     */
+    private void readAnswers() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                handleAnswer(line.trim());
+            }
+        } catch (IOException e) {
+            // The engine has exited
+        } finally {
+            closed = true;
+            IOException exited = new IOException("The engine has exited");
+            introduction.completeExceptionally(exited);
+            CompletableFuture<?> answer;
+            while ((answer = searches.poll()) != null) {
+                answer.completeExceptionally(exited);
+            }
+            while ((answer = readyChecks.poll()) != null) {
+                answer.completeExceptionally(exited);
+            }
+        }
+    }
+
+    /**
+     * Handles a line written by the engine.
+     *
+     * @param line The line.
+     */
+    private void handleAnswer(String line) {
+        if (line.startsWith(EngineProtocol.ID_NAME + " ")) {
+            name = line.substring(EngineProtocol.ID_NAME.length() + 1).trim();
+        }
+        else if (line.equals(EngineProtocol.SEI_OK)) {
+            introduction.complete(getName());
+        }
+        else if (line.equals(EngineProtocol.READY_OK)) {
+            CompletableFuture<Void> readyCheck = readyChecks.poll();
+            if (readyCheck != null) {
+                readyCheck.complete(null);
+            }
+        }
+        else if (line.startsWith(EngineProtocol.INFO + " ")) {
+            try {
+                lastInfo = EngineProtocol.parseInfo(line);
+                infoListener.accept(lastInfo);
+            } catch (IllegalArgumentException e) {
+                // Progress the host cannot read is not worth failing the search over
+            }
+        }
+        else if (line.startsWith(EngineProtocol.BEST_TURN + " ")) {
+            CompletableFuture<BestTurn> search = searches.poll();
+            if (search != null) {
+                search.complete(new BestTurn(line.substring(EngineProtocol.BEST_TURN.length() + 1).trim(), lastInfo));
+            }
+            lastInfo = null;
+        }
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the name the engine gave itself.
+     *
+     * @return The name of the engine, or engine if it has not introduced itself yet.
+     */
+    @Override
+    public String getName() {
+        String current = name;
+        return current != null ? current : "engine";
+    }
+}
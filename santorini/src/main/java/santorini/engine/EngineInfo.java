@@ -0,0 +1,15 @@
+package santorini.engine;
+
+/**
+ * The progress of an engine's search, streamed in info lines while it searches.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param depth The number of turns searched ahead.
+ * @param nodes The number of positions evaluated so far.
+ * @param score The score of the best turn so far, in hundredths of a floor, from the side to move.
+ * @param turn The best turn so far, in turn notation.
+ */
+public record EngineInfo(int depth, long nodes, int score, String turn) {
+}
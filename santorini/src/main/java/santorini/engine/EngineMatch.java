@@ -0,0 +1,106 @@
+package santorini.engine;
+
+import santorini.game.GameMode;
+import santorini.game.GameState;
+import santorini.game.TurnDriver;
+import santorini.lobby.MatchOutcome;
+import santorini.lobby.MatchResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Plays engines against each other, built-in or external, as fast as they answer. The host
+ * keeps its own game and plays each turn the engines choose on it, so an engine that answers
+ * with a turn that cannot be played, or that exits, forfeits the match.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public final class EngineMatch {
+
+    // Constants
+
+    /**
+     * The number of turns after which a match is cancelled, as a game of chaos mode can go on for long.
+     */
+    public static final int MAXIMUM_TURNS = 500;
+
+    // Constructor
+
+    /**
+     * Constructor. The match only has static methods.
+     */
+    private EngineMatch() {
+    }
+
+    // Methods
+
+    /**
+     * Plays a match between engines.
+     *
+     * @param engines The engines, by seat.
+     * @param mode The game mode of the match.
+     * @param seed The seed the game is created from.
+     * @param limits How long each engine may search for each turn.
+     * @return The result of the match, whose identifier is 0 as the match is not scheduled by a lobby.
+     */
+    public static MatchResult play(List<? extends EnginePlayer> engines, GameMode mode, long seed, SearchLimits limits) {
+        List<String> names = new ArrayList<>();
+        for (EnginePlayer engine : engines) {
+            names.add(engine.getName());
+        }
+
+        EnginePosition position = EnginePosition.start(mode, seed);
+        TurnDriver turnDriver = position.replay();
+        GameState gameState = turnDriver.getGame().getGameState();
+        for (int turns = 0; turns < MAXIMUM_TURNS; turns++) {
+            if (gameState.getWinner() != null) {
+                return new MatchResult(0, mode, names, gameState.getPlayers().indexOf(gameState.getWinner()), MatchOutcome.WON, turns);
+            }
+
+            int seat = gameState.getCurrentPlayerIndex();
+            String turn = chooseTurn(engines.get(seat), position, limits);
+            if (turn == null || !playTurn(turnDriver, turn)) {
+                return new MatchResult(0, mode, names, (seat + 1) % engines.size(), MatchOutcome.FORFEITED, turns);
+            }
+            position = position.after(turn);
+        }
+        return new MatchResult(0, mode, names, -1, MatchOutcome.CANCELLED, MAXIMUM_TURNS);
+    }
+
+    /**
+     * Asks an engine for its turn.
+     *
+     * @param engine The engine.
+     * @param position The position, whose side to move is the engine's.
+     * @param limits How long the engine may search for.
+     * @return The chosen turn, or null if the engine failed to answer.
+     */
+    private static String chooseTurn(EnginePlayer engine, EnginePosition position, SearchLimits limits) {
+        try {
+            return engine.search(position, limits).join().turn();
+        } catch (CompletionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Plays a turn chosen by an engine on the host's game.
+     *
+     * @param turnDriver The driver of the host's game.
+     * @param turn The turn, in turn notation.
+     * @return True if the whole turn was played and ended the turn, false otherwise.
+     */
+    private static boolean playTurn(TurnDriver turnDriver, String turn) {
+        GameState gameState = turnDriver.getGame().getGameState();
+        int turnNumber = gameState.getTurnNumber();
+        try {
+            return EngineProtocol.playTurn(turnDriver, turn)
+                && (gameState.getTurnNumber() != turnNumber || gameState.getWinner() != null);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
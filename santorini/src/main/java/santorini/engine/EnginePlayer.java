@@ -0,0 +1,29 @@
+package santorini.engine;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A player whose turns are chosen by an engine, either the built-in one or an external
+ * process speaking the engine protocol.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public interface EnginePlayer {
+
+    /**
+     * Gets the name the engine gave itself.
+     *
+     * @return The name of the engine.
+     */
+    String getName();
+
+    /**
+     * Asks the engine for the turn to play in a position.
+     *
+     * @param position The position, whose side to move is the engine's.
+     * @param limits How long the engine may search for.
+     * @return A future completed with the chosen turn.
+     */
+    CompletableFuture<BestTurn> search(EnginePosition position, SearchLimits limits);
+}
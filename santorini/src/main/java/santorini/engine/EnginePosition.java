@@ -0,0 +1,163 @@
+package santorini.engine;
+
+import santorini.game.GameFactory;
+import santorini.game.Game;
+import santorini.game.GameMode;
+import santorini.game.PositionNotation;
+import santorini.game.TurnDriver;
+import santorini.game.modifier.ChaosModifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A position sent to an engine: the game of a mode created from a seed, or a position written
+ * in position notation, after some turns. As games are created the same way from the same
+ * seed, and chaos effects are drawn from it too, the engine rebuilds exactly the host's game
+ * by replaying the turns.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param mode The game mode.
+ * @param seed The seed the game is created from, or that draws the chaos effects after a written position.
+ * @param notation The written starting position, or null for the starting position of the game of the seed.
+ * @param turns The turns played so far, in turn notation.
+ */
+public record EnginePosition(GameMode mode, long seed, String notation, List<String> turns) {
+
+    // Constructor
+
+    /**
+     * Constructor, copying the turns so later changes to them are not seen.
+     */
+    public EnginePosition {
+        turns = List.copyOf(turns);
+    }
+
+    /**
+     * Constructor, for the game of a mode created from a seed.
+     *
+     * @param mode The game mode.
+     * @param seed The seed the game is created from.
+     * @param turns The turns played so far, in turn notation.
+     */
+    public EnginePosition(GameMode mode, long seed, List<String> turns) {
+        this(mode, seed, null, turns);
+    }
+
+    // Methods
+
+    /**
+     * Creates the starting position of a game.
+     *
+     * @param mode The game mode.
+     * @param seed The seed the game is created from.
+     * @return The position before the first turn.
+     */
+    public static EnginePosition start(GameMode mode, long seed) {
+        return new EnginePosition(mode, seed, List.of());
+    }
+
+    /**
+     * Creates a position written in position notation.
+     *
+     * @param notation The written position.
+     * @param seed The seed drawing the chaos effects after the position.
+     * @return The position.
+     * @throws IllegalArgumentException If the notation is not a valid position.
+     */
+    public static EnginePosition of(String notation, long seed) {
+        boolean chaos = PositionNotation.toGame(notation, new Random(seed)).getModifier() instanceof ChaosModifier;
+        return new EnginePosition(chaos ? GameMode.CHAOS : GameMode.STANDARD, seed, notation, List.of());
+    }
+
+    /**
+     * Creates the position after one more turn.
+     *
+     * @param turn The turn, in turn notation.
+     * @return The new position.
+     */
+    public EnginePosition after(String turn) {
+        List<String> next = new ArrayList<>(turns);
+        next.add(turn);
+        return new EnginePosition(mode, seed, notation, next);
+    }
+
+    /**
+     * Rebuilds the game of the position.
+     *
+     * @return The driver of the game, ready for the side to move.
+     * @throws IllegalArgumentException If one of the turns cannot be played.
+     */
+    public TurnDriver replay() {
+        Game game = notation == null
+            ? new GameFactory(seed).createGame(mode)
+            : PositionNotation.toGame(notation, new Random(seed));
+        TurnDriver turnDriver = new TurnDriver(game);
+        for (String turn : turns) {
+            if (!EngineProtocol.playTurn(turnDriver, turn)) {
+                throw new IllegalArgumentException("Illegal turn " + turn);
+            }
+        }
+        return turnDriver;
+    }
+
+    /**
+     * Writes the position command setting up the position.
+     *
+     * @return The command line.
+     */
+    public String toCommand() {
+        StringBuilder builder = new StringBuilder(EngineProtocol.POSITION).append(' ');
+        if (notation == null) {
+            builder.append(EngineProtocol.formatMode(mode)).append(' ').append(seed);
+        }
+        else {
+            builder.append(EngineProtocol.NOTATION).append(' ').append(notation)
+                .append(' ').append(EngineProtocol.SEED).append(' ').append(seed);
+        }
+        if (!turns.isEmpty()) {
+            builder.append(' ').append(EngineProtocol.TURNS);
+            for (String turn : turns) {
+                builder.append(' ').append(turn);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Reads a position command.
+     *
+     * @param line The command line.
+     * @return The position.
+     * @throws IllegalArgumentException If the line is not a position command.
+     */
+    public static EnginePosition parse(String line) {
+        String[] words = line.trim().split("\\s+");
+        boolean written = words.length > 1 && words[1].equals(EngineProtocol.NOTATION);
+
+        // A written position is followed by its seed, the other fields of the command being the same
+        int turnsIndex = written ? 2 + PositionNotation.FIELD_COUNT + 2 : 3;
+        if (words.length < turnsIndex || !words[0].equals(EngineProtocol.POSITION)
+            || written && !words[turnsIndex - 2].equals(EngineProtocol.SEED)
+            || words.length > turnsIndex && !words[turnsIndex].equals(EngineProtocol.TURNS)) {
+            throw new IllegalArgumentException("Invalid position command " + line);
+        }
+        try {
+            List<String> turns = new ArrayList<>();
+            for (int i = turnsIndex + 1; i < words.length; i++) {
+                turns.add(words[i]);
+            }
+            long seed = Long.parseLong(words[turnsIndex - 1]);
+            if (written) {
+                String notation = String.join(" ", List.of(words).subList(2, 2 + PositionNotation.FIELD_COUNT));
+                return new EnginePosition(of(notation, seed).mode(), seed, notation, turns);
+            }
+            return new EnginePosition(EngineProtocol.parseMode(words[1]), seed, turns);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid position command " + line, e);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package santorini.engine;
+
+import santorini.game.GameMode;
+import santorini.game.Position;
+import santorini.game.TurnDriver;
+
+import java.util.Locale;
+
+/**
+ * The text line protocol spoken between a host and an engine over the engine's standard
+ * input and output, in the manner of the chess engine protocols. The host sends:
+ *
+ * <pre>
+ * sei                                     introduce yourself, answered by id lines and seiok
+ * isready                                 answered by readyok once earlier commands are done
+ * newgame                                 the next position belongs to a new game
+ * position &lt;mode&gt; &lt;seed&gt; [turns &lt;turn&gt;...] set up the game of a mode and seed after some turns
+ * position notation &lt;position&gt; seed &lt;seed&gt; [turns &lt;turn&gt;...]
+ *                                         or a position written in position notation, whose
+ *                                         chaos effects are drawn from the seed
+ * go [movetime &lt;ms&gt;] [nodes &lt;n&gt;]           search the position, answered by bestturn
+ * stop                                    answer the current search as soon as possible
+ * quit                                    exit
+ * </pre>
+ *
+ * and the engine answers with:
+ *
+ * <pre>
+ * id name &lt;name&gt;
+ * seiok
+ * readyok
+ * info depth &lt;d&gt; nodes &lt;n&gt; score &lt;s&gt; pv &lt;turn&gt;
+ * bestturn &lt;turn&gt;                         or bestturn (none) if there is no turn to play
+ * </pre>
+ *
+ * Unknown commands are ignored, so that hosts and engines can be extended separately.
+ * Commands are answered in the order they are sent, so a host can send several positions
+ * and searches without waiting. A turn is written as its inputs separated by colons, each
+ * input being either a picked cell, written as its column letter and row number such as
+ * c3, or a dash for ending a phase early, so a turn could be c3:c4:-:d4.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public final class EngineProtocol {
+
+    // Constants
+
+    /**
+     * The command asking the engine to introduce itself.
+     */
+    public static final String SEI = "sei";
+
+    /**
+     * The answer ending the engine's introduction.
+     */
+    public static final String SEI_OK = "seiok";
+
+    /**
+     * The command asking whether the engine is done with earlier commands.
+     */
+    public static final String IS_READY = "isready";
+
+    /**
+     * The answer to isready.
+     */
+    public static final String READY_OK = "readyok";
+
+    /**
+     * The command telling that the next position belongs to a new game.
+     */
+    public static final String NEW_GAME = "newgame";
+
+    /**
+     * The command setting up a position.
+     */
+    public static final String POSITION = "position";
+
+    /**
+     * The word before the turns played in a position.
+     */
+    public static final String TURNS = "turns";
+
+    /**
+     * The word before a position written in position notation.
+     */
+    public static final String NOTATION = "notation";
+
+    /**
+     * The word before the seed of a written position.
+     */
+    public static final String SEED = "seed";
+
+    /**
+     * The command starting a search.
+     */
+    public static final String GO = "go";
+
+    /**
+     * The limit on the search time, in milliseconds.
+     */
+    public static final String MOVE_TIME = "movetime";
+
+    /**
+     * The limit on the number of positions evaluated.
+     */
+    public static final String NODES = "nodes";
+
+    /**
+     * The command ending the current search early.
+     */
+    public static final String STOP = "stop";
+
+    /**
+     * The command asking the engine to exit.
+     */
+    public static final String QUIT = "quit";
+
+    /**
+     * The start of the line giving the engine's name.
+     */
+    public static final String ID_NAME = "id name";
+
+    /**
+     * The start of a line reporting the progress of a search.
+     */
+    public static final String INFO = "info";
+
+    /**
+     * The start of the line answering a search.
+     */
+    public static final String BEST_TURN = "bestturn";
+
+    /**
+     * The turn answered when the engine has no turn to play.
+     */
+    public static final String NO_TURN = "(none)";
+
+    /**
+     * The separator of the inputs of a turn.
+     */
+    public static final char INPUT_SEPARATOR = ':';
+
+    /**
+     * The input ending the current phase early.
+     */
+    public static final String END_PHASE = "-";
+
+    // Constructor
+
+    /**
+     * Constructor. The protocol only has static methods.
+     */
+    private EngineProtocol() {
+    }
+
+    // Methods
+
+    /**
+     * Writes a cell as its column letter and row number.
+     *
+     * @param position The cell.
+     * @return The written cell, such as c3.
+     */
+    public static String formatCell(Position position) {
+        return (char) ('a' + position.x()) + Integer.toString(position.y() + 1);
+    }
+
+    /**
+     * Reads a cell written as its column letter and row number.
+     *
+     * @param text The written cell.
+     * @return The cell.
+     * @throws IllegalArgumentException If the text is not a cell.
+     */
+    public static Position parseCell(String text) {
+        if (text.length() < 2 || text.charAt(0) < 'a' || text.charAt(0) > 'z') {
+            throw new IllegalArgumentException("Invalid cell " + text);
+        }
+        try {
+            return new Position(text.charAt(0) - 'a', Integer.parseInt(text.substring(1)) - 1);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cell " + text, e);
+        }
+    }
+
+    /**
+     * Plays a written input on a game.
+     *
+     * @param turnDriver The driver of the game.
+     * @param input The written input, a cell or a dash.
+     * @return True if the input was played, false if it is not allowed in the current step of the turn.
+     * @throws IllegalArgumentException If the input is not a cell or a dash.
+     */
+    public static boolean playInput(TurnDriver turnDriver, String input) {
+        if (input.equals(END_PHASE)) {
+            return turnDriver.endPhase();
+        }
+        return turnDriver.pick(parseCell(input));
+    }
+
+    /**
+     * Plays a written turn on a game, input by input.
+     *
+     * @param turnDriver The driver of the game.
+     * @param turn The written turn.
+     * @return True if every input was played, false if one was not allowed.
+     * @throws IllegalArgumentException If an input is not a cell or a dash.
+     */
+    public static boolean playTurn(TurnDriver turnDriver, String turn) {
+        int start = 0;
+        while (start <= turn.length()) {
+            int end = turn.indexOf(INPUT_SEPARATOR, start);
+            if (end < 0) {
+                end = turn.length();
+            }
+            if (!playInput(turnDriver, turn.substring(start, end))) {
+                return false;
+            }
+            start = end + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Writes the name of a game mode.
+     *
+     * @param mode The game mode.
+     * @return The written game mode, such as standard.
+     */
+    public static String formatMode(GameMode mode) {
+        return mode.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Reads the name of a game mode.
+     *
+     * @param text The written game mode.
+     * @return The game mode.
+     * @throws IllegalArgumentException If the text is not a game mode.
+     */
+    public static GameMode parseMode(String text) {
+        return GameMode.valueOf(text.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Writes a go command.
+     *
+     * @param limits How long the engine may search for.
+     * @return The command line.
+     */
+    public static String formatGo(SearchLimits limits) {
+        StringBuilder builder = new StringBuilder(GO);
+        if (limits.moveTimeMillis() > 0) {
+            builder.append(' ').append(MOVE_TIME).append(' ').append(limits.moveTimeMillis());
+        }
+        if (limits.nodes() > 0) {
+            builder.append(' ').append(NODES).append(' ').append(limits.nodes());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Reads a go command.
+     *
+     * @param line The command line.
+     * @return The search limits, with no limit for those left out.
+     * @throws IllegalArgumentException If the line is not a go command.
+     */
+    public static SearchLimits parseGo(String line) {
+        String[] words = line.trim().split("\\s+");
+        long moveTime = 0;
+        long nodes = 0;
+        try {
+            for (int i = 1; i + 1 < words.length; i += 2) {
+                switch (words[i]) {
+                    case MOVE_TIME -> moveTime = Long.parseLong(words[i + 1]);
+                    case NODES -> nodes = Long.parseLong(words[i + 1]);
+                    default -> throw new IllegalArgumentException("Unknown search limit " + words[i]);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid go command " + line, e);
+        }
+        return new SearchLimits(moveTime, nodes);
+    }
+
+    /**
+     * Writes an info line.
+     *
+     * @param info The progress of the search.
+     * @return The info line.
+     */
+    public static String formatInfo(EngineInfo info) {
+        return INFO + " depth " + info.depth() + " nodes " + info.nodes() + " score " + info.score() + " pv " + info.turn();
+    }
+
+    /**
+     * Reads an info line. Unknown fields are skipped, so engines may report more than the host reads.
+     *
+     * @param line The info line.
+     * @return The progress of the search.
+     * @throws IllegalArgumentException If a known field has an invalid value.
+     */
+    public static EngineInfo parseInfo(String line) {
+        String[] words = line.trim().split("\\s+");
+        int depth = 0;
+        long nodes = 0;
+        int score = 0;
+        String turn = "";
+        try {
+            for (int i = 1; i + 1 < words.length; i += 2) {
+                switch (words[i]) {
+                    case "depth" -> depth = Integer.parseInt(words[i + 1]);
+                    case "nodes" -> nodes = Long.parseLong(words[i + 1]);
+                    case "score" -> score = Integer.parseInt(words[i + 1]);
+                    case "pv" -> turn = words[i + 1];
+                    default -> {
+                        // Skip fields the host does not read
+                    }
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid info line " + line, e);
+        }
+        return new EngineInfo(depth, nodes, score, turn);
+    }
+}
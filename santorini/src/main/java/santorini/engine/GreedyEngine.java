@@ -0,0 +1,391 @@
+package santorini.engine;
+
+import santorini.board.Board;
+import santorini.board.MovementValidator;
+import santorini.game.Game;
+import santorini.game.GameState;
+import santorini.game.Position;
+import santorini.game.PositionNotation;
+import santorini.game.TurnCodec;
+import santorini.game.TurnDriver;
+import santorini.game.TurnExecutor;
+import santorini.game.TurnStep;
+import santorini.players.Player;
+import santorini.players.Worker;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * The built-in engine. It tries every complete turn of the side to move, input by input,
+ * and plays the one leaving the best position: winning outright, otherwise standing high
+ * with room to move, and never leaving the opponent a worker one step from the top.
+ * The engine can be played in-process, or run over standard input and output with
+ * App --engine, as an external engine would be.
+ * Like the matches hosted by the server, the games the engine replays log to the shared
+ * logger, so it should be turned off while the engine runs.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class GreedyEngine implements EnginePlayer {
+
+    // Constants
+
+    /**
+     * The name the engine gives itself.
+     */
+    public static final String NAME = "Santorini Greedy";
+
+    /**
+     * The score of a won position.
+     */
+    public static final int WIN_SCORE = 10_000;
+
+    /**
+     * The score of each floor a worker stands on.
+     */
+    private static final int FLOOR_SCORE = 100;
+
+    /**
+     * The score of each cell a worker can move to.
+     */
+    private static final int MOBILITY_SCORE = 5;
+
+    /**
+     * The score of a worker that can climb to the top on its next turn.
+     */
+    private static final int THREAT_SCORE = 1_000;
+
+    // Attributes
+
+    /**
+     * Whether the host asked to end the current search, when run over standard input and output.
+     */
+    private volatile boolean stopRequested;
+
+    // Methods
+
+    /**
+     * Gets the name the engine gives itself.
+     *
+     * @return The name of the engine.
+     */
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Chooses the turn to play in a position, searching on the calling thread.
+     *
+     * @param position The position.
+     * @param limits How long the engine may search for.
+     * @return A completed future holding the chosen turn.
+     */
+    @Override
+    public CompletableFuture<BestTurn> search(EnginePosition position, SearchLimits limits) {
+        return CompletableFuture.completedFuture(choose(position, limits, info -> { }));
+    }
+
+    /**
+     * Chooses the turn to play in a position. The turns of the side to move are found by
+     * playing inputs through the rules on copies of the position made from its notation, so
+     * the search never changes a game it does not own. Each complete turn is kept encoded in
+     * a long, and scored by playing it on the board of the position and taking it back.
+     *
+     * @param position The position.
+     * @param limits How long the engine may search for. At least one turn is always tried.
+     * @param infoSink Notified of the progress each time a better turn is found.
+     * @return The chosen turn, or a turn of NO_TURN if the side to move has no turn to play.
+     */
+    public BestTurn choose(EnginePosition position, SearchLimits limits, Consumer<EngineInfo> infoSink) {
+        long deadline = limits.moveTimeMillis() > 0 ? System.nanoTime() + limits.moveTimeMillis() * 1_000_000 : Long.MAX_VALUE;
+        Game root = position.replay().getGame();
+        GameState rootState = root.getGameState();
+        String snapshot = PositionNotation.write(root);
+        TurnExecutor executor = new TurnExecutor(rootState);
+        int side = rootState.getCurrentPlayerIndex();
+        int turnNumber = rootState.getTurnNumber();
+
+        // Walk the tree of inputs depth first, each prefix of inputs alongside the turn it encodes
+        Deque<List<String>> prefixes = new ArrayDeque<>();
+        Deque<Long> prefixTurns = new ArrayDeque<>();
+        prefixes.push(List.of());
+        prefixTurns.push(TurnCodec.NONE);
+        EngineInfo best = null;
+        long nodes = 0;
+        while (!prefixes.isEmpty()) {
+            if (best != null && (stopRequested || System.nanoTime() > deadline || limits.nodes() > 0 && nodes >= limits.nodes())) {
+                break;
+            }
+            List<String> prefix = prefixes.pop();
+            long prefixTurn = prefixTurns.pop();
+            TurnDriver turnDriver = replay(snapshot, prefix);
+            GameState gameState = turnDriver.getGame().getGameState();
+
+            // Score a complete turn, keeping a turn lost on the spot, such as by selecting a stuck worker
+            if (isTurnOver(turnDriver, turnNumber)) {
+                nodes++;
+                int score = gameState.getWinner() != null ? evaluate(gameState, side) : score(executor, rootState, prefixTurn, side);
+                best = keepBetter(best, nodes, score, prefix, infoSink);
+                continue;
+            }
+
+            // A build that ends the turn does so wherever it is made, so those turns are scored without replaying them
+            Board board = gameState.getBoard();
+            TurnStep step = turnDriver.getStep();
+            BitSet targets = turnDriver.getTargets();
+            boolean lastBuild = step == TurnStep.BUILD && !targets.isEmpty()
+                && isTurnOver(replay(snapshot, extend(prefix, EngineProtocol.formatCell(board.getPosition(targets.nextSetBit(0))))), turnNumber);
+            if (turnDriver.canEndPhase()) {
+                prefixes.push(extend(prefix, EngineProtocol.END_PHASE));
+                prefixTurns.push(prefixTurn);
+            }
+            for (int index = targets.nextSetBit(0); index >= 0; index = targets.nextSetBit(index + 1)) {
+                List<String> inputs = extend(prefix, EngineProtocol.formatCell(board.getPosition(index)));
+                long turn = switch (step) {
+                    case SELECT_WORKER -> TurnCodec.of(TurnCodec.idOf(gameState, board.getWorkerAt(board.getPosition(index))));
+                    case MOVE -> TurnCodec.hasRoomForMove(prefixTurn) ? TurnCodec.withMove(prefixTurn, index) : TurnCodec.NONE;
+                    case BUILD -> TurnCodec.hasRoomForBuild(prefixTurn) ? TurnCodec.withBuild(prefixTurn, index) : TurnCodec.NONE;
+                    case NONE -> TurnCodec.NONE;
+                };
+                if (turn == TurnCodec.NONE) {
+                    // Turns too long to encode, which only Triton can make, are not searched
+                    continue;
+                }
+                if (lastBuild) {
+                    nodes++;
+                    best = keepBetter(best, nodes, score(executor, rootState, turn, side), inputs, infoSink);
+                }
+                else {
+                    prefixes.push(inputs);
+                    prefixTurns.push(turn);
+                }
+            }
+        }
+        return best == null ? new BestTurn(EngineProtocol.NO_TURN, null) : new BestTurn(best.turn(), best);
+    }
+
+    /**
+     * Runs the engine over a pair of streams until told to quit or the input ends. Commands
+     * are read on a thread of their own, so a stop command reaches a running search, and
+     * are answered in order, so a host can send several searches without waiting.
+     *
+     * @param in The commands sent by the host.
+     * @param out The answers to the host.
+     */
+    public void run(BufferedReader in, PrintStream out) {
+        BlockingQueue<String> commands = new LinkedBlockingQueue<>();
+        Thread.ofVirtual().name("engine-reader").start(() -> {
+            try {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.trim().equals(EngineProtocol.STOP)) {
+                        stopRequested = true;
+                    }
+                    commands.add(line);
+                }
+            } catch (IOException e) {
+                // The host has gone, which ends the engine like a quit
+            }
+            commands.add(EngineProtocol.QUIT);
+        });
+
+        EnginePosition position = null;
+        try {
+            while (true) {
+                String line = commands.take().trim();
+                String command = line.split("\\s+", 2)[0];
+                switch (command) {
+                    case EngineProtocol.SEI -> {
+                        out.println(EngineProtocol.ID_NAME + " " + NAME);
+                        out.println(EngineProtocol.SEI_OK);
+                    }
+                    case EngineProtocol.IS_READY -> out.println(EngineProtocol.READY_OK);
+                    case EngineProtocol.NEW_GAME -> position = null;
+                    case EngineProtocol.POSITION -> position = parsePosition(line);
+                    case EngineProtocol.GO -> {
+                        BestTurn bestTurn = go(position, line, out);
+                        out.println(EngineProtocol.BEST_TURN + " " + bestTurn.turn());
+                    }
+                    // A stop only ends the search it arrived during, which is over once it is read here
+                    case EngineProtocol.STOP -> stopRequested = false;
+                    case EngineProtocol.QUIT -> {
+                        out.flush();
+                        return;
+                    }
+                    default -> {
+                        // Unknown commands are ignored
+                    }
+                }
+                out.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reads a position command, forgetting the position if it cannot be set up.
+     *
+     * @param line The command line.
+     * @return The position, or null if the command is invalid.
+     */
+    private static EnginePosition parsePosition(String line) {
+        try {
+            EnginePosition position = EnginePosition.parse(line);
+            position.replay();
+            return position;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Answers a go command, writing info lines as the search progresses.
+     *
+     * @param position The position to search, or null if none has been set up.
+     * @param line The command line.
+     * @param out The answers to the host.
+     * @return The chosen turn.
+     */
+    private BestTurn go(EnginePosition position, String line, PrintStream out) {
+        if (position == null) {
+            return new BestTurn(EngineProtocol.NO_TURN, null);
+        }
+        try {
+            return choose(position, EngineProtocol.parseGo(line), info -> out.println(EngineProtocol.formatInfo(info)));
+        } catch (IllegalArgumentException e) {
+            return new BestTurn(EngineProtocol.NO_TURN, null);
+        }
+    }
+
+    /**
+     * Rebuilds a position from its notation and plays some inputs of the turn of the side to move on it.
+     *
+     * @param snapshot The notation of the position.
+     * @param inputs The inputs, which were allowed when they were found.
+     * @return The driver of the game after the inputs.
+     */
+    private static TurnDriver replay(String snapshot, List<String> inputs) {
+        // The chaos of the copy never runs before the turn is over, so its randomness does not matter
+        TurnDriver turnDriver = new TurnDriver(PositionNotation.toGame(snapshot, new Random(0)));
+        for (String input : inputs) {
+            EngineProtocol.playInput(turnDriver, input);
+        }
+        return turnDriver;
+    }
+
+    /**
+     * Adds an input to a prefix of inputs.
+     *
+     * @param prefix The prefix.
+     * @param input The input.
+     * @return A new list of the inputs of the prefix followed by the input.
+     */
+    private static List<String> extend(List<String> prefix, String input) {
+        List<String> inputs = new ArrayList<>(prefix.size() + 1);
+        inputs.addAll(prefix);
+        inputs.add(input);
+        return inputs;
+    }
+
+    /**
+     * Scores a complete turn by playing it on the board of the position and taking it back.
+     *
+     * @param executor The executor playing turns on the board of the position.
+     * @param rootState The state of the position.
+     * @param turn The turn.
+     * @param side The index of the player who plays the turn.
+     * @return The score of the position after the turn.
+     */
+    private static int score(TurnExecutor executor, GameState rootState, long turn, int side) {
+        boolean won = executor.apply(turn);
+        int score = won ? WIN_SCORE : evaluate(rootState, side);
+        executor.revert(turn);
+        return score;
+    }
+
+    /**
+     * Keeps the better of the best turn so far and a newly scored one, telling the info sink of an improvement.
+     *
+     * @param best The best turn so far, or null if none has been scored.
+     * @param nodes The number of turns scored, including the new one.
+     * @param score The score of the new turn.
+     * @param inputs The inputs of the new turn.
+     * @param infoSink Notified of the progress each time a better turn is found.
+     * @return The better turn.
+     */
+    private static EngineInfo keepBetter(EngineInfo best, long nodes, int score, List<String> inputs, Consumer<EngineInfo> infoSink) {
+        if (best != null && score <= best.score()) {
+            return best;
+        }
+        EngineInfo info = new EngineInfo(1, nodes, score, String.join(String.valueOf(EngineProtocol.INPUT_SEPARATOR), inputs));
+        infoSink.accept(info);
+        return info;
+    }
+
+    /**
+     * Checks whether the turn being searched is over, because it passed to the next player,
+     * the game was won, or no input is left.
+     *
+     * @param turnDriver The driver of the game.
+     * @param turnNumber The turn number of the turn being searched.
+     * @return True if the turn is over, false otherwise.
+     */
+    private static boolean isTurnOver(TurnDriver turnDriver, int turnNumber) {
+        GameState gameState = turnDriver.getGame().getGameState();
+        return gameState.getTurnNumber() != turnNumber || gameState.getWinner() != null
+            || turnDriver.getStep() == TurnStep.NONE;
+    }
+
+    /**
+     * Scores a position after a turn from the side that played it.
+     *
+     * @param gameState The state of the game after the turn.
+     * @param side The index of the player who played the turn.
+     * @return The score, higher being better for the side.
+     */
+    static int evaluate(GameState gameState, int side) {
+        Player player = gameState.getPlayer(side);
+        if (gameState.getWinner() != null) {
+            return gameState.getWinner() == player ? WIN_SCORE : -WIN_SCORE;
+        }
+
+        Board board = gameState.getBoard();
+        MovementValidator validator = new MovementValidator(board);
+        int score = 0;
+        for (int index = 0; index < gameState.getPlayers().size(); index++) {
+            int sign = index == side ? 1 : -1;
+            int playerMoves = 0;
+            for (Worker worker : gameState.getPlayer(index).getWorkers()) {
+                int height = board.getHeightOf(worker);
+                List<Position> moves = validator.getMoveablePositions(board.getPositionOf(worker));
+                playerMoves += moves.size();
+                score += sign * (height * FLOOR_SCORE + moves.size() * MOBILITY_SCORE);
+                if (height == 2 && moves.stream().anyMatch(move -> board.getTower(move).getHeight() == 3)) {
+                    // The opponent moves next, so their threat is as good as a win
+                    score += index == side ? THREAT_SCORE : -WIN_SCORE / 2;
+                }
+            }
+
+            // A player left with no move loses, as the game would find once the turn is over
+            if (playerMoves == 0) {
+                return -sign * WIN_SCORE;
+            }
+        }
+        return score;
+    }
+}
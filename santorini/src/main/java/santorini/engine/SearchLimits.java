@@ -0,0 +1,50 @@
+package santorini.engine;
+
+/**
+ * How long an engine may search for its turn, sent with the go command. An engine stops
+ * at whichever limit it reaches first, and a limit of 0 means no limit.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param moveTimeMillis The time the engine may search for, in milliseconds, or 0 for no limit.
+ * @param nodes The number of positions the engine may evaluate, or 0 for no limit.
+ */
+public record SearchLimits(long moveTimeMillis, long nodes) {
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param moveTimeMillis The time the engine may search for, in milliseconds, or 0 for no limit.
+     * @param nodes The number of positions the engine may evaluate, or 0 for no limit.
+     */
+    public SearchLimits {
+        if (moveTimeMillis < 0 || nodes < 0) {
+            throw new IllegalArgumentException("Search limits cannot be negative");
+        }
+    }
+
+    // Methods
+
+    /**
+     * Creates limits on the search time only.
+     *
+     * @param moveTimeMillis The time the engine may search for, in milliseconds.
+     * @return The search limits.
+     */
+    public static SearchLimits moveTime(long moveTimeMillis) {
+        return new SearchLimits(moveTimeMillis, 0);
+    }
+
+    /**
+     * Creates limits on the number of positions evaluated only.
+     *
+     * @param nodes The number of positions the engine may evaluate.
+     * @return The search limits.
+     */
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(0, nodes);
+    }
+}
@@ -3,11 +3,14 @@ package santorini.frames;
 import santorini.controllers.GameController;
 import santorini.controllers.InstructionsController;
 import santorini.controllers.MenuController;
+import santorini.controllers.SaveBrowserController;
 import santorini.controllers.WinnerController;
 import santorini.game.Game;
+import santorini.game.TimeControl;
 import santorini.panels.*;
 
 import javax.swing.*;
+import java.awt.*;
 
 /**
  * The main application window for the Santorini game.
@@ -28,15 +31,27 @@ public class MainFrame extends JFrame {
     private static final String WINDOW_NAME = "Santorini!";
 
     /**
-     * The fixed width of the window in pixels.
+     * The initial and minimum width of the window content in pixels.
      */
     private static final int WINDOW_WIDTH = 1080;
 
     /**
-     * The fixed height of the window in pixels.
+     * The initial and minimum height of the window content in pixels.
      */
     private static final int WINDOW_HEIGHT = 720;
 
+    /**
+     * The system property holding the host and port of a match server, as host:port,
+     * to play matches on instead of playing locally.
+     */
+    private static final String SERVER_PROPERTY = "santorini.server";
+
+    /**
+     * The system property holding the time control of local games, such as 300+5 for five
+     * minutes plus five seconds a turn, or 30/turn for thirty seconds a turn.
+     */
+    private static final String TIME_CONTROL_PROPERTY = "santorini.timeControl";
+
     // Attributes
 
     /**
@@ -56,9 +71,7 @@ public class MainFrame extends JFrame {
         // Set the title, default close operation, and size of the window
         setTitle(WINDOW_NAME);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setResizable(false);
-        setSize(WINDOW_WIDTH, WINDOW_HEIGHT);
-        setLocationRelativeTo(null);
+        setResizable(true);
 
         this.panelManager = new PanelManager();
 
@@ -67,16 +80,37 @@ public class MainFrame extends JFrame {
         InstructionsController instructionsController = new InstructionsController(panelManager);
         GameController gameController = new GameController(panelManager);
         WinnerController winnerController = new WinnerController(panelManager);
+        SaveBrowserController saveBrowserController = new SaveBrowserController(panelManager);
 
         Game.getInstance().addSubscriber(gameController);
 
+        // Play on a match server if one is given
+        String server = System.getProperty(SERVER_PROPERTY);
+        if (server != null && server.lastIndexOf(':') > 0) {
+            String host = server.substring(0, server.lastIndexOf(':'));
+            int port = Integer.parseInt(server.substring(server.lastIndexOf(':') + 1));
+            menuController.setOnlineGameStarter(mode -> gameController.joinMatch(host, port, mode));
+        }
+
+        // Time local games if a time control is given
+        String timeControl = System.getProperty(TIME_CONTROL_PROPERTY);
+        if (timeControl != null) {
+            menuController.setTimeControl(TimeControl.parse(timeControl));
+        }
+
         // Register panels with the panel manager
         panelManager.registerPanel(PanelName.MENU.toString(), menuController.getPanel(), menuController);
         panelManager.registerPanel(PanelName.INSTRUCTIONS.toString(), instructionsController.getPanel(), instructionsController);
         panelManager.registerPanel(PanelName.GAME.toString(), gameController.getPanel(), gameController);
         panelManager.registerPanel(PanelName.WINNER.toString(), winnerController.getPanel(), winnerController);
+        panelManager.registerPanel(PanelName.SAVE_BROWSER.toString(), saveBrowserController.getPanel(), saveBrowserController);
 
+        // Size the content rather than the window, so the panels fit inside the window decorations
+        panelManager.getMainPanel().setPreferredSize(new Dimension(WINDOW_WIDTH, WINDOW_HEIGHT));
         add(panelManager.getMainPanel());
+        pack();
+        setMinimumSize(getSize());
+        setLocationRelativeTo(null);
     }
 
     // Methods
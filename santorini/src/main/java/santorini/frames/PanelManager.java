@@ -18,6 +18,13 @@ import java.util.Map;
  */
 public class PanelManager {
 
+    // Constants
+
+    /**
+     * The size of the panels laid out with absolute positions.
+     */
+    private static final Dimension FIXED_PANEL_SIZE = new Dimension(1080, 720);
+
     // Attributes
 
     /**
@@ -73,7 +80,18 @@ public class PanelManager {
     public void registerPanel(String panelName, Panel panel, Controller controller) {
         panels.put(panelName, panel);
         controllers.put(panelName, controller);
-        mainPanel.add(panel, panelName);
+
+        if (panel.isResizable()) {
+            mainPanel.add(panel, panelName);
+            return;
+        }
+
+        // Keep panels laid out for a fixed size at that size, centred in the window
+        panel.setPreferredSize(FIXED_PANEL_SIZE);
+        panel.setMinimumSize(FIXED_PANEL_SIZE);
+        JPanel container = new JPanel(new GridBagLayout());
+        container.add(panel);
+        mainPanel.add(container, panelName);
     }
 
     /**
@@ -0,0 +1,31 @@
+package santorini.game;
+
+/**
+ * The time left to each player of a game at one moment, as shown on the game window.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param remainingMillis The time left to each player, in milliseconds, by player index.
+ * @param runningIndex The index of the player whose time is running, or -1 if the clock is stopped.
+ * @param flaggedIndex The index of the player who ran out of time, or -1 if no one has.
+ */
+public record ClockSnapshot(long[] remainingMillis, int runningIndex, int flaggedIndex) {
+
+    // Methods
+
+    /**
+     * Formats the time left to a player as minutes and seconds, with tenths under ten seconds.
+     *
+     * @param index The index of the player.
+     * @return The formatted time.
+     */
+    public String format(int index) {
+        long millis = Math.max(0, remainingMillis[index]);
+        if (millis < 10_000) {
+            return String.format("%d.%d", millis / 1000, millis / 100 % 10);
+        }
+        long seconds = millis / 1000;
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+}
@@ -1,9 +1,18 @@
 package santorini.game;
 
+import santorini.game.events.BuildExecuted;
+import santorini.game.events.ChaosApplied;
+import santorini.game.events.GameEventBus;
+import santorini.game.events.GameWon;
+import santorini.game.events.MoveExecuted;
+import santorini.game.events.PowerTriggered;
+import santorini.game.events.TurnEnded;
 import santorini.game.modifier.ChaosModifier;
 import santorini.game.modifier.GameModifier;
+import santorini.utils.LogEventType;
 import santorini.utils.Logger;
 import santorini.actions.Action;
+import santorini.actions.MoveAction;
 import santorini.board.Board;
 import santorini.board.MovementValidator;
 import santorini.players.Player;
@@ -11,9 +20,17 @@ import santorini.players.Worker;
 import santorini.utils.SaveConfig;
 import santorini.utils.SaveManager;
 import santorini.utils.Saveable;
+import santorini.utils.TimingWheel;
+import santorini.utils.WheelTimeout;
+
+import java.time.Duration;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
 /**
  * The core singleton class representing the active game controller.
  * Manages the game state, turn progression, win conditions, phase transitions, and subscriber updates.
@@ -51,23 +68,42 @@ public class Game implements Saveable {
      */
     private GameModifier modifier;
 
-    // Constructor
+    /**
+     * The changes made since subscribers were last notified
+     */
+    private final EnumSet<GameChange> pendingChanges;
 
     /**
-     * Constructor.
+     * The number of batches currently running, while which notifications are held back
      */
-    public Game() {
-        this.subscribers = new ArrayList<>();
-        SaveManager.getInstance().registerSaveable(this);
-    }
+    private int batchDepth;
 
     /**
-     * Constructor for loading a game.
-     *
-     * @param buildString The string to be parsed as a game.
+     * The bus on which the events of the game are published
+     */
+    private final GameEventBus eventBus;
+
+    /**
+     * The executor running the flag-fall checks on the game's thread
+     */
+    private Executor clockExecutor;
+
+    /**
+     * The timeout firing when the running player's time would run out, or null if none is armed
+     */
+    private WheelTimeout flagFallTimeout;
+
+    // Constructor
+
+    /**
+     * Constructor. Games other than the singleton instance, such as the matches hosted by
+     * a server, run headless and are not saved.
      */
-    public Game(String buildString) {
-        Game.getInstance().setModifier(buildString);
+    public Game() {
+        this.subscribers = new ArrayList<>();
+        this.pendingChanges = EnumSet.noneOf(GameChange.class);
+        this.batchDepth = 0;
+        this.eventBus = new GameEventBus();
     }
 
     // Methods
@@ -80,6 +116,7 @@ public class Game implements Saveable {
     public static Game getInstance() {
         if (instance == null) {
             instance = new Game();
+            SaveManager.getInstance().registerSaveable(instance);
         }
         return instance;
     }
@@ -101,9 +138,27 @@ public class Game implements Saveable {
      * @param gameState the new game state
      */
     public void setGameState(GameState gameState) {
+        cancelFlagFall();
+        // Only the game shown in the window is saved, replacing the state of its previous game
+        if (this == instance) {
+            if (this.gameState != null) {
+                SaveManager.getInstance().removeSaveable(this.gameState);
+            }
+            SaveManager.getInstance().registerSaveable(gameState);
+        }
         this.gameState = gameState;
         this.movementValidator = new MovementValidator(gameState.getBoard());
-        updateSubscribers();
+        Logger.getInstance().setTurn(gameState.getActualTurnNumber() + 1);
+        notifyChange(GameChange.STATE_REPLACED);
+    }
+
+    /**
+     * Gets the game modifier of a game.
+     *
+     * @return The game modifier of a game.
+     */
+    public GameModifier getModifier() {
+        return modifier;
     }
 
     /**
@@ -116,14 +171,12 @@ public class Game implements Saveable {
     }
 
     /**
-     * Sets the game modifier of a game based on a string, used for loading
-     * in a game modifier to the game.
+     * Gets the bus on which the events of the game are published.
      *
-     * @param buildString The name of a modifier as a string.
+     * @return the event bus of the game
      */
-    public void setModifier(String buildString) {
-        String className = buildString.split("\\.")[3];
-        setModifier(GameModifier.parseName(className));
+    public GameEventBus getEventBus() {
+        return eventBus;
     }
 
     /**
@@ -163,15 +216,52 @@ public class Game implements Saveable {
     }
 
     /**
-     * Updates all subscribers with the current game state.
+     * Updates all interested subscribers with the current game state and the changes
+     * made since the last update. Nothing is delivered while a batch is running, or if
+     * nothing has changed.
      *
      * This method is called whenever the game state changes. All subscribers
      * are notified to update their views or perform any necessary actions.
      */
     public void updateSubscribers() {
-        for (Subscriber subscriber : subscribers) {
-            subscriber.update(gameState);
+        if (batchDepth > 0 || pendingChanges.isEmpty()) {
+            return;
+        }
+
+        Set<GameChange> changes = Collections.unmodifiableSet(EnumSet.copyOf(pendingChanges));
+        pendingChanges.clear();
+        for (Subscriber subscriber : new ArrayList<>(subscribers)) {
+            if (subscriber.isInterestedIn(changes)) {
+                subscriber.update(gameState, changes);
+            }
+        }
+    }
+
+    /**
+     * Records a change to the game and notifies subscribers, unless a batch is running.
+     *
+     * @param change The kind of change.
+     */
+    public void notifyChange(GameChange change) {
+        pendingChanges.add(change);
+        updateSubscribers();
+    }
+
+    /**
+     * Runs a logical action made up of several game operations, notifying subscribers
+     * once at the end with every change the action made. Batches may be nested, in which
+     * case subscribers are notified when the outermost batch ends.
+     *
+     * @param action The action to run.
+     */
+    public void runBatch(Runnable action) {
+        batchDepth++;
+        try {
+            action.run();
+        } finally {
+            batchDepth--;
         }
+        updateSubscribers();
     }
 
     /**
@@ -185,21 +275,38 @@ public class Game implements Saveable {
     public void processTurn(Player player, Worker worker, Action action) {
         // Check if the player and action are not null
         if (worker != null && action != null) {
+            Board board = gameState.getBoard();
+            Position workerPosition = eventBus.hasSubscribers() ? board.getPositionOf(worker) : null;
+
             boolean result = executeAction(player, worker, action);
             if (result) {
 
+                pendingChanges.add(action instanceof MoveAction ? GameChange.MOVE : GameChange.BUILD);
+                if (workerPosition != null) {
+                    int turnNumber = gameState.getActualTurnNumber() + 1;
+                    Position target = action.getTarget();
+                    eventBus.publish(action instanceof MoveAction
+                        ? new MoveExecuted(turnNumber, player.getName(), workerPosition, target)
+                        : new BuildExecuted(turnNumber, player.getName(), workerPosition, target, board.getTower(target).getHeight()));
+                }
+
                 boolean powerResult = player.getGod().executePower(gameState, action);
+                if (powerResult) {
+                    pendingChanges.add(GameChange.POWER);
+                    Logger.getInstance().log(LogEventType.POWER, player, player.getGod().getName());
+                    eventBus.publish(new PowerTriggered(gameState.getActualTurnNumber() + 1, player.getName(), player.getGod().getName()));
+                }
 
                 // If in the move phase, decrement moves remaining
                 if (gameState.getGamePhase() == GamePhase.MOVE) {
                     gameState.decreaseMovesRemaining();
-                    Logger.getInstance().log("Moves Remaining: " + gameState.getMovesRemaining());
+                    Logger.getInstance().log(LogEventType.MOVES_REMAINING, gameState.getMovesRemaining());
                 }
 
                 // If in the build phase, decrement builds remaining
                 else if (gameState.getGamePhase() == GamePhase.BUILD) {
                     gameState.decreaseBuildsRemaining();
-                    Logger.getInstance().log("Builds Remaining: " + gameState.getBuildsRemaining());
+                    Logger.getInstance().log(LogEventType.BUILDS_REMAINING, gameState.getBuildsRemaining());
                 }
             }
         }
@@ -209,7 +316,8 @@ public class Game implements Saveable {
         // If the game phase is MOVE and moves remaining is 0, switch to BUILD phase
         if (gameState.getMovesRemaining() == 0 && gameState.getBuildsRemaining() > 0) {
             gameState.setGamePhase(GamePhase.BUILD);
-            Logger.getInstance().log("Build Phase Now");
+            Logger.getInstance().log(LogEventType.BUILD_PHASE);
+            pendingChanges.add(GameChange.PHASE);
         }
 
         // If the game phase is BUILD and builds remaining is 0, end the turn
@@ -219,6 +327,7 @@ public class Game implements Saveable {
 
         // If the turn is ending, advance to the next player
         if (endTurn) {
+            Player previousPlayer = gameState.getCurrentPlayer();
             do {
                 gameState.advanceTurn();
             } while (!isPlayerCanMove(gameState.getCurrentPlayer()));
@@ -226,20 +335,31 @@ public class Game implements Saveable {
             gameState.resetPreviousPositions();
             gameState.getCurrentPlayer().resetTurn();
             gameState.increaseTurnNumber();
+            Logger.getInstance().setTurn(gameState.getActualTurnNumber() + 1);
             if (gameState.getHasTurnNumberLooped()) {
-                Logger.getInstance().log(String.format("Turn %d", gameState.getActualTurnNumber() + 1));
+                Logger.getInstance().log(LogEventType.TURN_NUMBER, gameState.getActualTurnNumber() + 1);
+            }
+            Logger.getInstance().log(LogEventType.PLAYER_TURN, gameState.getCurrentPlayer());
+            pendingChanges.add(GameChange.TURN);
+            if (gameState.getClock() != null) {
+                gameState.getClock().switchTo(gameState.getCurrentPlayerIndex());
+                armFlagFall();
             }
-            Logger.getInstance().log(String.format("%s's Turn", gameState.getCurrentPlayer().toString()));
+            eventBus.publish(new TurnEnded(gameState.getActualTurnNumber() + 1, previousPlayer.getName(), gameState.getCurrentPlayer().getName()));
         }
 
         // Check if there is a winner after processing the turn
         Player winner = determineWinner();
         if (winner != null) {
-            gameState.setWinner(winner);
+            announceWinner(winner);
         }
 
         if (endTurn && modifier != null) {
-            modifier.executeModifier(gameState.getBoard(), gameState.getTurnNumber());
+            List<ChaosApplied> appliedEffects = modifier.executeModifier(gameState.getBoard(), gameState.getTurnNumber());
+            for (ChaosApplied appliedEffect : appliedEffects) {
+                pendingChanges.add(GameChange.CHAOS);
+                eventBus.publish(new ChaosApplied(gameState.getActualTurnNumber() + 1, appliedEffect.effect(), appliedEffect.cells()));
+            }
         }
 
         // Update all subscribers with the new game state
@@ -250,17 +370,104 @@ public class Game implements Saveable {
      * Method to process a passive state check and trigger win check.
      */
     public void processTurn() {
+        pendingChanges.add(GameChange.WORKER_SELECTED);
         Player winner = determineWinner();
 
         // If a winner is found, set the winner in the game state
         if (winner != null) {
-            gameState.setWinner(winner);
+            announceWinner(winner);
         }
 
         // Update all subscribers with the new game state
         updateSubscribers();
     }
 
+    /**
+     * Sets the winner in the game state, logging it the first time the winner is found.
+     *
+     * @param winner The winning player.
+     */
+    private void announceWinner(Player winner) {
+        if (gameState.getWinner() == null) {
+            Logger.getInstance().log(LogEventType.WINNER, winner);
+            pendingChanges.add(GameChange.WINNER);
+            eventBus.publish(new GameWon(gameState.getActualTurnNumber() + 1, winner.getName()));
+            stopClock();
+        }
+        gameState.setWinner(winner);
+    }
+
+    /**
+     * Starts a clock for the game, running the current player's time. A single timeout on the
+     * shared timing wheel is armed for the moment the running player's time would run out,
+     * and re-armed each time the clock is switched, so a timed game needs no thread of its own.
+     *
+     * @param timeControl The time each player is given.
+     * @param executor Runs the flag-fall checks on the game's thread.
+     */
+    public void startClock(TimeControl timeControl, Executor executor) {
+        GameClock clock = new GameClock(timeControl, gameState.getPlayers().size());
+        gameState.setClock(clock);
+        clockExecutor = executor;
+        clock.start(gameState.getCurrentPlayerIndex());
+        armFlagFall();
+        notifyChange(GameChange.CLOCK);
+    }
+
+    /**
+     * Stops the clock of the game for good, as the game is over or has been abandoned.
+     */
+    public void stopClock() {
+        if (gameState.getClock() != null) {
+            gameState.getClock().stop();
+            cancelFlagFall();
+        }
+    }
+
+    /**
+     * Checks whether the running player's time has run out, in which case they lose the game.
+     * Called on the game's thread when the flag-fall timeout fires.
+     */
+    public void checkFlagFall() {
+        GameClock clock = gameState.getClock();
+        if (clock == null || gameState.getWinner() != null) {
+            return;
+        }
+        if (!clock.isFlagged()) {
+            // The timeout fired early, as its ticks are rounded
+            armFlagFall();
+            return;
+        }
+
+        Player winner = determineWinner();
+        if (winner != null) {
+            announceWinner(winner);
+        }
+        updateSubscribers();
+    }
+
+    /**
+     * Arms the flag-fall timeout for the running player, replacing the previous one.
+     */
+    private void armFlagFall() {
+        cancelFlagFall();
+        long nanos = gameState.getClock().getNanosUntilFlagFall();
+        if (nanos >= 0) {
+            Executor executor = clockExecutor;
+            flagFallTimeout = TimingWheel.getInstance().schedule(() -> executor.execute(this::checkFlagFall), Duration.ofNanos(nanos));
+        }
+    }
+
+    /**
+     * Cancels the flag-fall timeout, if one is armed.
+     */
+    private void cancelFlagFall() {
+        if (flagFallTimeout != null) {
+            flagFallTimeout.cancel();
+            flagFallTimeout = null;
+        }
+    }
+
     /**
      * Executes a game action and updates the board state.
      *
@@ -293,6 +500,17 @@ public class Game implements Saveable {
             }
         }
 
+        // A player who ran out of time loses, the first other player winning
+        GameClock clock = gameState.getClock();
+        if (clock != null && clock.isFlagged()) {
+            Player flaggedPlayer = players.get(clock.getFlaggedIndex());
+            for (Player player : players) {
+                if (!player.equals(flaggedPlayer)) {
+                    return player;
+                }
+            }
+        }
+
         List<Player> moveablePlayers = new ArrayList<>();
 
         // Check if the current player can move
@@ -391,16 +609,16 @@ public class Game implements Saveable {
         if (gameState.getGamePhase() == GamePhase.MOVE && gameState.getMovesRemaining() > 0) {
             gameState.setMovesRemaining(0);
             gameState.setGamePhase(GamePhase.BUILD);
-            Logger.getInstance().log("Force End Move Phase. Now Build Phase.");
+            Logger.getInstance().log(LogEventType.FORCE_END_MOVE);
         }
 
         // If the game is in build and there are builds remaining, set builds to 0 and end the turn
         else if (gameState.getGamePhase() == GamePhase.BUILD && gameState.getBuildsRemaining() > 0) {
             gameState.setBuildsRemaining(0);
-            Logger.getInstance().log("Force End Build Phase. Ending Turn.");
+            Logger.getInstance().log(LogEventType.FORCE_END_BUILD);
         }
 
-        updateSubscribers();
+        notifyChange(GameChange.PHASE);
     }
 
     @Override
@@ -0,0 +1,25 @@
+package santorini.game;
+
+/**
+ * Enum representing the kinds of change summarised in a subscriber update.
+ * Several changes made during one logical action are delivered together
+ * in a single update.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public enum GameChange {
+
+    // Enum constants
+
+    STATE_REPLACED,
+    WORKER_SELECTED,
+    MOVE,
+    BUILD,
+    POWER,
+    PHASE,
+    TURN,
+    CHAOS,
+    CLOCK,
+    WINNER
+}
@@ -0,0 +1,212 @@
+package santorini.game;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * The clock of a game, counting down the time of the player whose turn it is. The clock does
+ * not tick on its own: it charges the time that has passed whenever it is switched or read,
+ * and tells how long until the running player's time would run out, so that a single timer
+ * can be armed for the flag-fall of each game. The clock is read from the game window while
+ * it is switched on the game's thread, so its methods are synchronized.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class GameClock {
+
+    // Attributes
+
+    /**
+     * The time each player is given.
+     */
+    private final TimeControl timeControl;
+
+    /**
+     * The source of the current time, in nanoseconds.
+     */
+    private final LongSupplier nanoTime;
+
+    /**
+     * The time left to each player when their time last stopped running, in nanoseconds.
+     */
+    private final long[] remainingNanos;
+
+    /**
+     * The index of the player whose time is running, or -1 if the clock is stopped.
+     */
+    private int runningIndex;
+
+    /**
+     * The time at which the running player's time started running.
+     */
+    private long runningSince;
+
+    /**
+     * The index of the player who ran out of time, or -1 if no one has.
+     */
+    private int flaggedIndex;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param timeControl The time each player is given.
+     * @param numberOfPlayers The number of players of the game.
+     */
+    public GameClock(TimeControl timeControl, int numberOfPlayers) {
+        this(timeControl, numberOfPlayers, System::nanoTime);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param timeControl The time each player is given.
+     * @param numberOfPlayers The number of players of the game.
+     * @param nanoTime The source of the current time, in nanoseconds.
+     */
+    public GameClock(TimeControl timeControl, int numberOfPlayers, LongSupplier nanoTime) {
+        this.timeControl = timeControl;
+        this.nanoTime = nanoTime;
+        this.remainingNanos = new long[numberOfPlayers];
+        Arrays.fill(remainingNanos, timeControl.base().toNanos());
+        this.runningIndex = -1;
+        this.flaggedIndex = -1;
+    }
+
+    // Methods
+
+    /**
+     * Starts the time of a player running.
+     *
+     * @param index The index of the player.
+     */
+    public synchronized void start(int index) {
+        if (flaggedIndex < 0) {
+            runningIndex = index;
+            runningSince = nanoTime.getAsLong();
+        }
+    }
+
+    /**
+     * Stops the running player's time, adding the increment or restarting their time per turn,
+     * and starts the time of the next player.
+     *
+     * @param index The index of the next player.
+     */
+    public synchronized void switchTo(int index) {
+        if (!charge()) {
+            return;
+        }
+        remainingNanos[runningIndex] = timeControl.perTurn()
+            ? timeControl.base().toNanos()
+            : remainingNanos[runningIndex] + timeControl.increment().toNanos();
+        start(index);
+    }
+
+    /**
+     * Stops the clock for good, as the game is over.
+     */
+    public synchronized void stop() {
+        charge();
+        runningIndex = -1;
+    }
+
+    /**
+     * Checks whether a player has run out of time.
+     *
+     * @return True if a player ran out of time, false otherwise.
+     */
+    public synchronized boolean isFlagged() {
+        charge();
+        return flaggedIndex >= 0;
+    }
+
+    /**
+     * Gets the time until the running player's time runs out.
+     *
+     * @return The time, in nanoseconds, or -1 if the clock is stopped or a player ran out of time.
+     */
+    public synchronized long getNanosUntilFlagFall() {
+        return charge() ? remainingNanos[runningIndex] : -1;
+    }
+
+    /**
+     * Gets the time left to each player at this moment.
+     *
+     * @return The snapshot of the clock.
+     */
+    public synchronized ClockSnapshot snapshot() {
+        charge();
+        long[] remainingMillis = new long[remainingNanos.length];
+        for (int i = 0; i < remainingNanos.length; i++) {
+            remainingMillis[i] = remainingNanos[i] / 1_000_000;
+        }
+        return new ClockSnapshot(remainingMillis, runningIndex, flaggedIndex);
+    }
+
+    /**
+     * Charges the time that has passed since the last charge to the running player,
+     * flagging them and stopping the clock if their time ran out.
+     *
+     * @return True if the running player still has time, false if the clock is stopped or they ran out.
+     */
+    private boolean charge() {
+        if (runningIndex < 0) {
+            return false;
+        }
+        long now = nanoTime.getAsLong();
+        remainingNanos[runningIndex] -= now - runningSince;
+        runningSince = now;
+        if (remainingNanos[runningIndex] <= 0) {
+            remainingNanos[runningIndex] = 0;
+            flaggedIndex = runningIndex;
+            runningIndex = -1;
+            return false;
+        }
+        return true;
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the time each player is given.
+     *
+     * @return The time control.
+     */
+    public TimeControl getTimeControl() {
+        return timeControl;
+    }
+
+    /**
+     * Gets the time left to a player at this moment.
+     *
+     * @param index The index of the player.
+     * @return The time left, in milliseconds.
+     */
+    public synchronized long getRemainingMillis(int index) {
+        charge();
+        return remainingNanos[index] / 1_000_000;
+    }
+
+    /**
+     * Gets the index of the player whose time is running.
+     *
+     * @return The index of the player, or -1 if the clock is stopped.
+     */
+    public synchronized int getRunningIndex() {
+        charge();
+        return runningIndex;
+    }
+
+    /**
+     * Gets the index of the player who ran out of time.
+     *
+     * @return The index of the player, or -1 if no one has.
+     */
+    public synchronized int getFlaggedIndex() {
+        charge();
+        return flaggedIndex;
+    }
+}
@@ -4,10 +4,8 @@ import santorini.board.Board;
 import santorini.players.*;
 import santorini.towers.Tower;
 import santorini.utils.Logger;
-import santorini.utils.SaveManager;
+import santorini.utils.SaveData;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.*;
 
 /**
@@ -29,13 +27,38 @@ public class GameFactory {
      */
     private List<God> gods;
 
+    /**
+     * The randomizer of the gods, worker positions and chaos effects of the games created.
+     */
+    private final Random random;
+
     // Constructor
 
     /**
      * Constructor.
      */
     public GameFactory() {
-        gods = new ArrayList<>();
+        this(new Random());
+    }
+
+    /**
+     * Constructor, creating games from a seed. Games created from the same seed get the
+     * same gods, worker positions and chaos effects, so peers can run the same game.
+     *
+     * @param seed The seed of the games created.
+     */
+    public GameFactory(long seed) {
+        this(new Random(seed));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param random The randomizer of the games created.
+     */
+    private GameFactory(Random random) {
+        this.gods = new ArrayList<>();
+        this.random = random;
         initializeAllGods();
     }
 
@@ -45,35 +68,83 @@ public class GameFactory {
      * Sets the resulting GameState in the singleton Game instance.
      */
     public void createStandardGame() {
-        // Create Board
-        Board board = new Board(GameMode.STANDARD.getBoardWidth(), GameMode.STANDARD.getBoardHeight());
+        Game.getInstance().setModifier(GameMode.STANDARD.createGameModifier(random));
+        Game.getInstance().setGameState(createGameState(GameMode.STANDARD));
+    }
 
-        // Create Players
-        List<Player> players = initializePlayers(GameMode.STANDARD.getNumberOfPlayers(), GameMode.STANDARD.getNumberOfWorkers());
+    /**
+     * Creates a new game using the CHAOS game mode.
+     * Initializes the board, players, workers, god powers, and places all workers on random unoccupied positions.
+     * Sets the resulting GameState in the singleton Game instance.
+     */
+    public void createChaosGame() {
+        Game.getInstance().setModifier(GameMode.CHAOS.createGameModifier(random));
+        Game.getInstance().setGameState(createGameState(GameMode.CHAOS));
+    }
 
-        // Initialize Gods
-        initializeRandomGods(players);
+    /**
+     * Creates a new game in a separate Game instance, such as a match hosted by a server.
+     *
+     * @param gameMode The game mode of the game.
+     * @return The new game, with its own game state and game modifier.
+     */
+    public Game createGame(GameMode gameMode) {
+        Game game = new Game();
+        game.setModifier(gameMode.createGameModifier(random));
+        game.setGameState(createGameState(gameMode));
+        return game;
+    }
 
-        // Initialize Workers
-        initializeRandomWorkerPositions(board, players);
+    /**
+     * Creates a new game in a separate Game instance with the gods of its players chosen
+     * rather than drawn, such as a game of a tournament balancing the gods.
+     *
+     * @param gameMode The game mode of the game.
+     * @param gods The god of each player, by seat.
+     * @return The new game, with its own game state and game modifier.
+     * @throws IllegalArgumentException If there is not one god per player.
+     */
+    public Game createGame(GameMode gameMode, List<God> gods) {
+        if (gods.size() != gameMode.getNumberOfPlayers()) {
+            throw new IllegalArgumentException("A game of " + gameMode + " needs " + gameMode.getNumberOfPlayers() + " gods");
+        }
+        Game game = createGame(gameMode);
+        GameState gameState = game.getGameState();
+        for (int i = 0; i < gods.size(); i++) {
+            gameState.getPlayer(i).setGod(gods.get(i));
+        }
 
-        GameState gameState = new GameState(board, players, GameMode.STANDARD.getStartingPlayerIndex());
+        // The moves and builds of the first turn come from the god of the first player
+        gameState.resetMovesAndBuilds();
+        return game;
+    }
 
-        Game.getInstance().setModifier(GameMode.STANDARD.getGameModifier());
-        Game.getInstance().setGameState(gameState);
+    /**
+     * Gets the names of every god a player can be given.
+     *
+     * @return The names of the gods.
+     */
+    public static List<String> getGodNames() {
+        List<String> names = new ArrayList<>();
+        for (God god : new GameFactory(new Random(0)).gods) {
+            names.add(god.getName());
+        }
+        return names;
     }
 
     /**
-     * Creates a new game using the CHAOS game mode.
+     * Creates the starting state of a game of a game mode.
      * Initializes the board, players, workers, god powers, and places all workers on random unoccupied positions.
-     * Sets the resulting GameState in the singleton Game instance.
+     *
+     * @param gameMode The game mode of the game.
+     * @return The starting game state.
      */
-    public void createChaosGame() {
+    public GameState createGameState(GameMode gameMode) {
         // Create Board
-        Board board = new Board(GameMode.CHAOS.getBoardWidth(), GameMode.CHAOS.getBoardHeight());
+        Board board = new Board(gameMode.getBoardWidth(), gameMode.getBoardHeight());
 
         // Create Players
-        List<Player> players = initializePlayers(GameMode.CHAOS.getNumberOfPlayers(), GameMode.CHAOS.getNumberOfWorkers());
+        List<Player> players = initializePlayers(gameMode.getNumberOfPlayers(), gameMode.getNumberOfWorkers());
 
         // Initialize Gods
         initializeRandomGods(players);
@@ -81,35 +152,20 @@ public class GameFactory {
         // Initialize Workers
         initializeRandomWorkerPositions(board, players);
 
-        GameState gameState = new GameState(board, players, GameMode.CHAOS.getStartingPlayerIndex());
-
-        Game.getInstance().setModifier(GameMode.CHAOS.getGameModifier());
-        Game.getInstance().setGameState(gameState);
+        return new GameState(board, players, gameMode.getStartingPlayerIndex());
     }
 
     /**
-     * Loads a previously saved game from a text file.
-     * Initializes the game state, game, and logger information, and sets the results in the singleton Game instance.
+     * Loads a previously saved game that has been parsed by the SaveParser.
+     * Sets the game modifier, game state and logger information in the singleton Game instance.
+     *
+     * @param saveData The components restored from a save file.
      */
-    public boolean loadGame(File file) {
-        try {
-            Map<String, String> buildStringMap = SaveManager.parseFile(file);
-            String gameStateString = buildStringMap.get(GameState.class.getName());
-            String loggerString = buildStringMap.get(Logger.class.getName());
-            String gameString = buildStringMap.get(Game.class.getName());
-
-            GameState gameState = new GameState(gameStateString);
+    public void loadGame(SaveData saveData) {
+        Game.getInstance().setModifier(saveData.modifier());
+        Game.getInstance().setGameState(saveData.gameState());
 
-            Game.getInstance().setModifier(gameString);
-            Game.getInstance().setGameState(gameState);
-
-            Logger.getInstance().log(loggerString);
-
-            return true;
-        } catch (IOException e) {
-            e.printStackTrace();
-            return false;
-        }
+        Logger.getInstance().restore(saveData.logs());
     }
 
     /**
@@ -149,8 +205,8 @@ public class GameFactory {
             for (Worker worker : player.getWorkers()) {
                 Position randomPosition;
                 do {
-                    int x = (int) (Math.random() * board.getWidth());
-                    int y = (int) (Math.random() * board.getHeight());
+                    int x = random.nextInt(board.getWidth());
+                    int y = random.nextInt(board.getHeight());
                     randomPosition = new Position(x, y);
                 } while (board.isOccupied(randomPosition));
 
@@ -167,7 +223,7 @@ public class GameFactory {
     private void initializeRandomGods(List<Player> players) {
 
         // Shuffle the list of available gods
-        Collections.shuffle(gods);
+        Collections.shuffle(gods, random);
 
         // Assign each player a unique god from the shuffled list
         for (int i = 0; i < players.size(); i++) {
@@ -4,6 +4,9 @@ import santorini.game.modifier.ChaosModifier;
 import santorini.game.modifier.GameModifier;
 import santorini.game.modifier.StandardModifier;
 
+import java.util.Random;
+import java.util.function.Function;
+
 /**
  * Enum representing the configuration for different game modes.
  * Each game mode defines the board size, number of players, number of workers per player,
@@ -20,13 +23,13 @@ public enum GameMode {
      * Standard game mode with a 5x5 board, 2 players, 2 workers per player, player 0 as the
      * starting player, and a standard game modifier
      */
-    STANDARD(5, 5, 2, 2, 0, new StandardModifier()),
+    STANDARD(5, 5, 2, 2, 0, random -> new StandardModifier()),
 
     /**
      * Chaos game mode with a 5x5 board, 2 players, 2 workers per player, player 0 as the
      * starting player, and a chaos game modifier
      */
-    CHAOS(5, 5, 2, 2, 0, new ChaosModifier());
+    CHAOS(5, 5, 2, 2, 0, ChaosModifier::new);
 
     // Attributes
 
@@ -36,6 +39,7 @@ public enum GameMode {
     private final int numberOfWorkers;
     private final int startingPlayerIndex;
     private final GameModifier gameModifier;
+    private final Function<Random, GameModifier> modifierFactory;
 
     // Constructor
 
@@ -47,15 +51,16 @@ public enum GameMode {
      * @param numberOfPlayers The number of players in the game.
      * @param numberOfWorkers The number of workers per player.
      * @param startingPlayerIndex The index of the player who starts first.
-     * @param gameModifier The game modifier of a game mode.
+     * @param modifierFactory Creates the game modifier of a game of the game mode.
      */
-    GameMode(int boardWidth, int boardHeight, int numberOfPlayers, int numberOfWorkers, int startingPlayerIndex, GameModifier gameModifier) {
+    GameMode(int boardWidth, int boardHeight, int numberOfPlayers, int numberOfWorkers, int startingPlayerIndex, Function<Random, GameModifier> modifierFactory) {
         this.boardWidth = boardWidth;
         this.boardHeight = boardHeight;
         this.numberOfPlayers = numberOfPlayers;
         this.numberOfWorkers = numberOfWorkers;
         this.startingPlayerIndex = startingPlayerIndex;
-        this.gameModifier = gameModifier;
+        this.gameModifier = modifierFactory.apply(new Random());
+        this.modifierFactory = modifierFactory;
     }
 
     // Getters
@@ -107,10 +112,49 @@ public enum GameMode {
 
     /**
      * Gets the game modifier of the game mode.
+     * This instance is shared, so use createGameModifier for the modifier of a game.
      *
      * @return The game modifier of the game mode.
      */
     public GameModifier getGameModifier() {
         return gameModifier;
     }
+
+    // Methods
+
+    /**
+     * Creates a new game modifier for a game of the game mode, so that the state of
+     * its chaos effects is not shared with any other game.
+     *
+     * @return A new game modifier.
+     */
+    public GameModifier createGameModifier() {
+        return createGameModifier(new Random());
+    }
+
+    /**
+     * Creates a new game modifier for a game of the game mode, drawing its chaos effects
+     * from a given randomizer.
+     *
+     * @param random The randomizer of the game modifier.
+     * @return A new game modifier.
+     */
+    public GameModifier createGameModifier(Random random) {
+        return modifierFactory.apply(random);
+    }
+
+    /**
+     * Finds the game mode that uses the same kind of game modifier.
+     *
+     * @param modifier The game modifier of a game.
+     * @return The matching game mode, or null if there is none.
+     */
+    public static GameMode fromModifier(GameModifier modifier) {
+        for (GameMode gameMode : values()) {
+            if (modifier != null && gameMode.getGameModifier().getClass() == modifier.getClass()) {
+                return gameMode;
+            }
+        }
+        return null;
+    }
 }
@@ -3,12 +3,8 @@ package santorini.game;
 import santorini.board.Board;
 import santorini.players.*;
 import santorini.utils.SaveConfig;
-import santorini.utils.SaveManager;
 import santorini.utils.Saveable;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 
 /**
@@ -79,6 +75,10 @@ public class GameState implements Saveable {
      * The worker that is currently selected for action.
      */
     private Worker selectedWorker;
+    /**
+     * The clock of the game, or null if the game is untimed. Clocks are not saved.
+     */
+    private GameClock clock;
 
     // Constructor
 
@@ -97,76 +97,6 @@ public class GameState implements Saveable {
         this.winner = null;
         resetMovesAndBuilds();
         resetPreviousPositions();
-
-        SaveManager.getInstance().registerSaveable(this);
-    }
-
-    /**
-     * Constructor for loading a game state.
-     *
-     * @param buildString The string to be parsed as a game state.
-     */
-    public GameState(String buildString) {
-        HashMap<String, String> innerBuildStringMap = new HashMap<>();
-        String[] lines = buildString.split(SaveConfig.NEWLINE_REGEX);
-        String[] firstLine = lines[0].trim().split(SaveConfig.DELIMITER_REGEX);
-        int startingIndex = 0;
-
-        while (startingIndex < lines.length) {
-            if (lines[startingIndex].startsWith(SaveConfig.INNER_KEY)) {
-                StringBuilder builder = new StringBuilder();
-
-                String key = lines[startingIndex].substring(1).trim();
-                startingIndex++;
-
-                while (startingIndex < lines.length && !lines[startingIndex].startsWith(SaveConfig.INNER_KEY)) {
-                    builder.append(lines[startingIndex]);
-                    builder.append(SaveConfig.NEWLINE);
-                    startingIndex++;
-                }
-
-                innerBuildStringMap.put(key, builder.toString());
-            } else {
-                startingIndex++;
-            }
-        }
-
-        String boardString = innerBuildStringMap.get(Board.class.getName());
-        String playerString = innerBuildStringMap.get(Player.class.getName());
-
-        String[] playerLines = playerString.split(SaveConfig.NEWLINE_REGEX);
-        String[] playerConfigString = playerLines[0].trim().split(SaveConfig.DELIMITER_REGEX);
-
-        int numberOfPlayers = Integer.parseInt(playerConfigString[0]);
-        int numberOfWorkers = Integer.parseInt(playerConfigString[1]);
-
-        this.board = new Board(boardString);
-        this.players = new ArrayList<>();
-
-        for (int i = 0; i < numberOfPlayers; i++) {
-            int playerLineIndex = (i * (numberOfWorkers + 1)) + 1;
-            String playerData = playerLines[playerLineIndex];
-
-            Player player = new Player(playerData, true);
-            for (int j = 0; j < numberOfWorkers; j++) {
-                String positionLine = playerLines[playerLineIndex + j + 1];
-                Worker worker = new Worker();
-                player.addWorker(worker);
-
-                Position position = new Position(positionLine);
-                board.addWorker(position, worker);
-            }
-            player.initialiseWorkerIcon(i);
-            this.players.add(player);
-        }
-
-        this.turnNumber = Integer.parseInt(firstLine[0]);
-        this.currentPlayerIndex = Integer.parseInt(firstLine[1]);
-        this.winner = null;
-        resetMovesAndBuilds();
-        resetPreviousPositions();
-
-        SaveManager.getInstance().registerSaveable(this);
     }
 
     // Getters and Setters
@@ -443,6 +373,24 @@ public class GameState implements Saveable {
         this.selectedWorker = selectedWorker;
     }
 
+    /**
+     * Gets the clock of the game.
+     *
+     * @return The clock, or null if the game is untimed.
+     */
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Sets the clock of the game.
+     *
+     * @param clock The clock, or null to make the game untimed.
+     */
+    public void setClock(GameClock clock) {
+        this.clock = clock;
+    }
+
     // Methods
 
     /**
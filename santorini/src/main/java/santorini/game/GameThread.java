@@ -0,0 +1,105 @@
+package santorini.game;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * The dedicated thread that runs the rules of the game.
+ * Every command that reads or changes the game, such as processing a turn, applying chaos
+ * or creating and loading a game, is queued here and run one at a time in the order it was
+ * submitted, so the game never needs locking and the event dispatch thread never waits on
+ * the rules. Views are updated from the immutable snapshots the game thread publishes.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class GameThread {
+
+    // Attributes
+
+    /**
+     * The singleton instance of the GameThread.
+     */
+    private static GameThread instance;
+
+    /**
+     * The commands waiting to be run.
+     */
+    private final BlockingQueue<Runnable> commands;
+
+    /**
+     * The thread running the commands.
+     */
+    private final Thread thread;
+
+    // Constructor
+
+    /**
+     * Constructor. Starts the game thread.
+     */
+    private GameThread() {
+        commands = new LinkedBlockingQueue<>();
+        thread = new Thread(this::runCommands, "game-logic");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the singleton instance of the GameThread.
+     * If it does not exist yet, it is created and started.
+     *
+     * @return The single instance of the GameThread.
+     */
+    public static synchronized GameThread getInstance() {
+        if (instance == null) {
+            instance = new GameThread();
+        }
+        return instance;
+    }
+
+    // Methods
+
+    /**
+     * Queues a command to be run on the game thread after every command submitted before it.
+     *
+     * @param command The command to run.
+     * @return A future completed once the command has run, or completed exceptionally if it failed.
+     *         Errors fail the future too, so no failed command ever stops the game thread.
+     */
+    public CompletableFuture<Void> submit(Runnable command) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        commands.add(() -> {
+            try {
+                command.run();
+                future.complete(null);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+                e.printStackTrace();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Checks whether the calling thread is the game thread.
+     *
+     * @return True if called from the game thread, false otherwise.
+     */
+    public boolean isGameThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Runs on the game thread, taking and running commands for as long as the application runs.
+     */
+    private void runCommands() {
+        while (true) {
+            try {
+                commands.take().run();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+}
@@ -15,13 +15,6 @@ import santorini.utils.Saveable;
  */
 public record Position(int x, int y) implements Saveable {
 
-    public Position(String buildString) {
-        this(
-            Integer.parseInt(buildString.substring(1, buildString.length() - 1).split(SaveConfig.COMMA_REGEX)[0].trim()),
-            Integer.parseInt(buildString.substring(1, buildString.length() - 1).split(SaveConfig.COMMA_REGEX)[1].trim())
-        );
-    }
-
     @Override
     public String save() {
         StringBuilder builder = new StringBuilder();
@@ -0,0 +1,590 @@
+package santorini.game;
+
+import santorini.board.Board;
+import santorini.game.chaos.Chaos;
+import santorini.game.modifier.ChaosModifier;
+import santorini.game.modifier.GameModifier;
+import santorini.game.modifier.StandardModifier;
+import santorini.players.God;
+import santorini.players.Player;
+import santorini.players.Worker;
+import santorini.towers.Tower;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reads and writes positions in a one-line notation, in the manner of the chess FEN.
+ * A position is written as seven fields separated by single spaces:
+ *
+ * <pre>
+ * 00100/0A200/00030/00004/00000 b2,c3/d4,e5 Artemis/Demeter 0 6 m11 3,0,5
+ * </pre>
+ *
+ * <ol>
+ * <li>The towers, row by row from the top row down, separated by slashes, with one character
+ * per cell from the left: the height 0 to 4, 4 being a dome, or A to E for the same heights
+ * under fog. The width and height of the board are those of the rows.</li>
+ * <li>The cells of the workers of each player, separated by commas, the players separated by
+ * slashes. A cell is written as its column letter and row number, a1 being the bottom left.</li>
+ * <li>The name of the god of each player, separated by slashes.</li>
+ * <li>The index of the player to move, followed by w and the index of the winner once the game is won.</li>
+ * <li>The turn number, counting every player's turn.</li>
+ * <li>The phase, m for moving or b for building, followed by the moves and builds remaining,
+ * one digit each. During a turn, once a worker is selected, the phase goes on with the cells
+ * of the selected worker, of the worker before it moved, of its last move and of its last
+ * build, each after a colon and written as a dash if there is none. Whether the worker has
+ * moved and built is told by its last move and build.</li>
+ * <li>The countdown of each chaos effect in the order they tick, separated by commas, or a
+ * dash for a game without chaos.</li>
+ * </ol>
+ *
+ * Writing makes a single string, and reading walks the text once without splitting it,
+ * so either costs a few microseconds. Errors are reported with their offset in the text.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public final class PositionNotation {
+
+    // Constants
+
+    /**
+     * The number of fields of a written position.
+     */
+    public static final int FIELD_COUNT = 7;
+
+    /**
+     * The separator of the fields of a position.
+     */
+    private static final char FIELD_SEPARATOR = ' ';
+
+    /**
+     * The separator of rows and of players.
+     */
+    private static final char GROUP_SEPARATOR = '/';
+
+    /**
+     * The separator of the items of a group.
+     */
+    private static final char ITEM_SEPARATOR = ',';
+
+    /**
+     * The separator of the cells of a turn in progress.
+     */
+    private static final char TURN_SEPARATOR = ':';
+
+    /**
+     * Written for a cell or chaos field that has no value.
+     */
+    private static final char NONE = '-';
+
+    /**
+     * The marker of the winner after the player to move.
+     */
+    private static final char WINNER = 'w';
+
+    /**
+     * The phase letter for moving.
+     */
+    private static final char MOVE_PHASE = 'm';
+
+    /**
+     * The phase letter for building.
+     */
+    private static final char BUILD_PHASE = 'b';
+
+    /**
+     * The letter of an open-air tower of height 0 under fog.
+     */
+    private static final char FOGGED_GROUND = 'A';
+
+    /**
+     * The height of a dome.
+     */
+    private static final int DOME_HEIGHT = 4;
+
+    // Attributes
+
+    /**
+     * The text being read.
+     */
+    private final CharSequence text;
+
+    /**
+     * The offset of the next character to read.
+     */
+    private int offset;
+
+    // Constructor
+
+    /**
+     * Constructor. Positions are read by the static methods, each using a reader of its own.
+     *
+     * @param text The text to read.
+     */
+    private PositionNotation(CharSequence text) {
+        this.text = text;
+    }
+
+    // Methods
+
+    /**
+     * Writes the position of a game.
+     *
+     * @param game The game.
+     * @return The notation of the position.
+     */
+    public static String write(Game game) {
+        return write(game.getGameState(), game.getModifier());
+    }
+
+    /**
+     * Writes a position.
+     *
+     * @param gameState The state of the game.
+     * @param modifier The modifier of the game, whose chaos countdowns are written, or null for none.
+     * @return The notation of the position.
+     */
+    public static String write(GameState gameState, GameModifier modifier) {
+        Board board = gameState.getBoard();
+        List<Player> players = gameState.getPlayers();
+        StringBuilder builder = new StringBuilder((board.getWidth() + 1) * board.getHeight() + 64);
+
+        // Towers, from the top row down
+        for (int y = board.getHeight() - 1; y >= 0; y--) {
+            for (int x = 0; x < board.getWidth(); x++) {
+                Tower tower = board.getTower(new Position(x, y));
+                builder.append((char) ((tower.getFogged() ? FOGGED_GROUND : '0') + tower.getHeight()));
+            }
+            if (y > 0) {
+                builder.append(GROUP_SEPARATOR);
+            }
+        }
+
+        // Workers and gods
+        builder.append(FIELD_SEPARATOR);
+        for (int i = 0; i < players.size(); i++) {
+            List<Worker> workers = players.get(i).getWorkers();
+            for (int j = 0; j < workers.size(); j++) {
+                appendCell(builder, board.getPositionOf(workers.get(j)));
+                builder.append(j < workers.size() - 1 ? ITEM_SEPARATOR : i < players.size() - 1 ? GROUP_SEPARATOR : FIELD_SEPARATOR);
+            }
+        }
+        for (int i = 0; i < players.size(); i++) {
+            builder.append(players.get(i).getGod().getName());
+            builder.append(i < players.size() - 1 ? GROUP_SEPARATOR : FIELD_SEPARATOR);
+        }
+
+        // Player to move, winner and turn number
+        builder.append(gameState.getCurrentPlayerIndex());
+        if (gameState.getWinner() != null) {
+            builder.append(WINNER).append(players.indexOf(gameState.getWinner()));
+        }
+        builder.append(FIELD_SEPARATOR).append(gameState.getTurnNumber()).append(FIELD_SEPARATOR);
+
+        // Phase, and the cells of the turn in progress
+        builder.append(gameState.getGamePhase() == GamePhase.BUILD ? BUILD_PHASE : MOVE_PHASE);
+        builder.append(gameState.getMovesRemaining()).append(gameState.getBuildsRemaining());
+        // The selection of the last turn lingers until the next player selects a worker
+        Worker selectedWorker = gameState.getSelectedWorker();
+        if (selectedWorker != null && !gameState.getCurrentPlayer().canSelectWorker()
+            && gameState.getCurrentPlayer().getWorkers().contains(selectedWorker)) {
+            builder.append(TURN_SEPARATOR);
+            appendCell(builder, board.getPositionOf(selectedWorker));
+            builder.append(TURN_SEPARATOR);
+            appendCell(builder, gameState.getOriginalWorkerPosition());
+            builder.append(TURN_SEPARATOR);
+            appendCell(builder, gameState.getLastWorkerMovePosition());
+            builder.append(TURN_SEPARATOR);
+            appendCell(builder, gameState.getLastWorkerBuildPosition());
+        }
+
+        // Chaos countdowns
+        builder.append(FIELD_SEPARATOR);
+        if (modifier instanceof ChaosModifier chaosModifier) {
+            List<Chaos> chaosEffects = chaosModifier.getChaosEffects();
+            for (int i = 0; i < chaosEffects.size(); i++) {
+                builder.append(chaosEffects.get(i).getCountdown());
+                if (i < chaosEffects.size() - 1) {
+                    builder.append(ITEM_SEPARATOR);
+                }
+            }
+        }
+        else {
+            builder.append(NONE);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Reads a position into a game state. The chaos countdowns are checked but not kept,
+     * as they belong to the modifier of a game.
+     *
+     * @param text The notation of the position.
+     * @return The game state.
+     * @throws IllegalArgumentException If the text is not a valid position.
+     */
+    public static GameState parse(CharSequence text) {
+        return new PositionNotation(text).readGameState(null);
+    }
+
+    /**
+     * Reads a position into a new headless game, with a chaos modifier if the position has chaos countdowns.
+     *
+     * @param text The notation of the position.
+     * @param random The randomizer of the chaos effects after the position.
+     * @return The game.
+     * @throws IllegalArgumentException If the text is not a valid position.
+     */
+    public static Game toGame(CharSequence text, Random random) {
+        List<Integer> countdowns = new ArrayList<>();
+        GameState gameState = new PositionNotation(text).readGameState(countdowns);
+
+        Game game = new Game();
+        if (countdowns.isEmpty()) {
+            game.setModifier(new StandardModifier());
+        }
+        else {
+            ChaosModifier modifier = new ChaosModifier(random);
+            List<Chaos> chaosEffects = modifier.getChaosEffects();
+            if (countdowns.size() != chaosEffects.size()) {
+                throw new IllegalArgumentException("Expected " + chaosEffects.size() + " chaos countdowns but found " + countdowns.size());
+            }
+            for (int i = 0; i < chaosEffects.size(); i++) {
+                chaosEffects.get(i).setCountdown(countdowns.get(i));
+            }
+            game.setModifier(modifier);
+        }
+        game.setGameState(gameState);
+        return game;
+    }
+
+    /**
+     * Reads the whole text.
+     *
+     * @param countdowns Filled with the chaos countdowns, or null to only check them.
+     * @return The game state.
+     * @throws IllegalArgumentException If the text is not a valid position.
+     */
+    private GameState readGameState(List<Integer> countdowns) {
+        Board board = readBoard();
+        expect(FIELD_SEPARATOR);
+        List<Player> players = readWorkers(board);
+        expect(FIELD_SEPARATOR);
+        readGods(players);
+        expect(FIELD_SEPARATOR);
+
+        int currentPlayerIndex = readPlayerIndex(players);
+        Player winner = null;
+        if (peek() == WINNER) {
+            offset++;
+            winner = players.get(readPlayerIndex(players));
+        }
+        expect(FIELD_SEPARATOR);
+        GameState gameState = new GameState(board, players, currentPlayerIndex);
+        gameState.setWinner(winner);
+        gameState.setTurnNumber(readNumber());
+        expect(FIELD_SEPARATOR);
+        readPhase(gameState);
+        expect(FIELD_SEPARATOR);
+        readChaos(countdowns);
+        if (offset < text.length()) {
+            throw error("Unexpected text after the position");
+        }
+        return gameState;
+    }
+
+    /**
+     * Reads the towers, sizing the board from its rows.
+     *
+     * @return The board, without workers.
+     */
+    private Board readBoard() {
+        int start = offset;
+        int width = 0;
+        int height = 1;
+        while (offset < text.length() && text.charAt(offset) != FIELD_SEPARATOR) {
+            if (text.charAt(offset) == GROUP_SEPARATOR) {
+                height++;
+            }
+            else if (height == 1) {
+                width++;
+            }
+            offset++;
+        }
+        if (width == 0 || offset - start != (width + 1) * height - 1) {
+            offset = start;
+            throw error("The rows of the board must all have the same width");
+        }
+
+        Board board = new Board(width, height);
+        offset = start;
+        for (int y = height - 1; y >= 0; y--) {
+            for (int x = 0; x < width; x++) {
+                char cell = text.charAt(offset);
+                boolean fogged = cell >= FOGGED_GROUND && cell <= FOGGED_GROUND + DOME_HEIGHT;
+                int towerHeight = fogged ? cell - FOGGED_GROUND : cell - '0';
+                if (towerHeight < 0 || towerHeight > DOME_HEIGHT) {
+                    throw error("Invalid tower " + cell);
+                }
+                Tower tower = board.getTower(new Position(x, y));
+                tower.setFogged(fogged);
+                for (int floor = 0; floor < towerHeight; floor++) {
+                    tower.buildFloor();
+                }
+                offset++;
+            }
+            if (y > 0) {
+                expect(GROUP_SEPARATOR);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Reads the workers of each player, creating the players and placing the workers on the board.
+     *
+     * @param board The board.
+     * @return The players.
+     */
+    private List<Player> readWorkers(Board board) {
+        List<Player> players = new ArrayList<>(2);
+        while (true) {
+            Player player = new Player(String.format("Player %d", players.size() + 1));
+            while (true) {
+                int cellStart = offset;
+                Position position = readCell(board);
+                if (position == null || board.isOccupied(position)) {
+                    offset = cellStart;
+                    throw error("Worker cell is missing or already occupied");
+                }
+                Worker worker = new Worker();
+                player.addWorker(worker);
+                board.addWorker(position, worker);
+                if (peek() != ITEM_SEPARATOR) {
+                    break;
+                }
+                offset++;
+            }
+            player.initialiseWorkerIcon(players.size());
+            players.add(player);
+            if (peek() != GROUP_SEPARATOR) {
+                return players;
+            }
+            offset++;
+        }
+    }
+
+    /**
+     * Reads the god of each player.
+     *
+     * @param players The players.
+     */
+    private void readGods(List<Player> players) {
+        for (int i = 0; i < players.size(); i++) {
+            int start = offset;
+            while (offset < text.length() && text.charAt(offset) != GROUP_SEPARATOR && text.charAt(offset) != FIELD_SEPARATOR) {
+                offset++;
+            }
+            God god = God.parseName(text.subSequence(start, offset).toString());
+            if (god == null) {
+                offset = start;
+                throw error("Unknown god");
+            }
+            players.get(i).setGod(god);
+            if (i < players.size() - 1) {
+                expect(GROUP_SEPARATOR);
+            }
+        }
+    }
+
+    /**
+     * Reads the phase and the cells of the turn in progress.
+     *
+     * @param gameState The game state to set them on.
+     */
+    private void readPhase(GameState gameState) {
+        char phase = peek();
+        if (phase != MOVE_PHASE && phase != BUILD_PHASE) {
+            throw error("The phase must be " + MOVE_PHASE + " or " + BUILD_PHASE);
+        }
+        offset++;
+        gameState.setGamePhase(phase == BUILD_PHASE ? GamePhase.BUILD : GamePhase.MOVE);
+        gameState.setMovesRemaining(readDigit());
+        gameState.setBuildsRemaining(readDigit());
+
+        // Every player selects a worker at the start of their turn
+        for (Player player : gameState.getPlayers()) {
+            player.setCanSelectWorker(true);
+        }
+        if (peek() != TURN_SEPARATOR) {
+            return;
+        }
+
+        Board board = gameState.getBoard();
+        offset++;
+        int cellStart = offset;
+        Position selected = readCell(board);
+        Worker worker = selected != null ? board.getWorkerAt(selected) : null;
+        if (worker == null || !gameState.getCurrentPlayer().getWorkers().contains(worker)) {
+            offset = cellStart;
+            throw error("The selected worker must be a worker of the player to move");
+        }
+        gameState.setSelectedWorker(worker);
+        gameState.getCurrentPlayer().setCanSelectWorker(false);
+        expect(TURN_SEPARATOR);
+        gameState.setOriginalWorkerPosition(readCell(board));
+        expect(TURN_SEPARATOR);
+        gameState.setLastWorkerMovePosition(readCell(board));
+        expect(TURN_SEPARATOR);
+        gameState.setLastWorkerBuildPosition(readCell(board));
+        gameState.setHasMoved(gameState.getLastWorkerMovePosition() != null);
+        gameState.setHasBuilt(gameState.getLastWorkerBuildPosition() != null);
+    }
+
+    /**
+     * Reads the chaos countdowns.
+     *
+     * @param countdowns Filled with the countdowns, or null to only check them.
+     */
+    private void readChaos(List<Integer> countdowns) {
+        if (peek() == NONE) {
+            offset++;
+            return;
+        }
+        while (true) {
+            int countdown = readNumber();
+            if (countdowns != null) {
+                countdowns.add(countdown);
+            }
+            if (peek() != ITEM_SEPARATOR) {
+                return;
+            }
+            offset++;
+        }
+    }
+
+    /**
+     * Reads a cell written as its column letter and row number, or a dash for none.
+     *
+     * @param board The board the cell must be on.
+     * @return The cell, or null for a dash.
+     */
+    private Position readCell(Board board) {
+        if (peek() == NONE) {
+            offset++;
+            return null;
+        }
+        int start = offset;
+        char column = peek();
+        if (column < 'a' || column > 'z') {
+            throw error("Invalid cell");
+        }
+        offset++;
+        Position position = new Position(column - 'a', readNumber() - 1);
+        if (!board.isValidPosition(position)) {
+            offset = start;
+            throw error("Cell outside the board");
+        }
+        return position;
+    }
+
+    /**
+     * Reads the index of a player.
+     *
+     * @param players The players.
+     * @return The index.
+     */
+    private int readPlayerIndex(List<Player> players) {
+        int start = offset;
+        int index = readNumber();
+        if (index >= players.size()) {
+            offset = start;
+            throw error("Player index out of range");
+        }
+        return index;
+    }
+
+    /**
+     * Reads a single digit.
+     *
+     * @return The value of the digit.
+     */
+    private int readDigit() {
+        char digit = peek();
+        if (digit < '0' || digit > '9') {
+            throw error("Expected a digit");
+        }
+        offset++;
+        return digit - '0';
+    }
+
+    /**
+     * Reads a non-negative number.
+     *
+     * @return The number.
+     */
+    private int readNumber() {
+        int start = offset;
+        int value = 0;
+        while (offset < text.length() && text.charAt(offset) >= '0' && text.charAt(offset) <= '9') {
+            value = value * 10 + text.charAt(offset) - '0';
+            offset++;
+            if (value < 0 || offset - start > 9) {
+                offset = start;
+                throw error("Number too large");
+            }
+        }
+        if (offset == start) {
+            throw error("Expected a number");
+        }
+        return value;
+    }
+
+    /**
+     * Consumes an expected character.
+     *
+     * @param expected The character.
+     */
+    private void expect(char expected) {
+        if (peek() != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+        offset++;
+    }
+
+    /**
+     * Gets the next character without consuming it.
+     *
+     * @return The next character, or 0 at the end of the text.
+     */
+    private char peek() {
+        return offset < text.length() ? text.charAt(offset) : 0;
+    }
+
+    /**
+     * Creates an error at the current offset.
+     *
+     * @param message The description of the error.
+     * @return The error.
+     */
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + offset + " of position notation");
+    }
+
+    /**
+     * Writes a cell as its column letter and row number, or a dash for none.
+     *
+     * @param builder The builder to write to.
+     * @param position The cell, or null.
+     */
+    private static void appendCell(StringBuilder builder, Position position) {
+        if (position == null) {
+            builder.append(NONE);
+            return;
+        }
+        builder.append((char) ('a' + position.x())).append(position.y() + 1);
+    }
+}
@@ -0,0 +1,89 @@
+package santorini.game;
+
+import santorini.board.Board;
+import santorini.players.Player;
+import santorini.players.Worker;
+import santorini.towers.Tower;
+
+import java.util.List;
+
+/**
+ * Computes a 64-bit FNV-1a hash of everything that decides how a game plays on: the towers,
+ * fog and workers of the board and the progress of the current turn. Peers running the same
+ * game compare hashes to detect that their games have drifted apart.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public final class StateHash {
+
+    // Constants
+
+    /**
+     * The starting value of an FNV-1a hash.
+     */
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    /**
+     * The multiplier of an FNV-1a hash.
+     */
+    private static final long PRIME = 0x100000001b3L;
+
+    // Constructor
+
+    /**
+     * Constructor. The hash only has static methods.
+     */
+    private StateHash() {
+    }
+
+    // Methods
+
+    /**
+     * Computes the hash of a game state.
+     *
+     * @param gameState The game state.
+     * @return The hash of the game state.
+     */
+    public static long of(GameState gameState) {
+        Board board = gameState.getBoard();
+        List<Player> players = gameState.getPlayers();
+
+        long hash = OFFSET_BASIS;
+        hash = mix(hash, board.getWidth());
+        hash = mix(hash, board.getHeight());
+        for (int index = 0; index < board.getWidth() * board.getHeight(); index++) {
+            Position position = board.getPosition(index);
+            Tower tower = board.getTower(position);
+            hash = mix(hash, tower.getHeight() | (tower.getFogged() ? 0x08 : 0));
+        }
+        for (Player player : players) {
+            for (Worker worker : player.getWorkers()) {
+                hash = mix(hash, board.getIndex(board.getPositionOf(worker)));
+            }
+        }
+
+        hash = mix(hash, gameState.getCurrentPlayerIndex());
+        hash = mix(hash, gameState.getTurnNumber());
+        hash = mix(hash, gameState.getGamePhase().ordinal());
+        hash = mix(hash, gameState.getMovesRemaining());
+        hash = mix(hash, gameState.getBuildsRemaining());
+        hash = mix(hash, players.indexOf(gameState.getWinner()));
+        return hash;
+    }
+
+    /**
+     * Mixes the four bytes of a value into a hash.
+     *
+     * @param hash The hash so far.
+     * @param value The value to mix in.
+     * @return The new hash.
+     */
+    private static long mix(long hash, int value) {
+        for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+            hash ^= (value >>> shift) & 0xFF;
+            hash *= PRIME;
+        }
+        return hash;
+    }
+}
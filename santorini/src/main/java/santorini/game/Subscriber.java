@@ -1,9 +1,13 @@
 package santorini.game;
 
+import java.util.Set;
+
 /**
  * Interface for components that subscribe to game state updates.
  * Implementing classes will be notified when the game state changes,
- * allowing them to react accordingly.
+ * allowing them to react accordingly. Changes made during one logical action
+ * are coalesced into a single update, and subscribers may choose to only
+ * receive updates containing the kinds of change they care about.
  *
  * Created by:
  * author Yuan Yi
@@ -16,4 +20,26 @@ public interface Subscriber {
      * @param gameState The new game state.
      */
     void update(GameState gameState);
+
+    /**
+     * Called when the game state is updated, with a summary of what changed.
+     * By default, this ignores the summary and calls update(GameState).
+     *
+     * @param gameState The new game state.
+     * @param changes The kinds of change since the previous update.
+     */
+    default void update(GameState gameState, Set<GameChange> changes) {
+        update(gameState);
+    }
+
+    /**
+     * Checks whether the subscriber should be notified of an update.
+     * By default, subscribers are notified of every update.
+     *
+     * @param changes The kinds of change in the update.
+     * @return True if the subscriber should be notified, false otherwise.
+     */
+    default boolean isInterestedIn(Set<GameChange> changes) {
+        return true;
+    }
 }
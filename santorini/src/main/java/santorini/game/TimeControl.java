@@ -0,0 +1,91 @@
+package santorini.game;
+
+import java.time.Duration;
+
+/**
+ * The time each player of a game is given. With an increment, each player starts with the
+ * base time and gains the increment after each of their turns, as on a chess clock. Per turn,
+ * each player has the base time for every turn and unused time is not carried over.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param base The time each player starts with, or has for each turn.
+ * @param increment The time added after each turn, zero per turn.
+ * @param perTurn Whether the time is given afresh for every turn.
+ */
+public record TimeControl(Duration base, Duration increment, boolean perTurn) {
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param base The time each player starts with, or has for each turn, which must be positive.
+     * @param increment The time added after each turn, which must not be negative.
+     * @param perTurn Whether the time is given afresh for every turn.
+     */
+    public TimeControl {
+        if (base.isNegative() || base.isZero() || increment.isNegative()) {
+            throw new IllegalArgumentException("Invalid time control " + base + "+" + increment);
+        }
+    }
+
+    // Methods
+
+    /**
+     * Creates a time control with a base time and an increment after each turn.
+     *
+     * @param base The time each player starts with.
+     * @param increment The time added after each turn.
+     * @return The time control.
+     */
+    public static TimeControl withIncrement(Duration base, Duration increment) {
+        return new TimeControl(base, increment, false);
+    }
+
+    /**
+     * Creates a time control with a fixed time for every turn.
+     *
+     * @param limit The time each player has for each turn.
+     * @return The time control.
+     */
+    public static TimeControl perTurn(Duration limit) {
+        return new TimeControl(limit, Duration.ZERO, true);
+    }
+
+    /**
+     * Parses a time control written as base seconds plus increment seconds, such as "300+5",
+     * or as seconds per turn, such as "30/turn".
+     *
+     * @param text The written time control.
+     * @return The time control.
+     * @throws IllegalArgumentException If the text is not a time control.
+     */
+    public static TimeControl parse(String text) {
+        try {
+            String trimmed = text.trim();
+            if (trimmed.endsWith("/turn")) {
+                return perTurn(Duration.ofSeconds(Long.parseLong(trimmed.substring(0, trimmed.length() - 5))));
+            }
+            int plus = trimmed.indexOf('+');
+            if (plus < 0) {
+                return withIncrement(Duration.ofSeconds(Long.parseLong(trimmed)), Duration.ZERO);
+            }
+            return withIncrement(Duration.ofSeconds(Long.parseLong(trimmed.substring(0, plus))),
+                Duration.ofSeconds(Long.parseLong(trimmed.substring(plus + 1))));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid time control " + text, e);
+        }
+    }
+
+    /**
+     * Writes the time control the way it is parsed.
+     *
+     * @return The written time control.
+     */
+    @Override
+    public String toString() {
+        return perTurn ? base.toSeconds() + "/turn" : base.toSeconds() + "+" + increment.toSeconds();
+    }
+}
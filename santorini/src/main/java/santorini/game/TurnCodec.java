@@ -0,0 +1,327 @@
+package santorini.game;
+
+import santorini.players.Player;
+import santorini.players.Worker;
+
+/**
+ * Packs a complete turn into a single long, so code handling many turns, such as a search,
+ * a journal or a replay, can keep them as primitives rather than as lists of objects.
+ * From the lowest bit up, a turn holds:
+ *
+ * <ol>
+ * <li>The id of the worker taking the turn, in three bits. Workers are numbered in the order of
+ * the players, then in the order of each player's workers.</li>
+ * <li>The number of moves, in three bits.</li>
+ * <li>The number of builds, in two bits.</li>
+ * <li>The cells moved to, then the cells built on, in six bits each, by cell index.</li>
+ * </ol>
+ *
+ * Turns are built worker first, then move by move and build by build, as they are played.
+ * Up to nine cells fit, which covers every turn of the gods in the game bar Triton running
+ * along the perimeter more than seven times. The top two bits are never set, so NONE, which
+ * has every bit set, is never a turn.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public final class TurnCodec {
+
+    // Constants
+
+    /**
+     * Stands for no turn, such as a turn that has not been played or does not fit.
+     */
+    public static final long NONE = -1L;
+
+    /**
+     * The number of workers a turn can name.
+     */
+    public static final int MAXIMUM_WORKERS = 8;
+
+    /**
+     * The number of moves a turn can hold.
+     */
+    public static final int MAXIMUM_MOVES = 7;
+
+    /**
+     * The number of builds a turn can hold.
+     */
+    public static final int MAXIMUM_BUILDS = 3;
+
+    /**
+     * The number of cells, moves and builds together, a turn can hold.
+     */
+    public static final int MAXIMUM_CELLS = 9;
+
+    /**
+     * The number of cells of the largest board whose cells a turn can name.
+     */
+    public static final int MAXIMUM_BOARD_CELLS = 64;
+
+    /**
+     * The mask of the worker id.
+     */
+    private static final int WORKER_MASK = 0x7;
+
+    /**
+     * The position of the number of moves.
+     */
+    private static final int MOVE_COUNT_SHIFT = 3;
+
+    /**
+     * The mask of the number of moves.
+     */
+    private static final int MOVE_COUNT_MASK = 0x7;
+
+    /**
+     * The position of the number of builds.
+     */
+    private static final int BUILD_COUNT_SHIFT = 6;
+
+    /**
+     * The mask of the number of builds.
+     */
+    private static final int BUILD_COUNT_MASK = 0x3;
+
+    /**
+     * The position of the first cell.
+     */
+    private static final int CELLS_SHIFT = 8;
+
+    /**
+     * The number of bits of a cell.
+     */
+    private static final int CELL_BITS = 6;
+
+    /**
+     * The mask of a cell.
+     */
+    private static final int CELL_MASK = 0x3F;
+
+    // Constructor
+
+    /**
+     * Constructor. The codec only has static methods.
+     */
+    private TurnCodec() {
+    }
+
+    // Methods
+
+    /**
+     * Starts a turn of a worker, with no moves or builds yet.
+     *
+     * @param workerId The id of the worker.
+     * @return The turn.
+     * @throws IllegalArgumentException If the id is not one a turn can name.
+     */
+    public static long of(int workerId) {
+        if (workerId < 0 || workerId >= MAXIMUM_WORKERS) {
+            throw new IllegalArgumentException("Worker id " + workerId + " does not fit in a turn");
+        }
+        return workerId;
+    }
+
+    /**
+     * Adds a move to a turn.
+     *
+     * @param turn The turn, with no builds yet.
+     * @param cell The index of the cell moved to.
+     * @return The turn with the move added.
+     * @throws IllegalArgumentException If the turn has builds or has no room for another move, or the cell does not fit.
+     */
+    public static long withMove(long turn, int cell) {
+        if (getBuildCount(turn) > 0) {
+            throw new IllegalArgumentException("Moves must come before builds");
+        }
+        if (!hasRoomForMove(turn)) {
+            throw new IllegalArgumentException("A turn holds at most " + MAXIMUM_MOVES + " moves");
+        }
+        int moveCount = getMoveCount(turn);
+        return withCell(turn, moveCount, cell) + ((long) 1 << MOVE_COUNT_SHIFT);
+    }
+
+    /**
+     * Adds a build to a turn.
+     *
+     * @param turn The turn.
+     * @param cell The index of the cell built on.
+     * @return The turn with the build added.
+     * @throws IllegalArgumentException If the turn has no room for another build, or the cell does not fit.
+     */
+    public static long withBuild(long turn, int cell) {
+        if (!hasRoomForBuild(turn)) {
+            throw new IllegalArgumentException("A turn holds at most " + MAXIMUM_BUILDS + " builds");
+        }
+        return withCell(turn, getCellCount(turn), cell) + ((long) 1 << BUILD_COUNT_SHIFT);
+    }
+
+    /**
+     * Checks whether another move can be added to a turn.
+     *
+     * @param turn The turn.
+     * @return True if the turn has no builds yet and room for another move, false otherwise.
+     */
+    public static boolean hasRoomForMove(long turn) {
+        return turn != NONE && getBuildCount(turn) == 0 && getMoveCount(turn) < MAXIMUM_MOVES
+            && getCellCount(turn) < MAXIMUM_CELLS;
+    }
+
+    /**
+     * Checks whether another build can be added to a turn.
+     *
+     * @param turn The turn.
+     * @return True if the turn has room for another build, false otherwise.
+     */
+    public static boolean hasRoomForBuild(long turn) {
+        return turn != NONE && getBuildCount(turn) < MAXIMUM_BUILDS && getCellCount(turn) < MAXIMUM_CELLS;
+    }
+
+    /**
+     * Gets the id of the worker taking a turn.
+     *
+     * @param turn The turn.
+     * @return The id of the worker.
+     */
+    public static int getWorkerId(long turn) {
+        return (int) turn & WORKER_MASK;
+    }
+
+    /**
+     * Gets the number of moves of a turn.
+     *
+     * @param turn The turn.
+     * @return The number of moves.
+     */
+    public static int getMoveCount(long turn) {
+        return (int) (turn >>> MOVE_COUNT_SHIFT) & MOVE_COUNT_MASK;
+    }
+
+    /**
+     * Gets the number of builds of a turn.
+     *
+     * @param turn The turn.
+     * @return The number of builds.
+     */
+    public static int getBuildCount(long turn) {
+        return (int) (turn >>> BUILD_COUNT_SHIFT) & BUILD_COUNT_MASK;
+    }
+
+    /**
+     * Gets a cell moved to in a turn.
+     *
+     * @param turn The turn.
+     * @param move The index of the move, from 0.
+     * @return The index of the cell.
+     */
+    public static int getMove(long turn, int move) {
+        return getCell(turn, move);
+    }
+
+    /**
+     * Gets a cell built on in a turn.
+     *
+     * @param turn The turn.
+     * @param build The index of the build, from 0.
+     * @return The index of the cell.
+     */
+    public static int getBuild(long turn, int build) {
+        return getCell(turn, getMoveCount(turn) + build);
+    }
+
+    /**
+     * Gets the id of a worker of a game.
+     *
+     * @param gameState The state of the game.
+     * @param worker The worker.
+     * @return The id of the worker, or -1 if it is not a worker of the game.
+     */
+    public static int idOf(GameState gameState, Worker worker) {
+        int id = 0;
+        for (Player player : gameState.getPlayers()) {
+            for (Worker playerWorker : player.getWorkers()) {
+                if (playerWorker == worker) {
+                    return id;
+                }
+                id++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the worker taking a turn in a game.
+     *
+     * @param gameState The state of the game.
+     * @param turn The turn.
+     * @return The worker.
+     * @throws IllegalArgumentException If the game has no worker with the id of the turn.
+     */
+    public static Worker workerOf(GameState gameState, long turn) {
+        int id = getWorkerId(turn);
+        for (Player player : gameState.getPlayers()) {
+            if (id < player.getWorkers().size()) {
+                return player.getWorkers().get(id);
+            }
+            id -= player.getWorkers().size();
+        }
+        throw new IllegalArgumentException("No worker has the id " + getWorkerId(turn));
+    }
+
+    /**
+     * Writes a turn for logs and tests, as the worker id followed by the cells moved to and built on.
+     *
+     * @param turn The turn.
+     * @return The written turn, such as "w1 m12 m13 b18".
+     */
+    public static String toString(long turn) {
+        if (turn == NONE) {
+            return "none";
+        }
+        StringBuilder builder = new StringBuilder("w").append(getWorkerId(turn));
+        for (int move = 0; move < getMoveCount(turn); move++) {
+            builder.append(" m").append(getMove(turn, move));
+        }
+        for (int build = 0; build < getBuildCount(turn); build++) {
+            builder.append(" b").append(getBuild(turn, build));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Gets the number of cells of a turn, moves and builds together.
+     *
+     * @param turn The turn.
+     * @return The number of cells.
+     */
+    private static int getCellCount(long turn) {
+        return getMoveCount(turn) + getBuildCount(turn);
+    }
+
+    /**
+     * Gets a cell of a turn.
+     *
+     * @param turn The turn.
+     * @param slot The index of the cell, moves first.
+     * @return The index of the cell on the board.
+     */
+    private static int getCell(long turn, int slot) {
+        return (int) (turn >>> (CELLS_SHIFT + slot * CELL_BITS)) & CELL_MASK;
+    }
+
+    /**
+     * Writes a cell into a free slot of a turn.
+     *
+     * @param turn The turn.
+     * @param slot The index of the slot, moves first.
+     * @param cell The index of the cell on the board.
+     * @return The turn with the cell written.
+     * @throws IllegalArgumentException If the cell does not fit.
+     */
+    private static long withCell(long turn, int slot, int cell) {
+        if (cell < 0 || cell >= MAXIMUM_BOARD_CELLS) {
+            throw new IllegalArgumentException("Cell " + cell + " does not fit in a turn");
+        }
+        return turn | (long) cell << (CELLS_SHIFT + slot * CELL_BITS);
+    }
+}
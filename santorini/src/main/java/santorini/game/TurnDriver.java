@@ -0,0 +1,425 @@
+package santorini.game;
+
+import santorini.actions.BuildAction;
+import santorini.actions.MoveAction;
+import santorini.board.Board;
+import santorini.board.MovementValidator;
+import santorini.players.Player;
+import santorini.players.Worker;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Drives the turns of a game from the cells a player picks, independently of how the
+ * picks are made. It keeps track of the step of the turn, the worker taking its turn and
+ * the cells that can be picked, so the same rules run behind the game window and behind
+ * a match hosted by a server. Picks of cells that are not targets are rejected.
+ *
+ * Created by:
+ * author Yuan Yi, Zi Yang
+ */
+public class TurnDriver implements Subscriber {
+
+    // Attributes
+
+    /**
+     * The game being driven.
+     */
+    private final Game game;
+
+    /**
+     * The kind of cell the current player is expected to pick next.
+     */
+    private TurnStep step;
+
+    /**
+     * The position of the worker taking its turn, or null while selecting a worker.
+     */
+    private Position workerPosition;
+
+    /**
+     * The cells the current player can pick, by cell index.
+     */
+    private final BitSet targets;
+
+    /**
+     * The turn being played by the current player, encoded, or TurnCodec.NONE before a worker is selected.
+     */
+    private long turn;
+
+    /**
+     * The last turn played to its end, encoded, or TurnCodec.NONE if none has been or it did not fit.
+     */
+    private long lastTurn;
+
+    // Constructor
+
+    /**
+     * Constructor. Subscribes to the game, so that worker selection starts with every turn.
+     *
+     * @param game The game to drive.
+     */
+    public TurnDriver(Game game) {
+        this.game = game;
+        this.step = TurnStep.NONE;
+        this.targets = new BitSet();
+        this.turn = TurnCodec.NONE;
+        this.lastTurn = TurnCodec.NONE;
+        game.addSubscriber(this);
+        if (game.getGameState() != null) {
+            update(game.getGameState());
+        }
+    }
+
+    // Methods
+
+    /**
+     * Starts worker selection at the start of a turn.
+     *
+     * @param gameState The current game state.
+     */
+    @Override
+    public void update(GameState gameState) {
+        if (gameState.getCurrentPlayer().canSelectWorker()) {
+            targetWorkers();
+        }
+    }
+
+    /**
+     * Picks a cell, selecting the worker on it, moving to it or building on it depending
+     * on the step of the turn.
+     *
+     * @param position The picked cell.
+     * @return True if the cell was a target and the pick was played, false otherwise.
+     */
+    public boolean pick(Position position) {
+        GameState gameState = game.getGameState();
+        if (gameState == null || !gameState.getBoard().isValidPosition(position)
+            || !targets.get(gameState.getBoard().getIndex(position))) {
+            return false;
+        }
+        int turnNumber = gameState.getTurnNumber();
+        switch (step) {
+            case SELECT_WORKER -> selectWorker(position);
+            case MOVE -> moveWorker(position);
+            case BUILD -> buildTower(position);
+            case NONE -> {
+                return false;
+            }
+        }
+        recordTurnEnd(turnNumber);
+        return true;
+    }
+
+    /**
+     * Plays an encoded turn through the rules, input by input, ending each phase early where
+     * the turn stops before the rules would.
+     *
+     * @param turn The turn.
+     * @return True if the whole turn was played and it ended the player's turn, false if an input was rejected.
+     */
+    public boolean play(long turn) {
+        GameState gameState = game.getGameState();
+        if (turn == TurnCodec.NONE || step != TurnStep.SELECT_WORKER) {
+            return false;
+        }
+        Board board = gameState.getBoard();
+        Position workerPosition;
+        try {
+            workerPosition = board.getPositionOf(TurnCodec.workerOf(gameState, turn));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (workerPosition == null || !pick(workerPosition)) {
+            return false;
+        }
+
+        for (int move = 0; move < TurnCodec.getMoveCount(turn); move++) {
+            if (!pick(board.getPosition(TurnCodec.getMove(turn, move)))) {
+                return false;
+            }
+        }
+        if (step == TurnStep.MOVE && !endPhase()) {
+            return false;
+        }
+        for (int build = 0; build < TurnCodec.getBuildCount(turn); build++) {
+            if (!pick(board.getPosition(TurnCodec.getBuild(turn, build)))) {
+                return false;
+            }
+        }
+        if (step == TurnStep.BUILD && !endPhase()) {
+            return false;
+        }
+        return lastTurn == turn && this.turn == TurnCodec.NONE;
+    }
+
+    /**
+     * Ends the current phase early, moving on to building or to the next player's turn.
+     *
+     * @return True if the phase could be ended, false otherwise.
+     */
+    public boolean endPhase() {
+        if (!canEndPhase()) {
+            return false;
+        }
+        GameState gameState = game.getGameState();
+        int turnNumber = gameState.getTurnNumber();
+        reset();
+
+        if (gameState.getGamePhase() == GamePhase.MOVE) {
+            game.forceEndPhase();
+            targetBuilds(gameState.getLastWorkerMovePosition());
+        }
+        else {
+            // End the phase and the turn with a single update
+            game.runBatch(() -> {
+                game.forceEndPhase();
+                game.processTurn(null, null, null);
+            });
+        }
+        recordTurnEnd(turnNumber);
+        return true;
+    }
+
+    /**
+     * Checks whether the current phase can be ended, which is once the worker has moved
+     * or built at least once in the current phase.
+     *
+     * @return True if the current phase can be ended, false otherwise.
+     */
+    public boolean canEndPhase() {
+        GameState gameState = game.getGameState();
+        if (gameState == null || gameState.getWinner() != null) {
+            return false;
+        }
+        if (gameState.getGamePhase() == GamePhase.MOVE) {
+            return step == TurnStep.MOVE && gameState.getHasMoved();
+        }
+        return step == TurnStep.BUILD && gameState.getHasBuilt();
+    }
+
+    /**
+     * Clears the target cells, so that no cell can be picked.
+     */
+    public void reset() {
+        step = TurnStep.NONE;
+        workerPosition = null;
+        targets.clear();
+    }
+
+    /**
+     * Targets the current player's workers, allowing them to be selected.
+     */
+    private void targetWorkers() {
+        GameState gameState = game.getGameState();
+        Board board = gameState.getBoard();
+        Player currentPlayer = gameState.getCurrentPlayer();
+        currentPlayer.setCanSelectWorker(false);
+
+        // Target the cell of each worker of the player
+        BitSet cells = new BitSet();
+        for (Worker worker : currentPlayer.getWorkers()) {
+            cells.set(board.getIndex(board.getPositionOf(worker)));
+        }
+        setTargets(TurnStep.SELECT_WORKER, null, cells);
+    }
+
+    /**
+     * Targets the valid positions the worker can move to.
+     *
+     * @param position The position of the worker before moving.
+     */
+    private void targetMoves(Position position) {
+        GameState gameState = game.getGameState();
+        Board board = gameState.getBoard();
+        MovementValidator validator = new MovementValidator(board);
+        List<Position> adjacentPositions = validator.getMoveablePositions(position);
+
+        // The game is over if there are no available moves and a winner has been found
+        if (adjacentPositions.isEmpty() && gameState.getWinner() != null) {
+            reset();
+            return;
+        }
+
+        // Prevent moving back to the original position (for gods with multiple moves)
+        adjacentPositions.removeIf(adjacentPosition -> adjacentPosition.equals(gameState.getOriginalWorkerPosition()));
+
+        setTargets(TurnStep.MOVE, position, toCells(board, adjacentPositions));
+    }
+
+    /**
+     * Targets the valid positions for the worker to build.
+     *
+     * @param position The position of the worker before building.
+     */
+    private void targetBuilds(Position position) {
+        GameState gameState = game.getGameState();
+        Board board = gameState.getBoard();
+        MovementValidator validator = new MovementValidator(board);
+        List<Position> adjacentPositions = validator.getBuildablePositions(position);
+
+        if (adjacentPositions.isEmpty() && gameState.getWinner() != null) {
+            reset();
+            return;
+        }
+
+        adjacentPositions.removeIf(adjacentPosition -> adjacentPosition.equals(gameState.getLastWorkerBuildPosition()));
+
+        setTargets(TurnStep.BUILD, position, toCells(board, adjacentPositions));
+    }
+
+    /**
+     * Selects the worker on a cell and proceeds to the movement phase.
+     *
+     * @param position The cell of the selected worker.
+     */
+    private void selectWorker(Position position) {
+        GameState gameState = game.getGameState();
+        Worker worker = gameState.getBoard().getWorkerAt(position);
+        gameState.setSelectedWorker(worker);
+        int workerId = TurnCodec.idOf(gameState, worker);
+        turn = workerId >= 0 && workerId < TurnCodec.MAXIMUM_WORKERS ? TurnCodec.of(workerId) : TurnCodec.NONE;
+
+        reset();
+        game.processTurn();
+        if (gameState.getWinner() != null) {
+            return;
+        }
+        targetMoves(position);
+    }
+
+    /**
+     * Moves the worker taking its turn to a cell.
+     *
+     * @param target The cell to move to.
+     */
+    private void moveWorker(Position target) {
+        GameState gameState = game.getGameState();
+        Position position = workerPosition;
+        Worker currentWorker = gameState.getBoard().getWorkerAt(position);
+
+        reset();
+        Board board = gameState.getBoard();
+        turn = TurnCodec.hasRoomForMove(turn) ? TurnCodec.withMove(turn, board.getIndex(target)) : TurnCodec.NONE;
+        game.processTurn(gameState.getCurrentPlayer(), currentWorker, new MoveAction(target));
+        if (gameState.getWinner() != null) {
+            reset();
+            return;
+        }
+
+        gameState.setOriginalWorkerPosition(position);
+        gameState.setLastWorkerMovePosition(target);
+
+        // Target moves or builds depending on the moves remaining
+        if (gameState.getMovesRemaining() > 0) {
+            targetMoves(target);
+        }
+        else {
+            targetBuilds(target);
+        }
+    }
+
+    /**
+     * Builds with the worker taking its turn on a cell.
+     *
+     * @param target The cell to build on.
+     */
+    private void buildTower(Position target) {
+        GameState gameState = game.getGameState();
+        Position position = workerPosition;
+        Worker currentWorker = gameState.getBoard().getWorkerAt(position);
+
+        reset();
+        Board board = gameState.getBoard();
+        turn = TurnCodec.hasRoomForBuild(turn) ? TurnCodec.withBuild(turn, board.getIndex(target)) : TurnCodec.NONE;
+        gameState.setLastWorkerBuildPosition(target);
+        game.processTurn(gameState.getCurrentPlayer(), currentWorker, new BuildAction(target));
+        if (gameState.getHasBuilt() && gameState.getBuildsRemaining() > 0) {
+            targetBuilds(position);
+        }
+        if (gameState.getWinner() != null) {
+            reset();
+        }
+    }
+
+    /**
+     * Keeps the turn being played as the last turn once it has passed to the next player or won the game.
+     *
+     * @param turnNumber The turn number before the last input.
+     */
+    private void recordTurnEnd(int turnNumber) {
+        GameState gameState = game.getGameState();
+        if (gameState.getTurnNumber() != turnNumber || gameState.getWinner() != null) {
+            lastTurn = turn;
+            turn = TurnCodec.NONE;
+        }
+    }
+
+    /**
+     * Replaces the target cells and the kind of pick expected on them.
+     *
+     * @param step The kind of cell the current player is expected to pick.
+     * @param position The position of the worker taking its turn, or null while selecting a worker.
+     * @param cells The cells that can be picked, by cell index.
+     */
+    private void setTargets(TurnStep step, Position position, BitSet cells) {
+        this.step = step;
+        this.workerPosition = position;
+        targets.clear();
+        targets.or(cells);
+    }
+
+    /**
+     * Converts a list of cells to a set of cell indices.
+     *
+     * @param board The board the cells are on.
+     * @param positions The cells.
+     * @return The indices of the cells.
+     */
+    private static BitSet toCells(Board board, List<Position> positions) {
+        BitSet cells = new BitSet();
+        for (Position position : positions) {
+            cells.set(board.getIndex(position));
+        }
+        return cells;
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the game being driven.
+     *
+     * @return The game.
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Gets the kind of cell the current player is expected to pick next.
+     *
+     * @return The step of the turn.
+     */
+    public TurnStep getStep() {
+        return step;
+    }
+
+    /**
+     * Gets the cells the current player can pick.
+     *
+     * @return A copy of the target cells, by cell index.
+     */
+    public BitSet getTargets() {
+        return (BitSet) targets.clone();
+    }
+
+    /**
+     * Gets the last turn played to its end, such as to keep it in a journal or send it to a peer.
+     *
+     * @return The encoded turn, or TurnCodec.NONE if no turn has ended or it did not fit in a long.
+     */
+    public long getLastTurn() {
+        return lastTurn;
+    }
+}
@@ -0,0 +1,122 @@
+package santorini.game;
+
+import santorini.board.Board;
+import santorini.players.Player;
+import santorini.players.Worker;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plays encoded turns straight onto the board of a game and takes them back, for searches
+ * that try many turns on one board. Unlike a turn driver, the executor does not check the
+ * rules, run god powers or chaos, or advance the turn: the turns given must have been found
+ * legal, and must be taken back in the reverse order they were played.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class TurnExecutor {
+
+    // Constants
+
+    /**
+     * The height a worker wins on by moving up to it.
+     */
+    private static final int WINNING_HEIGHT = 3;
+
+    /**
+     * The number of turns the executor has room to take back before growing.
+     */
+    private static final int INITIAL_DEPTH = 16;
+
+    // Attributes
+
+    /**
+     * The board turns are played on.
+     */
+    private final Board board;
+
+    /**
+     * The workers of the game, by worker id.
+     */
+    private final Worker[] workers;
+
+    /**
+     * The cell each worker started on, for every turn played and not yet taken back.
+     */
+    private int[] origins;
+
+    /**
+     * The number of turns played and not yet taken back.
+     */
+    private int depth;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param gameState The state of the game whose board turns are played on.
+     */
+    public TurnExecutor(GameState gameState) {
+        this.board = gameState.getBoard();
+        this.workers = gameState.getPlayers().stream()
+            .map(Player::getWorkers)
+            .flatMap(List::stream)
+            .toArray(Worker[]::new);
+        this.origins = new int[INITIAL_DEPTH];
+    }
+
+    // Methods
+
+    /**
+     * Plays a turn on the board: the worker moves to each of its cells, then builds on each of its cells.
+     *
+     * @param turn The turn, which must be legal on the board.
+     * @return True if the worker moved up to the winning height, false otherwise.
+     */
+    public boolean apply(long turn) {
+        Worker worker = workers[TurnCodec.getWorkerId(turn)];
+        if (depth == origins.length) {
+            origins = Arrays.copyOf(origins, depth * 2);
+        }
+        origins[depth++] = board.getIndex(board.getPositionOf(worker));
+
+        int moveCount = TurnCodec.getMoveCount(turn);
+        for (int move = 0; move < moveCount; move++) {
+            board.moveWorker(board.getPosition(TurnCodec.getMove(turn, move)), worker);
+        }
+        for (int build = 0; build < TurnCodec.getBuildCount(turn); build++) {
+            board.buildFloor(board.getPosition(TurnCodec.getBuild(turn, build)));
+        }
+        return moveCount > 0 && board.getHeightOf(worker) == WINNING_HEIGHT;
+    }
+
+    /**
+     * Takes back the last turn played: the floors built come down and the worker returns to where it started.
+     *
+     * @param turn The last turn played.
+     * @throws IllegalStateException If no turn is left to take back.
+     */
+    public void revert(long turn) {
+        if (depth == 0) {
+            throw new IllegalStateException("No turn to take back");
+        }
+        for (int build = TurnCodec.getBuildCount(turn) - 1; build >= 0; build--) {
+            board.destroyFloor(board.getPosition(TurnCodec.getBuild(turn, build)));
+        }
+        board.moveWorker(board.getPosition(origins[--depth]), workers[TurnCodec.getWorkerId(turn)]);
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the number of turns played and not yet taken back.
+     *
+     * @return The number of turns.
+     */
+    public int getDepth() {
+        return depth;
+    }
+}
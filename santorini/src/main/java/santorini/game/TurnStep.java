@@ -0,0 +1,18 @@
+package santorini.game;
+
+/**
+ * Enum representing the kind of cell the current player is expected to pick next.
+ * A turn starts by selecting a worker, followed by one or more moves and builds.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public enum TurnStep {
+
+    // Enum constants
+
+    NONE,
+    SELECT_WORKER,
+    MOVE,
+    BUILD
+}
@@ -2,9 +2,13 @@ package santorini.game.chaos;
 
 import santorini.board.Board;
 import santorini.game.Position;
-import santorini.towers.Tower;
+import santorini.utils.LogEventType;
 import santorini.utils.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 /**
  * The BuildChaos effect randomly builds towers on the board based on
  * random intervals
@@ -35,6 +39,15 @@ public class BuildChaos extends Chaos {
         super(MINIMUM_INTERVAL, MAXIMUM_INTERVAL);
     }
 
+    /**
+     * Constructor.
+     *
+     * @param random The randomizer of the effect.
+     */
+    public BuildChaos(Random random) {
+        super(MINIMUM_INTERVAL, MAXIMUM_INTERVAL, random);
+    }
+
     // Methods
 
     /**
@@ -42,10 +55,12 @@ public class BuildChaos extends Chaos {
      *
      * @param board The game board of the current game.
      * @param affectedTowers The number of towers affected by the effect.
+     * @return The cells affected by the effect.
      */
     @Override
-    public void apply(Board board, int affectedTowers) {
-        Logger.getInstance().log("BOARD CHAOS - RANDOM TOWERS HAVE BEEN BUILT!");
+    public List<Position> apply(Board board, int affectedTowers) {
+        Logger.getInstance().log(LogEventType.BUILD_CHAOS);
+        List<Position> affectedPositions = new ArrayList<>();
         for (int i = 0; i < affectedTowers; i++) {
             Position position;
             do {
@@ -54,8 +69,9 @@ public class BuildChaos extends Chaos {
                 position = new Position(x, y);
             } while (board.isOccupied(position));
 
-            Tower tower = board.getTower(position);
-            tower.buildFloor();
+            board.buildFloor(position);
+            affectedPositions.add(position);
         }
+        return affectedPositions;
     }
 }
@@ -1,7 +1,9 @@
 package santorini.game.chaos;
 
 import santorini.board.Board;
+import santorini.game.Position;
 
+import java.util.List;
 import java.util.Random;
 
 /**
@@ -44,9 +46,21 @@ public abstract class Chaos {
      * @param maximumInterval The maximum interval for which the effect executes.
      */
     public Chaos(int minimumInterval, int maximumInterval) {
+        this(minimumInterval, maximumInterval, new Random());
+    }
+
+    /**
+     * Constructor, drawing the countdowns and affected cells from a given randomizer,
+     * so that games created from the same seed play out the same way.
+     *
+     * @param minimumInterval The minimum interval for which the effect executes.
+     * @param maximumInterval The maximum interval for which the effect executes.
+     * @param random The randomizer of the effect.
+     */
+    public Chaos(int minimumInterval, int maximumInterval, Random random) {
         this.minimumInterval = minimumInterval;
         this.maximumInterval = maximumInterval;
-        this.random = new Random();
+        this.random = random;
         resetCountdown();
     }
 
@@ -65,15 +79,34 @@ public abstract class Chaos {
      *
      * @param board The game board of the current game.
      * @param affectedTowers The number of towers affected by the effect.
+     * @return The cells affected if the effect was applied, or an empty list otherwise.
      */
-    public void tick(Board board, int affectedTowers) {
+    public List<Position> tick(Board board, int affectedTowers) {
         if (countdown == 0) {
-            apply(board, affectedTowers);
+            List<Position> affectedPositions = apply(board, affectedTowers);
             resetCountdown();
+            return affectedPositions;
         }
-        else {
-            countdown -= 1;
-        }
+        countdown -= 1;
+        return List.of();
+    }
+
+    /**
+     * Gets the countdown before the chaos effect executes.
+     *
+     * @return The number of turns left before the effect executes.
+     */
+    public int getCountdown() {
+        return countdown;
+    }
+
+    /**
+     * Sets the countdown before the chaos effect executes, as when restoring a position.
+     *
+     * @param countdown The number of turns left before the effect executes.
+     */
+    public void setCountdown(int countdown) {
+        this.countdown = countdown;
     }
 
     /**
@@ -81,6 +114,7 @@ public abstract class Chaos {
      *
      * @param board The game board of the current game.
      * @param affectedTowers The number of towers affected by the effect.
+     * @return The cells affected by the effect.
      */
-    public abstract void apply(Board board, int affectedTowers);
+    public abstract List<Position> apply(Board board, int affectedTowers);
 }
@@ -2,9 +2,13 @@ package santorini.game.chaos;
 
 import santorini.board.Board;
 import santorini.game.Position;
-import santorini.towers.Tower;
+import santorini.utils.LogEventType;
 import santorini.utils.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 /**
  * The DestroyChaos effect randomly destroys towers on the board based on
  * random intervals
@@ -35,6 +39,15 @@ public class DestroyChaos extends Chaos {
         super(MINIMUM_INTERVAL, MAXIMUM_INTERVAL);
     }
 
+    /**
+     * Constructor.
+     *
+     * @param random The randomizer of the effect.
+     */
+    public DestroyChaos(Random random) {
+        super(MINIMUM_INTERVAL, MAXIMUM_INTERVAL, random);
+    }
+
     // Methods
 
     /**
@@ -42,10 +55,12 @@ public class DestroyChaos extends Chaos {
      *
      * @param board The game board of the current game.
      * @param affectedTowers The number of towers affected by the effect.
+     * @return The cells affected by the effect.
      */
     @Override
-    public void apply(Board board, int affectedTowers) {
-        Logger.getInstance().log("BOARD CHAOS - RANDOM TOWERS HAVE BEEN DESTROYED!");
+    public List<Position> apply(Board board, int affectedTowers) {
+        Logger.getInstance().log(LogEventType.DESTROY_CHAOS);
+        List<Position> affectedPositions = new ArrayList<>();
         for (int i = 0; i < affectedTowers; i++) {
             Position position;
             do {
@@ -54,8 +69,9 @@ public class DestroyChaos extends Chaos {
                 position = new Position(x, y);
             } while (board.getTower(position).getHeight() == 0);
 
-            Tower tower = board.getTower(position);
-            tower.destroyFloor();
+            board.destroyFloor(position);
+            affectedPositions.add(position);
         }
+        return affectedPositions;
     }
 }
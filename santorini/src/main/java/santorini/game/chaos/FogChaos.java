@@ -2,6 +2,7 @@ package santorini.game.chaos;
 
 import santorini.board.Board;
 import santorini.game.Position;
+import santorini.utils.LogEventType;
 import santorini.utils.Logger;
 
 import java.util.*;
@@ -47,6 +48,16 @@ public class FogChaos extends Chaos {
         this.foggedPositions = new HashMap<>();
     }
 
+    /**
+     * Constructor.
+     *
+     * @param random The randomizer of the effect.
+     */
+    public FogChaos(Random random) {
+        super(MINIMUM_INTERVAL, MAXIMUM_INTERVAL, random);
+        this.foggedPositions = new HashMap<>();
+    }
+
     // Methods
 
     /**
@@ -54,10 +65,12 @@ public class FogChaos extends Chaos {
      *
      * @param board The game board of the current game.
      * @param affectedTowers The number of towers affected by the effect.
+     * @return The cells affected by the effect.
      */
     @Override
-    public void apply(Board board, int affectedTowers) {
-        Logger.getInstance().log("FOG CHAOS - RANDOM POSITIONS HAVE BEEN COVERED BY FOG!");
+    public List<Position> apply(Board board, int affectedTowers) {
+        Logger.getInstance().log(LogEventType.FOG_CHAOS);
+        List<Position> affectedPositions = new ArrayList<>();
         for (int i = 0; i < affectedTowers; i++) {
             Position position;
             do {
@@ -67,14 +80,16 @@ public class FogChaos extends Chaos {
             } while (board.isOccupied(position));
 
             if (!foggedPositions.containsKey(position)) {
-                board.getTower(position).setFogged(true);
+                board.setFogged(position, true);
                 foggedPositions.put(position, FOG_DURATION);
             }
             else {
                 int remaining = foggedPositions.get(position);
                 foggedPositions.put(position, remaining + FOG_DURATION);
             }
+            affectedPositions.add(position);
         }
+        return affectedPositions;
     }
 
     /**
@@ -82,16 +97,17 @@ public class FogChaos extends Chaos {
      *
      * @param board The game board of the current game.
      * @param affectedTowers The number of towers affected by the effect.
+     * @return The cells newly covered with fog if the effect was applied, or an empty list otherwise.
      */
     @Override
-    public void tick(Board board, int affectedTowers) {
+    public List<Position> tick(Board board, int affectedTowers) {
         List<Position> foggedPositionsToRemove = new ArrayList<>();
 
         for (Position position : foggedPositions.keySet()) {
             int remaining = foggedPositions.get(position) - 1;
 
             if (remaining == 0) {
-                board.getTower(position).setFogged(false);
+                board.setFogged(position, false);
                 foggedPositionsToRemove.add(position);
             }
             else {
@@ -103,6 +119,6 @@ public class FogChaos extends Chaos {
             foggedPositions.remove(position);
         }
 
-        super.tick(board, affectedTowers);
+        return super.tick(board, affectedTowers);
     }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package santorini.game.events;
+
+import santorini.game.Position;
+
+/**
+ * Published when a worker has built a floor.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param turnNumber The turn number during which the floor was built.
+ * @param player The name of the player who built the floor.
+ * @param worker The cell of the worker who built the floor.
+ * @param target The cell the floor was built on.
+ * @param height The height of the tower after the build.
+ */
+public record BuildExecuted(int turnNumber, String player, Position worker, Position target, int height) implements GameEvent {}
@@ -0,0 +1,25 @@
+package santorini.game.events;
+
+import santorini.game.Position;
+
+import java.util.List;
+
+/**
+ * Published when a chaos effect has been applied to the board.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param turnNumber The turn number after which the effect was applied.
+ * @param effect The name of the chaos effect.
+ * @param cells The cells affected by the effect.
+ */
+public record ChaosApplied(int turnNumber, String effect, List<Position> cells) implements GameEvent {
+
+    /**
+     * Constructor, copying the affected cells so that the event cannot change.
+     */
+    public ChaosApplied {
+        cells = List.copyOf(cells);
+    }
+}
@@ -0,0 +1,19 @@
+package santorini.game.events;
+
+/**
+ * Interface for the typed events published on a game's event bus.
+ * Events are immutable records describing something that happened during a game,
+ * so they can be safely handed to subscribers on other threads.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public sealed interface GameEvent permits MoveExecuted, BuildExecuted, PowerTriggered, ChaosApplied, TurnEnded, GameWon {
+
+    /**
+     * Gets the turn number during which the event happened.
+     *
+     * @return The turn number.
+     */
+    int turnNumber();
+}
@@ -0,0 +1,284 @@
+package santorini.game.events;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A typed event bus publishing the events of a game.
+ * Synchronous subscribers are called on the publishing thread before publish returns.
+ * Asynchronous subscribers each receive events on a background thread through their
+ * own bounded buffer, requesting one event at a time. If an asynchronous subscriber
+ * falls so far behind that its buffer is full, new events for it are dropped and
+ * counted, so a slow subscriber never slows down the game.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class GameEventBus implements AutoCloseable {
+
+    // Constants
+
+    /**
+     * The number of events buffered for each asynchronous subscriber.
+     */
+    public static final int BUFFER_CAPACITY = 256;
+
+    // Attributes
+
+    /**
+     * The synchronous subscribers.
+     */
+    private final List<Subscription<?>> subscriptions;
+
+    /**
+     * The threads delivering events to asynchronous subscribers, created when first needed.
+     */
+    private ExecutorService executor;
+
+    /**
+     * The publisher delivering events to asynchronous subscribers, created when first needed.
+     */
+    private volatile SubmissionPublisher<GameEvent> publisher;
+
+    /**
+     * The number of events dropped because an asynchronous subscriber's buffer was full.
+     */
+    private final AtomicLong droppedEvents;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     */
+    public GameEventBus() {
+        subscriptions = new CopyOnWriteArrayList<>();
+        droppedEvents = new AtomicLong();
+    }
+
+    // Methods
+
+    /**
+     * Subscribes a handler to be called on the publishing thread for every event of a type.
+     *
+     * @param type The type of event to receive, or GameEvent to receive every event.
+     * @param handler The handler to call.
+     * @param <E> The type of event.
+     * @return A registration that unsubscribes the handler when closed.
+     */
+    public <E extends GameEvent> Registration subscribe(Class<E> type, Consumer<? super E> handler) {
+        Subscription<E> subscription = new Subscription<>(type, handler);
+        subscriptions.add(subscription);
+        return () -> subscriptions.remove(subscription);
+    }
+
+    /**
+     * Subscribes a handler to be called on a background thread for every event of a type.
+     * The handler is never called concurrently with itself, and receives events in the
+     * order they were published.
+     *
+     * @param type The type of event to receive, or GameEvent to receive every event.
+     * @param handler The handler to call.
+     * @param <E> The type of event.
+     * @return A registration that unsubscribes the handler when closed.
+     */
+    public <E extends GameEvent> Registration subscribeAsync(Class<E> type, Consumer<? super E> handler) {
+        AsyncSubscriber<E> subscriber = new AsyncSubscriber<>(type, handler);
+        subscribeAsync(subscriber);
+        return subscriber::cancel;
+    }
+
+    /**
+     * Subscribes a reactive-streams subscriber to every event. The subscriber controls
+     * how many events it receives through the requests it makes on its subscription.
+     *
+     * @param subscriber The subscriber.
+     */
+    public synchronized void subscribeAsync(Flow.Subscriber<? super GameEvent> subscriber) {
+        if (publisher == null) {
+            executor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "game-events");
+                thread.setDaemon(true);
+                return thread;
+            });
+            publisher = new SubmissionPublisher<>(executor, BUFFER_CAPACITY);
+        }
+        publisher.subscribe(subscriber);
+    }
+
+    /**
+     * Publishes an event, calling every matching synchronous subscriber and then
+     * offering it to every asynchronous subscriber.
+     *
+     * @param event The event to publish.
+     */
+    public void publish(GameEvent event) {
+        for (Subscription<?> subscription : subscriptions) {
+            subscription.deliver(event);
+        }
+
+        SubmissionPublisher<GameEvent> currentPublisher = publisher;
+        if (currentPublisher != null && currentPublisher.hasSubscribers()) {
+            currentPublisher.offer(event, (subscriber, dropped) -> {
+                droppedEvents.incrementAndGet();
+                return false;
+            });
+        }
+    }
+
+    /**
+     * Checks whether any subscriber would receive an event, so that publishers can skip
+     * building events nobody observes.
+     *
+     * @return True if there is at least one subscriber, false otherwise.
+     */
+    public boolean hasSubscribers() {
+        SubmissionPublisher<GameEvent> currentPublisher = publisher;
+        return !subscriptions.isEmpty() || (currentPublisher != null && currentPublisher.hasSubscribers());
+    }
+
+    /**
+     * Gets the number of events dropped because an asynchronous subscriber's buffer was full.
+     *
+     * @return The number of dropped events.
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Removes every synchronous subscriber, and completes every asynchronous subscriber
+     * once it has received the events already buffered for it.
+     */
+    @Override
+    public synchronized void close() {
+        subscriptions.clear();
+        if (publisher != null) {
+            publisher.close();
+            executor.shutdown();
+            publisher = null;
+            executor = null;
+        }
+    }
+
+    /**
+     * A handle to a subscription that unsubscribes when closed.
+     */
+    public interface Registration extends AutoCloseable {
+
+        /**
+         * Unsubscribes the handler.
+         */
+        @Override
+        void close();
+    }
+
+    /**
+     * A synchronous subscriber and the type of event it receives.
+     *
+     * @param type The type of event to receive.
+     * @param handler The handler to call.
+     * @param <E> The type of event.
+     */
+    private record Subscription<E extends GameEvent>(Class<E> type, Consumer<? super E> handler) {
+
+        /**
+         * Calls the handler if the event is of the subscribed type.
+         *
+         * @param event The published event.
+         */
+        void deliver(GameEvent event) {
+            if (type.isInstance(event)) {
+                handler.accept(type.cast(event));
+            }
+        }
+    }
+
+    /**
+     * Adapts a handler of one type of event to a reactive-streams subscriber that
+     * requests events one at a time.
+     *
+     * @param <E> The type of event.
+     */
+    private static class AsyncSubscriber<E extends GameEvent> implements Flow.Subscriber<GameEvent> {
+
+        /**
+         * The type of event to receive.
+         */
+        private final Class<E> type;
+
+        /**
+         * The handler to call.
+         */
+        private final Consumer<? super E> handler;
+
+        /**
+         * The subscription to the publisher, or null until subscribed.
+         */
+        private volatile Flow.Subscription subscription;
+
+        /**
+         * Whether the subscriber was cancelled before it was subscribed.
+         */
+        private volatile boolean cancelled;
+
+        /**
+         * Constructor.
+         *
+         * @param type The type of event to receive.
+         * @param handler The handler to call.
+         */
+        AsyncSubscriber(Class<E> type, Consumer<? super E> handler) {
+            this.type = type;
+            this.handler = handler;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+            }
+            else {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onNext(GameEvent event) {
+            try {
+                if (type.isInstance(event)) {
+                    handler.accept(type.cast(event));
+                }
+            } finally {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            cancelled = true;
+        }
+
+        @Override
+        public void onComplete() {
+            cancelled = true;
+        }
+
+        /**
+         * Stops receiving events.
+         */
+        void cancel() {
+            cancelled = true;
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+}
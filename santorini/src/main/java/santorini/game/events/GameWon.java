@@ -0,0 +1,12 @@
+package santorini.game.events;
+
+/**
+ * Published when a player has won the game.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param turnNumber The turn number during which the game was won.
+ * @param winner The name of the winning player.
+ */
+public record GameWon(int turnNumber, String winner) implements GameEvent {}
@@ -0,0 +1,16 @@
+package santorini.game.events;
+
+import santorini.game.Position;
+
+/**
+ * Published when a worker has been moved.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param turnNumber The turn number during which the worker moved.
+ * @param player The name of the player who moved the worker.
+ * @param from The cell the worker moved from.
+ * @param to The cell the worker moved to.
+ */
+public record MoveExecuted(int turnNumber, String player, Position from, Position to) implements GameEvent {}
@@ -0,0 +1,13 @@
+package santorini.game.events;
+
+/**
+ * Published when a god's power has taken effect.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param turnNumber The turn number during which the power took effect.
+ * @param player The name of the player whose god it is.
+ * @param god The name of the god.
+ */
+public record PowerTriggered(int turnNumber, String player, String god) implements GameEvent {}
@@ -0,0 +1,13 @@
+package santorini.game.events;
+
+/**
+ * Published when a player's turn has ended and the next player's turn has begun.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param turnNumber The turn number of the turn that has begun.
+ * @param previousPlayer The name of the player whose turn ended.
+ * @param nextPlayer The name of the player whose turn has begun.
+ */
+public record TurnEnded(int turnNumber, String previousPlayer, String nextPlayer) implements GameEvent {}
@@ -1,6 +1,8 @@
 package santorini.game.modifier;
 
 import santorini.board.Board;
+import santorini.game.Position;
+import santorini.game.events.ChaosApplied;
 import santorini.game.chaos.BuildChaos;
 import santorini.game.chaos.Chaos;
 import santorini.game.chaos.DestroyChaos;
@@ -8,6 +10,7 @@ import santorini.game.chaos.FogChaos;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 /**
  * The ChaosModifier stores a list of chaos effects for a chaos game mode, and
@@ -36,8 +39,18 @@ public class ChaosModifier extends GameModifier {
      * Constructor.
      */
     public ChaosModifier() {
+        this(new Random());
+    }
+
+    /**
+     * Constructor, drawing every chaos effect from a given randomizer,
+     * so that games created from the same seed play out the same way.
+     *
+     * @param random The randomizer of the chaos effects.
+     */
+    public ChaosModifier(Random random) {
         this.chaosEffects = new ArrayList<>();
-        initializeAllChaos();
+        initializeAllChaos(random);
     }
 
     // Methods
@@ -49,22 +62,39 @@ public class ChaosModifier extends GameModifier {
      *
      * @param board The game board of the current game.
      * @param turnNumber The current turn number.
+     * @return The chaos effects applied to the board this turn.
      */
     @Override
-    public void executeModifier(Board board, int turnNumber) {
+    public List<ChaosApplied> executeModifier(Board board, int turnNumber) {
         int affectedTowers = Math.min((turnNumber - 1) / 4 + 1, MAXIMUM_AFFECTED);
+        List<ChaosApplied> appliedEffects = new ArrayList<>();
 
         for (Chaos chaos : chaosEffects) {
-            chaos.tick(board, affectedTowers);
+            List<Position> affectedPositions = chaos.tick(board, affectedTowers);
+            if (!affectedPositions.isEmpty()) {
+                appliedEffects.add(new ChaosApplied(turnNumber, chaos.getClass().getSimpleName(), affectedPositions));
+            }
         }
+        return appliedEffects;
+    }
+
+    /**
+     * Gets the chaos effects of the modifier, in the order they tick.
+     *
+     * @return The chaos effects.
+     */
+    public List<Chaos> getChaosEffects() {
+        return chaosEffects;
     }
 
     /**
      * Initializes all chaos effects of the chaos game mode modifier.
+     *
+     * @param random The randomizer of the chaos effects.
      */
-    private void initializeAllChaos() {
-        chaosEffects.add(new BuildChaos());
-        chaosEffects.add(new DestroyChaos());
-        chaosEffects.add(new FogChaos());
+    private void initializeAllChaos(Random random) {
+        chaosEffects.add(new BuildChaos(random));
+        chaosEffects.add(new DestroyChaos(random));
+        chaosEffects.add(new FogChaos(random));
     }
 }
@@ -1,6 +1,9 @@
 package santorini.game.modifier;
 
 import santorini.board.Board;
+import santorini.game.events.ChaosApplied;
+
+import java.util.List;
 
 /**
  * The GameModifier abstract class serves as a blueprint for future modifiers
@@ -35,6 +38,7 @@ public abstract class GameModifier {
      *
      * @param board The game board of the current game.
      * @param turnNumber The current turn number.
+     * @return The effects applied to the board this turn.
      */
-    public abstract void executeModifier(Board board, int turnNumber);
+    public abstract List<ChaosApplied> executeModifier(Board board, int turnNumber);
 }
@@ -1,6 +1,9 @@
 package santorini.game.modifier;
 
 import santorini.board.Board;
+import santorini.game.events.ChaosApplied;
+
+import java.util.List;
 
 /**
  * The StandardModifier acts as a GameModifier for a standard game mode.
@@ -21,9 +24,10 @@ public class StandardModifier extends GameModifier {
      *
      * @param board The game board of the current game.
      * @param turnNumber The current turn number.
+     * @return An empty list, as no effects are applied.
      */
     @Override
-    public void executeModifier(Board board, int turnNumber) {
-
+    public List<ChaosApplied> executeModifier(Board board, int turnNumber) {
+        return List.of();
     }
 }
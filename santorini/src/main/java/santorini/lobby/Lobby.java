@@ -0,0 +1,301 @@
+package santorini.lobby;
+
+import santorini.game.GameMode;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+
+/**
+ * A matchmaking lobby that queues players by game mode and rating band, pairs them in the
+ * order they were queued and schedules each pair's match on a virtual thread with a game of
+ * its own. Players give their inputs through futures, so an idle match holds no platform
+ * thread and the lobby scales with memory rather than threads. Cancelling the future of a
+ * queued player takes it out of the queue, while cancelling the future of a paired player
+ * cancels its match.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class Lobby implements Closeable {
+
+    // Constants
+
+    /**
+     * The time each player has to give a valid input if none is configured.
+     */
+    public static final Duration DEFAULT_MOVE_TIMEOUT = Duration.ofSeconds(60);
+
+    /**
+     * The width of the rating bands if none is configured.
+     */
+    public static final int DEFAULT_RATING_BAND_WIDTH = 200;
+
+    // Attributes
+
+    /**
+     * The time each player has to give a valid input.
+     */
+    private final Duration moveTimeout;
+
+    /**
+     * The width of the rating bands, so players are only paired with players rated in the same band.
+     */
+    private final int ratingBandWidth;
+
+    /**
+     * The players waiting to be paired, by game mode and rating band.
+     */
+    private final Map<GameMode, Map<Integer, Deque<LobbyTicket>>> queues;
+
+    /**
+     * The matches being played, by identifier.
+     */
+    private final Map<Integer, LobbyMatch> matches;
+
+    /**
+     * The identifier of the next match.
+     */
+    private int nextMatchId;
+
+    /**
+     * The number of players waiting to be paired.
+     */
+    private int queueDepth;
+
+    /**
+     * The number of matches that have ended.
+     */
+    private long finishedMatches;
+
+    /**
+     * The number of players that have been paired.
+     */
+    private long pairedPlayers;
+
+    /**
+     * The total time paired players waited in the queue, in nanoseconds.
+     */
+    private long totalPairingNanos;
+
+    /**
+     * The longest time a paired player waited in the queue, in nanoseconds.
+     */
+    private long maximumPairingNanos;
+
+    /**
+     * Whether the lobby has been closed.
+     */
+    private boolean closed;
+
+    // Constructor
+
+    /**
+     * Constructor, using the default move timeout and rating band width.
+     */
+    public Lobby() {
+        this(DEFAULT_MOVE_TIMEOUT, DEFAULT_RATING_BAND_WIDTH);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param moveTimeout The time each player has to give a valid input before forfeiting.
+     * @param ratingBandWidth The width of the rating bands players are paired within.
+     */
+    public Lobby(Duration moveTimeout, int ratingBandWidth) {
+        if (moveTimeout.isNegative() || moveTimeout.isZero() || ratingBandWidth <= 0) {
+            throw new IllegalArgumentException("The move timeout and rating band width must be positive");
+        }
+        this.moveTimeout = moveTimeout;
+        this.ratingBandWidth = ratingBandWidth;
+        this.queues = new EnumMap<>(GameMode.class);
+        this.matches = new HashMap<>();
+        this.nextMatchId = 1;
+    }
+
+    // Methods
+
+    /**
+     * Queues a player for a match, pairing it straight away if a player of the same game mode
+     * and rating band is waiting.
+     *
+     * @param player The player.
+     * @param mode The game mode of the match.
+     * @return A future completed with the result of the player's match.
+     * @throws IllegalStateException If the lobby has been closed.
+     */
+    public CompletableFuture<MatchResult> enqueue(LobbyPlayer player, GameMode mode) {
+        LobbyTicket ticket = new LobbyTicket(player, mode, Math.floorDiv(player.getRating(), ratingBandWidth));
+        LobbyTicket opponent;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("The lobby has been closed");
+            }
+            Map<Integer, Deque<LobbyTicket>> bands = queues.computeIfAbsent(mode, key -> new HashMap<>());
+            Deque<LobbyTicket> queue = bands.get(ticket.getBand());
+            opponent = queue != null ? queue.poll() : null;
+            if (opponent == null) {
+                bands.computeIfAbsent(ticket.getBand(), key -> new ArrayDeque<>()).add(ticket);
+                queueDepth++;
+            }
+            else {
+                if (queue.isEmpty()) {
+                    bands.remove(ticket.getBand());
+                }
+                queueDepth--;
+            }
+        }
+
+        // Leave the queue or cancel the match once the player gives up
+        ticket.getResult().whenComplete((result, e) -> {
+            if (e instanceof CancellationException) {
+                withdraw(ticket);
+            }
+        });
+        if (opponent != null) {
+            schedule(List.of(opponent, ticket));
+        }
+        return ticket.getResult();
+    }
+
+    /**
+     * Closes the lobby, cancelling every queued player and every match, and waits for the matches to end.
+     *
+     * @throws IllegalStateException If interrupted while waiting for the matches to end.
+     */
+    @Override
+    public void close() {
+        List<LobbyTicket> queued = new ArrayList<>();
+        List<LobbyMatch> running;
+        synchronized (this) {
+            closed = true;
+            for (Map<Integer, Deque<LobbyTicket>> bands : queues.values()) {
+                for (Deque<LobbyTicket> queue : bands.values()) {
+                    queued.addAll(queue);
+                }
+            }
+            queues.clear();
+            queueDepth = 0;
+            running = new ArrayList<>(matches.values());
+        }
+
+        for (LobbyTicket ticket : queued) {
+            ticket.getResult().cancel(false);
+        }
+        for (LobbyMatch match : running) {
+            match.cancel();
+        }
+        try {
+            for (LobbyMatch match : running) {
+                match.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while closing the lobby", e);
+        }
+    }
+
+    /**
+     * Creates and starts the match of a pair of players, recording how long they waited.
+     * If the lobby was closed since they were paired, the players are cancelled instead.
+     *
+     * @param tickets The tickets of the players, by seat.
+     */
+    private void schedule(List<LobbyTicket> tickets) {
+        long now = System.nanoTime();
+        LobbyMatch match;
+        synchronized (this) {
+            if (closed) {
+                for (LobbyTicket ticket : tickets) {
+                    ticket.getResult().cancel(false);
+                }
+                return;
+            }
+            match = new LobbyMatch(nextMatchId++, tickets.get(0).getMode(), tickets, moveTimeout, this);
+            matches.put(match.getId(), match);
+            for (LobbyTicket ticket : tickets) {
+                long waited = now - ticket.getQueuedAt();
+                totalPairingNanos += waited;
+                maximumPairingNanos = Math.max(maximumPairingNanos, waited);
+                pairedPlayers++;
+            }
+        }
+        match.start();
+
+        // A player may have given up before its match was registered
+        for (LobbyTicket ticket : tickets) {
+            if (ticket.getResult().isCancelled()) {
+                match.cancel();
+            }
+        }
+    }
+
+    /**
+     * Takes a player who gave up out of the queue, or cancels its match if it has been paired.
+     *
+     * @param ticket The ticket of the player.
+     */
+    private void withdraw(LobbyTicket ticket) {
+        LobbyMatch match = ticket.getMatch();
+        if (match != null) {
+            match.cancel();
+            return;
+        }
+        synchronized (this) {
+            Map<Integer, Deque<LobbyTicket>> bands = queues.get(ticket.getMode());
+            Deque<LobbyTicket> queue = bands != null ? bands.get(ticket.getBand()) : null;
+            if (queue != null && queue.remove(ticket)) {
+                queueDepth--;
+                if (queue.isEmpty()) {
+                    bands.remove(ticket.getBand());
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets a match that has ended. Called on the match's thread.
+     *
+     * @param match The match.
+     */
+    synchronized void finish(LobbyMatch match) {
+        if (matches.remove(match.getId()) != null) {
+            finishedMatches++;
+        }
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the gauges of the lobby.
+     *
+     * @return The gauges at this moment.
+     */
+    public synchronized LobbyGauges getGauges() {
+        long meanPairingNanos = pairedPlayers > 0 ? totalPairingNanos / pairedPlayers : 0;
+        return new LobbyGauges(queueDepth, matches.size(), finishedMatches, pairedPlayers, meanPairingNanos, maximumPairingNanos);
+    }
+
+    /**
+     * Gets the number of players waiting to be paired for a game mode.
+     *
+     * @param mode The game mode.
+     * @return The number of queued players.
+     */
+    public synchronized int getQueueDepth(GameMode mode) {
+        int depth = 0;
+        for (Deque<LobbyTicket> queue : queues.getOrDefault(mode, Map.of()).values()) {
+            depth += queue.size();
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,18 @@
+package santorini.lobby;
+
+/**
+ * The gauges of the lobby at one moment, for monitoring how well it keeps up.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param queueDepth The number of players waiting to be paired.
+ * @param activeMatches The number of matches being played.
+ * @param finishedMatches The number of matches that have ended since the lobby opened.
+ * @param pairedPlayers The number of players that have been paired since the lobby opened.
+ * @param meanPairingNanos The mean time a paired player waited in the queue, in nanoseconds.
+ * @param maximumPairingNanos The longest time a paired player waited in the queue, in nanoseconds.
+ */
+public record LobbyGauges(int queueDepth, int activeMatches, long finishedMatches, long pairedPlayers,
+                          long meanPairingNanos, long maximumPairingNanos) {
+}
@@ -0,0 +1,39 @@
+package santorini.lobby;
+
+import santorini.network.InputKind;
+import santorini.network.MatchSnapshot;
+
+/**
+ * An input a player gives in a match scheduled by the lobby: a pick of a cell in the
+ * current step of the turn, or the end of the current phase.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param kind The kind of input.
+ * @param cell The index of the picked cell, or 0 when ending a phase.
+ */
+public record LobbyInput(InputKind kind, int cell) {
+
+    // Methods
+
+    /**
+     * Creates a pick of a cell in the current step of a turn.
+     *
+     * @param snapshot The state of the match the pick is made in.
+     * @param cell The index of the picked cell.
+     * @return The input.
+     */
+    public static LobbyInput pick(MatchSnapshot snapshot, int cell) {
+        return new LobbyInput(InputKind.of(snapshot.step()), cell);
+    }
+
+    /**
+     * Creates the end of the current phase.
+     *
+     * @return The input.
+     */
+    public static LobbyInput endPhase() {
+        return new LobbyInput(InputKind.END_PHASE, 0);
+    }
+}
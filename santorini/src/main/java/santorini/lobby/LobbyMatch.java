@@ -0,0 +1,258 @@
+package santorini.lobby;
+
+import santorini.board.Board;
+import santorini.game.GameFactory;
+import santorini.game.GameMode;
+import santorini.game.GameState;
+import santorini.game.TurnDriver;
+import santorini.network.InputKind;
+import santorini.network.MatchSnapshot;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A match scheduled by the lobby, played on a virtual thread of its own with its own game.
+ * The thread spends almost all of its time parked waiting for the current player's input,
+ * which costs no platform thread, so a lobby can hold as many idle matches as fit in memory.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+class LobbyMatch {
+
+    // Constants
+
+    /**
+     * The number of invalid inputs a player may give in one move before forfeiting.
+     */
+    private static final int MAXIMUM_INVALID_INPUTS = 3;
+
+    // Attributes
+
+    /**
+     * The identifier of the match in the lobby.
+     */
+    private final int id;
+
+    /**
+     * The game mode of the match.
+     */
+    private final GameMode mode;
+
+    /**
+     * The tickets of the players, by seat.
+     */
+    private final List<LobbyTicket> seats;
+
+    /**
+     * The time each player has to give a valid input.
+     */
+    private final Duration moveTimeout;
+
+    /**
+     * The lobby that scheduled the match.
+     */
+    private final Lobby lobby;
+
+    /**
+     * The driver of the game of the match.
+     */
+    private final TurnDriver turnDriver;
+
+    /**
+     * The virtual thread playing the match.
+     */
+    private final Thread thread;
+
+    /**
+     * Whether the match has been cancelled.
+     */
+    private volatile boolean cancelled;
+
+    // Constructor
+
+    /**
+     * Constructor. Creates the game of the match, which is not played until the match is started.
+     *
+     * @param id The identifier of the match in the lobby.
+     * @param mode The game mode of the match.
+     * @param seats The tickets of the players, by seat.
+     * @param moveTimeout The time each player has to give a valid input.
+     * @param lobby The lobby that scheduled the match.
+     */
+    LobbyMatch(int id, GameMode mode, List<LobbyTicket> seats, Duration moveTimeout, Lobby lobby) {
+        this.id = id;
+        this.mode = mode;
+        this.seats = List.copyOf(seats);
+        this.moveTimeout = moveTimeout;
+        this.lobby = lobby;
+        this.turnDriver = new TurnDriver(new GameFactory().createGame(mode));
+        this.thread = Thread.ofVirtual().name("lobby-match-" + id).unstarted(this::run);
+        for (LobbyTicket ticket : seats) {
+            ticket.setMatch(this);
+        }
+    }
+
+    // Methods
+
+    /**
+     * Starts playing the match.
+     */
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Cancels the match, interrupting the wait for the current player's input.
+     */
+    void cancel() {
+        cancelled = true;
+        thread.interrupt();
+    }
+
+    /**
+     * Waits until the match has ended.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    void join() throws InterruptedException {
+        if (thread.isAlive()) {
+            thread.join();
+        }
+    }
+
+    /**
+     * Runs on the match's virtual thread, playing the match and handing its result to its players,
+     * or the failure of its game or of a player if the match could not be played to its end.
+     */
+    private void run() {
+        MatchResult result = null;
+        RuntimeException failure = null;
+        try {
+            result = play();
+        } catch (InterruptedException e) {
+            result = createResult(-1, MatchOutcome.CANCELLED);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+
+        lobby.finish(this);
+        for (LobbyTicket ticket : seats) {
+            if (failure != null) {
+                ticket.getResult().completeExceptionally(failure);
+            }
+            else {
+                ticket.getResult().complete(result);
+            }
+        }
+    }
+
+    /**
+     * Asks the current player for inputs until the match has been won or a player forfeits.
+     *
+     * @return The result of the match.
+     * @throws InterruptedException If the match was cancelled.
+     */
+    private MatchResult play() throws InterruptedException {
+        GameState gameState = turnDriver.getGame().getGameState();
+        while (gameState.getWinner() == null) {
+            int seat = gameState.getCurrentPlayerIndex();
+            if (!playMove(seat)) {
+                // The opponent of a player who forfeits wins the match
+                return createResult((seat + 1) % seats.size(), MatchOutcome.FORFEITED);
+            }
+        }
+        return createResult(gameState.getPlayers().indexOf(gameState.getWinner()), MatchOutcome.WON);
+    }
+
+    /**
+     * Asks a player for an input until it gives a valid one, it runs out of time or it has given too many invalid ones.
+     *
+     * @param seat The seat of the player.
+     * @return True if the player gave a valid input, false if it forfeits.
+     * @throws InterruptedException If the match was cancelled.
+     */
+    private boolean playMove(int seat) throws InterruptedException {
+        long deadline = System.nanoTime() + moveTimeout.toNanos();
+        for (int attempt = 0; attempt < MAXIMUM_INVALID_INPUTS; attempt++) {
+            if (cancelled) {
+                throw new InterruptedException("The match was cancelled");
+            }
+            MatchSnapshot snapshot = MatchSnapshot.of(turnDriver.getGame().getGameState(), turnDriver, true);
+            CompletableFuture<LobbyInput> choice = seats.get(seat).getPlayer().chooseInput(snapshot);
+            try {
+                LobbyInput input = choice.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (input != null && apply(input)) {
+                    return true;
+                }
+            } catch (TimeoutException | ExecutionException e) {
+                choice.cancel(true);
+                return false;
+            } catch (InterruptedException e) {
+                choice.cancel(true);
+                throw e;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Plays an input on the game.
+     *
+     * @param input The input.
+     * @return True if the input could be played, false otherwise.
+     */
+    private boolean apply(LobbyInput input) {
+        if (input.kind() == InputKind.END_PHASE) {
+            return turnDriver.endPhase();
+        }
+        Board board = turnDriver.getGame().getGameState().getBoard();
+        if (input.kind() != InputKind.of(turnDriver.getStep()) || input.cell() < 0
+            || input.cell() >= board.getWidth() * board.getHeight()) {
+            return false;
+        }
+        return turnDriver.pick(board.getPosition(input.cell()));
+    }
+
+    /**
+     * Creates the result of the match.
+     *
+     * @param winnerSeat The seat of the winner, or -1 if the match was cancelled.
+     * @param outcome How the match ended.
+     * @return The result of the match.
+     */
+    private MatchResult createResult(int winnerSeat, MatchOutcome outcome) {
+        List<String> players = new ArrayList<>();
+        for (LobbyTicket ticket : seats) {
+            players.add(ticket.getPlayer().getName());
+        }
+        int turns = turnDriver.getGame().getGameState().getTurnNumber();
+        return new MatchResult(id, mode, players, winnerSeat, outcome, turns);
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the identifier of the match in the lobby.
+     *
+     * @return The identifier of the match.
+     */
+    int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the tickets of the players, by seat.
+     *
+     * @return The tickets of the players.
+     */
+    List<LobbyTicket> getSeats() {
+        return seats;
+    }
+}
@@ -0,0 +1,39 @@
+package santorini.lobby;
+
+import santorini.network.MatchSnapshot;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface for anyone who can be queued in the lobby and play a match it schedules,
+ * such as a bot or a client connected over the network.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public interface LobbyPlayer {
+
+    /**
+     * Gets the name of the player.
+     *
+     * @return The name of the player.
+     */
+    String getName();
+
+    /**
+     * Gets the rating of the player, which decides the players it can be paired with.
+     *
+     * @return The rating of the player.
+     */
+    int getRating();
+
+    /**
+     * Asks the player for its next input. The match waits for the input without holding a
+     * platform thread, so the player may answer whenever it is ready. If the player has not
+     * answered by the end of the move timeout, the future is cancelled and the player forfeits.
+     *
+     * @param snapshot The state of the match, with the cells the player can pick.
+     * @return A future completed with the input.
+     */
+    CompletableFuture<LobbyInput> chooseInput(MatchSnapshot snapshot);
+}
@@ -0,0 +1,128 @@
+package santorini.lobby;
+
+import santorini.game.GameMode;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A player's place in the lobby, from the moment it is queued until its match has ended.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+class LobbyTicket {
+
+    // Attributes
+
+    /**
+     * The player.
+     */
+    private final LobbyPlayer player;
+
+    /**
+     * The game mode the player is queued for.
+     */
+    private final GameMode mode;
+
+    /**
+     * The rating band the player is queued in.
+     */
+    private final int band;
+
+    /**
+     * The time the player was queued, from System.nanoTime().
+     */
+    private final long queuedAt;
+
+    /**
+     * Completed with the result of the player's match.
+     */
+    private final CompletableFuture<MatchResult> result;
+
+    /**
+     * The match the player was paired into, or null while the player is queued.
+     */
+    private volatile LobbyMatch match;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param player The player.
+     * @param mode The game mode the player is queued for.
+     * @param band The rating band the player is queued in.
+     */
+    LobbyTicket(LobbyPlayer player, GameMode mode, int band) {
+        this.player = player;
+        this.mode = mode;
+        this.band = band;
+        this.queuedAt = System.nanoTime();
+        this.result = new CompletableFuture<>();
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the player.
+     *
+     * @return The player.
+     */
+    LobbyPlayer getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets the game mode the player is queued for.
+     *
+     * @return The game mode.
+     */
+    GameMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Gets the rating band the player is queued in.
+     *
+     * @return The rating band.
+     */
+    int getBand() {
+        return band;
+    }
+
+    /**
+     * Gets the time the player was queued.
+     *
+     * @return The time, from System.nanoTime().
+     */
+    long getQueuedAt() {
+        return queuedAt;
+    }
+
+    /**
+     * Gets the future completed with the result of the player's match.
+     *
+     * @return The result of the match.
+     */
+    CompletableFuture<MatchResult> getResult() {
+        return result;
+    }
+
+    /**
+     * Gets the match the player was paired into.
+     *
+     * @return The match, or null while the player is queued.
+     */
+    LobbyMatch getMatch() {
+        return match;
+    }
+
+    /**
+     * Sets the match the player was paired into.
+     *
+     * @param match The match.
+     */
+    void setMatch(LobbyMatch match) {
+        this.match = match;
+    }
+}
@@ -0,0 +1,17 @@
+package santorini.lobby;
+
+/**
+ * Enum representing the ways a match scheduled by the lobby can end.
+ * A player forfeits by not giving a valid input before the move timeout.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public enum MatchOutcome {
+
+    // Enum constants
+
+    WON,
+    FORFEITED,
+    CANCELLED
+}
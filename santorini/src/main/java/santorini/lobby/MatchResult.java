@@ -0,0 +1,39 @@
+package santorini.lobby;
+
+import santorini.game.GameMode;
+
+import java.util.List;
+
+/**
+ * The result of a match scheduled by the lobby, handed to each of its players.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param matchId The identifier of the match in the lobby.
+ * @param mode The game mode of the match.
+ * @param players The names of the players, by seat.
+ * @param winnerSeat The seat of the winner, or -1 if the match was cancelled.
+ * @param outcome How the match ended.
+ * @param turns The number of turns played.
+ */
+public record MatchResult(int matchId, GameMode mode, List<String> players, int winnerSeat, MatchOutcome outcome, int turns) {
+
+    /**
+     * Constructor, copying the player names so later changes to them are not seen.
+     */
+    public MatchResult {
+        players = List.copyOf(players);
+    }
+
+    // Methods
+
+    /**
+     * Gets the name of the winner.
+     *
+     * @return The name of the winner, or null if the match was cancelled.
+     */
+    public String getWinner() {
+        return winnerSeat >= 0 ? players.get(winnerSeat) : null;
+    }
+}
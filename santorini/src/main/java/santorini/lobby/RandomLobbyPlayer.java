@@ -0,0 +1,89 @@
+package santorini.lobby;
+
+import santorini.network.BotPlayer;
+import santorini.network.MatchSnapshot;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A lobby player that answers straight away with a random target cell, sometimes ending a
+ * phase early when it is allowed to. Used to fill the lobby when testing and loading it.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class RandomLobbyPlayer implements LobbyPlayer {
+
+    // Attributes
+
+    /**
+     * The name of the player.
+     */
+    private final String name;
+
+    /**
+     * The rating of the player.
+     */
+    private final int rating;
+
+    /**
+     * The chooser of the cells to pick.
+     */
+    private final Random random;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param name The name of the player.
+     * @param rating The rating of the player.
+     * @param seed The seed of the chooser of the cells to pick.
+     */
+    public RandomLobbyPlayer(String name, int rating, long seed) {
+        this.name = name;
+        this.rating = rating;
+        this.random = new Random(seed);
+    }
+
+    // Methods
+
+    /**
+     * Picks a random target cell, or ends the phase when there is no target or once in a while when allowed to.
+     *
+     * @param snapshot The state of the match, with the cells the player can pick.
+     * @return A completed future with the input.
+     */
+    @Override
+    public synchronized CompletableFuture<LobbyInput> chooseInput(MatchSnapshot snapshot) {
+        BitSet targets = snapshot.targets();
+        if (targets.isEmpty() || snapshot.canEndPhase() && random.nextInt(4) == 0) {
+            return CompletableFuture.completedFuture(LobbyInput.endPhase());
+        }
+        return CompletableFuture.completedFuture(LobbyInput.pick(snapshot, BotPlayer.pickTarget(targets, random)));
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the name of the player.
+     *
+     * @return The name of the player.
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the rating of the player.
+     *
+     * @return The rating of the player.
+     */
+    @Override
+    public int getRating() {
+        return rating;
+    }
+}
@@ -0,0 +1,207 @@
+package santorini.network;
+
+import santorini.game.GameMode;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A scripted player that connects to a match server and plays a number of matches by
+ * picking random target cells, sometimes ending a phase early when it is allowed to.
+ * Bots are used to test and load the server without anyone at the game window.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class BotPlayer implements MatchListener {
+
+    // Attributes
+
+    /**
+     * The game mode of the matches to play.
+     */
+    private final GameMode mode;
+
+    /**
+     * The chooser of the cells to pick.
+     */
+    private final Random random;
+
+    /**
+     * The connection to the server.
+     */
+    private MatchClient client;
+
+    /**
+     * The seat of the bot in its current match.
+     */
+    private int seat;
+
+    /**
+     * The number of matches left to play after the current one.
+     */
+    private int matchesLeft;
+
+    /**
+     * The number of matches the bot has finished playing.
+     */
+    private int matchesPlayed;
+
+    /**
+     * The number of matches the bot has won.
+     */
+    private int matchesWon;
+
+    /**
+     * The last state of a match the bot was sent.
+     */
+    private MatchSnapshot lastSnapshot;
+
+    /**
+     * Completed once every match has been played, or exceptionally if the bot was disconnected.
+     */
+    private final CompletableFuture<Integer> finished;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param mode The game mode of the matches to play.
+     * @param matches The number of matches to play.
+     * @param seed The seed of the chooser of the cells to pick.
+     */
+    public BotPlayer(GameMode mode, int matches, long seed) {
+        this.mode = mode;
+        this.random = new Random(seed);
+        this.matchesLeft = matches;
+        this.finished = new CompletableFuture<>();
+    }
+
+    // Methods
+
+    /**
+     * Connects to a match server and asks for the first match.
+     *
+     * @param host The host name of the server.
+     * @param port The port of the server.
+     * @return A future completed with the number of matches won once every match has been played.
+     * @throws IOException If the server cannot be reached.
+     */
+    public CompletableFuture<Integer> play(String host, int port) throws IOException {
+        client = MatchClient.connect(host, port, this);
+        client.join(mode);
+        return finished;
+    }
+
+    /**
+     * Remembers the seat of the bot in the new match.
+     *
+     * @param start The announcement of the match.
+     */
+    @Override
+    public synchronized void onMatchStarted(MatchStart start) {
+        seat = start.seat();
+    }
+
+    /**
+     * Plays a random target cell on the bot's turn, or asks for the next match once the match has been won.
+     *
+     * @param snapshot The state of the match.
+     */
+    @Override
+    public synchronized void onState(MatchSnapshot snapshot) {
+        lastSnapshot = snapshot;
+        if (snapshot.winnerSeat() >= 0) {
+            matchesPlayed++;
+            if (snapshot.winnerSeat() == seat) {
+                matchesWon++;
+            }
+            nextMatch();
+            return;
+        }
+        if (snapshot.currentSeat() != seat) {
+            return;
+        }
+
+        BitSet targets = snapshot.targets();
+        if (snapshot.canEndPhase() && (targets.isEmpty() || random.nextInt(4) == 0)) {
+            client.endPhase();
+        }
+        else if (!targets.isEmpty()) {
+            client.click(snapshot.getPosition(pickTarget(targets, random)));
+        }
+    }
+
+    /**
+     * Asks for the next match if the opponent left, as the match is over.
+     *
+     * @param code The error.
+     */
+    @Override
+    public synchronized void onError(ErrorCode code) {
+        if (code == ErrorCode.OPPONENT_LEFT) {
+            nextMatch();
+        }
+    }
+
+    /**
+     * Fails the bot if it was disconnected before playing every match.
+     */
+    @Override
+    public void onClosed() {
+        finished.completeExceptionally(new IOException("Disconnected from the match server"));
+    }
+
+    /**
+     * Asks for the next match, or disconnects once every match has been played.
+     */
+    private void nextMatch() {
+        if (matchesLeft > 1) {
+            matchesLeft--;
+            client.join(mode);
+        }
+        else {
+            finished.complete(matchesWon);
+            client.close();
+        }
+    }
+
+    /**
+     * Picks one of the target cells at random.
+     *
+     * @param targets The target cells, by cell index, of which there must be at least one.
+     * @param random The chooser of the cell.
+     * @return The index of the picked cell.
+     */
+    public static int pickTarget(BitSet targets, Random random) {
+        int skip = random.nextInt(targets.cardinality());
+        int index = targets.nextSetBit(0);
+        for (int i = 0; i < skip; i++) {
+            index = targets.nextSetBit(index + 1);
+        }
+        return index;
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the number of matches the bot has finished playing.
+     *
+     * @return The number of matches played.
+     */
+    public synchronized int getMatchesPlayed() {
+        return matchesPlayed;
+    }
+
+    /**
+     * Gets the last state of a match the bot was sent.
+     *
+     * @return The state of the match, or null if no match has started.
+     */
+    public synchronized MatchSnapshot getLastSnapshot() {
+        return lastSnapshot;
+    }
+}
@@ -0,0 +1,317 @@
+package santorini.network;
+
+import santorini.game.GameMode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A client connected to the match server, only used on the thread of the event loop it is registered with.
+ * Frames are written straight away when the socket accepts them; the rest are queued
+ * and written once the socket is writable again. A client that falls too far behind
+ * is disconnected rather than letting its queue grow without bound.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+class Connection {
+
+    // Constants
+
+    /**
+     * The largest number of frames queued for a client before it is disconnected.
+     */
+    private static final int MAXIMUM_QUEUED_FRAMES = 64;
+
+    // Attributes
+
+    /**
+     * The channel of the client.
+     */
+    private final SocketChannel channel;
+
+    /**
+     * The key of the channel registered with the server's selector.
+     */
+    private final SelectionKey key;
+
+    /**
+     * The bytes read from the client that do not make a complete frame yet.
+     */
+    private final ByteBuffer readBuffer;
+
+    /**
+     * The frames waiting for the socket to become writable.
+     */
+    private final Deque<ByteBuffer> writeQueue;
+
+    /**
+     * The match the client is playing, or null if it is not in a match.
+     */
+    private ServerMatch match;
+
+    /**
+     * The lockstep match the client is playing, or null if it is not in a lockstep match.
+     */
+    private LockstepRelay relay;
+
+    /**
+     * The match the client is watching as a spectator, or null if it is not watching a match.
+     */
+    private SpectatorFeed feed;
+
+    /**
+     * The seat of the client in its match or lockstep match.
+     */
+    private int seat;
+
+    /**
+     * The game mode the client is waiting to be paired for, or null if it is not waiting.
+     */
+    private GameMode waitingFor;
+
+    /**
+     * Whether the connection has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * The number of frames sent to the client.
+     */
+    private long sentFrames;
+
+    /**
+     * Whether the server has forgotten the connection since it was closed.
+     */
+    private boolean released;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param channel The channel of the client.
+     * @param key The key of the channel registered with the server's selector.
+     */
+    Connection(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key = key;
+        this.readBuffer = ByteBuffer.allocate(Protocol.MAXIMUM_FRAME_LENGTH);
+        this.writeQueue = new ArrayDeque<>();
+    }
+
+    // Methods
+
+    /**
+     * Sends a frame to the client, queueing whatever the socket does not accept straight away.
+     *
+     * @param frame The frame to send, ready to be written.
+     */
+    void send(ByteBuffer frame) {
+        if (closed) {
+            return;
+        }
+        if (writeQueue.size() >= MAXIMUM_QUEUED_FRAMES) {
+            close();
+            return;
+        }
+        writeQueue.add(frame);
+        sentFrames++;
+        flush();
+    }
+
+    /**
+     * Writes queued frames until the queue is empty or the socket stops accepting bytes,
+     * asking to be told when the socket is writable again if frames are left.
+     */
+    void flush() {
+        try {
+            while (!writeQueue.isEmpty()) {
+                ByteBuffer frame = writeQueue.peek();
+                channel.write(frame);
+                if (frame.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                writeQueue.poll();
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    /**
+     * Reads the bytes the client has sent.
+     *
+     * @return The number of bytes read, or -1 if the client has closed the connection.
+     * @throws IOException If the connection has failed.
+     */
+    int read() throws IOException {
+        return channel.read(readBuffer);
+    }
+
+    /**
+     * Closes the connection. The server notices on the next pass of its event loop.
+     */
+    void close() {
+        closed = true;
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+    }
+
+    /**
+     * Hands the channel over to another selector, as if the connection had been closed,
+     * without closing the channel. Frames still queued are dropped.
+     *
+     * @return The channel of the client.
+     */
+    SocketChannel handOver() {
+        closed = true;
+        key.cancel();
+        writeQueue.clear();
+        return channel;
+    }
+
+    /**
+     * Marks a closed connection as forgotten by the server, so that it is only forgotten once.
+     *
+     * @return True the first time this is called, false afterwards.
+     */
+    boolean release() {
+        boolean first = !released;
+        released = true;
+        return first;
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the number of frames sent to the client, whether written yet or still queued.
+     *
+     * @return The number of frames.
+     */
+    long getSentFrames() {
+        return sentFrames;
+    }
+
+    /**
+     * Gets the bytes read from the client that do not make a complete frame yet.
+     *
+     * @return The read buffer.
+     */
+    ByteBuffer getReadBuffer() {
+        return readBuffer;
+    }
+
+    /**
+     * Gets the match the client is playing.
+     *
+     * @return The match, or null if the client is not in a match.
+     */
+    ServerMatch getMatch() {
+        return match;
+    }
+
+    /**
+     * Gets the lockstep match the client is playing.
+     *
+     * @return The lockstep match, or null if the client is not in a lockstep match.
+     */
+    LockstepRelay getRelay() {
+        return relay;
+    }
+
+    /**
+     * Seats the client in a lockstep match, or removes it from its lockstep match.
+     *
+     * @param relay The lockstep match, or null to remove the client from its lockstep match.
+     * @param seat The seat of the client in the lockstep match.
+     */
+    void setRelay(LockstepRelay relay, int seat) {
+        this.relay = relay;
+        this.seat = seat;
+    }
+
+    /**
+     * Gets the match the client is watching as a spectator.
+     *
+     * @return The feed of the match, or null if the client is not watching a match.
+     */
+    SpectatorFeed getFeed() {
+        return feed;
+    }
+
+    /**
+     * Sets the match the client is watching as a spectator.
+     *
+     * @param feed The feed of the match, or null if the client is no longer watching a match.
+     */
+    void setFeed(SpectatorFeed feed) {
+        this.feed = feed;
+    }
+
+    /**
+     * Gets the number of frames waiting for the socket to become writable.
+     *
+     * @return The number of queued frames.
+     */
+    int getQueuedFrames() {
+        return writeQueue.size();
+    }
+
+    /**
+     * Gets the seat of the client in its match or lockstep match.
+     *
+     * @return The seat of the client.
+     */
+    int getSeat() {
+        return seat;
+    }
+
+    /**
+     * Seats the client in a match, or removes it from its match.
+     *
+     * @param match The match, or null to remove the client from its match.
+     * @param seat The seat of the client in the match.
+     */
+    void setMatch(ServerMatch match, int seat) {
+        this.match = match;
+        this.seat = seat;
+    }
+
+    /**
+     * Gets the game mode the client is waiting to be paired for.
+     *
+     * @return The game mode, or null if the client is not waiting.
+     */
+    GameMode getWaitingFor() {
+        return waitingFor;
+    }
+
+    /**
+     * Sets the game mode the client is waiting to be paired for.
+     *
+     * @param waitingFor The game mode, or null if the client is no longer waiting.
+     */
+    void setWaitingFor(GameMode waitingFor) {
+        this.waitingFor = waitingFor;
+    }
+
+    /**
+     * Checks whether the connection has been closed.
+     *
+     * @return True if the connection has been closed, false otherwise.
+     */
+    boolean isClosed() {
+        return closed;
+    }
+}
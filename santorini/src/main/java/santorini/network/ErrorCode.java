@@ -0,0 +1,41 @@
+package santorini.network;
+
+/**
+ * Enum representing the reasons the match server rejects a message or ends a match early.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public enum ErrorCode {
+
+    // Enum constants
+
+    BAD_MESSAGE,
+    NOT_IN_MATCH,
+    NOT_YOUR_TURN,
+    INVALID_PICK,
+    OPPONENT_LEFT,
+    NO_SUCH_MATCH;
+
+    // Methods
+
+    /**
+     * Gets the code the error is sent as.
+     *
+     * @return The code of the error.
+     */
+    public byte getCode() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * Finds the error sent as a code.
+     *
+     * @param code The code of the error.
+     * @return The error, or null if no error is sent as the code.
+     */
+    public static ErrorCode fromCode(int code) {
+        ErrorCode[] codes = values();
+        return code >= 0 && code < codes.length ? codes[code] : null;
+    }
+}
@@ -0,0 +1,17 @@
+package santorini.network;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A single message read from a connection, holding its type and its payload.
+ * The payload is a buffer of its own, so it stays valid after the connection's
+ * read buffer is reused.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param type The type of the message.
+ * @param payload The payload of the message, positioned at its first byte.
+ */
+public record Frame(MessageType type, ByteBuffer payload) {
+}
@@ -0,0 +1,38 @@
+package santorini.network;
+
+import santorini.game.TurnStep;
+
+/**
+ * Enum representing the kinds of input a player gives in a lockstep match.
+ * Each pick of a cell is sent with the step of the turn it was made in, so that a peer
+ * can tell an input it cannot play the same way from one it can.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public enum InputKind {
+
+    // Enum constants
+
+    SELECT_WORKER,
+    MOVE,
+    BUILD,
+    END_PHASE;
+
+    // Methods
+
+    /**
+     * Finds the kind of a pick made in a step of the turn.
+     *
+     * @param step The step of the turn.
+     * @return The kind of the pick, or null if no cell can be picked in the step.
+     */
+    public static InputKind of(TurnStep step) {
+        return switch (step) {
+            case SELECT_WORKER -> SELECT_WORKER;
+            case MOVE -> MOVE;
+            case BUILD -> BUILD;
+            case NONE -> null;
+        };
+    }
+}
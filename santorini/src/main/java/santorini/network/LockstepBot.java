@@ -0,0 +1,185 @@
+package santorini.network;
+
+import santorini.game.GameMode;
+import santorini.game.TurnDriver;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A scripted peer that connects to a match server and plays one lockstep match by picking
+ * random target cells of its own copy of the game, sometimes ending a phase early when it
+ * is allowed to. Lockstep bots are used to check that peers stay in sync.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class LockstepBot implements MatchListener {
+
+    // Attributes
+
+    /**
+     * The game mode of the match to play.
+     */
+    private final GameMode mode;
+
+    /**
+     * The chooser of the cells to pick.
+     */
+    private final Random random;
+
+    /**
+     * The connection to the server.
+     */
+    private MatchClient client;
+
+    /**
+     * The session of the match, or null until the match has started.
+     */
+    private LockstepSession session;
+
+    /**
+     * Completed with the session once the match has been won or the peers have drifted apart,
+     * or exceptionally if the bot was disconnected first.
+     */
+    private final CompletableFuture<LockstepSession> finished;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param mode The game mode of the match to play.
+     * @param seed The seed of the chooser of the cells to pick.
+     */
+    public LockstepBot(GameMode mode, long seed) {
+        this.mode = mode;
+        this.random = new Random(seed);
+        this.finished = new CompletableFuture<>();
+    }
+
+    // Methods
+
+    /**
+     * Connects to a match server and asks for a lockstep match.
+     *
+     * @param host The host name of the server.
+     * @param port The port of the server.
+     * @return A future completed with the session once the match is over.
+     * @throws IOException If the server cannot be reached.
+     */
+    public CompletableFuture<LockstepSession> play(String host, int port) throws IOException {
+        client = MatchClient.connect(host, port, this);
+        client.joinLockstep(mode);
+        return finished;
+    }
+
+    /**
+     * Creates the bot's copy of the game and plays if the bot moves first.
+     *
+     * @param start The announcement of the match.
+     */
+    @Override
+    public synchronized void onLockstepStarted(LockstepStart start) {
+        session = new LockstepSession(start, client);
+        playTurn();
+    }
+
+    /**
+     * Plays the opponent's input, then plays if it is now the bot's turn.
+     *
+     * @param input The input.
+     */
+    @Override
+    public synchronized void onInput(LockstepInput input) {
+        session.receiveInput(input);
+        playTurn();
+    }
+
+    /**
+     * Checks the opponent's state after its turn.
+     *
+     * @param turnHash The hash of the opponent's state.
+     */
+    @Override
+    public synchronized void onTurnHash(TurnHash turnHash) {
+        session.receiveTurnHash(turnHash);
+        checkFinished();
+    }
+
+    /**
+     * Lockstep bots are never sent the messages of server-run matches.
+     *
+     * @param start The announcement of the match.
+     */
+    @Override
+    public void onMatchStarted(MatchStart start) {
+    }
+
+    /**
+     * Lockstep bots are never sent the messages of server-run matches.
+     *
+     * @param snapshot The state of the match.
+     */
+    @Override
+    public void onState(MatchSnapshot snapshot) {
+    }
+
+    /**
+     * Ignores errors, as an opponent leaving after the match has been won is expected.
+     *
+     * @param code The error.
+     */
+    @Override
+    public void onError(ErrorCode code) {
+    }
+
+    /**
+     * Fails the bot if it was disconnected before the match was over.
+     */
+    @Override
+    public void onClosed() {
+        finished.completeExceptionally(new IOException("Disconnected from the match server"));
+    }
+
+    /**
+     * Gets the number of bytes the bot has sent to the server.
+     *
+     * @return The number of bytes sent.
+     */
+    public long getBytesSent() {
+        return client.getBytesSent();
+    }
+
+    /**
+     * Plays random inputs for as long as it is the bot's turn.
+     */
+    private void playTurn() {
+        TurnDriver turnDriver = session.getTurnDriver();
+        while (session.isLocalTurn()) {
+            BitSet targets = turnDriver.getTargets();
+            if (turnDriver.canEndPhase() && (targets.isEmpty() || random.nextInt(4) == 0)) {
+                session.endPhase();
+            }
+            else if (!targets.isEmpty()) {
+                session.pick(session.getGameState().getBoard().getPosition(BotPlayer.pickTarget(targets, random)));
+            }
+            else {
+                break;
+            }
+        }
+        checkFinished();
+    }
+
+    /**
+     * Finishes once the match has been won and its last turn checked, or once the peers have drifted apart.
+     */
+    private void checkFinished() {
+        if (session.isDesynced() || session.isFinished() && !session.hasPendingHash()) {
+            finished.complete(session);
+            client.close();
+        }
+    }
+}
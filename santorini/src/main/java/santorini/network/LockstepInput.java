@@ -0,0 +1,14 @@
+package santorini.network;
+
+/**
+ * A single input of a player in a lockstep match, which is all that is sent of a turn.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param sequence The number of inputs played in the match before this one, modulo 65536.
+ * @param kind The kind of input.
+ * @param cell The index of the picked cell, or 0 when ending a phase.
+ */
+public record LockstepInput(int sequence, InputKind kind, int cell) {
+}
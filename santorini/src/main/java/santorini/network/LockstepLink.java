@@ -0,0 +1,25 @@
+package santorini.network;
+
+/**
+ * Interface for anything a lockstep session can send its inputs and turn hashes through,
+ * such as a connection to the match server.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public interface LockstepLink {
+
+    /**
+     * Sends an input played locally to the other peer.
+     *
+     * @param input The input.
+     */
+    void sendInput(LockstepInput input);
+
+    /**
+     * Sends the hash of the state after a turn ended locally to the other peer.
+     *
+     * @param turnHash The hash.
+     */
+    void sendTurnHash(TurnHash turnHash);
+}
@@ -0,0 +1,102 @@
+package santorini.network;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A lockstep match hosted by the match server. The server runs no game for it: the inputs
+ * and turn hashes each peer sends are relayed to the other peer, which plays them itself.
+ * Only used on the server's event loop thread.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+class LockstepRelay {
+
+    // Attributes
+
+    /**
+     * The identifier of the match on the server.
+     */
+    private final int id;
+
+    /**
+     * The connections of the peers, by seat.
+     */
+    private final Connection[] seats;
+
+    /**
+     * Whether a peer has left the match.
+     */
+    private boolean ended;
+
+    // Constructor
+
+    /**
+     * Constructor. Seats the peers of the match.
+     *
+     * @param id The identifier of the match on the server.
+     * @param seats The connections of the peers, by seat.
+     */
+    LockstepRelay(int id, Connection[] seats) {
+        this.id = id;
+        this.seats = seats.clone();
+        for (int seat = 0; seat < seats.length; seat++) {
+            seats[seat].setRelay(this, seat);
+        }
+    }
+
+    // Methods
+
+    /**
+     * Sends a frame from one peer to every other peer.
+     *
+     * @param seat The seat of the sending peer.
+     * @param frame The frame, ready to be written.
+     */
+    void forward(int seat, ByteBuffer frame) {
+        for (int other = 0; other < seats.length; other++) {
+            if (other != seat) {
+                seats[other].send(frame.duplicate());
+            }
+        }
+    }
+
+    /**
+     * Removes a peer who has disconnected or moved on, ending the match for everyone else.
+     *
+     * @param seat The seat of the peer.
+     */
+    void leave(int seat) {
+        if (!ended) {
+            ended = true;
+            for (int other = 0; other < seats.length; other++) {
+                if (other != seat) {
+                    seats[other].send(Protocol.encodeError(ErrorCode.OPPONENT_LEFT));
+                }
+            }
+        }
+        for (Connection connection : seats) {
+            connection.setRelay(null, 0);
+        }
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the identifier of the match on the server.
+     *
+     * @return The identifier of the match.
+     */
+    int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the connections of the peers, by seat.
+     *
+     * @return The connections of the peers.
+     */
+    Connection[] getSeats() {
+        return seats.clone();
+    }
+}
@@ -0,0 +1,301 @@
+package santorini.network;
+
+import santorini.board.Board;
+import santorini.game.GameFactory;
+import santorini.game.GameState;
+import santorini.game.Position;
+import santorini.game.StateHash;
+import santorini.game.TurnDriver;
+
+/**
+ * One peer of a lockstep match. Both peers create the same game from the seed of the match
+ * and play every input on it, their own as they are made and their opponent's as they arrive,
+ * so only the inputs ever need to be sent. After each turn, the peer that ended it sends the
+ * hash of its state, which the other peer checks against its own to detect a desync.
+ * A session is not thread-safe and must only be used from one thread at a time.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class LockstepSession {
+
+    // Constants
+
+    /**
+     * The mask keeping sequence numbers within the two bytes they are sent in.
+     */
+    private static final int SEQUENCE_MASK = 0xFFFF;
+
+    // Attributes
+
+    /**
+     * The identifier of the match on the server.
+     */
+    private final int matchId;
+
+    /**
+     * The seat of the local player.
+     */
+    private final int seat;
+
+    /**
+     * The driver of the game of the match.
+     */
+    private final TurnDriver turnDriver;
+
+    /**
+     * The link the local inputs and turn hashes are sent through.
+     */
+    private final LockstepLink link;
+
+    /**
+     * The sequence number of the next input.
+     */
+    private int sequence;
+
+    /**
+     * The sequence number of the opponent's input that ended the last turn, or -1 if its hash has been checked.
+     */
+    private int pendingHashSequence;
+
+    /**
+     * The local hash of the state after the opponent's input that ended the last turn.
+     */
+    private long pendingHash;
+
+    /**
+     * The number of turn hashes checked against the local state.
+     */
+    private int hashesChecked;
+
+    /**
+     * The sequence number of the input at which the peers drifted apart, or -1 if they have not.
+     */
+    private int desyncSequence;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param start The announcement of the match.
+     * @param link The link the local inputs and turn hashes are sent through.
+     */
+    public LockstepSession(LockstepStart start, LockstepLink link) {
+        this.matchId = start.matchId();
+        this.seat = start.seat();
+        this.turnDriver = new TurnDriver(new GameFactory(start.seed()).createGame(start.mode()));
+        this.link = link;
+        this.pendingHashSequence = -1;
+        this.desyncSequence = -1;
+    }
+
+    // Methods
+
+    /**
+     * Plays a pick of the local player and sends it to the opponent.
+     *
+     * @param position The picked cell.
+     * @return True if the pick was played, false if it is not the local player's turn or the cell is not a target.
+     */
+    public boolean pick(Position position) {
+        Board board = getGameState().getBoard();
+        if (!isLocalTurn() || !board.isValidPosition(position)) {
+            return false;
+        }
+        return playLocal(InputKind.of(turnDriver.getStep()), board.getIndex(position));
+    }
+
+    /**
+     * Ends the current phase for the local player and sends it to the opponent.
+     *
+     * @return True if the phase was ended, false if it could not be.
+     */
+    public boolean endPhase() {
+        return isLocalTurn() && playLocal(InputKind.END_PHASE, 0);
+    }
+
+    /**
+     * Plays an input of the opponent. An input that cannot be played the same way as the
+     * opponent played it means the peers have drifted apart.
+     *
+     * @param input The input.
+     */
+    public void receiveInput(LockstepInput input) {
+        if (isDesynced()) {
+            return;
+        }
+        int turnNumber = getGameState().getTurnNumber();
+        boolean valid = input.sequence() == sequence && getGameState().getCurrentPlayerIndex() != seat
+            && getGameState().getWinner() == null && apply(input.kind(), input.cell());
+        if (!valid) {
+            desyncSequence = input.sequence();
+            return;
+        }
+
+        // Remember the local state after the turn, to be checked against the opponent's
+        if (endsTurn(turnNumber)) {
+            pendingHashSequence = sequence;
+            pendingHash = StateHash.of(getGameState());
+        }
+        sequence = (sequence + 1) & SEQUENCE_MASK;
+    }
+
+    /**
+     * Checks the opponent's hash of the state after a turn against the local state.
+     *
+     * @param turnHash The hash sent by the opponent.
+     */
+    public void receiveTurnHash(TurnHash turnHash) {
+        if (isDesynced()) {
+            return;
+        }
+        if (turnHash.sequence() != pendingHashSequence || turnHash.hash() != pendingHash) {
+            desyncSequence = turnHash.sequence();
+            return;
+        }
+        pendingHashSequence = -1;
+        hashesChecked++;
+    }
+
+    /**
+     * Checks whether it is the local player's turn to play.
+     *
+     * @return True if the local player can play, false otherwise.
+     */
+    public boolean isLocalTurn() {
+        return !isFinished() && !isDesynced() && getGameState().getCurrentPlayerIndex() == seat;
+    }
+
+    /**
+     * Checks whether the match has been won.
+     *
+     * @return True if the match has a winner, false otherwise.
+     */
+    public boolean isFinished() {
+        return getGameState().getWinner() != null;
+    }
+
+    /**
+     * Checks whether the opponent's hash of the state after the last turn has yet to arrive.
+     *
+     * @return True if a turn hash is awaited, false otherwise.
+     */
+    public boolean hasPendingHash() {
+        return pendingHashSequence >= 0;
+    }
+
+    /**
+     * Checks whether the peers have drifted apart.
+     *
+     * @return True if an input or turn hash of the opponent did not match the local game, false otherwise.
+     */
+    public boolean isDesynced() {
+        return desyncSequence >= 0;
+    }
+
+    /**
+     * Plays an input of the local player, sending it and, if it ended the turn, the hash of the state after it.
+     *
+     * @param kind The kind of input.
+     * @param cell The index of the picked cell, or 0 when ending a phase.
+     * @return True if the input was played, false otherwise.
+     */
+    private boolean playLocal(InputKind kind, int cell) {
+        int turnNumber = getGameState().getTurnNumber();
+        if (kind == null || !apply(kind, cell)) {
+            return false;
+        }
+
+        link.sendInput(new LockstepInput(sequence, kind, cell));
+        if (endsTurn(turnNumber)) {
+            link.sendTurnHash(new TurnHash(sequence, StateHash.of(getGameState())));
+        }
+        sequence = (sequence + 1) & SEQUENCE_MASK;
+        return true;
+    }
+
+    /**
+     * Plays an input on the game.
+     *
+     * @param kind The kind of input.
+     * @param cell The index of the picked cell, or 0 when ending a phase.
+     * @return True if the input could be played, false otherwise.
+     */
+    private boolean apply(InputKind kind, int cell) {
+        if (kind == InputKind.END_PHASE) {
+            return turnDriver.endPhase();
+        }
+        Board board = getGameState().getBoard();
+        if (kind != InputKind.of(turnDriver.getStep()) || cell >= board.getWidth() * board.getHeight()) {
+            return false;
+        }
+        return turnDriver.pick(board.getPosition(cell));
+    }
+
+    /**
+     * Checks whether the last input ended a turn, either by passing it to the next player or by winning the match.
+     *
+     * @param turnNumber The turn number before the input.
+     * @return True if the input ended a turn, false otherwise.
+     */
+    private boolean endsTurn(int turnNumber) {
+        return getGameState().getTurnNumber() != turnNumber || isFinished();
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the identifier of the match on the server.
+     *
+     * @return The identifier of the match.
+     */
+    public int getMatchId() {
+        return matchId;
+    }
+
+    /**
+     * Gets the seat of the local player.
+     *
+     * @return The seat of the local player.
+     */
+    public int getSeat() {
+        return seat;
+    }
+
+    /**
+     * Gets the driver of the game of the match.
+     *
+     * @return The turn driver.
+     */
+    public TurnDriver getTurnDriver() {
+        return turnDriver;
+    }
+
+    /**
+     * Gets the state of the game of the match.
+     *
+     * @return The game state.
+     */
+    public GameState getGameState() {
+        return turnDriver.getGame().getGameState();
+    }
+
+    /**
+     * Gets the number of the opponent's turn hashes that matched the local state.
+     *
+     * @return The number of turn hashes checked.
+     */
+    public int getHashesChecked() {
+        return hashesChecked;
+    }
+
+    /**
+     * Gets the sequence number of the input at which the peers drifted apart.
+     *
+     * @return The sequence number, or -1 if the peers have not drifted apart.
+     */
+    public int getDesyncSequence() {
+        return desyncSequence;
+    }
+}
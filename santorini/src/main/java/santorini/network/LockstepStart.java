@@ -0,0 +1,18 @@
+package santorini.network;
+
+import santorini.game.GameMode;
+
+/**
+ * The announcement sent to each peer of a lockstep match once it has been paired.
+ * The seed is all a peer needs to create the same game as its opponent.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param matchId The identifier of the match on the server.
+ * @param seat The index of the player the receiving peer plays as.
+ * @param mode The game mode of the match.
+ * @param seed The seed of the gods, worker positions and chaos effects of the match.
+ */
+public record LockstepStart(int matchId, int seat, GameMode mode, long seed) {
+}
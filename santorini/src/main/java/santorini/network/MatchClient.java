@@ -0,0 +1,226 @@
+package santorini.network;
+
+import santorini.game.GameMode;
+import santorini.game.Position;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * A connection to a match server, used by the game window in client mode, by bots and by spectators.
+ * Messages are written on the calling thread, while a virtual thread reads the messages
+ * sent by the server and passes them to the listener.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class MatchClient implements Closeable, LockstepLink {
+
+    // Attributes
+
+    /**
+     * The connection to the server.
+     */
+    private final SocketChannel channel;
+
+    /**
+     * The listener notified of the messages received.
+     */
+    private final MatchListener listener;
+
+    /**
+     * Whether the connection has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * The number of bytes written to the server.
+     */
+    private long bytesSent;
+
+    // Constructor
+
+    /**
+     * Constructor. Starts reading the messages sent by the server.
+     *
+     * @param channel The connected channel to the server.
+     * @param listener The listener notified of the messages received.
+     */
+    private MatchClient(SocketChannel channel, MatchListener listener) {
+        this.channel = channel;
+        this.listener = listener;
+        Thread.ofVirtual().name("match-client").start(this::readMessages);
+    }
+
+    // Methods
+
+    /**
+     * Connects to a match server.
+     *
+     * @param host The host name of the server.
+     * @param port The port of the server.
+     * @param listener The listener notified of the messages received.
+     * @return The connected client.
+     * @throws IOException If the server cannot be reached.
+     */
+    public static MatchClient connect(String host, int port, MatchListener listener) throws IOException {
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.socket().setTcpNoDelay(true);
+        return new MatchClient(channel, listener);
+    }
+
+    /**
+     * Asks to be paired with an opponent for a match.
+     *
+     * @param mode The game mode of the match.
+     */
+    public void join(GameMode mode) {
+        send(Protocol.encodeJoin(mode));
+    }
+
+    /**
+     * Asks to be paired with an opponent for a lockstep match.
+     *
+     * @param mode The game mode of the match.
+     */
+    public void joinLockstep(GameMode mode) {
+        send(Protocol.encodeJoinLockstep(mode));
+    }
+
+    /**
+     * Asks to watch a match as a spectator.
+     *
+     * @param matchId The identifier of the match, or 0 for the featured match.
+     */
+    public void spectate(int matchId) {
+        send(Protocol.encodeSpectate(matchId));
+    }
+
+    /**
+     * Sends an input played locally in a lockstep match, to be relayed to the opponent.
+     *
+     * @param input The input.
+     */
+    @Override
+    public void sendInput(LockstepInput input) {
+        send(Protocol.encodeInput(input));
+    }
+
+    /**
+     * Sends the hash of the state of a lockstep match after a turn, to be relayed to the opponent.
+     *
+     * @param turnHash The hash.
+     */
+    @Override
+    public void sendTurnHash(TurnHash turnHash) {
+        send(Protocol.encodeTurnHash(turnHash));
+    }
+
+    /**
+     * Clicks a cell of the board of the current match.
+     *
+     * @param position The clicked cell.
+     */
+    public void click(Position position) {
+        send(Protocol.encodeClick(position));
+    }
+
+    /**
+     * Ends the current phase of the current match.
+     */
+    public void endPhase() {
+        send(Protocol.encodeEndPhase());
+    }
+
+    /**
+     * Closes the connection to the server. The listener is notified once the reader has stopped.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+    }
+
+    /**
+     * Checks whether the connection has been closed.
+     *
+     * @return True if the connection has been closed, false otherwise.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Gets the number of bytes written to the server.
+     *
+     * @return The number of bytes sent.
+     */
+    public synchronized long getBytesSent() {
+        return bytesSent;
+    }
+
+    /**
+     * Writes a frame to the server, closing the connection if it cannot be written.
+     *
+     * @param frame The frame to write.
+     */
+    private synchronized void send(ByteBuffer frame) {
+        try {
+            bytesSent += frame.remaining();
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    /**
+     * Runs on the reader thread, reading frames and notifying the listener until the connection is closed.
+     */
+    private void readMessages() {
+        ByteBuffer buffer = ByteBuffer.allocate(Protocol.MAXIMUM_FRAME_LENGTH);
+        try {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                Frame frame;
+                while ((frame = Protocol.readFrame(buffer)) != null) {
+                    dispatch(frame);
+                }
+                buffer.compact();
+            }
+        } catch (IOException e) {
+            // The connection was closed or the server broke the protocol
+        } finally {
+            close();
+            listener.onClosed();
+        }
+    }
+
+    /**
+     * Passes a frame received from the server to the listener.
+     *
+     * @param frame The frame.
+     * @throws ProtocolException If the frame is malformed or is not sent by servers.
+     */
+    private void dispatch(Frame frame) throws ProtocolException {
+        switch (frame.type()) {
+            case MATCH_STARTED -> listener.onMatchStarted(Protocol.decodeMatchStarted(frame.payload()));
+            case STATE -> listener.onState(Protocol.decodeState(frame.payload()));
+            case ERROR -> listener.onError(Protocol.decodeError(frame.payload()));
+            case LOCKSTEP_STARTED -> listener.onLockstepStarted(Protocol.decodeLockstepStarted(frame.payload()));
+            case INPUT -> listener.onInput(Protocol.decodeInput(frame.payload()));
+            case TURN_HASH -> listener.onTurnHash(Protocol.decodeTurnHash(frame.payload()));
+            case KEYFRAME -> listener.onKeyframe(Protocol.decodeKeyframe(frame.payload()));
+            case DELTA -> listener.onDelta(Protocol.decodeDelta(frame.payload()));
+            default -> throw new ProtocolException("Unexpected message " + frame.type());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package santorini.network;
+
+/**
+ * Interface for anything that needs to be notified of the messages a match client receives.
+ * Listeners are notified on the client's reader thread, in the order the messages arrive.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public interface MatchListener {
+
+    /**
+     * Called when the client has been paired with an opponent and a match has started.
+     *
+     * @param start The announcement of the match.
+     */
+    void onMatchStarted(MatchStart start);
+
+    /**
+     * Called when the state of the match has changed.
+     *
+     * @param snapshot The state of the match.
+     */
+    void onState(MatchSnapshot snapshot);
+
+    /**
+     * Called when the server has rejected a message or ended the match early.
+     *
+     * @param code The error.
+     */
+    void onError(ErrorCode code);
+
+    /**
+     * Called once the connection to the server has been closed.
+     */
+    void onClosed();
+
+    /**
+     * Called when the client has been paired with an opponent and a lockstep match has started.
+     *
+     * @param start The announcement of the match.
+     */
+    default void onLockstepStarted(LockstepStart start) {
+    }
+
+    /**
+     * Called when the opponent in a lockstep match has played an input.
+     *
+     * @param input The input.
+     */
+    default void onInput(LockstepInput input) {
+    }
+
+    /**
+     * Called when the opponent in a lockstep match has ended a turn.
+     *
+     * @param turnHash The hash of the state of the match after the turn.
+     */
+    default void onTurnHash(TurnHash turnHash) {
+    }
+
+    /**
+     * Called when the client starts watching a match, or has to catch up after falling behind.
+     *
+     * @param keyframe The whole state of the match.
+     */
+    default void onKeyframe(SpectatorKeyframe keyframe) {
+    }
+
+    /**
+     * Called when the match the client is watching has changed.
+     *
+     * @param delta The changes to the match.
+     */
+    default void onDelta(SpectatorDelta delta) {
+    }
+}
@@ -0,0 +1,713 @@
+package santorini.network;
+
+import santorini.game.GameMode;
+import santorini.game.TimeControl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A server hosting many matches at once over the match protocol.
+ * A single event loop thread accepts clients, reads their frames from non-blocking sockets
+ * and plays them on the headless game of their match, so no match ever needs locking and
+ * an idle match costs nothing but its memory. Clients asking for the same game mode are
+ * paired in the order they join, and a client that disconnects ends its match.
+ * Lockstep matches cost the server even less: their peers run the game themselves, and
+ * the server only pairs them, hands them a seed and relays their inputs. Clients asking to
+ * watch a match are handed over to a spectator hub with an event loop of its own, so the
+ * spectators of a match never slow its players down.
+ * Matches can be timed, the flag-fall of every match being armed on the shared timing
+ * wheel and checked on the event loop, so thousands of timed matches add a single thread.
+ * A failure is contained to what it touches: a client that cannot be accepted is dropped
+ * alone, accepting pauses briefly if the server runs out of file descriptors, and an
+ * unexpected error in the rules of a match ends that match without touching the others.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class MatchServer implements Closeable {
+
+    // Constants
+
+    /**
+     * How long accepting clients pauses after the server failed to accept one, in milliseconds.
+     */
+    private static final long ACCEPT_PAUSE_MILLIS = 100;
+
+    // Attributes
+
+    /**
+     * The port to listen on, or 0 for any free port.
+     */
+    private final int requestedPort;
+
+    /**
+     * The selector of the event loop.
+     */
+    private Selector selector;
+
+    /**
+     * The channel accepting clients.
+     */
+    private ServerSocketChannel serverChannel;
+
+    /**
+     * The thread running the event loop.
+     */
+    private Thread thread;
+
+    /**
+     * The hub serving the spectators of every match.
+     */
+    private final SpectatorHub spectatorHub;
+
+    /**
+     * The time each player of a match is given, or null if matches are untimed.
+     */
+    private final TimeControl timeControl;
+
+    /**
+     * The work posted from other threads, run on the event loop.
+     */
+    private final Queue<Runnable> tasks;
+
+    /**
+     * The client waiting to be paired for each game mode.
+     */
+    private final Map<GameMode, Connection> waiting;
+
+    /**
+     * The client waiting to be paired for a lockstep match of each game mode.
+     */
+    private final Map<GameMode, Connection> lockstepWaiting;
+
+    /**
+     * The lockstep matches being played, by identifier.
+     */
+    private final Map<Integer, LockstepRelay> relays;
+
+    /**
+     * The matches being played, by identifier.
+     */
+    private final Map<Integer, ServerMatch> matches;
+
+    /**
+     * The identifier of the next match.
+     */
+    private int nextMatchId;
+
+    /**
+     * The number of matches being played, readable from any thread.
+     */
+    private volatile int matchCount;
+
+    /**
+     * The number of matches that have finished, readable from any thread.
+     */
+    private volatile int finishedMatchCount;
+
+    /**
+     * The number of connected clients, readable from any thread.
+     */
+    private volatile int connectionCount;
+
+    /**
+     * The number of clicks and phase ends played, readable from any thread.
+     */
+    private volatile long turnInputCount;
+
+    /**
+     * The total time spent handling clicks and phase ends, in nanoseconds, readable from any thread.
+     */
+    private volatile long turnInputNanos;
+
+    /**
+     * The number of frames sent to the players of a match while handling its clicks and phase ends, readable from any thread.
+     */
+    private volatile long turnFrameCount;
+
+    /**
+     * The time accepting clients resumes after failing, from System.nanoTime(), or 0 if accepting is not paused.
+     */
+    private long acceptResumeNanos;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param port The port to listen on, or 0 for any free port.
+     */
+    public MatchServer(int port) {
+        this(port, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param port The port to listen on, or 0 for any free port.
+     * @param timeControl The time each player of a match is given, or null if matches are untimed.
+     */
+    public MatchServer(int port, TimeControl timeControl) {
+        this.requestedPort = port;
+        this.timeControl = timeControl;
+        this.tasks = new ConcurrentLinkedQueue<>();
+        this.waiting = new EnumMap<>(GameMode.class);
+        this.matches = new HashMap<>();
+        this.lockstepWaiting = new EnumMap<>(GameMode.class);
+        this.relays = new HashMap<>();
+        this.spectatorHub = new SpectatorHub();
+        this.nextMatchId = 1;
+    }
+
+    // Methods
+
+    /**
+     * Starts listening for clients and starts the event loop.
+     *
+     * @throws IOException If the port cannot be listened on.
+     */
+    public void start() throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(requestedPort), 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        spectatorHub.start();
+
+        thread = new Thread(this::runEventLoop, "match-server");
+        thread.start();
+    }
+
+    /**
+     * Waits until the server has been closed.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public void awaitClose() throws InterruptedException {
+        thread.join();
+    }
+
+    /**
+     * Stops the event loops and disconnects every client and spectator.
+     */
+    @Override
+    public void close() {
+        spectatorHub.close();
+        try {
+            selector.close();
+            serverChannel.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+    }
+
+    /**
+     * Queues work for the event loop and wakes it up.
+     *
+     * @param task The work.
+     */
+    private void post(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Runs on the event loop thread, running posted work and handling ready sockets until the server is closed.
+     */
+    private void runEventLoop() {
+        try {
+            while (selector.isOpen()) {
+                selector.select(acceptResumeNanos == 0 ? 0 : ACCEPT_PAUSE_MILLIS);
+                resumeAccepting();
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handleKey(key);
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            // The server has been closed
+        } finally {
+            for (ServerMatch match : matches.values()) {
+                for (Connection connection : match.getSeats()) {
+                    connection.close();
+                }
+            }
+            for (LockstepRelay relay : relays.values()) {
+                for (Connection connection : relay.getSeats()) {
+                    connection.close();
+                }
+            }
+            for (Connection connection : waiting.values()) {
+                connection.close();
+            }
+            for (Connection connection : lockstepWaiting.values()) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Handles a socket that is ready to be accepted, read or written. An unexpected error
+     * while handling a client disconnects it, ending its match.
+     *
+     * @param key The key of the socket.
+     */
+    private void handleKey(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+
+        Connection connection = (Connection) key.attachment();
+        ServerMatch match = connection.getMatch();
+        LockstepRelay relay = connection.getRelay();
+        try {
+            if (key.isWritable()) {
+                connection.flush();
+            }
+            if (key.isValid() && key.isReadable()) {
+                read(connection);
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            if (connection.getMatch() != null) {
+                abandon(connection.getMatch());
+            }
+            connection.close();
+        }
+
+        // Sending to an opponent that fell too far behind may have closed it as well
+        Connection[] players = match != null ? match.getSeats() : relay != null ? relay.getSeats() : new Connection[0];
+        for (Connection player : players) {
+            if (player.isClosed()) {
+                disconnect(player);
+            }
+        }
+        if (connection.isClosed()) {
+            disconnect(connection);
+        }
+    }
+
+    /**
+     * Accepts every client waiting to connect. A client that fails while being set up, such
+     * as one that reset its connection, is dropped alone. If no client can be accepted at
+     * all, such as when the server is out of file descriptors, accepting pauses for a while
+     * rather than failing on every pass of the event loop.
+     */
+    private void accept() {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (IOException e) {
+                pauseAccepting();
+                return;
+            }
+            if (channel == null) {
+                return;
+            }
+
+            try {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new Connection(channel, key));
+                connectionCount++;
+            } catch (IOException e) {
+                try {
+                    channel.close();
+                } catch (IOException closeFailure) {
+                    // Nothing left to release
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting clients for a while after failing to accept one.
+     */
+    private void pauseAccepting() {
+        serverChannel.keyFor(selector).interestOps(0);
+        acceptResumeNanos = System.nanoTime() + ACCEPT_PAUSE_MILLIS * 1_000_000;
+    }
+
+    /**
+     * Accepts clients again once a pause in accepting is over.
+     */
+    private void resumeAccepting() {
+        if (acceptResumeNanos != 0 && System.nanoTime() - acceptResumeNanos >= 0) {
+            acceptResumeNanos = 0;
+            serverChannel.keyFor(selector).interestOps(SelectionKey.OP_ACCEPT);
+        }
+    }
+
+    /**
+     * Reads and handles the frames a client has sent, disconnecting it if it has closed
+     * the connection or broken the protocol.
+     *
+     * @param connection The client.
+     */
+    private void read(Connection connection) {
+        ByteBuffer buffer = connection.getReadBuffer();
+        try {
+            if (connection.read() < 0) {
+                connection.close();
+                return;
+            }
+            buffer.flip();
+            Frame frame;
+            while (!connection.isClosed() && (frame = Protocol.readFrame(buffer)) != null) {
+                handleFrame(connection, frame);
+            }
+            buffer.compact();
+        } catch (ProtocolException e) {
+            connection.send(Protocol.encodeError(ErrorCode.BAD_MESSAGE));
+            connection.close();
+        } catch (IOException e) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Handles a frame sent by a client.
+     *
+     * @param connection The client.
+     * @param frame The frame.
+     * @throws ProtocolException If the frame is malformed or is not sent by clients.
+     */
+    private void handleFrame(Connection connection, Frame frame) throws ProtocolException {
+        ServerMatch match = connection.getMatch();
+        LockstepRelay relay = connection.getRelay();
+        switch (frame.type()) {
+            case JOIN -> join(connection, Protocol.decodeJoin(frame.payload()), waiting);
+            case JOIN_LOCKSTEP -> join(connection, Protocol.decodeJoin(frame.payload()), lockstepWaiting);
+            case INPUT, TURN_HASH -> {
+                if (relay == null) {
+                    connection.send(Protocol.encodeError(ErrorCode.NOT_IN_MATCH));
+                    return;
+                }
+                // Re-encode rather than copy, so only well-formed inputs reach the other peer
+                relay.forward(connection.getSeat(), frame.type() == MessageType.INPUT
+                    ? Protocol.encodeInput(Protocol.decodeInput(frame.payload()))
+                    : Protocol.encodeTurnHash(Protocol.decodeTurnHash(frame.payload())));
+            }
+            case SPECTATE -> spectate(connection, Protocol.decodeSpectate(frame.payload()));
+            case CLICK -> {
+                if (match == null) {
+                    connection.send(Protocol.encodeError(ErrorCode.NOT_IN_MATCH));
+                    return;
+                }
+                long start = System.nanoTime();
+                long frames = countSentFrames(match);
+                match.click(connection.getSeat(), Protocol.decodeClick(frame.payload()));
+                countTurnInput(match, start, frames);
+            }
+            case END_PHASE -> {
+                if (match == null) {
+                    connection.send(Protocol.encodeError(ErrorCode.NOT_IN_MATCH));
+                    return;
+                }
+                long start = System.nanoTime();
+                long frames = countSentFrames(match);
+                match.endPhase(connection.getSeat());
+                countTurnInput(match, start, frames);
+            }
+            default -> throw new ProtocolException("Unexpected message " + frame.type());
+        }
+
+        if (match != null && match.isFinished()) {
+            finishMatch(match);
+        }
+    }
+
+    /**
+     * Pairs a client with the client waiting for the same kind of match, or makes it wait.
+     * Clients still in a match or already waiting are ignored, while a client in a lockstep
+     * match leaves it, as the server cannot tell when a lockstep match has been won.
+     *
+     * @param connection The client.
+     * @param mode The game mode the client asked for.
+     * @param queue The clients waiting for the kind of match the client asked for, by game mode.
+     */
+    private void join(Connection connection, GameMode mode, Map<GameMode, Connection> queue) {
+        if (connection.getMatch() != null || connection.getWaitingFor() != null) {
+            return;
+        }
+        if (connection.getRelay() != null) {
+            endRelay(connection.getRelay(), connection.getSeat());
+        }
+
+        Connection opponent = queue.remove(mode);
+        if (opponent == null) {
+            connection.setWaitingFor(mode);
+            queue.put(mode, connection);
+            return;
+        }
+
+        opponent.setWaitingFor(null);
+        Connection[] seats = {opponent, connection};
+        if (queue == lockstepWaiting) {
+            LockstepRelay relay = new LockstepRelay(nextMatchId++, seats);
+            relays.put(relay.getId(), relay);
+            long seed = ThreadLocalRandom.current().nextLong();
+            for (int seat = 0; seat < seats.length; seat++) {
+                seats[seat].send(Protocol.encodeLockstepStarted(new LockstepStart(relay.getId(), seat, mode, seed)));
+            }
+        }
+        else {
+            ServerMatch match = new ServerMatch(nextMatchId++, mode, seats, spectatorHub);
+            matches.put(match.getId(), match);
+            match.start();
+            if (timeControl != null) {
+                match.startClock(timeControl, check -> post(() -> checkClock(match, check)));
+            }
+        }
+        matchCount = matches.size() + relays.size();
+    }
+
+    /**
+     * Hands a client over to the spectator hub to watch a match. Clients playing or waiting for a match are ignored.
+     *
+     * @param connection The client.
+     * @param matchId The identifier of the match, or 0 for the featured match.
+     */
+    private void spectate(Connection connection, int matchId) {
+        if (connection.getMatch() != null || connection.getRelay() != null || connection.getWaitingFor() != null) {
+            return;
+        }
+        spectatorHub.adopt(connection.handOver(), matchId);
+    }
+
+    /**
+     * Runs a flag-fall check of a match still being played, removing the match if a player's time ran out.
+     *
+     * @param match The match.
+     * @param check The flag-fall check.
+     */
+    private void checkClock(ServerMatch match, Runnable check) {
+        if (matches.get(match.getId()) != match) {
+            return;
+        }
+        try {
+            match.checkClock(check);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            abandon(match);
+            return;
+        }
+        if (match.isFinished()) {
+            finishMatch(match);
+        }
+    }
+
+    /**
+     * Adds the time spent and the frames sent handling a click or phase end to the turn gauges.
+     *
+     * @param match The match the click or phase end was played in.
+     * @param start The time the handling started, from System.nanoTime().
+     * @param frames The number of frames sent to the players of the match before the handling started.
+     */
+    private void countTurnInput(ServerMatch match, long start, long frames) {
+        turnInputNanos += System.nanoTime() - start;
+        turnFrameCount += countSentFrames(match) - frames;
+        turnInputCount++;
+    }
+
+    /**
+     * Counts the frames sent to the players of a match so far.
+     *
+     * @param match The match.
+     * @return The number of frames.
+     */
+    private static long countSentFrames(ServerMatch match) {
+        long frames = 0;
+        for (Connection player : match.getSeats()) {
+            frames += player.getSentFrames();
+        }
+        return frames;
+    }
+
+    /**
+     * Ends a lockstep match once one of its peers has left it.
+     *
+     * @param relay The lockstep match.
+     * @param seat The seat of the peer who left.
+     */
+    private void endRelay(LockstepRelay relay, int seat) {
+        relay.leave(seat);
+        if (relays.remove(relay.getId()) != null) {
+            matchCount = matches.size() + relays.size();
+            finishedMatchCount++;
+        }
+    }
+
+    /**
+     * Removes a finished match, freeing its players to join another one.
+     *
+     * @param match The finished match.
+     */
+    private void finishMatch(ServerMatch match) {
+        if (matches.remove(match.getId()) == null) {
+            return;
+        }
+        for (Connection connection : match.getSeats()) {
+            connection.setMatch(null, 0);
+        }
+        match.stopClock();
+        match.endSpectating();
+        matchCount = matches.size() + relays.size();
+        finishedMatchCount++;
+    }
+
+    /**
+     * Ends a match whose game failed unexpectedly by disconnecting its players, so the
+     * failure ends no other match.
+     *
+     * @param match The match.
+     */
+    private void abandon(ServerMatch match) {
+        for (Connection player : match.getSeats()) {
+            player.close();
+            disconnect(player);
+        }
+    }
+
+    /**
+     * Forgets a client that has disconnected, ending its match or its wait.
+     *
+     * @param connection The client.
+     */
+    private void disconnect(Connection connection) {
+        if (!connection.release()) {
+            return;
+        }
+        ServerMatch match = connection.getMatch();
+        if (match != null) {
+            match.leave(connection.getSeat());
+            finishMatch(match);
+        }
+        if (connection.getRelay() != null) {
+            endRelay(connection.getRelay(), connection.getSeat());
+        }
+        GameMode mode = connection.getWaitingFor();
+        if (mode != null) {
+            waiting.remove(mode, connection);
+            lockstepWaiting.remove(mode, connection);
+            connection.setWaitingFor(null);
+        }
+        connectionCount--;
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return The port.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Gets the number of matches being played.
+     *
+     * @return The number of matches.
+     */
+    public int getMatchCount() {
+        return matchCount;
+    }
+
+    /**
+     * Gets the number of matches that have finished since the server started.
+     *
+     * @return The number of finished matches.
+     */
+    public int getFinishedMatchCount() {
+        return finishedMatchCount;
+    }
+
+    /**
+     * Gets the number of connected spectators, who are not counted as clients.
+     *
+     * @return The number of spectators.
+     */
+    public int getSpectatorCount() {
+        return spectatorHub.getSpectatorCount();
+    }
+
+    /**
+     * Gets the number of keyframes sent to spectators that fell behind.
+     *
+     * @return The number of resyncs.
+     */
+    public int getResyncCount() {
+        return spectatorHub.getResyncCount();
+    }
+
+    /**
+     * Gets the number of clicks and phase ends played by the players of every match.
+     *
+     * @return The number of turn inputs.
+     */
+    public long getTurnInputCount() {
+        return turnInputCount;
+    }
+
+    /**
+     * Gets the total time spent handling clicks and phase ends, including answering the
+     * players and posting the deltas for the spectators.
+     *
+     * @return The time, in nanoseconds.
+     */
+    public long getTurnInputNanos() {
+        return turnInputNanos;
+    }
+
+    /**
+     * Gets the number of frames sent to the players of every match while handling their clicks
+     * and phase ends. Spectators are served by the spectator hub, so they never add to it.
+     *
+     * @return The number of frames.
+     */
+    public long getTurnFrameCount() {
+        return turnFrameCount;
+    }
+
+    /**
+     * Gets the number of connected clients.
+     *
+     * @return The number of clients.
+     */
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+}
@@ -0,0 +1,188 @@
+package santorini.network;
+
+import santorini.board.Board;
+import santorini.game.GameState;
+import santorini.game.Position;
+import santorini.game.TurnDriver;
+import santorini.game.TurnStep;
+import santorini.players.Player;
+import santorini.players.Worker;
+import santorini.towers.FloorType;
+import santorini.towers.Tower;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The state of a match as sent by the server after every change, compact enough to be sent
+ * to every player of every match. Each cell is packed into a single byte holding the level
+ * of its tower, whether it is fogged and the seat of the worker on it. The level of a fogged
+ * and unoccupied tower is not sent, so clients cannot see through the fog.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param width The width of the board.
+ * @param height The height of the board.
+ * @param currentSeat The seat of the player whose turn it is.
+ * @param step The kind of cell the current player is expected to pick next.
+ * @param canEndPhase Whether the current player can end the current phase.
+ * @param winnerSeat The seat of the winner, or -1 if the match has not been won.
+ * @param cells The packed cells of the board, by cell index.
+ * @param targets The cells the receiving player can pick, by cell index.
+ */
+public record MatchSnapshot(int width, int height, int currentSeat, TurnStep step, boolean canEndPhase,
+                            int winnerSeat, byte[] cells, BitSet targets) {
+
+    // Constants
+
+    /**
+     * The bits of a packed cell holding the level of its tower.
+     */
+    private static final int LEVEL_MASK = 0x07;
+
+    /**
+     * The bit of a packed cell set when its tower is fogged.
+     */
+    private static final int FOG_BIT = 0x08;
+
+    /**
+     * The position of the bits of a packed cell holding the seat of its worker, plus one.
+     */
+    private static final int OCCUPANT_SHIFT = 4;
+
+    // Constructor
+
+    /**
+     * Constructor, copying the cells and targets so later changes to them are not seen.
+     */
+    public MatchSnapshot {
+        cells = cells.clone();
+        targets = (BitSet) targets.clone();
+    }
+
+    // Methods
+
+    /**
+     * Takes a snapshot of a match as seen by one of its players.
+     *
+     * @param gameState The state of the match.
+     * @param turnDriver The driver of the match.
+     * @param includeTargets Whether the receiving player is the current player and is sent the target cells.
+     * @return The snapshot of the match.
+     */
+    public static MatchSnapshot of(GameState gameState, TurnDriver turnDriver, boolean includeTargets) {
+        Board board = gameState.getBoard();
+        List<Player> players = gameState.getPlayers();
+        byte[] cells = new byte[board.getWidth() * board.getHeight()];
+
+        for (int index = 0; index < cells.length; index++) {
+            Position position = board.getPosition(index);
+            Tower tower = board.getTower(position);
+            Worker worker = board.getWorkerAt(position);
+
+            int occupant = -1;
+            if (worker != null) {
+                for (int seat = 0; seat < players.size(); seat++) {
+                    if (players.get(seat).getWorkers().contains(worker)) {
+                        occupant = seat;
+                    }
+                }
+            }
+
+            // Hide the level of fogged towers nobody stands on
+            boolean fogged = tower.getFogged();
+            int level = fogged && worker == null ? 0 : tower.getHeight();
+            cells[index] = (byte) (level | (fogged ? FOG_BIT : 0) | (occupant + 1) << OCCUPANT_SHIFT);
+        }
+
+        Player winner = gameState.getWinner();
+        return new MatchSnapshot(board.getWidth(), board.getHeight(), gameState.getCurrentPlayerIndex(),
+            turnDriver.getStep(), includeTargets && turnDriver.canEndPhase(), winner != null ? players.indexOf(winner) : -1,
+            cells, includeTargets ? turnDriver.getTargets() : new BitSet());
+    }
+
+    /**
+     * Gets the position of a cell from its index, numbering cells the same way as the board.
+     *
+     * @param index The index of the cell.
+     * @return The position of the cell.
+     */
+    public Position getPosition(int index) {
+        return new Position(index / height, index % height);
+    }
+
+    /**
+     * Gets the level of the tower of a cell.
+     *
+     * @param index The index of the cell.
+     * @return The level of the tower, which is 0 for fogged and unoccupied towers.
+     */
+    public int getLevel(int index) {
+        return cells[index] & LEVEL_MASK;
+    }
+
+    /**
+     * Checks whether the tower of a cell is fogged.
+     *
+     * @param index The index of the cell.
+     * @return True if the tower is fogged, false otherwise.
+     */
+    public boolean isFogged(int index) {
+        return (cells[index] & FOG_BIT) != 0;
+    }
+
+    /**
+     * Gets the seat of the player whose worker is on a cell.
+     *
+     * @param index The index of the cell.
+     * @return The seat of the player, or -1 if the cell is unoccupied.
+     */
+    public int getOccupant(int index) {
+        return ((cells[index] & 0xFF) >> OCCUPANT_SHIFT) - 1;
+    }
+
+    /**
+     * Gets the resource path of the image the tower of a cell is drawn with.
+     *
+     * @param index The index of the cell.
+     * @return The resource path of the fog or of the topmost floor of the tower.
+     */
+    public String getTowerImage(int index) {
+        if (isFogged(index) && getOccupant(index) < 0) {
+            return Tower.FOG_IMAGE_PATH;
+        }
+        return FloorType.fromLevel(getLevel(index)).getImagePath();
+    }
+
+    /**
+     * Gets the resource path of the image the worker on a cell is drawn with.
+     *
+     * @param index The index of the cell.
+     * @return The resource path of the worker icon, or null if the cell is unoccupied.
+     */
+    public String getWorkerImage(int index) {
+        int occupant = getOccupant(index);
+        return occupant >= 0 ? Player.getWorkerIconPath(occupant) : null;
+    }
+
+    /**
+     * Gets the packed cells of the board.
+     *
+     * @return A copy of the packed cells, by cell index.
+     */
+    @Override
+    public byte[] cells() {
+        return cells.clone();
+    }
+
+    /**
+     * Gets the cells the receiving player can pick.
+     *
+     * @return A copy of the target cells, by cell index.
+     */
+    @Override
+    public BitSet targets() {
+        return (BitSet) targets.clone();
+    }
+}
@@ -0,0 +1,172 @@
+package santorini.network;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A spectator that connects to a match server and follows one match to its end, applying
+ * each delta to the last keyframe it was sent. Deltas that do not follow the state it has
+ * are ignored until the next keyframe catches it up.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class MatchSpectator implements MatchListener {
+
+    // Attributes
+
+    /**
+     * The connection to the server.
+     */
+    private MatchClient client;
+
+    /**
+     * The state of the match, or null until the first keyframe has arrived.
+     */
+    private MatchSnapshot snapshot;
+
+    /**
+     * The sequence number of the last delta applied to the state.
+     */
+    private int sequence;
+
+    /**
+     * The number of keyframes received.
+     */
+    private int keyframes;
+
+    /**
+     * The number of deltas applied to the state.
+     */
+    private int deltas;
+
+    /**
+     * Completed with the final state once the match has been won or abandoned,
+     * or exceptionally if the spectator was disconnected first.
+     */
+    private final CompletableFuture<MatchSnapshot> finished;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     */
+    public MatchSpectator() {
+        this.finished = new CompletableFuture<>();
+    }
+
+    // Methods
+
+    /**
+     * Connects to a match server and asks to watch a match.
+     *
+     * @param host The host name of the server.
+     * @param port The port of the server.
+     * @param matchId The identifier of the match, or 0 for the featured match.
+     * @return A future completed with the final state of the match once it is over.
+     * @throws IOException If the server cannot be reached.
+     */
+    public CompletableFuture<MatchSnapshot> watch(String host, int port, int matchId) throws IOException {
+        client = MatchClient.connect(host, port, this);
+        client.spectate(matchId);
+        return finished;
+    }
+
+    /**
+     * Replaces the state of the match.
+     *
+     * @param keyframe The whole state of the match.
+     */
+    @Override
+    public synchronized void onKeyframe(SpectatorKeyframe keyframe) {
+        snapshot = keyframe.snapshot();
+        sequence = keyframe.sequence();
+        keyframes++;
+        checkFinished();
+    }
+
+    /**
+     * Applies a delta to the state of the match, if it follows the state.
+     *
+     * @param delta The changes to the match.
+     */
+    @Override
+    public synchronized void onDelta(SpectatorDelta delta) {
+        if (snapshot == null || delta.sequence() != sequence + 1) {
+            return;
+        }
+        snapshot = delta.applyTo(snapshot);
+        sequence = delta.sequence();
+        deltas++;
+        checkFinished();
+    }
+
+    /**
+     * Spectators are never sent the messages of players.
+     *
+     * @param start The announcement of the match.
+     */
+    @Override
+    public void onMatchStarted(MatchStart start) {
+    }
+
+    /**
+     * Spectators are never sent the messages of players.
+     *
+     * @param snapshot The state of the match.
+     */
+    @Override
+    public void onState(MatchSnapshot snapshot) {
+    }
+
+    /**
+     * Finishes if the match was abandoned or cannot be watched.
+     *
+     * @param code The error.
+     */
+    @Override
+    public synchronized void onError(ErrorCode code) {
+        if (code == ErrorCode.OPPONENT_LEFT || code == ErrorCode.NO_SUCH_MATCH) {
+            finished.complete(snapshot);
+            client.close();
+        }
+    }
+
+    /**
+     * Fails the spectator if it was disconnected before the match was over.
+     */
+    @Override
+    public void onClosed() {
+        finished.completeExceptionally(new IOException("Disconnected from the match server"));
+    }
+
+    /**
+     * Finishes once the match has been won.
+     */
+    private void checkFinished() {
+        if (snapshot.winnerSeat() >= 0) {
+            finished.complete(snapshot);
+            client.close();
+        }
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the number of keyframes received.
+     *
+     * @return The number of keyframes.
+     */
+    public synchronized int getKeyframes() {
+        return keyframes;
+    }
+
+    /**
+     * Gets the number of deltas applied to the state of the match.
+     *
+     * @return The number of deltas.
+     */
+    public synchronized int getDeltas() {
+        return deltas;
+    }
+}
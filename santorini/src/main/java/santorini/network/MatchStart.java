@@ -0,0 +1,26 @@
+package santorini.network;
+
+import santorini.game.GameMode;
+
+import java.util.List;
+
+/**
+ * The announcement sent to each player of a match once it has been paired with an opponent.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param matchId The identifier of the match on the server.
+ * @param seat The index of the player the receiving client plays as.
+ * @param mode The game mode of the match.
+ * @param gods The names of the gods of the players, by seat.
+ */
+public record MatchStart(int matchId, int seat, GameMode mode, List<String> gods) {
+
+    /**
+     * Constructor, copying the god names so later changes to them are not seen.
+     */
+    public MatchStart {
+        gods = List.copyOf(gods);
+    }
+}
@@ -0,0 +1,53 @@
+package santorini.network;
+
+/**
+ * Enum representing the kinds of message exchanged between match clients and the match server.
+ * Clients send JOIN, CLICK and END_PHASE; the server answers with MATCH_STARTED, STATE and ERROR.
+ * In lockstep matches clients send JOIN_LOCKSTEP and are answered with LOCKSTEP_STARTED, after
+ * which the server only relays the INPUT and TURN_HASH messages of each peer to the other.
+ * Spectators send SPECTATE and are sent a KEYFRAME of the match, then a DELTA after every change.
+ * Each message is sent as a frame carrying the code of its type.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public enum MessageType {
+
+    // Enum constants
+
+    JOIN,
+    CLICK,
+    END_PHASE,
+    MATCH_STARTED,
+    STATE,
+    ERROR,
+    JOIN_LOCKSTEP,
+    LOCKSTEP_STARTED,
+    INPUT,
+    TURN_HASH,
+    SPECTATE,
+    KEYFRAME,
+    DELTA;
+
+    // Methods
+
+    /**
+     * Gets the code the message type is sent as.
+     *
+     * @return The code of the message type.
+     */
+    public byte getCode() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * Finds the message type sent as a code.
+     *
+     * @param code The code of the message type.
+     * @return The message type, or null if no message type is sent as the code.
+     */
+    public static MessageType fromCode(int code) {
+        MessageType[] types = values();
+        return code >= 0 && code < types.length ? types[code] : null;
+    }
+}
@@ -0,0 +1,539 @@
+package santorini.network;
+
+import santorini.game.GameMode;
+import santorini.game.Position;
+import santorini.game.TurnStep;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The compact binary protocol spoken between match clients and the match server.
+ * Every message is sent as a frame made of a two byte length, a one byte message type and
+ * a payload, where the length counts the type and the payload. Numbers that always fit are
+ * sent as single bytes, so a whole state of a standard match fits in a few dozen bytes,
+ * a lockstep input, which is all that is sent of a pick, fits in seven, and a spectator
+ * is sent two bytes per changed cell.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public final class Protocol {
+
+    // Constants
+
+    /**
+     * The number of bytes of a frame before its payload.
+     */
+    public static final int HEADER_LENGTH = 3;
+
+    /**
+     * The largest payload a frame may carry.
+     */
+    public static final int MAXIMUM_PAYLOAD_LENGTH = 1024;
+
+    /**
+     * The largest frame that can be sent, which is also the size of a read buffer that can hold any frame.
+     */
+    public static final int MAXIMUM_FRAME_LENGTH = HEADER_LENGTH + MAXIMUM_PAYLOAD_LENGTH;
+
+    // Constructor
+
+    /**
+     * Constructor. The protocol only has static methods.
+     */
+    private Protocol() {
+    }
+
+    // Methods
+
+    /**
+     * Reads the next complete frame from a buffer, consuming it.
+     * If the buffer does not hold a complete frame yet, nothing is consumed.
+     *
+     * @param buffer The buffer to read from, ready to be read.
+     * @return The frame, or null if the buffer does not hold a complete frame.
+     * @throws ProtocolException If the frame is too long or of an unknown type.
+     */
+    public static Frame readFrame(ByteBuffer buffer) throws ProtocolException {
+        if (buffer.remaining() < Short.BYTES) {
+            return null;
+        }
+        int length = Short.toUnsignedInt(buffer.getShort(buffer.position()));
+        if (length < 1 || length > MAXIMUM_PAYLOAD_LENGTH + 1) {
+            throw new ProtocolException("Invalid frame length " + length);
+        }
+        if (buffer.remaining() < Short.BYTES + length) {
+            return null;
+        }
+
+        buffer.getShort();
+        int code = buffer.get();
+        MessageType type = MessageType.fromCode(code);
+        if (type == null) {
+            throw new ProtocolException("Unknown message type " + code);
+        }
+        byte[] payload = new byte[length - 1];
+        buffer.get(payload);
+        return new Frame(type, ByteBuffer.wrap(payload));
+    }
+
+    /**
+     * Encodes a request to be paired with an opponent for a match.
+     *
+     * @param mode The game mode of the match.
+     * @return The frame, ready to be written.
+     */
+    public static ByteBuffer encodeJoin(GameMode mode) {
+        return allocate(MessageType.JOIN, 1).put((byte) mode.ordinal()).flip();
+    }
+
+    /**
+     * Encodes a click on a cell of the board.
+     *
+     * @param position The clicked cell.
+     * @return The frame, ready to be written.
+     */
+    public static ByteBuffer encodeClick(Position position) {
+        return allocate(MessageType.CLICK, 2).put((byte) position.x()).put((byte) position.y()).flip();
+    }
+
+    /**
+     * Encodes a request to end the current phase.
+     *
+     * @return The frame, ready to be written.
+     */
+    public static ByteBuffer encodeEndPhase() {
+        return allocate(MessageType.END_PHASE, 0).flip();
+    }
+
+    /**
+     * Encodes the announcement of a match to one of its players.
+     *
+     * @param start The announcement.
+     * @return The frame, ready to be written.
+     */
+    public static ByteBuffer encodeMatchStarted(MatchStart start) {
+        List<byte[]> names = new ArrayList<>();
+        int length = Integer.BYTES + 3;
+        for (String god : start.gods()) {
+            byte[] name = god.getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            length += 1 + name.length;
+        }
+
+        ByteBuffer buffer = allocate(MessageType.MATCH_STARTED, length)
+            .putInt(start.matchId())
+            .put((byte) start.seat())
+            .put((byte) start.mode().ordinal())
+            .put((byte) names.size());
+        for (byte[] name : names) {
+            buffer.put((byte) name.length).put(name);
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Encodes the state of a match.
+     *
+     * @param snapshot The state of the match as seen by the receiving player.
+     * @return The frame, ready to be written.
+     */
+    public static ByteBuffer encodeState(MatchSnapshot snapshot) {
+        return putSnapshot(allocate(MessageType.STATE, getSnapshotLength(snapshot)), snapshot).flip();
+    }
+
+    /**
+     * Encodes an error.
+     *
+     * @param code The error.
+     * @return The frame, ready to be written.
+     */
+    public static ByteBuffer encodeError(ErrorCode code) {
+        return allocate(MessageType.ERROR, 1).put(code.getCode()).flip();
+    }
+
+    /**
+     * Encodes a request to be paired with an opponent for a lockstep match.
+     *
+     * @param mode The game mode of the match.
+     * @return The frame, ready to be written.
+     */
+    public static ByteBuffer encodeJoinLockstep(GameMode mode) {
+        return allocate(MessageType.JOIN_LOCKSTEP, 1).put((byte) mode.ordinal()).flip();
+    }
+
+    /**
+     * Encodes the announcement of a lockstep match to one of its peers.
+     *
+     * @param start The announcement.
+     * @return The frame, ready to be written.
+     */
+    public static ByteBuffer encodeLockstepStarted(LockstepStart start) {
+        return allocate(MessageType.LOCKSTEP_STARTED, Integer.BYTES + 2 + Long.BYTES)
+            .putInt(start.matchId())
+            .put((byte) start.seat())
+            .put((byte) start.mode().ordinal())
+            .putLong(start.seed())
+            .flip();
+    }
+
+    /**
+     * Encodes an input of a lockstep match.
+     *
+     * @param input The input.
+     * @return The frame, ready to be written.
+     */
+    public static ByteBuffer encodeInput(LockstepInput input) {
+        return allocate(MessageType.INPUT, Short.BYTES + 2)
+            .putShort((short) input.sequence())
+            .put((byte) input.kind().ordinal())
+            .put((byte) input.cell())
+            .flip();
+    }
+
+    /**
+     * Encodes the hash of the state of a lockstep match after a turn.
+     *
+     * @param turnHash The hash.
+     * @return The frame, ready to be written.
+     */
+    public static ByteBuffer encodeTurnHash(TurnHash turnHash) {
+        return allocate(MessageType.TURN_HASH, Short.BYTES + Long.BYTES)
+            .putShort((short) turnHash.sequence())
+            .putLong(turnHash.hash())
+            .flip();
+    }
+
+    /**
+     * Encodes a request to watch a match.
+     *
+     * @param matchId The identifier of the match, or 0 for the featured match.
+     * @return The frame, ready to be written.
+     */
+    public static ByteBuffer encodeSpectate(int matchId) {
+        return allocate(MessageType.SPECTATE, Integer.BYTES).putInt(matchId).flip();
+    }
+
+    /**
+     * Encodes the whole state of a match for a spectator.
+     *
+     * @param keyframe The state of the match.
+     * @return The frame, ready to be written.
+     */
+    public static ByteBuffer encodeKeyframe(SpectatorKeyframe keyframe) {
+        MatchSnapshot snapshot = keyframe.snapshot();
+        ByteBuffer buffer = allocate(MessageType.KEYFRAME, Integer.BYTES + getSnapshotLength(snapshot))
+            .putInt(keyframe.sequence());
+        return putSnapshot(buffer, snapshot).flip();
+    }
+
+    /**
+     * Encodes the changes to a match for its spectators.
+     *
+     * @param delta The changes.
+     * @return The frame, ready to be written.
+     */
+    public static ByteBuffer encodeDelta(SpectatorDelta delta) {
+        byte[] indices = delta.indices();
+        byte[] cells = delta.cells();
+        ByteBuffer buffer = allocate(MessageType.DELTA, Integer.BYTES + 4 + 2 * indices.length)
+            .putInt(delta.sequence())
+            .put((byte) delta.currentSeat())
+            .put((byte) delta.step().ordinal())
+            .put((byte) delta.winnerSeat())
+            .put((byte) indices.length);
+        for (int i = 0; i < indices.length; i++) {
+            buffer.put(indices[i]).put(cells[i]);
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Decodes a request to be paired with an opponent.
+     *
+     * @param payload The payload of the frame.
+     * @return The game mode of the requested match.
+     * @throws ProtocolException If the payload is malformed.
+     */
+    public static GameMode decodeJoin(ByteBuffer payload) throws ProtocolException {
+        return getEnum(GameMode.values(), readByte(payload));
+    }
+
+    /**
+     * Decodes a click on a cell of the board.
+     *
+     * @param payload The payload of the frame.
+     * @return The clicked cell.
+     * @throws ProtocolException If the payload is malformed.
+     */
+    public static Position decodeClick(ByteBuffer payload) throws ProtocolException {
+        int x = readByte(payload);
+        int y = readByte(payload);
+        return new Position(x, y);
+    }
+
+    /**
+     * Decodes the announcement of a match.
+     *
+     * @param payload The payload of the frame.
+     * @return The announcement.
+     * @throws ProtocolException If the payload is malformed.
+     */
+    public static MatchStart decodeMatchStarted(ByteBuffer payload) throws ProtocolException {
+        if (payload.remaining() < Integer.BYTES) {
+            throw new ProtocolException("Truncated payload");
+        }
+        int matchId = payload.getInt();
+        int seat = readByte(payload);
+        GameMode mode = getEnum(GameMode.values(), readByte(payload));
+        int count = readByte(payload);
+
+        List<String> gods = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            byte[] name = new byte[readByte(payload)];
+            if (payload.remaining() < name.length) {
+                throw new ProtocolException("Truncated payload");
+            }
+            payload.get(name);
+            gods.add(new String(name, StandardCharsets.UTF_8));
+        }
+        return new MatchStart(matchId, seat, mode, gods);
+    }
+
+    /**
+     * Decodes the state of a match.
+     *
+     * @param payload The payload of the frame.
+     * @return The state of the match.
+     * @throws ProtocolException If the payload is malformed.
+     */
+    public static MatchSnapshot decodeState(ByteBuffer payload) throws ProtocolException {
+        return readSnapshot(payload);
+    }
+
+    /**
+     * Decodes a request to watch a match.
+     *
+     * @param payload The payload of the frame.
+     * @return The identifier of the match, or 0 for the featured match.
+     * @throws ProtocolException If the payload is malformed.
+     */
+    public static int decodeSpectate(ByteBuffer payload) throws ProtocolException {
+        if (payload.remaining() < Integer.BYTES) {
+            throw new ProtocolException("Truncated payload");
+        }
+        return payload.getInt();
+    }
+
+    /**
+     * Decodes the whole state of a match for a spectator.
+     *
+     * @param payload The payload of the frame.
+     * @return The state of the match.
+     * @throws ProtocolException If the payload is malformed.
+     */
+    public static SpectatorKeyframe decodeKeyframe(ByteBuffer payload) throws ProtocolException {
+        if (payload.remaining() < Integer.BYTES) {
+            throw new ProtocolException("Truncated payload");
+        }
+        int sequence = payload.getInt();
+        return new SpectatorKeyframe(sequence, readSnapshot(payload));
+    }
+
+    /**
+     * Decodes the changes to a match for its spectators.
+     *
+     * @param payload The payload of the frame.
+     * @return The changes.
+     * @throws ProtocolException If the payload is malformed.
+     */
+    public static SpectatorDelta decodeDelta(ByteBuffer payload) throws ProtocolException {
+        if (payload.remaining() < Integer.BYTES) {
+            throw new ProtocolException("Truncated payload");
+        }
+        int sequence = payload.getInt();
+        int currentSeat = readByte(payload);
+        TurnStep step = getEnum(TurnStep.values(), readByte(payload));
+        int winnerSeat = (byte) readByte(payload);
+
+        int count = readByte(payload);
+        byte[] indices = new byte[count];
+        byte[] cells = new byte[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = (byte) readByte(payload);
+            cells[i] = (byte) readByte(payload);
+        }
+        return new SpectatorDelta(sequence, currentSeat, step, winnerSeat, indices, cells);
+    }
+
+    /**
+     * Gets the length of an encoded snapshot.
+     *
+     * @param snapshot The snapshot.
+     * @return The number of bytes the snapshot is encoded in.
+     */
+    private static int getSnapshotLength(MatchSnapshot snapshot) {
+        return 6 + snapshot.width() * snapshot.height() + 1 + snapshot.targets().toByteArray().length;
+    }
+
+    /**
+     * Writes a snapshot to a frame.
+     *
+     * @param buffer The buffer of the frame.
+     * @param snapshot The snapshot.
+     * @return The buffer of the frame.
+     */
+    private static ByteBuffer putSnapshot(ByteBuffer buffer, MatchSnapshot snapshot) {
+        byte[] targets = snapshot.targets().toByteArray();
+        return buffer
+            .put((byte) snapshot.width())
+            .put((byte) snapshot.height())
+            .put((byte) snapshot.currentSeat())
+            .put((byte) snapshot.step().ordinal())
+            .put((byte) (snapshot.canEndPhase() ? 1 : 0))
+            .put((byte) snapshot.winnerSeat())
+            .put(snapshot.cells())
+            .put((byte) targets.length)
+            .put(targets);
+    }
+
+    /**
+     * Reads a snapshot from a payload.
+     *
+     * @param payload The payload of the frame.
+     * @return The snapshot.
+     * @throws ProtocolException If the payload is malformed.
+     */
+    private static MatchSnapshot readSnapshot(ByteBuffer payload) throws ProtocolException {
+        int width = readByte(payload);
+        int height = readByte(payload);
+        int currentSeat = readByte(payload);
+        TurnStep step = getEnum(TurnStep.values(), readByte(payload));
+        boolean canEndPhase = readByte(payload) != 0;
+        int winnerSeat = (byte) readByte(payload);
+
+        byte[] cells = new byte[width * height];
+        if (payload.remaining() < cells.length) {
+            throw new ProtocolException("Truncated payload");
+        }
+        payload.get(cells);
+        byte[] targets = new byte[readByte(payload)];
+        if (payload.remaining() < targets.length) {
+            throw new ProtocolException("Truncated payload");
+        }
+        payload.get(targets);
+        return new MatchSnapshot(width, height, currentSeat, step, canEndPhase, winnerSeat, cells, BitSet.valueOf(targets));
+    }
+
+    /**
+     * Decodes an error.
+     *
+     * @param payload The payload of the frame.
+     * @return The error.
+     * @throws ProtocolException If the payload is malformed.
+     */
+    public static ErrorCode decodeError(ByteBuffer payload) throws ProtocolException {
+        ErrorCode code = ErrorCode.fromCode(readByte(payload));
+        if (code == null) {
+            throw new ProtocolException("Unknown error code");
+        }
+        return code;
+    }
+
+    /**
+     * Decodes the announcement of a lockstep match.
+     *
+     * @param payload The payload of the frame.
+     * @return The announcement.
+     * @throws ProtocolException If the payload is malformed.
+     */
+    public static LockstepStart decodeLockstepStarted(ByteBuffer payload) throws ProtocolException {
+        if (payload.remaining() < Integer.BYTES + 2 + Long.BYTES) {
+            throw new ProtocolException("Truncated payload");
+        }
+        int matchId = payload.getInt();
+        int seat = readByte(payload);
+        GameMode mode = getEnum(GameMode.values(), readByte(payload));
+        return new LockstepStart(matchId, seat, mode, payload.getLong());
+    }
+
+    /**
+     * Decodes an input of a lockstep match.
+     *
+     * @param payload The payload of the frame.
+     * @return The input.
+     * @throws ProtocolException If the payload is malformed.
+     */
+    public static LockstepInput decodeInput(ByteBuffer payload) throws ProtocolException {
+        if (payload.remaining() < Short.BYTES) {
+            throw new ProtocolException("Truncated payload");
+        }
+        int sequence = Short.toUnsignedInt(payload.getShort());
+        InputKind kind = getEnum(InputKind.values(), readByte(payload));
+        return new LockstepInput(sequence, kind, readByte(payload));
+    }
+
+    /**
+     * Decodes the hash of the state of a lockstep match after a turn.
+     *
+     * @param payload The payload of the frame.
+     * @return The hash.
+     * @throws ProtocolException If the payload is malformed.
+     */
+    public static TurnHash decodeTurnHash(ByteBuffer payload) throws ProtocolException {
+        if (payload.remaining() < Short.BYTES + Long.BYTES) {
+            throw new ProtocolException("Truncated payload");
+        }
+        return new TurnHash(Short.toUnsignedInt(payload.getShort()), payload.getLong());
+    }
+
+    /**
+     * Allocates a frame and writes its header.
+     *
+     * @param type The type of the message.
+     * @param payloadLength The length of the payload.
+     * @return The buffer of the frame, positioned at the start of the payload.
+     */
+    private static ByteBuffer allocate(MessageType type, int payloadLength) {
+        if (payloadLength > MAXIMUM_PAYLOAD_LENGTH) {
+            throw new IllegalArgumentException("Payload too long: " + payloadLength);
+        }
+        return ByteBuffer.allocate(HEADER_LENGTH + payloadLength)
+            .putShort((short) (payloadLength + 1))
+            .put(type.getCode());
+    }
+
+    /**
+     * Reads an unsigned byte from a payload.
+     *
+     * @param payload The payload.
+     * @return The byte, from 0 to 255.
+     * @throws ProtocolException If the payload has no bytes left.
+     */
+    private static int readByte(ByteBuffer payload) throws ProtocolException {
+        if (!payload.hasRemaining()) {
+            throw new ProtocolException("Truncated payload");
+        }
+        return Byte.toUnsignedInt(payload.get());
+    }
+
+    /**
+     * Gets the constant of an enum sent as its ordinal.
+     *
+     * @param values The constants of the enum.
+     * @param ordinal The ordinal of the constant.
+     * @return The constant.
+     * @param <E> The type of the enum.
+     * @throws ProtocolException If no constant has the ordinal.
+     */
+    private static <E extends Enum<E>> E getEnum(E[] values, int ordinal) throws ProtocolException {
+        if (ordinal >= values.length) {
+            throw new ProtocolException("Unknown constant " + ordinal);
+        }
+        return values[ordinal];
+    }
+}
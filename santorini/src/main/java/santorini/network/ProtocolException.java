@@ -0,0 +1,24 @@
+package santorini.network;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a frame received from a match client or the match server does not follow
+ * the match protocol, such as a frame of an unknown type or a payload that is too short.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class ProtocolException extends IOException {
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param message The description of the error.
+     */
+    public ProtocolException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,297 @@
+package santorini.network;
+
+import santorini.game.Game;
+import santorini.game.GameFactory;
+import santorini.game.GameMode;
+import santorini.game.GameState;
+import santorini.game.Position;
+import santorini.game.Subscriber;
+import santorini.game.TimeControl;
+import santorini.game.TurnDriver;
+import santorini.players.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * A match hosted by the match server, running its own headless game.
+ * Picks and phase ends are only accepted from the player whose turn it is, and every
+ * change is answered with the new state sent to all players of the match. The match
+ * subscribes to its game to learn when spectators have something new to see, and posts
+ * each change to the spectator hub as a delta once its players have been answered.
+ * Only used on the server's event loop thread.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+class ServerMatch implements Subscriber {
+
+    // Attributes
+
+    /**
+     * The identifier of the match on the server.
+     */
+    private final int id;
+
+    /**
+     * The game mode of the match.
+     */
+    private final GameMode mode;
+
+    /**
+     * The driver of the game of the match.
+     */
+    private final TurnDriver turnDriver;
+
+    /**
+     * The connections of the players, by seat.
+     */
+    private final Connection[] seats;
+
+    /**
+     * The hub serving the spectators of the match.
+     */
+    private final SpectatorHub spectatorHub;
+
+    /**
+     * The state of the match as last posted to its spectators.
+     */
+    private MatchSnapshot spectatorView;
+
+    /**
+     * The sequence number of the last delta posted to the spectators.
+     */
+    private int spectatorSequence;
+
+    /**
+     * Whether the game has changed since the last delta was posted to the spectators.
+     */
+    private boolean changedForSpectators;
+
+    /**
+     * Whether a player has left the match before it was won.
+     */
+    private boolean abandoned;
+
+    // Constructor
+
+    /**
+     * Constructor. Creates the game of the match and seats its players.
+     *
+     * @param id The identifier of the match on the server.
+     * @param mode The game mode of the match.
+     * @param seats The connections of the players, by seat.
+     * @param spectatorHub The hub serving the spectators of the match.
+     */
+    ServerMatch(int id, GameMode mode, Connection[] seats, SpectatorHub spectatorHub) {
+        this.id = id;
+        this.mode = mode;
+        this.seats = seats.clone();
+        this.spectatorHub = spectatorHub;
+        Game game = new GameFactory().createGame(mode);
+        this.turnDriver = new TurnDriver(game);
+        game.addSubscriber(this);
+
+        for (int seat = 0; seat < seats.length; seat++) {
+            seats[seat].setMatch(this, seat);
+        }
+    }
+
+    // Methods
+
+    /**
+     * Announces the match to its players and sends them the starting state.
+     */
+    void start() {
+        List<String> gods = new ArrayList<>();
+        for (Player player : getGameState().getPlayers()) {
+            gods.add(player.getGod().getName());
+        }
+        for (int seat = 0; seat < seats.length; seat++) {
+            seats[seat].send(Protocol.encodeMatchStarted(new MatchStart(id, seat, mode, gods)));
+        }
+        broadcastState();
+
+        spectatorView = MatchSnapshot.of(getGameState(), turnDriver, false);
+        changedForSpectators = false;
+        spectatorHub.open(id, spectatorView);
+    }
+
+    /**
+     * Starts the clock of the match, whose flag-fall checks are run by the server's event loop.
+     *
+     * @param timeControl The time each player is given.
+     * @param executor Runs the flag-fall checks on the server's event loop thread.
+     */
+    void startClock(TimeControl timeControl, Executor executor) {
+        turnDriver.getGame().startClock(timeControl, executor);
+    }
+
+    /**
+     * Runs a flag-fall check of the match's game, sending the final state to every player
+     * if a player's time ran out.
+     *
+     * @param check The flag-fall check.
+     */
+    void checkClock(Runnable check) {
+        check.run();
+        if (isFinished()) {
+            broadcastState();
+        }
+    }
+
+    /**
+     * Stops the clock of the match, as the match is over.
+     */
+    void stopClock() {
+        turnDriver.getGame().stopClock();
+    }
+
+    /**
+     * Plays a cell clicked by a player.
+     *
+     * @param seat The seat of the player.
+     * @param position The clicked cell.
+     */
+    void click(int seat, Position position) {
+        if (checkTurn(seat)) {
+            if (turnDriver.pick(position)) {
+                broadcastState();
+            }
+            else {
+                seats[seat].send(Protocol.encodeError(ErrorCode.INVALID_PICK));
+            }
+        }
+    }
+
+    /**
+     * Ends the current phase for a player.
+     *
+     * @param seat The seat of the player.
+     */
+    void endPhase(int seat) {
+        if (checkTurn(seat)) {
+            if (turnDriver.endPhase()) {
+                broadcastState();
+            }
+            else {
+                seats[seat].send(Protocol.encodeError(ErrorCode.INVALID_PICK));
+            }
+        }
+    }
+
+    /**
+     * Removes a player who has disconnected, ending the match for everyone else.
+     *
+     * @param seat The seat of the player.
+     */
+    void leave(int seat) {
+        if (!isFinished()) {
+            abandoned = true;
+            for (int other = 0; other < seats.length; other++) {
+                if (other != seat) {
+                    seats[other].send(Protocol.encodeError(ErrorCode.OPPONENT_LEFT));
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes the feed of the match once it is over, telling its spectators if it was abandoned.
+     */
+    void endSpectating() {
+        spectatorHub.end(id, abandoned);
+    }
+
+    /**
+     * Notes that the game has changed, so its spectators are sent a delta after the next broadcast.
+     *
+     * @param gameState The new game state.
+     */
+    @Override
+    public void update(GameState gameState) {
+        changedForSpectators = true;
+    }
+
+    /**
+     * Checks whether the match has been won or abandoned.
+     *
+     * @return True if no more moves will be played, false otherwise.
+     */
+    boolean isFinished() {
+        return abandoned || getGameState().getWinner() != null;
+    }
+
+    /**
+     * Checks whether it is a player's turn, telling the player if it is not.
+     *
+     * @param seat The seat of the player.
+     * @return True if the player can play, false otherwise.
+     */
+    private boolean checkTurn(int seat) {
+        if (isFinished() || getGameState().getCurrentPlayerIndex() != seat) {
+            seats[seat].send(Protocol.encodeError(ErrorCode.NOT_YOUR_TURN));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sends the state of the match to every player, with the target cells only sent to the current player.
+     */
+    private void broadcastState() {
+        GameState gameState = getGameState();
+        for (int seat = 0; seat < seats.length; seat++) {
+            boolean current = seat == gameState.getCurrentPlayerIndex();
+            seats[seat].send(Protocol.encodeState(MatchSnapshot.of(gameState, turnDriver, current)));
+        }
+        publishToSpectators();
+    }
+
+    /**
+     * Posts what spectators have not seen yet as a delta, if the game has changed since the last one.
+     */
+    private void publishToSpectators() {
+        if (!changedForSpectators || spectatorView == null) {
+            return;
+        }
+        changedForSpectators = false;
+        MatchSnapshot next = MatchSnapshot.of(getGameState(), turnDriver, false);
+        SpectatorDelta delta = SpectatorDelta.between(spectatorSequence + 1, spectatorView, next);
+        if (delta.changes(spectatorView)) {
+            spectatorSequence++;
+            spectatorView = next;
+            spectatorHub.publish(id, delta);
+        }
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the identifier of the match on the server.
+     *
+     * @return The identifier of the match.
+     */
+    int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the connections of the players, by seat.
+     *
+     * @return The connections of the players.
+     */
+    Connection[] getSeats() {
+        return seats.clone();
+    }
+
+    /**
+     * Gets the state of the game of the match.
+     *
+     * @return The game state.
+     */
+    private GameState getGameState() {
+        return turnDriver.getGame().getGameState();
+    }
+}
@@ -0,0 +1,110 @@
+package santorini.network;
+
+import santorini.game.TurnStep;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The changes to a match seen by its spectators since the previous delta: the cells whose tower,
+ * fog or worker changed, as packed cells, and the progress of the turn. A delta is encoded once
+ * and sent to every spectator, so a turn costs each spectator a handful of bytes.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param sequence The sequence number of the delta, one more than the previous delta of the match.
+ * @param currentSeat The seat of the player whose turn it is.
+ * @param step The kind of cell the current player is expected to pick next.
+ * @param winnerSeat The seat of the winner, or -1 if the match has not been won.
+ * @param indices The indices of the changed cells.
+ * @param cells The new packed cells, in the same order as their indices.
+ */
+public record SpectatorDelta(int sequence, int currentSeat, TurnStep step, int winnerSeat, byte[] indices, byte[] cells) {
+
+    // Constructor
+
+    /**
+     * Constructor, copying the changed cells so later changes to them are not seen.
+     */
+    public SpectatorDelta {
+        if (indices.length != cells.length) {
+            throw new IllegalArgumentException("Every changed cell needs an index");
+        }
+        indices = indices.clone();
+        cells = cells.clone();
+    }
+
+    // Methods
+
+    /**
+     * Computes the delta between two states of a match as seen by its spectators.
+     *
+     * @param sequence The sequence number of the delta.
+     * @param previous The state spectators have seen.
+     * @param next The new state.
+     * @return The delta turning the previous state into the new state.
+     */
+    public static SpectatorDelta between(int sequence, MatchSnapshot previous, MatchSnapshot next) {
+        byte[] before = previous.cells();
+        byte[] after = next.cells();
+        byte[] indices = new byte[after.length];
+        byte[] cells = new byte[after.length];
+
+        int count = 0;
+        for (int index = 0; index < after.length; index++) {
+            if (before[index] != after[index]) {
+                indices[count] = (byte) index;
+                cells[count] = after[index];
+                count++;
+            }
+        }
+        return new SpectatorDelta(sequence, next.currentSeat(), next.step(), next.winnerSeat(),
+            Arrays.copyOf(indices, count), Arrays.copyOf(cells, count));
+    }
+
+    /**
+     * Checks whether the delta changes anything spectators can see.
+     *
+     * @param snapshot The state the delta would be applied to.
+     * @return True if applying the delta changes the state, false otherwise.
+     */
+    public boolean changes(MatchSnapshot snapshot) {
+        return indices.length > 0 || currentSeat != snapshot.currentSeat() || step != snapshot.step()
+            || winnerSeat != snapshot.winnerSeat();
+    }
+
+    /**
+     * Applies the delta to a state of the match.
+     *
+     * @param snapshot The state spectators have seen, which must be the one the delta follows.
+     * @return The new state.
+     */
+    public MatchSnapshot applyTo(MatchSnapshot snapshot) {
+        byte[] next = snapshot.cells();
+        for (int i = 0; i < indices.length; i++) {
+            next[Byte.toUnsignedInt(indices[i])] = cells[i];
+        }
+        return new MatchSnapshot(snapshot.width(), snapshot.height(), currentSeat, step, false, winnerSeat, next, new BitSet());
+    }
+
+    /**
+     * Gets the indices of the changed cells.
+     *
+     * @return A copy of the indices.
+     */
+    @Override
+    public byte[] indices() {
+        return indices.clone();
+    }
+
+    /**
+     * Gets the new packed cells.
+     *
+     * @return A copy of the packed cells.
+     */
+    @Override
+    public byte[] cells() {
+        return cells.clone();
+    }
+}
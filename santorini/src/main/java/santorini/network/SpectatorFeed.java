@@ -0,0 +1,176 @@
+package santorini.network;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The spectators of one match and the state they have been sent. Each delta is encoded once
+ * and queued for every spectator, but a spectator whose queue is backed up is not sent any
+ * more deltas: it is marked stale and sent a single keyframe once its queue has drained, so
+ * a slow spectator never makes the match or the other spectators wait.
+ * Only used on the spectator hub's event loop thread.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+class SpectatorFeed {
+
+    // Constants
+
+    /**
+     * The largest number of frames queued for a spectator before it is left to catch up with a keyframe.
+     */
+    static final int MAXIMUM_BACKLOG = 8;
+
+    // Attributes
+
+    /**
+     * The identifier of the match on the server.
+     */
+    private final int matchId;
+
+    /**
+     * The state of the match as seen by its spectators.
+     */
+    private MatchSnapshot snapshot;
+
+    /**
+     * The sequence number of the last delta applied to the state.
+     */
+    private int sequence;
+
+    /**
+     * The spectators of the match, in the order they started watching.
+     */
+    private final Set<Connection> spectators;
+
+    /**
+     * The spectators that have missed deltas and are waiting for a keyframe.
+     */
+    private final Set<Connection> stale;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param matchId The identifier of the match on the server.
+     * @param snapshot The starting state of the match as seen by its spectators.
+     */
+    SpectatorFeed(int matchId, MatchSnapshot snapshot) {
+        this.matchId = matchId;
+        this.snapshot = snapshot;
+        this.spectators = new LinkedHashSet<>();
+        this.stale = new HashSet<>();
+    }
+
+    // Methods
+
+    /**
+     * Adds a spectator and sends it the state of the match.
+     *
+     * @param connection The spectator.
+     */
+    void add(Connection connection) {
+        spectators.add(connection);
+        connection.setFeed(this);
+        connection.send(encodeKeyframe());
+    }
+
+    /**
+     * Removes a spectator.
+     *
+     * @param connection The spectator.
+     */
+    void remove(Connection connection) {
+        spectators.remove(connection);
+        stale.remove(connection);
+        connection.setFeed(null);
+    }
+
+    /**
+     * Applies a delta to the state of the match and sends it to every spectator that is keeping up.
+     *
+     * @param delta The delta.
+     */
+    void publish(SpectatorDelta delta) {
+        snapshot = delta.applyTo(snapshot);
+        sequence = delta.sequence();
+
+        ByteBuffer frame = Protocol.encodeDelta(delta);
+        for (Connection connection : spectators) {
+            if (stale.contains(connection)) {
+                continue;
+            }
+            if (connection.getQueuedFrames() >= MAXIMUM_BACKLOG) {
+                stale.add(connection);
+                continue;
+            }
+            connection.send(frame.duplicate());
+        }
+    }
+
+    /**
+     * Sends a stale spectator a keyframe once its queue has drained.
+     *
+     * @param connection The spectator.
+     * @return True if a keyframe was sent, false if the spectator is not stale or still backed up.
+     */
+    boolean resync(Connection connection) {
+        if (connection.getQueuedFrames() > 0 || !stale.remove(connection)) {
+            return false;
+        }
+        connection.send(encodeKeyframe());
+        return true;
+    }
+
+    /**
+     * Ends the feed once the match is over, sending the final state to the spectators that fell behind.
+     *
+     * @param abandoned Whether a player left before the match was won.
+     */
+    void end(boolean abandoned) {
+        for (Connection connection : spectators) {
+            if (stale.contains(connection)) {
+                connection.send(encodeKeyframe());
+            }
+            if (abandoned) {
+                connection.send(Protocol.encodeError(ErrorCode.OPPONENT_LEFT));
+            }
+            connection.setFeed(null);
+        }
+        spectators.clear();
+        stale.clear();
+    }
+
+    /**
+     * Encodes the state of the match as a keyframe.
+     *
+     * @return The frame, ready to be written.
+     */
+    private ByteBuffer encodeKeyframe() {
+        return Protocol.encodeKeyframe(new SpectatorKeyframe(sequence, snapshot));
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the identifier of the match on the server.
+     *
+     * @return The identifier of the match.
+     */
+    int getMatchId() {
+        return matchId;
+    }
+
+    /**
+     * Gets the number of spectators of the match.
+     *
+     * @return The number of spectators.
+     */
+    int getSpectatorCount() {
+        return spectators.size();
+    }
+}
@@ -0,0 +1,355 @@
+package santorini.network;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The spectators of every match of a match server, served by an event loop of their own.
+ * The server's event loop hands over the clients asking to watch a match and posts each
+ * delta of a match once, so a turn costs the server the same however many spectators watch
+ * it; the hub then fans the delta out to the spectators of the match. A spectator asking
+ * for the featured match watches the oldest match in play, or the next one to start.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+class SpectatorHub implements Closeable {
+
+    // Constants
+
+    /**
+     * The identifier spectators ask for to watch the featured match.
+     */
+    static final int FEATURED_MATCH = 0;
+
+    /**
+     * The size of the send buffer of a spectator's socket. Spectators are sent a few bytes a turn,
+     * so a small buffer is plenty, and a spectator that stops reading backs up its queue within a
+     * few matches, where it is noticed and caught up with a keyframe, rather than the kernel
+     * buffering megabytes for it.
+     */
+    private static final int SEND_BUFFER_SIZE = 4096;
+
+    // Attributes
+
+    /**
+     * The selector of the event loop.
+     */
+    private Selector selector;
+
+    /**
+     * The thread running the event loop.
+     */
+    private Thread thread;
+
+    /**
+     * The work posted by the server's event loop, run on the hub's event loop.
+     */
+    private final Queue<Runnable> tasks;
+
+    /**
+     * The feeds of the matches being played, by identifier.
+     */
+    private final Map<Integer, SpectatorFeed> feeds;
+
+    /**
+     * The spectators waiting for the next match to start, to watch it as the featured match.
+     */
+    private final Set<Connection> waitingForFeatured;
+
+    /**
+     * Whether the hub has been closed, set from any thread and acted on by the event loop.
+     */
+    private volatile boolean closed;
+
+    /**
+     * The number of connected spectators, readable from any thread.
+     */
+    private volatile int spectatorCount;
+
+    /**
+     * The number of keyframes sent to spectators that fell behind, readable from any thread.
+     */
+    private volatile int resyncCount;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     */
+    SpectatorHub() {
+        this.tasks = new ConcurrentLinkedQueue<>();
+        this.feeds = new TreeMap<>();
+        this.waitingForFeatured = new LinkedHashSet<>();
+    }
+
+    // Methods
+
+    /**
+     * Starts the event loop.
+     *
+     * @throws IOException If the selector cannot be opened.
+     */
+    void start() throws IOException {
+        selector = Selector.open();
+        thread = new Thread(this::runEventLoop, "spectator-hub");
+        thread.start();
+    }
+
+    /**
+     * Stops the event loop, which disconnects every spectator and then closes its selector.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+    }
+
+    /**
+     * Takes over a client that asked to watch a match. Called from the server's event loop.
+     *
+     * @param channel The channel of the client, in non-blocking mode.
+     * @param matchId The identifier of the match, or FEATURED_MATCH for the featured match.
+     */
+    void adopt(SocketChannel channel, int matchId) {
+        post(() -> {
+            if (closed) {
+                closeChannel(channel);
+                return;
+            }
+            try {
+                channel.setOption(StandardSocketOptions.SO_SNDBUF, SEND_BUFFER_SIZE);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                Connection connection = new Connection(channel, key);
+                key.attach(connection);
+                spectatorCount++;
+                watch(connection, matchId);
+            } catch (IOException | ClosedSelectorException e) {
+                closeChannel(channel);
+            }
+        });
+    }
+
+    /**
+     * Opens the feed of a match that has started. Called from the server's event loop.
+     *
+     * @param matchId The identifier of the match.
+     * @param snapshot The starting state of the match as seen by its spectators.
+     */
+    void open(int matchId, MatchSnapshot snapshot) {
+        post(() -> {
+            SpectatorFeed feed = new SpectatorFeed(matchId, snapshot);
+            feeds.put(matchId, feed);
+            for (Connection connection : waitingForFeatured) {
+                feed.add(connection);
+            }
+            waitingForFeatured.clear();
+        });
+    }
+
+    /**
+     * Sends a delta of a match to its spectators. Called from the server's event loop.
+     *
+     * @param matchId The identifier of the match.
+     * @param delta The delta.
+     */
+    void publish(int matchId, SpectatorDelta delta) {
+        post(() -> {
+            SpectatorFeed feed = feeds.get(matchId);
+            if (feed != null) {
+                feed.publish(delta);
+            }
+        });
+    }
+
+    /**
+     * Closes the feed of a match that is over. Called from the server's event loop.
+     *
+     * @param matchId The identifier of the match.
+     * @param abandoned Whether a player left before the match was won.
+     */
+    void end(int matchId, boolean abandoned) {
+        post(() -> {
+            SpectatorFeed feed = feeds.remove(matchId);
+            if (feed != null) {
+                feed.end(abandoned);
+            }
+        });
+    }
+
+    /**
+     * Queues work for the event loop and wakes it up.
+     *
+     * @param task The work.
+     */
+    private void post(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Runs on the event loop thread, running posted work and handling ready sockets until the
+     * hub is closed. Closing a selector does not close its channels, so the loop closes every
+     * spectator's channel itself and only then the selector.
+     */
+    private void runEventLoop() {
+        try {
+            while (!closed) {
+                selector.select();
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handleKey(key);
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            // The hub has been closed
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeChannel(key.channel());
+            }
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+            closeChannel(selector);
+        }
+    }
+
+    /**
+     * Handles a spectator socket that is ready to be read or written.
+     *
+     * @param key The key of the socket.
+     */
+    private void handleKey(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        if (key.isWritable()) {
+            connection.flush();
+            SpectatorFeed feed = connection.getFeed();
+            if (feed != null && feed.resync(connection)) {
+                resyncCount++;
+            }
+        }
+        if (key.isValid() && key.isReadable()) {
+            read(connection);
+        }
+        if (connection.isClosed() && connection.release()) {
+            SpectatorFeed feed = connection.getFeed();
+            if (feed != null) {
+                feed.remove(connection);
+            }
+            waitingForFeatured.remove(connection);
+            spectatorCount--;
+        }
+    }
+
+    /**
+     * Reads and handles the frames a spectator has sent. Spectators may only ask to watch another match.
+     *
+     * @param connection The spectator.
+     */
+    private void read(Connection connection) {
+        ByteBuffer buffer = connection.getReadBuffer();
+        try {
+            if (connection.read() < 0) {
+                connection.close();
+                return;
+            }
+            buffer.flip();
+            Frame frame;
+            while (!connection.isClosed() && (frame = Protocol.readFrame(buffer)) != null) {
+                if (frame.type() == MessageType.SPECTATE) {
+                    watch(connection, Protocol.decodeSpectate(frame.payload()));
+                }
+                else {
+                    connection.send(Protocol.encodeError(ErrorCode.NOT_IN_MATCH));
+                }
+            }
+            buffer.compact();
+        } catch (ProtocolException e) {
+            connection.send(Protocol.encodeError(ErrorCode.BAD_MESSAGE));
+            connection.close();
+        } catch (IOException e) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Makes a spectator watch a match, leaving the match it was watching.
+     *
+     * @param connection The spectator.
+     * @param matchId The identifier of the match, or FEATURED_MATCH for the featured match.
+     */
+    private void watch(Connection connection, int matchId) {
+        if (connection.getFeed() != null) {
+            connection.getFeed().remove(connection);
+        }
+        waitingForFeatured.remove(connection);
+
+        SpectatorFeed feed = matchId == FEATURED_MATCH && !feeds.isEmpty()
+            ? feeds.values().iterator().next() : feeds.get(matchId);
+        if (feed != null) {
+            feed.add(connection);
+        }
+        else if (matchId == FEATURED_MATCH) {
+            waitingForFeatured.add(connection);
+        }
+        else {
+            connection.send(Protocol.encodeError(ErrorCode.NO_SUCH_MATCH));
+        }
+    }
+
+    /**
+     * Closes a channel or the selector once it is no longer needed.
+     *
+     * @param channel The channel or selector.
+     */
+    private void closeChannel(Closeable channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the number of connected spectators.
+     *
+     * @return The number of spectators.
+     */
+    int getSpectatorCount() {
+        return spectatorCount;
+    }
+
+    /**
+     * Gets the number of keyframes sent to spectators that fell behind.
+     *
+     * @return The number of resyncs.
+     */
+    int getResyncCount() {
+        return resyncCount;
+    }
+}
@@ -0,0 +1,15 @@
+package santorini.network;
+
+/**
+ * The whole state of a match as seen by its spectators, sent when a spectator starts watching
+ * and whenever a spectator that fell behind has to catch up. The deltas that follow a keyframe
+ * are numbered from its sequence number.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param sequence The sequence number of the last delta the keyframe includes.
+ * @param snapshot The state of the match, without any target cells.
+ */
+public record SpectatorKeyframe(int sequence, MatchSnapshot snapshot) {
+}
@@ -0,0 +1,14 @@
+package santorini.network;
+
+/**
+ * The hash of the state of a lockstep match after a turn, sent by the player who ended
+ * the turn so that the other peer can check it reached the same state.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param sequence The sequence number of the input that ended the turn.
+ * @param hash The hash of the state of the match after the input.
+ */
+public record TurnHash(int sequence, long hash) {
+}
@@ -0,0 +1,351 @@
+package santorini.panels;
+
+import santorini.board.BoardSnapshot;
+import santorini.game.Position;
+import santorini.towers.Floor;
+import santorini.utils.ImageCache;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+/**
+ * A single component that paints a snapshot of the game board, including each cell,
+ * tower, fog, worker and highlight, directly in paintComponent. Clicks are hit-tested
+ * to the index of the cell under the mouse and passed to a single handler only if that
+ * cell is one of the current targets, so the board needs no child components, a repaint
+ * never triggers a layout and changing phase never adds or removes listeners. Only the
+ * cells the snapshot reports as changed are repainted, unless the board itself or its
+ * size has changed.
+ *
+ * The grid is sized to fit and centred in whatever space the component is given, and
+ * images are drawn from variants scaled for the display's pixel density. Variants for a
+ * new size are scaled in the background, so resizing never scales an image while painting.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class BoardView extends JComponent {
+
+    // Constants
+
+    /**
+     * The gap between cells in pixels.
+     */
+    public static final int CELL_GAP = 5;
+
+    /**
+     * The colour of a cell that is not highlighted.
+     */
+    private static final Color CELL_COLOR = new Color(238, 238, 238);
+
+    /**
+     * The colour of the outline of each cell.
+     */
+    private static final Color CELL_BORDER_COLOR = new Color(184, 207, 229);
+
+    // Attributes
+
+    /**
+     * The snapshot of the board being drawn, or null if there is none yet.
+     */
+    private BoardSnapshot board;
+
+    /**
+     * The cells that can currently be clicked, by cell index.
+     */
+    private final BitSet targets;
+
+    /**
+     * The highlight colour of the target cells.
+     */
+    private Color targetColor;
+
+    /**
+     * The handler notified when a target cell is clicked, or null if there is none.
+     */
+    private Consumer<Position> cellHandler;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     */
+    public BoardView() {
+        targets = new BitSet();
+        targetColor = CELL_COLOR;
+        setOpaque(true);
+        setBackground(Color.WHITE);
+
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                clickCell(getCellIndexAt(e.getX(), e.getY()));
+            }
+        });
+    }
+
+    // Methods
+
+    /**
+     * Sets the snapshot of the board to draw. The whole view is repainted if the board has
+     * been replaced, such as when a game is started or loaded, otherwise only the cells
+     * changed since the previous snapshot are repainted. Resizing the view repaints it
+     * through Swing as usual.
+     *
+     * @param board The snapshot of the board to draw.
+     */
+    public void setBoard(BoardSnapshot board) {
+        boolean replaced = this.board == null || board.isReplaced()
+            || this.board.getWidth() != board.getWidth() || this.board.getHeight() != board.getHeight();
+        this.board = board;
+
+        if (replaced) {
+            repaint();
+            return;
+        }
+        for (Position position : board.getChangedCells()) {
+            repaintCell(position);
+        }
+    }
+
+    /**
+     * Replaces the cells that can be clicked, highlighting them in a colour. Only the
+     * cells whose highlight changes are repainted.
+     *
+     * @param cells The cells that can be clicked, by cell index.
+     * @param color The colour of the highlight.
+     */
+    public void setTargets(BitSet cells, Color color) {
+        BitSet changed = (BitSet) targets.clone();
+        if (color.equals(targetColor)) {
+            changed.xor(cells);
+        }
+        else {
+            changed.or(cells);
+        }
+        targets.clear();
+        targets.or(cells);
+        targetColor = color;
+        repaintCells(changed);
+    }
+
+    /**
+     * Removes every target, so that clicking the board does nothing.
+     */
+    public void clearTargets() {
+        BitSet changed = (BitSet) targets.clone();
+        targets.clear();
+        repaintCells(changed);
+    }
+
+    /**
+     * Gets the cells that can currently be clicked.
+     *
+     * @return A copy of the target cells, by cell index.
+     */
+    public BitSet getTargets() {
+        return (BitSet) targets.clone();
+    }
+
+    /**
+     * Sets the handler notified when a target cell is clicked.
+     *
+     * @param handler The handler to notify with the clicked cell.
+     */
+    public void setCellHandler(Consumer<Position> handler) {
+        this.cellHandler = handler;
+    }
+
+    /**
+     * Dispatches a click on a cell to the handler if the cell is a target.
+     *
+     * @param index The index of the clicked cell, or -1 if no cell was clicked.
+     */
+    public void clickCell(int index) {
+        if (index >= 0 && targets.get(index) && cellHandler != null) {
+            cellHandler.accept(board.getPosition(index));
+        }
+    }
+
+    /**
+     * Gets the area of the component covered by a cell.
+     *
+     * @param position The cell.
+     * @return The bounds of the cell in pixels.
+     */
+    public Rectangle getCellBounds(Position position) {
+        int cellSize = getCellSize();
+        int pitch = cellSize + CELL_GAP;
+        Point origin = getGridOrigin(cellSize);
+        return new Rectangle(origin.x + position.y() * pitch, origin.y + position.x() * pitch, cellSize, cellSize);
+    }
+
+    /**
+     * Gets the top left corner of the grid, which is centred in the component.
+     *
+     * @param cellSize The edge length of a cell in pixels.
+     * @return The top left corner of the first cell.
+     */
+    private Point getGridOrigin(int cellSize) {
+        int pitch = cellSize + CELL_GAP;
+        int gridWidth = board.getHeight() * pitch - CELL_GAP;
+        int gridHeight = board.getWidth() * pitch - CELL_GAP;
+        return new Point(Math.max(0, (getWidth() - gridWidth) / 2), Math.max(0, (getHeight() - gridHeight) / 2));
+    }
+
+    /**
+     * Schedules a repaint of a single cell.
+     *
+     * @param position The cell to repaint.
+     */
+    private void repaintCell(Position position) {
+        repaint(getCellBounds(position));
+    }
+
+    /**
+     * Schedules a repaint of a set of cells.
+     *
+     * @param cells The cells to repaint, by cell index.
+     */
+    private void repaintCells(BitSet cells) {
+        if (board == null) {
+            return;
+        }
+        for (int index = cells.nextSetBit(0); index >= 0; index = cells.nextSetBit(index + 1)) {
+            repaintCell(board.getPosition(index));
+        }
+    }
+
+    /**
+     * Gets the edge length of each cell so that the whole board fits in the component.
+     *
+     * @return The edge length of a cell in pixels, or 0 if there is no board.
+     */
+    public int getCellSize() {
+        if (board == null) {
+            return 0;
+        }
+        int rows = board.getWidth();
+        int columns = board.getHeight();
+        int horizontalLength = (getWidth() - (columns - 1) * CELL_GAP) / columns;
+        int verticalLength = (getHeight() - (rows - 1) * CELL_GAP) / rows;
+        return Math.max(0, Math.min(horizontalLength, verticalLength));
+    }
+
+    /**
+     * Gets the cell under a point of the component. Rows of the grid are x-coordinates
+     * and columns are y-coordinates, matching the layout of the board.
+     *
+     * @param x The x pixel of the point.
+     * @param y The y pixel of the point.
+     * @return The cell under the point, or null if the point is in a gap or off the board.
+     */
+    public Position getCellAt(int x, int y) {
+        int index = getCellIndexAt(x, y);
+        return index >= 0 ? board.getPosition(index) : null;
+    }
+
+    /**
+     * Gets the index of the cell under a point of the component.
+     *
+     * @param x The x pixel of the point.
+     * @param y The y pixel of the point.
+     * @return The index of the cell under the point, or -1 if the point is in a gap or off the board.
+     */
+    public int getCellIndexAt(int x, int y) {
+        int cellSize = getCellSize();
+        if (cellSize == 0) {
+            return -1;
+        }
+
+        Point origin = getGridOrigin(cellSize);
+        x -= origin.x;
+        y -= origin.y;
+        if (x < 0 || y < 0) {
+            return -1;
+        }
+
+        int pitch = cellSize + CELL_GAP;
+        int row = y / pitch;
+        int column = x / pitch;
+        if (row >= board.getWidth() || column >= board.getHeight() || y % pitch >= cellSize || x % pitch >= cellSize) {
+            return -1;
+        }
+        return board.getIndex(new Position(row, column));
+    }
+
+    /**
+     * Paints every cell of the board, followed by its highlight, tower and worker.
+     *
+     * @param g The graphics context to paint with.
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.setColor(getBackground());
+        g.fillRect(0, 0, getWidth(), getHeight());
+        if (board == null) {
+            return;
+        }
+
+        int cellSize = getCellSize();
+        int pitch = cellSize + CELL_GAP;
+        int workerSize = cellSize / 2;
+        int imageSize = Floor.getImageSize(cellSize);
+        Point origin = getGridOrigin(cellSize);
+        Rectangle clip = g.getClipBounds();
+
+        // Scale images to device pixels, so that they stay sharp on high density displays
+        AffineTransform transform = ((Graphics2D) g).getTransform();
+        double scale = Math.max(transform.getScaleX(), transform.getScaleY());
+
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                int left = origin.x + y * pitch;
+                int top = origin.y + x * pitch;
+                if (clip != null && !clip.intersects(left, top, cellSize, cellSize)) {
+                    continue;
+                }
+
+                int index = board.getIndex(new Position(x, y));
+                g.setColor(targets.get(index) ? targetColor : CELL_COLOR);
+                g.fillRect(left, top, cellSize, cellSize);
+                g.setColor(CELL_BORDER_COLOR);
+                g.drawRect(left, top, cellSize - 1, cellSize - 1);
+
+                drawImage(g, board.getTowerImage(index), left, top, cellSize, imageSize, scale);
+
+                String workerImage = board.getWorkerImage(index);
+                if (workerImage != null) {
+                    drawImage(g, workerImage, left, top, cellSize, workerSize, scale);
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws an image centred in a cell. The variant scaled for the device pixels is used if it
+     * is ready, otherwise the closest ready variant is stretched until the scaled variant has
+     * been created in the background, after which the component is repainted.
+     *
+     * @param g The graphics context to paint with.
+     * @param resource The resource path of the image.
+     * @param left The left edge of the cell.
+     * @param top The top edge of the cell.
+     * @param cellSize The edge length of the cell.
+     * @param size The edge length to draw the image at.
+     * @param scale The number of device pixels per pixel of the component.
+     */
+    private void drawImage(Graphics g, String resource, int left, int top, int cellSize, int size, double scale) {
+        int pixelSize = (int) Math.ceil(size * scale);
+        BufferedImage image = ImageCache.getInstance().getVariant(resource, pixelSize, this::repaint);
+        if (image != null) {
+            g.drawImage(image, left + (cellSize - size) / 2, top + (cellSize - size) / 2, size, size, null);
+        }
+    }
+}
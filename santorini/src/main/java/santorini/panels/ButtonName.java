@@ -20,5 +20,8 @@ public enum ButtonName {
     SAVE_GAME_BUTTON,
     LOAD_GAME_BUTTON,
     STANDARD_GAME_BUTTON,
-    CHAOS_GAME_BUTTON
+    CHAOS_GAME_BUTTON,
+    BROWSE_SAVES_BUTTON,
+    CHOOSE_DIRECTORY_BUTTON,
+    LOAD_SELECTED_BUTTON
 }
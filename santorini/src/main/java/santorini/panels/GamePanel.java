@@ -1,17 +1,14 @@
 package santorini.panels;
 
 import santorini.utils.Logger;
-import santorini.board.Board;
+import santorini.game.ClockSnapshot;
 import santorini.game.GameState;
 import santorini.game.Position;
 import santorini.players.Player;
-import santorini.players.Worker;
-import santorini.towers.Tower;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.HashMap;
-import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Represents the main gameplay panel where the board, workers, towers, and game log are displayed.
@@ -23,17 +20,29 @@ import java.util.List;
  */
 public class GamePanel extends Panel implements ActivePanel {
 
+    // Constants
+
+    /**
+     * The width of the column holding the player information and the game log.
+     */
+    private static final int LEFT_COLUMN_WIDTH = 324;
+
+    /**
+     * The edge length in pixels the board is given before the window is resized.
+     */
+    private static final int BOARD_SIZE = 620;
+
     // Attributes
 
     /**
-     * Stores the layered panes associated with each board position for rendering towers and workers.
+     * The component that paints the game board and reports clicks on its cells.
      */
-    private HashMap<String, JLayeredPane> panes;
+    private BoardView boardView;
 
     /**
-     * The edge length (in pixels) of each individual game cell.
+     * The labels showing the time left to each player, empty when the game is untimed.
      */
-    private int gameCellEdgeLength;
+    private JLabel[] clockLabels;
 
     // Constructor
 
@@ -42,35 +51,96 @@ public class GamePanel extends Panel implements ActivePanel {
      */
     public GamePanel() {
         super();
-        panes = new HashMap<>();
     }
 
     // Methods
 
     /**
      * Initializes the UI components of the game panel based on the provided game state.
-     * If the board has not been initialized, it will first create the game grid, information panel,
-     * logging area, and action controls. Then, it clears the board and updates the visual state of all towers and workers
-     * using the latest game data. This method ensures the UI is always consistent with the current game state
-     * and triggers revalidation and repainting to reflect changes on the screen.
+     * If the board has not been initialized, it will create the game grid, information panel,
+     * logging area, and action controls. The board itself is drawn from the snapshots passed to render.
      *
-     * @param gameState The current game state used to update the game board and related UI elements.
+     * @param gameState The current game state used to set up the player information.
      */
     @Override
     public void initializeUI(GameState gameState) {
 
         // If the board has not been initialized, create it
-        if (panes.isEmpty()) {
+        if (boardView == null) {
             initializeBoard(gameState);
         }
+    }
 
-        // Clear the board and update towers and workers
-        clearBoard();
-        updateTowersUI(gameState);
-        updateWorkersUI(gameState);
+    /**
+     * The game panel lays out its columns and board to fill the window.
+     *
+     * @return True, as the game panel can be resized.
+     */
+    @Override
+    public boolean isResizable() {
+        return true;
+    }
 
-        revalidate();
-        repaint();
+    /**
+     * Draws a snapshot of the game, repainting the changed cells of the board, highlighting
+     * the cells that can be clicked and enabling the buttons that can be used, without
+     * rebuilding or laying out any components. Snapshots received before the panel has been
+     * initialized are ignored, as the latest one is drawn once it is shown.
+     *
+     * @param snapshot The snapshot to draw.
+     */
+    public void render(RenderSnapshot snapshot) {
+        if (boardView == null) {
+            return;
+        }
+        boardView.setBoard(snapshot.board());
+        boardView.setTargets(snapshot.targets(), snapshot.targetColor());
+
+        if (snapshot.saveEnabled()) {
+            enableButton(ButtonName.SAVE_GAME_BUTTON.toString());
+        }
+        else {
+            disableButton(ButtonName.SAVE_GAME_BUTTON.toString());
+        }
+        if (snapshot.endPhaseEnabled()) {
+            enableButton(ButtonName.END_PHASE_BUTTON.toString());
+        }
+        else {
+            disableButton(ButtonName.END_PHASE_BUTTON.toString());
+        }
+        updateClocks(snapshot.clock());
+    }
+
+    /**
+     * Shows the time left to each player. Only the labels whose text has changed are updated,
+     * so the clocks can be refreshed several times a second without repainting the board.
+     *
+     * @param clock The time left to each player, or null if the game is untimed.
+     */
+    public void updateClocks(ClockSnapshot clock) {
+        if (clockLabels == null) {
+            return;
+        }
+        for (int i = 0; i < clockLabels.length; i++) {
+            String text = clock == null || i >= clock.remainingMillis().length ? "" : clock.format(i);
+            Color color = clock != null && clock.flaggedIndex() == i ? Color.RED
+                : clock != null && clock.runningIndex() == i ? Color.BLACK : Color.GRAY;
+            if (!text.equals(clockLabels[i].getText())) {
+                clockLabels[i].setText(text);
+            }
+            if (!color.equals(clockLabels[i].getForeground())) {
+                clockLabels[i].setForeground(color);
+            }
+        }
+    }
+
+    /**
+     * Sets the handler notified when a target cell of the board is clicked.
+     *
+     * @param handler The handler to notify with the clicked cell.
+     */
+    public void setCellHandler(Consumer<Position> handler) {
+        boardView.setCellHandler(handler);
     }
 
     /**
@@ -81,16 +151,16 @@ public class GamePanel extends Panel implements ActivePanel {
      * @param gameState The game state used to determine board size and player information.
      */
     public void initializeBoard(GameState gameState) {
-        Board board = gameState.getBoard();
 
-        // Set up absolute positioning and panel size
-        setLayout(null);
-        setBounds(0, 0, 1080, 720);
+        // Let the board take all the space left by the left column and the buttons
+        setLayout(new BorderLayout());
 
         // ====================================================================
         // Left Column (Player Info and Game Log)
         // ====================================================================
         JPanel leftColumn = new JPanel(new GridBagLayout());
+        leftColumn.setPreferredSize(new Dimension(LEFT_COLUMN_WIDTH, 0));
+        leftColumn.setMinimumSize(new Dimension(LEFT_COLUMN_WIDTH, 0));
         GridBagConstraints leftGbc = new GridBagConstraints();
         leftGbc.fill = GridBagConstraints.BOTH;
 
@@ -99,7 +169,8 @@ public class GamePanel extends Panel implements ActivePanel {
         infoPanel.setBackground(new Color(230, 230, 250));
         infoPanel.setBorder(BorderFactory.createTitledBorder("Game Information"));
 
-        // Add each player's name, worker icon, and god power
+        // Add each player's name, clock, worker icon, and god power
+        clockLabels = new JLabel[gameState.getPlayers().size()];
         for (int i = 0; i < gameState.getPlayers().size(); i++) {
             Player player = gameState.getPlayer(i);
 
@@ -113,11 +184,16 @@ public class GamePanel extends Panel implements ActivePanel {
             playerNameLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
             playerPanel.add(playerNameLabel);
 
+            // Clock, sized for its widest text so that ticking does not lay out the column again
+            clockLabels[i] = new JLabel("", JLabel.CENTER);
+            clockLabels[i].setFont(new Font("Monospaced", Font.BOLD, 16));
+            clockLabels[i].setAlignmentX(Component.CENTER_ALIGNMENT);
+            clockLabels[i].setPreferredSize(new Dimension(80, 20));
+            clockLabels[i].setMaximumSize(new Dimension(80, 20));
+            playerPanel.add(clockLabels[i]);
+
             // Worker icon
-            ImageIcon workerIcon = player.getWorkers().get(0).draw();
-            Image workerImage = workerIcon.getImage();
-            ImageIcon scaledIcon = new ImageIcon(workerImage.getScaledInstance(50, 50, Image.SCALE_SMOOTH));
-            JLabel workerLabel = new JLabel(scaledIcon);
+            JLabel workerLabel = new JLabel(player.getWorkers().get(0).draw(50));
             workerLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
             playerPanel.add(workerLabel);
 
@@ -165,57 +241,17 @@ public class GamePanel extends Panel implements ActivePanel {
         // Game Grid
         // ====================================================================
 
-        // Create a container for the game panel
-        JPanel gamePanelContainer = new JPanel(null);
-        gamePanelContainer.setBounds(324, 0, 756, 620);
-
-        // Main grid layout based on board dimensions
-        JPanel gamePanel = new JPanel(new GridLayout(board.getWidth(), board.getHeight(), 5, 5));
-        gamePanel.setBackground(Color.WHITE);
-        int xCells = board.getWidth();
-        int yCells = board.getHeight();
-
-        // calculate the size of each cell
-        int horizontalLength = (620 - (xCells - 1) * 5) / xCells;
-        int verticalLength = (620 - (yCells - 1) * 5) / yCells;
-        gameCellEdgeLength = Math.min(horizontalLength, verticalLength);
-
-        // Create each grid cell using JLayeredPane
-        for (int x = 0; x < board.getWidth(); x++) {
-            for (int y = 0; y < board.getHeight(); y++) {
-                Position position = new Position(x, y);
-
-                // Setup layered pane for individual cell
-                JLayeredPane pane = new JLayeredPane();
-                pane.setPreferredSize(new Dimension(gameCellEdgeLength, gameCellEdgeLength));
-
-                // Base button for cell interaction
-                JButton button = new JButton();
-                button.setBounds(0, 0, gameCellEdgeLength, gameCellEdgeLength);
-                button.setEnabled(false);
-                button.putClientProperty("x", x);
-                button.putClientProperty("y", y);
-
-                // Store the pane and button in respective maps
-                panes.put(position.toString(), pane);
-                buttons.put(position.toString(), button);
-
-                pane.add(button, JLayeredPane.DEFAULT_LAYER);
-                gamePanel.add(pane);
-            }
-        }
-
-        // Position the board inside the container
-        gamePanel.setBounds(68, 0, 620, 620);
-        gamePanelContainer.add(gamePanel);
+        // Board view painting every cell of the board, scaled to fit its space
+        boardView = new BoardView();
+        boardView.setPreferredSize(new Dimension(BOARD_SIZE, BOARD_SIZE));
 
         // Combine left column and board into a split pane
-        JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, leftColumn, gamePanelContainer);
-        splitPane.setDividerLocation(324);
+        JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, leftColumn, boardView);
+        splitPane.setDividerLocation(LEFT_COLUMN_WIDTH);
+        splitPane.setResizeWeight(0);
         splitPane.setEnabled(false);
         splitPane.setDividerSize(0);
-        splitPane.setBounds(0, 0, 1080, 620);
-        add(splitPane);
+        add(splitPane, BorderLayout.CENTER);
 
         // ====================================================================
         // Bottom Panel (End Phase Button)
@@ -231,91 +267,8 @@ public class GamePanel extends Panel implements ActivePanel {
 
         bottomPanel.add(saveGameButton);
         bottomPanel.add(endPhaseButton);
-        bottomPanel.setBounds(0, 620, 1080, 100);
-
-        add(bottomPanel);
-    }
-
-
-    /**
-     * Updates the tower visuals on the board by redrawing the top floor of each tower
-     * at every board position using the draw method.
-     *
-     * @param gameState The current game state.
-     */
-    public void updateTowersUI(GameState gameState) {
-        Board board = gameState.getBoard();
-
-        // Iterate through each position on the board
-        for (int x = 0; x < board.getWidth(); x++) {
-            for (int y = 0; y < board.getHeight(); y++) {
-                Position position = new Position(x, y);
-                Tower tower = board.getTower(position);
-
-                // Create JLabel
-                JLabel towerLabel = new JLabel(tower.draw(board, position));
-
-                // Set the label bounds to fit the cell
-                towerLabel.setBounds(0, 0, gameCellEdgeLength, gameCellEdgeLength);
-
-                // Add the tower label to the layered pane at this board position
-                panes.get(position.toString()).add(towerLabel, JLayeredPane.PALETTE_LAYER);
-            }
-        }
-    }
-
-    /**
-     * Updates the worker icons on the board. Each player's workers are scaled to fit within
-     * their corresponding cell and rendered on top of tower components.
-     *
-     * @param gameState The current game state.
-     */
-    public void updateWorkersUI(GameState gameState) {
-        // Get the game board and list of players from the game state
-        Board board = gameState.getBoard();
-        List<Player> players = gameState.getPlayers();
-
-        // Iterate through each player
-        for (int i = 0; i < players.size(); i++) {
-            Player player = players.get(i);
-
-            // Get the worker icon from the worker
-            ImageIcon workerIcon =  player.getWorkers().get(0).draw();
-            Image workerImage = workerIcon.getImage();
-
-            // Scale the worker icon to half the size of the cell
-            ImageIcon scaledWorkerIcon = new ImageIcon(workerImage.getScaledInstance(gameCellEdgeLength/2, gameCellEdgeLength/2, Image.SCALE_SMOOTH));
 
-            // Add a label for each of the player's workers
-            for (Worker worker : players.get(i).getWorkers()) {
-                Position position = board.getPositionOf(worker);
-
-                // Create JLabel
-                JLabel workerLabel = new JLabel(scaledWorkerIcon);
-
-                // Center the worker label within the cell
-                workerLabel.setBounds((gameCellEdgeLength - gameCellEdgeLength / 2) / 2, (gameCellEdgeLength - gameCellEdgeLength / 2) / 2, gameCellEdgeLength/2, gameCellEdgeLength/2);
-
-                // Add the worker to the top layer of the corresponding layered pane
-                panes.get(position.toString()).add(workerLabel, JLayeredPane.DRAG_LAYER);
-            }
-        }
-    }
-
-    /**
-     * Clears all tower and worker visuals from the board by removing components
-     * from the appropriate layers in each cell's layered pane.
-     */
-    public void clearBoard() {
-
-        // Iterate through each position on the board and remove each component
-        for (JLayeredPane pane: panes.values()) {
-            for (Component c : pane.getComponentsInLayer(JLayeredPane.PALETTE_LAYER)) {
-                pane.remove(c);
-            }
-            for (Component c : pane.getComponentsInLayer(JLayeredPane.DRAG_LAYER)) {
-                pane.remove(c);
-            }
-        }
+        add(bottomPanel, BorderLayout.SOUTH);
+        revalidate();
     }
-}
\ No newline at end of file
+}
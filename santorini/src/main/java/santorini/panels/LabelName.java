@@ -12,4 +12,5 @@ public enum LabelName {
     // Enum Constants
 
     WINNER_LABEL,
+    SAVE_DIRECTORY_LABEL,
 }
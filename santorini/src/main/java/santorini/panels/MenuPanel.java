@@ -1,5 +1,7 @@
 package santorini.panels;
 
+import santorini.utils.ImageCache;
+
 import javax.swing.*;
 import java.awt.*;
 
@@ -68,7 +70,7 @@ public class MenuPanel extends Panel implements StaticPanel {
         // ====================================================================
 
         // Set the size and position of the button panel (moved lower)
-        int panelWidth = 4 * 150 + 3 * 30;
+        int panelWidth = 5 * 150 + 4 * 30;
         int panelHeight = 40;
         int buttonWidth = 150;
         int buttonHeight = 40;
@@ -77,30 +79,36 @@ public class MenuPanel extends Panel implements StaticPanel {
         // Create a panel to hold the buttons (moved down from 580 to 620)
         JPanel buttonPanel = new JPanel(null);
         buttonPanel.setOpaque(false);
-        buttonPanel.setBounds(195, 600, panelWidth, panelHeight);
+        buttonPanel.setBounds(105, 600, panelWidth, panelHeight);
 
         // Load Game Button
         JButton loadGameButton = new JButton("Load Game");
         loadGameButton.setBounds(0, 0, buttonWidth, buttonHeight);
         buttons.put(ButtonName.LOAD_GAME_BUTTON.toString(), loadGameButton);
 
+        // Browse Saves Button
+        JButton browseSavesButton = new JButton("Browse Saves");
+        browseSavesButton.setBounds(buttonWidth + spacing, 0, buttonWidth, buttonHeight);
+        buttons.put(ButtonName.BROWSE_SAVES_BUTTON.toString(), browseSavesButton);
+
         // Start Game Button
         JButton startGameButton = new JButton("Start Game!");
-        startGameButton.setBounds(buttonWidth + spacing, 0, buttonWidth, buttonHeight);
+        startGameButton.setBounds(2 * (buttonWidth + spacing), 0, buttonWidth, buttonHeight);
         buttons.put(ButtonName.START_GAME_BUTTON.toString(), startGameButton);
 
         // Instructions Button
         JButton instructionsButton = new JButton("Instructions");
-        instructionsButton.setBounds(2 * (buttonWidth + spacing), 0, buttonWidth, buttonHeight);
+        instructionsButton.setBounds(3 * (buttonWidth + spacing), 0, buttonWidth, buttonHeight);
         buttons.put(ButtonName.INSTRUCTIONS_BUTTON.toString(), instructionsButton);
 
         // Quit Button
         JButton quitButton = new JButton("Quit");
-        quitButton.setBounds(3 * (buttonWidth + spacing), 0, buttonWidth, buttonHeight);
+        quitButton.setBounds(4 * (buttonWidth + spacing), 0, buttonWidth, buttonHeight);
         buttons.put(ButtonName.QUIT_BUTTON.toString(), quitButton);
 
         // Add buttons to the panel
         buttonPanel.add(loadGameButton);
+        buttonPanel.add(browseSavesButton);
         buttonPanel.add(startGameButton);
         buttonPanel.add(instructionsButton);
         buttonPanel.add(quitButton);
@@ -111,7 +119,7 @@ public class MenuPanel extends Panel implements StaticPanel {
         // ====================================================================
 
         // Load the background image and set it to the panel
-        ImageIcon backgroundIcon = new ImageIcon(getClass().getResource("/menu-background.png"));
+        ImageIcon backgroundIcon = ImageCache.getInstance().getIcon("/menu-background.png");
         JLabel backgroundLabel = new JLabel(backgroundIcon);
         backgroundLabel.setBounds(0, 0, 1080, 720);
         add(backgroundLabel);
@@ -49,6 +49,16 @@ public abstract class Panel extends JPanel {
         return buttons.get(key);
     }
 
+    /**
+     * Checks whether the panel lays itself out to fit any size, rather than using
+     * absolute positions laid out for the initial window size.
+     *
+     * @return True if the panel can be resized, false otherwise.
+     */
+    public boolean isResizable() {
+        return false;
+    }
+
     /**
      * Disables the button associated with the given key.
      *
@@ -15,4 +15,5 @@ public enum PanelName {
     INSTRUCTIONS,
     GAME,
     WINNER,
+    SAVE_BROWSER,
 }
\ No newline at end of file
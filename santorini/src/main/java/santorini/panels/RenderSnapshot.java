@@ -0,0 +1,45 @@
+package santorini.panels;
+
+import santorini.board.BoardSnapshot;
+import santorini.game.ClockSnapshot;
+
+import java.awt.*;
+import java.util.BitSet;
+
+/**
+ * An immutable description of everything the game panel shows at one moment.
+ * Snapshots are built on the game thread once a command has finished and handed to the
+ * event dispatch thread, which draws them without reading the game state itself.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param board The snapshot of the board.
+ * @param targets The cells the current player can click, by cell index.
+ * @param targetColor The colour the target cells are highlighted in.
+ * @param saveEnabled Whether the game can be saved.
+ * @param endPhaseEnabled Whether the current phase can be ended.
+ * @param gameOver Whether the game has been won.
+ * @param clock The time left to each player, or null if the game is untimed.
+ */
+public record RenderSnapshot(BoardSnapshot board, BitSet targets, Color targetColor,
+                             boolean saveEnabled, boolean endPhaseEnabled, boolean gameOver,
+                             ClockSnapshot clock) {
+
+    /**
+     * Constructor, copying the target cells so later changes to them are not seen.
+     */
+    public RenderSnapshot {
+        targets = (BitSet) targets.clone();
+    }
+
+    /**
+     * Gets the cells the current player can click.
+     *
+     * @return A copy of the target cells, by cell index.
+     */
+    @Override
+    public BitSet targets() {
+        return (BitSet) targets.clone();
+    }
+}
@@ -0,0 +1,228 @@
+package santorini.panels;
+
+import santorini.utils.SaveHeader;
+import santorini.utils.SaveIndex;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Represents the save browser panel, which lists every save in a directory using only
+ * the metadata headers cached in the directory's save index.
+ * Implements StaticPanel as the listed saves are supplied by its controller.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class SaveBrowserPanel extends Panel implements StaticPanel {
+
+    // Constants
+
+    /**
+     * The column names of the save table.
+     */
+    private static final String[] COLUMN_NAMES = {"File", "Mode", "Gods", "Turn", "Current Player", "Saved At", "Winner", "Board"};
+
+    /**
+     * The index of the board thumbnail column.
+     */
+    private static final int BOARD_COLUMN = 7;
+
+    /**
+     * The height of each row of the table in pixels.
+     */
+    private static final int ROW_HEIGHT = 48;
+
+    // Attributes
+
+    /**
+     * The saves currently listed.
+     */
+    private final List<SaveIndex.Entry> saves;
+
+    /**
+     * The table listing the saves.
+     */
+    private JTable saveTable;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     */
+    public SaveBrowserPanel() {
+        super();
+        saves = new ArrayList<>();
+    }
+
+    // Methods
+
+    /**
+     * Initializes the UI components of the save browser panel. This includes the directory label,
+     * the save table and the buttons to choose a directory, load the selected save or return to the menu.
+     * The components are only created the first time the panel is shown.
+     */
+    @Override
+    public void initializeUI() {
+        if (saveTable != null) {
+            return;
+        }
+        setLayout(null);
+
+        // ====================================================================
+        // Directory Label
+        // ====================================================================
+
+        JLabel directoryLabel = new JLabel("No folder selected");
+        directoryLabel.setBounds(50, 20, 980, 30);
+        directoryLabel.setFont(new Font("SansSerif", Font.BOLD, 16));
+        labels.put(LabelName.SAVE_DIRECTORY_LABEL.toString(), directoryLabel);
+        add(directoryLabel);
+
+        // ====================================================================
+        // Save Table
+        // ====================================================================
+
+        saveTable = new JTable(new SaveTableModel());
+        saveTable.setRowHeight(ROW_HEIGHT);
+        saveTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        saveTable.getColumnModel().getColumn(BOARD_COLUMN).setCellRenderer(new ThumbnailRenderer());
+        saveTable.getColumnModel().getColumn(BOARD_COLUMN).setPreferredWidth(ROW_HEIGHT);
+
+        JScrollPane scrollPane = new JScrollPane(saveTable);
+        scrollPane.setBounds(50, 60, 980, 540);
+        add(scrollPane);
+
+        // ====================================================================
+        // Button Group
+        // ====================================================================
+
+        JButton returnMenuButton = new JButton("Return to Menu");
+        returnMenuButton.setBounds(50, 620, 150, 40);
+        buttons.put(ButtonName.RETURN_MENU_BUTTON.toString(), returnMenuButton);
+        add(returnMenuButton);
+
+        JButton chooseDirectoryButton = new JButton("Choose Folder");
+        chooseDirectoryButton.setBounds(700, 620, 150, 40);
+        buttons.put(ButtonName.CHOOSE_DIRECTORY_BUTTON.toString(), chooseDirectoryButton);
+        add(chooseDirectoryButton);
+
+        JButton loadSelectedButton = new JButton("Load Save");
+        loadSelectedButton.setBounds(880, 620, 150, 40);
+        buttons.put(ButtonName.LOAD_SELECTED_BUTTON.toString(), loadSelectedButton);
+        add(loadSelectedButton);
+    }
+
+    /**
+     * Replaces the listed saves.
+     *
+     * @param entries The index entries of the saves to list.
+     */
+    public void setSaves(List<SaveIndex.Entry> entries) {
+        saves.clear();
+        saves.addAll(entries);
+        ((AbstractTableModel) saveTable.getModel()).fireTableDataChanged();
+    }
+
+    /**
+     * Gets the save selected in the table.
+     *
+     * @return The index entry of the selected save, or null if none is selected.
+     */
+    public SaveIndex.Entry getSelectedSave() {
+        int row = saveTable.getSelectedRow();
+        return row >= 0 ? saves.get(row) : null;
+    }
+
+    /**
+     * Presents the listed saves as rows of the save table.
+     */
+    private class SaveTableModel extends AbstractTableModel {
+
+        /**
+         * The format used to display save times.
+         */
+        private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+
+        @Override
+        public int getRowCount() {
+            return saves.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMN_NAMES.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMN_NAMES[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            SaveIndex.Entry entry = saves.get(row);
+            SaveHeader header = entry.header();
+
+            if (column == 0) {
+                return entry.fileName();
+            }
+            if (column == 5) {
+                return dateFormat.format(new Date(entry.getSavedAt()));
+            }
+            if (header == null) {
+                return column == 1 ? "Legacy Save" : "";
+            }
+
+            return switch (column) {
+                case 1 -> header.mode();
+                case 2 -> String.join(" vs ", header.gods());
+                case 3 -> header.gods().isEmpty() ? header.turnNumber() : header.turnNumber() / header.gods().size() + 1;
+                case 4 -> header.currentPlayer();
+                case 6 -> header.winner();
+                default -> header;
+            };
+        }
+    }
+
+    /**
+     * Draws the board thumbnail of a save, shading each cell by the height of its tower.
+     */
+    private static class ThumbnailRenderer extends DefaultTableCellRenderer {
+
+        /**
+         * The header whose thumbnail is being drawn.
+         */
+        private SaveHeader header;
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+            super.getTableCellRendererComponent(table, "", isSelected, hasFocus, row, column);
+            header = value instanceof SaveHeader ? (SaveHeader) value : null;
+            return this;
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            if (header == null || header.thumbnail().isEmpty()) {
+                return;
+            }
+
+            int cellSize = Math.max(1, (Math.min(getWidth(), getHeight()) - 4) / Math.max(header.boardWidth(), header.boardHeight()));
+            for (int x = 0; x < header.boardWidth(); x++) {
+                for (int y = 0; y < header.boardHeight(); y++) {
+                    int shade = 230 - header.getThumbnailHeight(x, y) * 50;
+                    g.setColor(new Color(shade, shade, shade));
+                    g.fillRect(2 + y * cellSize, 2 + x * cellSize, cellSize - 1, cellSize - 1);
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package santorini.panels;
 
+import santorini.utils.ImageCache;
+
 import javax.swing.*;
 import java.awt.*;
 
@@ -93,7 +95,7 @@ public class WinnerPanel extends Panel implements StaticPanel {
         // ====================================================================
 
         // Load the background image and set it to the panel
-        ImageIcon backgroundIcon = new ImageIcon(getClass().getResource("/winner-background.png"));
+        ImageIcon backgroundIcon = ImageCache.getInstance().getIcon("/winner-background.png");
         JLabel backgroundLabel = new JLabel(backgroundIcon);
         backgroundLabel.setBounds(0, 0, 1080, 720);
         add(backgroundLabel);
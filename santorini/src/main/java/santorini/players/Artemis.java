@@ -4,9 +4,9 @@ import santorini.actions.Action;
 import santorini.board.Board;
 import santorini.game.GamePhase;
 import santorini.game.GameState;
+import santorini.utils.ImageCache;
 
 import javax.swing.*;
-import java.awt.*;
 
 /**
  * Represents the god Artemis in the game.
@@ -46,16 +46,12 @@ public class Artemis extends God {
 
     /**
      * Returns the icon representing Artemis.
-     * The image is scaled for display in the UI.
+     * The image is scaled once for display in the UI and cached.
      *
      * @return The ImageIcon representing Artemis.
      */
     @Override
     public ImageIcon draw() {
-        Image image = new ImageIcon(getClass().getResource("/artemis-profile.png"))
-                .getImage()
-                .getScaledInstance(120, 200, Image.SCALE_SMOOTH);
-        ImageIcon icon = new ImageIcon(image);
-        return icon;
+        return ImageCache.getInstance().getIcon("/artemis-profile.png", 120, 200);
     }
 }
@@ -3,9 +3,9 @@ package santorini.players;
 import santorini.actions.Action;
 import santorini.game.GamePhase;
 import santorini.game.GameState;
+import santorini.utils.ImageCache;
 
 import javax.swing.*;
-import java.awt.*;
 
 /**
  * Represents the god Demeter in the game.
@@ -45,17 +45,12 @@ public class Demeter extends God {
 
     /**
      * Returns the icon representing Demeter.
-     * The image is scaled for display in the UI.
+     * The image is scaled once for display in the UI and cached.
      *
      * @return The ImageIcon representing Demeter.
      */
     @Override
     public ImageIcon draw() {
-        Image image = new ImageIcon(getClass().getResource("/demeter-profile.png"))
-                .getImage()
-                .getScaledInstance(120, 200, Image.SCALE_SMOOTH);
-
-        ImageIcon icon = new ImageIcon(image);
-        return icon;
+        return ImageCache.getInstance().getIcon("/demeter-profile.png", 120, 200);
     }
 }
@@ -4,7 +4,6 @@ import santorini.utils.SaveConfig;
 import santorini.utils.SaveManager;
 import santorini.utils.Saveable;
 
-import javax.swing.*;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -54,16 +53,6 @@ public class Player implements Saveable {
         canSelectWorker = true;
     }
 
-    public Player(String buildString, boolean fromSave) {
-        if (fromSave) {
-            String[] lines = buildString.split(SaveConfig.DELIMITER_REGEX);
-            this.name = lines[0];
-            this.god = God.parseName(lines[1]);
-            this.workers = new ArrayList<>();
-            this.canSelectWorker = Boolean.parseBoolean(lines[2]);
-        }
-    }
-
     // Getters and Setters
 
     /**
@@ -155,12 +144,22 @@ public class Player implements Saveable {
      * @param playerIndex The index of the player (used to load a distinct icon).
      */
     public void initialiseWorkerIcon(int playerIndex) {
-        ImageIcon icon = new ImageIcon(getClass().getResource("/worker" + (playerIndex + 1) + ".png"));
+        String iconPath = getWorkerIconPath(playerIndex);
         for (Worker worker : workers) {
-            worker.setIcon(icon);
+            worker.setIconPath(iconPath);
         }
     }
 
+    /**
+     * Gets the resource path of the icon of the workers of a player.
+     *
+     * @param playerIndex The index of the player.
+     * @return The resource path of the worker icon.
+     */
+    public static String getWorkerIconPath(int playerIndex) {
+        return "/worker" + (playerIndex + 1) + ".png";
+    }
+
     /**
      * Resets the turn status to allow worker selection.
      */
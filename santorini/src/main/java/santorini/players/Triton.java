@@ -4,9 +4,9 @@ import santorini.actions.Action;
 import santorini.board.Board;
 import santorini.game.GamePhase;
 import santorini.game.GameState;
+import santorini.utils.ImageCache;
 
 import javax.swing.*;
-import java.awt.*;
 
 /**
  * Represents the god Triton in the game.
@@ -50,16 +50,12 @@ public class Triton extends God {
 
     /**
      * Returns the icon representing Triton.
-     * The image is scaled for display in the UI.
+     * The image is scaled once for display in the UI and cached.
      *
      * @return The ImageIcon representing Triton.
      */
     @Override
     public ImageIcon draw() {
-        Image image = new ImageIcon(getClass().getResource("/triton-profile.png"))
-                .getImage()
-                .getScaledInstance(120, 200, Image.SCALE_SMOOTH);
-        ImageIcon icon = new ImageIcon(image);
-        return icon;
+        return ImageCache.getInstance().getIcon("/triton-profile.png", 120, 200);
     }
 }
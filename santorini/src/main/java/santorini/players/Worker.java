@@ -1,5 +1,7 @@
 package santorini.players;
 
+import santorini.utils.ImageCache;
+
 import javax.swing.*;
 
 /**
@@ -14,9 +16,9 @@ public class Worker {
     // Attributes
 
     /**
-     * The icon used to visually represent the worker.
+     * The resource path of the icon used to visually represent the worker.
      */
-    private ImageIcon icon;
+    private String iconPath;
 
     // Constructor
 
@@ -28,21 +30,30 @@ public class Worker {
     // Methods
 
     /**
-     * Gets the icon used to render the worker.
+     * Gets the icon used to render the worker at a fixed size.
      *
+     * @param size The width and height of the icon.
      * @return The ImageIcon representing the worker.
      */
-    public ImageIcon draw() {
-        return icon;
+    public ImageIcon draw(int size) {
+        return ImageCache.getInstance().getIcon(iconPath, size, size);
     }
 
     /**
-     * Sets the icon used to represent the worker.
+     * Gets the resource path of the icon used to represent the worker.
      *
-     * @param icon The ImageIcon to assign.
+     * @return The resource path of the icon.
      */
-    public void setIcon(ImageIcon icon) {
-        this.icon = icon;
+    public String getIconPath() {
+        return iconPath;
     }
-}
 
+    /**
+     * Sets the resource path of the icon used to represent the worker.
+     *
+     * @param iconPath The resource path of the icon.
+     */
+    public void setIconPath(String iconPath) {
+        this.iconPath = iconPath;
+    }
+}
@@ -0,0 +1,116 @@
+package santorini.tournament;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Reads the CSV results of many tournaments, such as those of an overnight self-play run
+ * written to one directory, and counts them for balancing. The result files are shards read
+ * at once by a parallel stream, and the lines of each file are split among threads too, so a
+ * few large files are read as fast as many small ones. Each thread counts its games into its
+ * own balance stats, which are merged at the end, and no file is ever held in memory whole.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public final class BalanceAnalyzer {
+
+    // Constants
+
+    /**
+     * The ending of the names of the result files read from a directory.
+     */
+    private static final String RESULT_SUFFIX = ".csv";
+
+    // Constructor
+
+    /**
+     * Constructor. The analyzer only has static methods.
+     */
+    private BalanceAnalyzer() {
+    }
+
+    // Methods
+
+    /**
+     * Counts the games of result files.
+     *
+     * @param paths The result files, and directories whose result files are all read.
+     * @return The counts of every game of every file.
+     * @throws IOException If a file cannot be read.
+     * @throws IllegalArgumentException If there is no result file or a result cannot be read.
+     */
+    public static BalanceStats analyze(List<Path> paths) throws IOException {
+        List<Path> shards = findShards(paths);
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("No result files in " + paths);
+        }
+        try {
+            return shards.parallelStream()
+                .map(BalanceAnalyzer::analyzeShard)
+                .collect(BalanceStats::new, BalanceStats::merge, BalanceStats::merge);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Counts the games of one result file, splitting its lines among threads.
+     *
+     * @param shard The result file.
+     * @return The counts of its games.
+     * @throws UncheckedIOException If the file cannot be read.
+     * @throws IllegalArgumentException If a result cannot be read.
+     */
+    private static BalanceStats analyzeShard(Path shard) {
+        try {
+            String header;
+            try (BufferedReader reader = Files.newBufferedReader(shard, StandardCharsets.UTF_8)) {
+                header = reader.readLine();
+            }
+            if (header == null) {
+                return new BalanceStats();
+            }
+
+            // Lines are split among threads by position in the file, so the header is left out by its text
+            ResultColumns columns = ResultColumns.of(header);
+            try (Stream<String> lines = Files.lines(shard, StandardCharsets.UTF_8)) {
+                return lines.parallel()
+                    .filter(line -> !line.isEmpty() && !line.equals(header))
+                    .collect(BalanceStats::new, (stats, line) -> stats.add(columns.read(line)), BalanceStats::merge);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Lists the result files of files and directories.
+     *
+     * @param paths The files and directories.
+     * @return The files, and the result files of each directory in name order.
+     * @throws IOException If a directory cannot be listed.
+     */
+    private static List<Path> findShards(List<Path> paths) throws IOException {
+        List<Path> shards = new ArrayList<>();
+        for (Path path : paths) {
+            if (!Files.isDirectory(path)) {
+                shards.add(path);
+                continue;
+            }
+            try (Stream<Path> files = Files.list(path)) {
+                files.filter(file -> Files.isRegularFile(file) && file.getFileName().toString().endsWith(RESULT_SUFFIX))
+                    .sorted()
+                    .forEach(shards::add);
+            }
+        }
+        return shards;
+    }
+}
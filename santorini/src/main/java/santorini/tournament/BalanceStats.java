@@ -0,0 +1,378 @@
+package santorini.tournament;
+
+import santorini.engine.EngineProtocol;
+import santorini.game.GameMode;
+import santorini.lobby.MatchOutcome;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Counts kept over the games of self-play to balance the gods and the game modes: by game
+ * mode, how long games last and how often the first seat wins, and by god, how often it
+ * wins, how often it beats each other god and how often its power takes effect.
+ *
+ * The counts are a mergeable accumulator: each thread of a parallel stream adds games to its
+ * own counts, which are merged once it is done, so no game is ever counted under a lock and
+ * the counts take the same room for a million games as for ten. Counts are plain longs kept
+ * in small arrays, one slot per count, as millions of games are added.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class BalanceStats {
+
+    // Constants
+
+    /**
+     * The slot of the number of games, in the counts of a game mode.
+     */
+    private static final int GAMES = 0;
+
+    /**
+     * The slot of the number of games with a winner, in the counts of a game mode.
+     */
+    private static final int DECIDED = 1;
+
+    /**
+     * The slot of the number of games the first seat won, in the counts of a game mode.
+     */
+    private static final int FIRST_SEAT_WINS = 2;
+
+    /**
+     * The slot of the turns of the games with a winner, in the counts of a game mode.
+     */
+    private static final int DECIDED_TURNS = 3;
+
+    /**
+     * The slot of the number of games won by forfeit, in the counts of a game mode.
+     */
+    private static final int FORFEITS = 4;
+
+    /**
+     * The number of counts of a game mode.
+     */
+    private static final int MODE_COUNTS = 5;
+
+    /**
+     * The slot of the number of games with a winner a god played in, in the counts of a god.
+     */
+    private static final int GOD_GAMES = 0;
+
+    /**
+     * The slot of the number of games a god won, in the counts of a god.
+     */
+    private static final int GOD_WINS = 1;
+
+    /**
+     * The slot of the number of times the power of a god took effect, in the counts of a god.
+     */
+    private static final int POWERS = 2;
+
+    /**
+     * The slot of the number of turns a god played in games whose powers were counted, in the counts of a god.
+     */
+    private static final int POWER_TURNS = 3;
+
+    /**
+     * The number of counts of a god.
+     */
+    private static final int GOD_COUNTS = 4;
+
+    /**
+     * The slot of the number of games, in the counts of a pairing.
+     */
+    private static final int PAIRING_GAMES = 0;
+
+    /**
+     * The slot of the number of games the alphabetically first god won, in the counts of a pairing.
+     */
+    private static final int PAIRING_WINS = 1;
+
+    /**
+     * The number of counts of a pairing.
+     */
+    private static final int PAIRING_COUNTS = 2;
+
+    /**
+     * The separator of the two gods of a pairing.
+     */
+    private static final String VERSUS = " vs ";
+
+    // Attributes
+
+    /**
+     * The counts of each game mode played.
+     */
+    private final Map<GameMode, long[]> modes;
+
+    /**
+     * The counts of each god played, by game mode.
+     */
+    private final Map<GameMode, Map<String, long[]>> gods;
+
+    /**
+     * The counts of each pairing of two different gods played, by game mode.
+     */
+    private final Map<GameMode, Map<String, long[]>> pairings;
+
+    // Constructor
+
+    /**
+     * Constructor, for counts of no games.
+     */
+    public BalanceStats() {
+        this.modes = new EnumMap<>(GameMode.class);
+        this.gods = new EnumMap<>(GameMode.class);
+        this.pairings = new EnumMap<>(GameMode.class);
+    }
+
+    // Methods
+
+    /**
+     * Adds a game to the counts. Cancelled games only count towards the number of games.
+     *
+     * @param game The game.
+     */
+    public void add(TournamentGame game) {
+        long[] modeCounts = modes.computeIfAbsent(game.mode(), mode -> new long[MODE_COUNTS]);
+        modeCounts[GAMES]++;
+        if (!game.isDecided()) {
+            return;
+        }
+        modeCounts[DECIDED]++;
+        modeCounts[DECIDED_TURNS] += game.turns();
+        if (game.winnerSeat() == 0) {
+            modeCounts[FIRST_SEAT_WINS]++;
+        }
+        if (game.outcome() == MatchOutcome.FORFEITED) {
+            modeCounts[FORFEITS]++;
+        }
+
+        // Seats take turns from the first, so each seat has played about its share of the turns
+        List<String> seatGods = game.gods();
+        int seats = seatGods.size();
+        boolean powersCounted = game.powers().size() == seats;
+        Map<String, long[]> modeGods = gods.computeIfAbsent(game.mode(), mode -> new TreeMap<>());
+        for (int seat = 0; seat < seats; seat++) {
+            long[] godCounts = modeGods.computeIfAbsent(seatGods.get(seat), god -> new long[GOD_COUNTS]);
+            godCounts[GOD_GAMES]++;
+            if (seat == game.winnerSeat()) {
+                godCounts[GOD_WINS]++;
+            }
+            if (powersCounted) {
+                godCounts[POWERS] += game.powers().get(seat);
+                godCounts[POWER_TURNS] += Math.max(0, game.turns() - seat + seats - 1) / seats;
+            }
+        }
+
+        if (seats == 2 && !seatGods.get(0).equals(seatGods.get(1))) {
+            int first = seatGods.get(0).compareTo(seatGods.get(1)) < 0 ? 0 : 1;
+            long[] pairingCounts = pairings.computeIfAbsent(game.mode(), mode -> new TreeMap<>())
+                .computeIfAbsent(seatGods.get(first) + VERSUS + seatGods.get(1 - first), pairing -> new long[PAIRING_COUNTS]);
+            pairingCounts[PAIRING_GAMES]++;
+            if (game.winnerSeat() == first) {
+                pairingCounts[PAIRING_WINS]++;
+            }
+        }
+    }
+
+    /**
+     * Adds the counts of other games to these counts.
+     *
+     * @param other The counts of the other games, which are left unchanged.
+     */
+    public void merge(BalanceStats other) {
+        other.modes.forEach((mode, counts) -> add(modes.computeIfAbsent(mode, key -> new long[MODE_COUNTS]), counts));
+        mergeByName(gods, other.gods, GOD_COUNTS);
+        mergeByName(pairings, other.pairings, PAIRING_COUNTS);
+    }
+
+    /**
+     * Gets the number of games counted, over every game mode.
+     *
+     * @return The number of games.
+     */
+    public long getGames() {
+        return modes.values().stream().mapToLong(counts -> counts[GAMES]).sum();
+    }
+
+    /**
+     * Gets the game modes played.
+     *
+     * @return The game modes, in their order.
+     */
+    public Set<GameMode> getModes() {
+        return Collections.unmodifiableSet(modes.keySet());
+    }
+
+    /**
+     * Gets the number of games of a game mode.
+     *
+     * @param mode The game mode.
+     * @return The number of games.
+     */
+    public long getGames(GameMode mode) {
+        return getModeCount(mode, GAMES);
+    }
+
+    /**
+     * Gets the number of games of a game mode that had a winner.
+     *
+     * @param mode The game mode.
+     * @return The number of games.
+     */
+    public long getDecidedGames(GameMode mode) {
+        return getModeCount(mode, DECIDED);
+    }
+
+    /**
+     * Gets the number of games of a game mode won by forfeit.
+     *
+     * @param mode The game mode.
+     * @return The number of games.
+     */
+    public long getForfeits(GameMode mode) {
+        return getModeCount(mode, FORFEITS);
+    }
+
+    /**
+     * Gets the average number of turns of the games of a game mode that had a winner.
+     *
+     * @param mode The game mode.
+     * @return The average number of turns, or 0 if no game had a winner.
+     */
+    public double getAverageTurns(GameMode mode) {
+        long decided = getModeCount(mode, DECIDED);
+        return decided == 0 ? 0 : (double) getModeCount(mode, DECIDED_TURNS) / decided;
+    }
+
+    /**
+     * Gets how often the first seat won the games of a game mode that had a winner.
+     *
+     * @param mode The game mode.
+     * @return The win rate of the first seat.
+     */
+    public WinRate getFirstSeatWinRate(GameMode mode) {
+        return toWinRate(getModeCount(mode, FIRST_SEAT_WINS), getModeCount(mode, DECIDED));
+    }
+
+    /**
+     * Gets how often each god won the games of a game mode that had a winner, against any god.
+     *
+     * @param mode The game mode.
+     * @return The win rate of each god played, by name.
+     */
+    public Map<String, WinRate> getGodWinRates(GameMode mode) {
+        Map<String, WinRate> winRates = new TreeMap<>();
+        gods.getOrDefault(mode, Map.of()).forEach((god, counts) -> winRates.put(god, toWinRate(counts[GOD_WINS], counts[GOD_GAMES])));
+        return winRates;
+    }
+
+    /**
+     * Gets how often each god beat each other god in the two-seat games of a game mode that had
+     * a winner. A pairing is named after its two gods in alphabetical order, such as
+     * "Artemis vs Demeter", and its win rate is that of the first.
+     *
+     * @param mode The game mode.
+     * @return The win rate of each pairing played, by name.
+     */
+    public Map<String, WinRate> getPairingWinRates(GameMode mode) {
+        Map<String, WinRate> winRates = new TreeMap<>();
+        pairings.getOrDefault(mode, Map.of()).forEach((pairing, counts) ->
+            winRates.put(pairing, toWinRate(counts[PAIRING_WINS], counts[PAIRING_GAMES])));
+        return winRates;
+    }
+
+    /**
+     * Gets how often the power of each god took effect per turn it played in the games of a
+     * game mode that had a winner. Games read from results written without power counts are
+     * left out.
+     *
+     * @param mode The game mode.
+     * @return The average number of times each god's power took effect per turn, by name.
+     */
+    public Map<String, Double> getPowersPerTurn(GameMode mode) {
+        Map<String, Double> powersPerTurn = new TreeMap<>();
+        gods.getOrDefault(mode, Map.of()).forEach((god, counts) ->
+            powersPerTurn.put(god, counts[POWER_TURNS] == 0 ? 0 : (double) counts[POWERS] / counts[POWER_TURNS]));
+        return powersPerTurn;
+    }
+
+    /**
+     * Writes the counts for people to read, one game mode after another.
+     *
+     * @return The summary, over several lines.
+     */
+    public String summarize() {
+        List<String> lines = new ArrayList<>();
+        lines.add(getGames() + " games");
+        for (GameMode mode : modes.keySet()) {
+            lines.add(String.format(Locale.ROOT, "%s: %d games, %d decided (%d by forfeit), %.1f turns on average, first seat wins %s",
+                EngineProtocol.formatMode(mode), getGames(mode), getDecidedGames(mode), getForfeits(mode),
+                getAverageTurns(mode), getFirstSeatWinRate(mode)));
+            Map<String, Double> powersPerTurn = getPowersPerTurn(mode);
+            getGodWinRates(mode).forEach((god, winRate) -> lines.add(String.format(Locale.ROOT,
+                "  %s wins %s, power takes effect %.2f times per turn", god, winRate, powersPerTurn.get(god))));
+            getPairingWinRates(mode).forEach((pairing, winRate) ->
+                lines.add("  " + pairing + ": " + pairing.substring(0, pairing.indexOf(VERSUS)) + " wins " + winRate));
+        }
+        return String.join(System.lineSeparator(), lines);
+    }
+
+    /**
+     * Gets a count of a game mode.
+     *
+     * @param mode The game mode.
+     * @param slot The slot of the count.
+     * @return The count, or 0 if the game mode was not played.
+     */
+    private long getModeCount(GameMode mode, int slot) {
+        long[] counts = modes.get(mode);
+        return counts == null ? 0 : counts[slot];
+    }
+
+    /**
+     * Adds the counts of other games, kept by game mode and name, to counts kept the same way.
+     *
+     * @param counts The counts to add to.
+     * @param other The counts to add.
+     * @param size The number of counts of each name.
+     */
+    private static void mergeByName(Map<GameMode, Map<String, long[]>> counts, Map<GameMode, Map<String, long[]>> other, int size) {
+        other.forEach((mode, names) -> {
+            Map<String, long[]> modeCounts = counts.computeIfAbsent(mode, key -> new TreeMap<>());
+            names.forEach((name, nameCounts) -> add(modeCounts.computeIfAbsent(name, key -> new long[size]), nameCounts));
+        });
+    }
+
+    /**
+     * Adds counts slot by slot.
+     *
+     * @param counts The counts to add to.
+     * @param other The counts to add.
+     */
+    private static void add(long[] counts, long[] other) {
+        for (int slot = 0; slot < counts.length; slot++) {
+            counts[slot] += other[slot];
+        }
+    }
+
+    /**
+     * Makes a win rate of counts.
+     *
+     * @param wins The number of games won.
+     * @param games The number of games played.
+     * @return The win rate.
+     * @throws ArithmeticException If a count is too large for a win rate.
+     */
+    private static WinRate toWinRate(long wins, long games) {
+        return new WinRate(Math.toIntExact(wins), Math.toIntExact(games));
+    }
+}
@@ -0,0 +1,112 @@
+package santorini.tournament;
+
+import santorini.board.Board;
+import santorini.engine.EnginePosition;
+import santorini.engine.EngineProtocol;
+import santorini.engine.GreedyEngine;
+import santorini.engine.SearchLimits;
+import santorini.game.Game;
+import santorini.game.GameState;
+import santorini.game.PositionNotation;
+import santorini.game.TurnDriver;
+import santorini.network.BotPlayer;
+
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * The kinds of computer player a tournament can seat. Each plays a whole turn on the game
+ * of the tournament, on the thread running the game.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public enum PlayerKind {
+
+    // Enum constants
+
+    /**
+     * Picks random target cells, sometimes ending a phase early, as the bots of the match server do.
+     */
+    RANDOM {
+        @Override
+        public boolean playTurn(TurnDriver turnDriver, Random random, SearchLimits limits) {
+            GameState gameState = turnDriver.getGame().getGameState();
+            Board board = gameState.getBoard();
+            int turnNumber = gameState.getTurnNumber();
+            while (gameState.getTurnNumber() == turnNumber && gameState.getWinner() == null) {
+                BitSet targets = turnDriver.getTargets();
+                if (turnDriver.canEndPhase() && (targets.isEmpty() || random.nextInt(4) == 0)) {
+                    turnDriver.endPhase();
+                }
+                else if (!targets.isEmpty()) {
+                    turnDriver.pick(board.getPosition(BotPlayer.pickTarget(targets, random)));
+                }
+                else {
+                    return false;
+                }
+            }
+            return true;
+        }
+    },
+
+    /**
+     * Plays the turn the built-in engine chooses.
+     */
+    GREEDY {
+        @Override
+        public boolean playTurn(TurnDriver turnDriver, Random random, SearchLimits limits) {
+            Game game = turnDriver.getGame();
+            GameState gameState = game.getGameState();
+            int turnNumber = gameState.getTurnNumber();
+
+            // The engine searches a copy made from the notation, so it never replays the game so far
+            EnginePosition position = EnginePosition.of(PositionNotation.write(game), random.nextLong());
+            String turn = new GreedyEngine().choose(position, limits, info -> { }).turn();
+            try {
+                return EngineProtocol.playTurn(turnDriver, turn)
+                    && (gameState.getTurnNumber() != turnNumber || gameState.getWinner() != null);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+    };
+
+    // Methods
+
+    /**
+     * Plays a whole turn of the player to move.
+     *
+     * @param turnDriver The driver of the game, at the start of the player's turn.
+     * @param random The randomness of the game, for players that need any.
+     * @param limits How long players that search may search for.
+     * @return True if the turn was played to its end, false if the player could not finish it and forfeits.
+     */
+    public abstract boolean playTurn(TurnDriver turnDriver, Random random, SearchLimits limits);
+
+    /**
+     * Gets the name of the kind of player, as written on the command line and in results.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Finds a kind of player by name.
+     *
+     * @param name The name, in any case.
+     * @return The kind of player.
+     * @throws IllegalArgumentException If no kind of player has the name.
+     */
+    public static PlayerKind fromName(String name) {
+        for (PlayerKind kind : values()) {
+            if (kind.getName().equalsIgnoreCase(name)) {
+                return kind;
+            }
+        }
+        throw new IllegalArgumentException("Unknown player " + name);
+    }
+}
@@ -0,0 +1,106 @@
+package santorini.tournament;
+
+import santorini.engine.EngineProtocol;
+import santorini.lobby.MatchOutcome;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Where each field of a game lies on the lines of a CSV results file, read from its header
+ * so files written with any number of seats can be read. Files written before power counts
+ * were kept have no power columns, and their games are read with no power counts.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param header The header line the columns were read from.
+ * @param width The number of fields of each line.
+ * @param seats The number of seats of the games of the file.
+ * @param game The column of the index of the game.
+ * @param mode The column of the game mode.
+ * @param seed The column of the seed.
+ * @param player The column of the player of the first seat, the other seats following it.
+ * @param god The column of the god of the first seat, the other seats following it.
+ * @param winnerSeat The column of the seat of the winner.
+ * @param outcome The column of how the game ended.
+ * @param turns The column of the number of turns played.
+ * @param millis The column of the time the game took.
+ * @param power The column of the power count of the first seat, the other seats following it, or -1 if there is none.
+ */
+public record ResultColumns(String header, int width, int seats, int game, int mode, int seed, int player, int god,
+                            int winnerSeat, int outcome, int turns, int millis, int power) {
+
+    // Constants
+
+    /**
+     * The separator of the fields of a line.
+     */
+    private static final String SEPARATOR = ",";
+
+    // Methods
+
+    /**
+     * Reads where the fields lie from the header line of a results file.
+     *
+     * @param header The header line.
+     * @return The columns.
+     * @throws IllegalArgumentException If a column is missing from the header.
+     */
+    public static ResultColumns of(String header) {
+        List<String> names = Arrays.asList(header.split(SEPARATOR));
+        int seats = 0;
+        while (names.contains("player" + (seats + 1))) {
+            seats++;
+        }
+        return new ResultColumns(header, names.size(), seats, find(names, "game"), find(names, "mode"), find(names, "seed"),
+            find(names, "player1"), find(names, "god1"), find(names, "winner_seat"), find(names, "outcome"),
+            find(names, "turns"), find(names, "millis"), names.indexOf("power1"));
+    }
+
+    /**
+     * Reads a game from a line of a results file.
+     *
+     * @param line The line, which must not be the header.
+     * @return The game.
+     * @throws IllegalArgumentException If a field cannot be read.
+     */
+    public TournamentGame read(String line) {
+        String[] fields = line.split(SEPARATOR);
+        if (fields.length != width) {
+            throw new IllegalArgumentException("Wrong number of fields in the result " + line);
+        }
+        List<PlayerKind> players = new ArrayList<>(seats);
+        List<String> gods = new ArrayList<>(seats);
+        List<Integer> powers = new ArrayList<>(power < 0 ? 0 : seats);
+        for (int seat = 0; seat < seats; seat++) {
+            players.add(PlayerKind.fromName(fields[player + seat]));
+            gods.add(fields[god + seat]);
+            if (power >= 0) {
+                powers.add(Integer.parseInt(fields[power + seat]));
+            }
+        }
+        return new TournamentGame(Integer.parseInt(fields[game]), EngineProtocol.parseMode(fields[mode]),
+            Long.parseLong(fields[seed]), players, gods, Integer.parseInt(fields[winnerSeat]),
+            MatchOutcome.valueOf(fields[outcome].toUpperCase(Locale.ROOT)), Integer.parseInt(fields[turns]),
+            powers, Long.parseLong(fields[millis]) * 1_000_000);
+    }
+
+    /**
+     * Finds a column by name.
+     *
+     * @param names The names of the columns.
+     * @param name The name of the column.
+     * @return The column.
+     * @throws IllegalArgumentException If there is no such column.
+     */
+    private static int find(List<String> names, String name) {
+        int column = names.indexOf(name);
+        if (column < 0) {
+            throw new IllegalArgumentException("No " + name + " column in the results header");
+        }
+        return column;
+    }
+}
@@ -0,0 +1,42 @@
+package santorini.tournament;
+
+import java.util.Locale;
+
+/**
+ * The formats the results of a tournament can be written in.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public enum ResultFormat {
+
+    // Enum constants
+
+    /**
+     * One line per game, after a header line.
+     */
+    CSV,
+
+    /**
+     * One document holding the summary and every game.
+     */
+    JSON;
+
+    // Methods
+
+    /**
+     * Finds a format by name.
+     *
+     * @param name The name, in any case.
+     * @return The format.
+     * @throws IllegalArgumentException If no format has the name.
+     */
+    public static ResultFormat fromName(String name) {
+        for (ResultFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown format " + name.toLowerCase(Locale.ROOT));
+    }
+}
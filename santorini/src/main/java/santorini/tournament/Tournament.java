@@ -0,0 +1,183 @@
+package santorini.tournament;
+
+import santorini.engine.SearchLimits;
+import santorini.game.Game;
+import santorini.game.GameFactory;
+import santorini.game.GameMode;
+import santorini.game.GameState;
+import santorini.game.TurnDriver;
+import santorini.game.events.PowerTriggered;
+import santorini.lobby.MatchOutcome;
+import santorini.players.God;
+import santorini.players.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays a tournament of headless games between computer players, as many at once as there
+ * are threads, to balance the gods and check changes to the engine. Each game is a task of a
+ * work-stealing pool, so threads that finish short games take over the games left by threads
+ * held up by long ones. Games share nothing but the logger, which should be turned off.
+ *
+ * Game i is set up from its index alone: its seed is derived from the tournament seed, its
+ * seats are rotated by i, and the game modes and then the god pairings are taken in turn,
+ * so each pairing is played from every seat in every mode and any game can be played again.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class Tournament {
+
+    // Constants
+
+    /**
+     * The odd constant game seeds are spread by, from the golden ratio.
+     */
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+
+    // Attributes
+
+    /**
+     * The settings of the tournament.
+     */
+    private final TournamentConfig config;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param config The settings of the tournament.
+     */
+    public Tournament(TournamentConfig config) {
+        this.config = config;
+    }
+
+    // Methods
+
+    /**
+     * Plays every game of the tournament.
+     *
+     * @return The report of the games, in the order of their index.
+     * @throws InterruptedException If the thread is interrupted while the games are played.
+     * @throws IllegalStateException If a game fails.
+     */
+    public TournamentReport run() throws InterruptedException {
+        List<Callable<TournamentGame>> tasks = new ArrayList<>(config.games());
+        for (int index = 0; index < config.games(); index++) {
+            int gameIndex = index;
+            tasks.add(() -> playGame(gameIndex));
+        }
+
+        ExecutorService pool = Executors.newWorkStealingPool(config.threads());
+        long start = System.nanoTime();
+        try {
+            List<TournamentGame> games = new ArrayList<>(config.games());
+            for (Future<TournamentGame> future : pool.invokeAll(tasks)) {
+                games.add(future.get());
+            }
+            return new TournamentReport(games, System.nanoTime() - start, config.threads());
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A game of the tournament failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays one game of the tournament, on the calling thread.
+     *
+     * @param index The index of the game.
+     * @return The result of the game.
+     */
+    public TournamentGame playGame(int index) {
+        long start = System.nanoTime();
+        int seats = config.players().size();
+        int rotation = index % seats;
+        int round = index / seats;
+        GameMode mode = config.modes().get(round % config.modes().size());
+        long seed = getSeed(index);
+
+        // Rotate the players and the gods of the pairing together, so each god is played from every seat
+        List<PlayerKind> players = new ArrayList<>(seats);
+        List<God> gods = new ArrayList<>(seats);
+        List<String> pairing = config.pairings().isEmpty() ? null
+            : config.pairings().get(round / config.modes().size() % config.pairings().size());
+        for (int seat = 0; seat < seats; seat++) {
+            players.add(config.players().get((seat + rotation) % seats));
+            if (pairing != null) {
+                gods.add(God.parseName(pairing.get((seat + rotation) % seats)));
+            }
+        }
+
+        GameFactory gameFactory = new GameFactory(seed);
+        Game game = pairing == null ? gameFactory.createGame(mode) : gameFactory.createGame(mode, gods);
+        GameState gameState = game.getGameState();
+        List<String> godNames = gameState.getPlayers().stream().map(Player::getGod).map(God::getName).toList();
+
+        // Count the powers taking effect by seat, players being told apart by name
+        List<String> playerNames = gameState.getPlayers().stream().map(Player::getName).toList();
+        int[] powers = new int[seats];
+        game.getEventBus().subscribe(PowerTriggered.class, event -> powers[playerNames.indexOf(event.player())]++);
+
+        TurnDriver turnDriver = new TurnDriver(game);
+        Random random = new Random(seed);
+        SearchLimits limits = SearchLimits.nodes(config.nodes());
+        for (int turns = 0; turns < config.maxTurns(); turns++) {
+            if (gameState.getWinner() != null) {
+                int winnerSeat = gameState.getPlayers().indexOf(gameState.getWinner());
+                return new TournamentGame(index, mode, seed, players, godNames, winnerSeat, MatchOutcome.WON, turns,
+                    toList(powers), System.nanoTime() - start);
+            }
+            int seat = gameState.getCurrentPlayerIndex();
+            if (!players.get(seat).playTurn(turnDriver, random, limits)) {
+                return new TournamentGame(index, mode, seed, players, godNames, (seat + 1) % seats, MatchOutcome.FORFEITED, turns,
+                    toList(powers), System.nanoTime() - start);
+            }
+        }
+        return new TournamentGame(index, mode, seed, players, godNames, -1, MatchOutcome.CANCELLED, config.maxTurns(),
+            toList(powers), System.nanoTime() - start);
+    }
+
+    /**
+     * Gets the seed of a game, spreading the indices so neighbouring games share no pattern.
+     *
+     * @param index The index of the game.
+     * @return The seed.
+     */
+    public long getSeed(int index) {
+        long seed = config.seed() + (index + 1) * SEED_STEP;
+        seed = (seed ^ (seed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        seed = (seed ^ (seed >>> 27)) * 0x94D049BB133111EBL;
+        return seed ^ (seed >>> 31);
+    }
+
+    /**
+     * Copies the counts of a game into a list.
+     *
+     * @param counts The counts, by seat.
+     * @return The counts as a list.
+     */
+    private static List<Integer> toList(int[] counts) {
+        return Arrays.stream(counts).boxed().toList();
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the settings of the tournament.
+     *
+     * @return The settings.
+     */
+    public TournamentConfig getConfig() {
+        return config;
+    }
+}
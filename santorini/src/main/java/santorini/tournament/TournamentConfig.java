@@ -0,0 +1,224 @@
+package santorini.tournament;
+
+import santorini.engine.EngineMatch;
+import santorini.engine.EngineProtocol;
+import santorini.game.GameFactory;
+import santorini.game.GameMode;
+import santorini.players.God;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The settings of a tournament, read from the command line.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param games The number of games to play.
+ * @param players The kind of player in each seat. Seats are rotated from game to game.
+ * @param pairings The god of each seat for each pairing played in turn, or none for gods drawn at random.
+ * @param modes The game modes played in turn.
+ * @param seed The seed every game's seed is derived from.
+ * @param maxTurns The number of turns after which a game is cancelled.
+ * @param threads The number of games played at once.
+ * @param nodes The number of turns searching players may score for each turn.
+ * @param format The format the results are written in.
+ * @param output The file the results are written to, or null to only print the summary.
+ */
+public record TournamentConfig(int games, List<PlayerKind> players, List<List<String>> pairings, List<GameMode> modes,
+                               long seed, int maxTurns, int threads, int nodes, ResultFormat format, Path output) {
+
+    // Constants
+
+    /**
+     * How to run a tournament, printed when the command line cannot be read.
+     */
+    public static final String USAGE = String.join(System.lineSeparator(),
+        "Usage: --tournament [options]",
+        "  --games N            number of games to play (default 100)",
+        "  --players A/B        player of each seat: random or greedy (default greedy/greedy)",
+        "  --gods random|all|A/B[,C/D...]",
+        "                       gods drawn per game, every pairing in turn, or the listed pairings (default random)",
+        "  --modes standard,chaos|all",
+        "                       game modes played in turn (default standard)",
+        "  --seed N             seed of the games and of their chaos (default 1)",
+        "  --max-turns N        turns after which a game is cancelled (default " + EngineMatch.MAXIMUM_TURNS + ")",
+        "  --threads N          games played at once (default one per core)",
+        "  --nodes N            turns the greedy player scores per turn (default 100)",
+        "  --format csv|json    format of the results file (default csv)",
+        "  --output FILE        file the results are written to");
+
+    /**
+     * The number of games played if none is given.
+     */
+    public static final int DEFAULT_GAMES = 100;
+
+    /**
+     * The number of turns searching players score per turn if none is given.
+     */
+    public static final int DEFAULT_NODES = 100;
+
+    /**
+     * The separator of the seats of an option.
+     */
+    private static final String SEAT_SEPARATOR = "/";
+
+    /**
+     * The separator of the items of a list option.
+     */
+    private static final String ITEM_SEPARATOR = ",";
+
+    /**
+     * The value of an option naming every choice.
+     */
+    private static final String ALL = "all";
+
+    /**
+     * The value of the gods option drawing the gods of each game at random.
+     */
+    private static final String RANDOM_GODS = "random";
+
+    /**
+     * Constructor, copying the lists so later changes to them are not seen.
+     *
+     * @throws IllegalArgumentException If a setting is out of range or a pairing does not seat every player.
+     */
+    public TournamentConfig {
+        if (games < 1 || maxTurns < 1 || threads < 1 || nodes < 1) {
+            throw new IllegalArgumentException("Games, turns, threads and nodes must be positive");
+        }
+        if (players.isEmpty() || modes.isEmpty()) {
+            throw new IllegalArgumentException("A tournament needs players and game modes");
+        }
+        for (GameMode mode : modes) {
+            if (mode.getNumberOfPlayers() != players.size()) {
+                throw new IllegalArgumentException(EngineProtocol.formatMode(mode) + " is played by " + mode.getNumberOfPlayers() + " players");
+            }
+        }
+        for (List<String> pairing : pairings) {
+            if (pairing.size() != players.size()) {
+                throw new IllegalArgumentException("The pairing " + String.join(SEAT_SEPARATOR, pairing) + " does not seat every player");
+            }
+        }
+        players = List.copyOf(players);
+        pairings = pairings.stream().map(List::copyOf).toList();
+        modes = List.copyOf(modes);
+    }
+
+    // Methods
+
+    /**
+     * Reads the settings of a tournament from command-line options, using the defaults for those not given.
+     *
+     * @param args The options.
+     * @return The settings.
+     * @throws IllegalArgumentException If an option is unknown, has no value or has a value that cannot be read.
+     */
+    public static TournamentConfig parse(List<String> args) {
+        int games = DEFAULT_GAMES;
+        List<PlayerKind> players = List.of(PlayerKind.GREEDY, PlayerKind.GREEDY);
+        List<List<String>> pairings = List.of();
+        List<GameMode> modes = List.of(GameMode.STANDARD);
+        long seed = 1;
+        int maxTurns = EngineMatch.MAXIMUM_TURNS;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int nodes = DEFAULT_NODES;
+        ResultFormat format = ResultFormat.CSV;
+        Path output = null;
+
+        for (int i = 0; i < args.size(); i += 2) {
+            String option = args.get(i);
+            if (i + 1 >= args.size()) {
+                throw new IllegalArgumentException("No value for " + option);
+            }
+            String value = args.get(i + 1);
+            switch (option) {
+                case "--games" -> games = parseInt(option, value);
+                case "--players" -> players = Arrays.stream(value.split(SEAT_SEPARATOR)).map(PlayerKind::fromName).toList();
+                case "--gods" -> pairings = parsePairings(value);
+                case "--modes" -> modes = value.equals(ALL) ? List.of(GameMode.values())
+                    : Arrays.stream(value.split(ITEM_SEPARATOR)).map(EngineProtocol::parseMode).toList();
+                case "--seed" -> seed = parseLong(option, value);
+                case "--max-turns" -> maxTurns = parseInt(option, value);
+                case "--threads" -> threads = parseInt(option, value);
+                case "--nodes" -> nodes = parseInt(option, value);
+                case "--format" -> format = ResultFormat.fromName(value);
+                case "--output" -> output = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+        return new TournamentConfig(games, players, pairings, modes, seed, maxTurns, threads, nodes, format, output);
+    }
+
+    /**
+     * Reads the gods option.
+     *
+     * @param value The value of the option.
+     * @return The pairings, or none for gods drawn at random.
+     * @throws IllegalArgumentException If a god is unknown.
+     */
+    private static List<List<String>> parsePairings(String value) {
+        if (value.equals(RANDOM_GODS)) {
+            return List.of();
+        }
+
+        // Every pairing of two different gods, each played from both seats as the seats rotate
+        if (value.equals(ALL)) {
+            List<String> names = GameFactory.getGodNames();
+            List<List<String>> pairings = new ArrayList<>();
+            for (int first = 0; first < names.size(); first++) {
+                for (int second = first + 1; second < names.size(); second++) {
+                    pairings.add(List.of(names.get(first), names.get(second)));
+                }
+            }
+            return pairings;
+        }
+
+        List<List<String>> pairings = new ArrayList<>();
+        for (String pairing : value.split(ITEM_SEPARATOR)) {
+            List<String> gods = Arrays.asList(pairing.split(SEAT_SEPARATOR));
+            for (String god : gods) {
+                if (God.parseName(god) == null) {
+                    throw new IllegalArgumentException("Unknown god " + god);
+                }
+            }
+            pairings.add(gods);
+        }
+        return pairings;
+    }
+
+    /**
+     * Reads a whole number option.
+     *
+     * @param option The name of the option.
+     * @param value The value of the option.
+     * @return The number.
+     * @throws IllegalArgumentException If the value is not a whole number.
+     */
+    private static int parseInt(String option, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The value of " + option + " must be a whole number, not " + value);
+        }
+    }
+
+    /**
+     * Reads a long whole number option.
+     *
+     * @param option The name of the option.
+     * @param value The value of the option.
+     * @return The number.
+     * @throws IllegalArgumentException If the value is not a whole number.
+     */
+    private static long parseLong(String option, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The value of " + option + " must be a whole number, not " + value);
+        }
+    }
+}
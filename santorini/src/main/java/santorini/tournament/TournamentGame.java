@@ -0,0 +1,48 @@
+package santorini.tournament;
+
+import santorini.game.GameMode;
+import santorini.lobby.MatchOutcome;
+
+import java.util.List;
+
+/**
+ * The result of one game of a tournament. A game can be played again from its mode, seed,
+ * players and gods.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param index The index of the game in the tournament.
+ * @param mode The game mode of the game.
+ * @param seed The seed the game was created from, which also drives its chaos and its random players.
+ * @param players The kind of player in each seat.
+ * @param gods The name of the god of each seat.
+ * @param winnerSeat The seat of the winner, or -1 if the game was cancelled.
+ * @param outcome How the game ended.
+ * @param turns The number of turns played.
+ * @param powers The number of times the power of each seat's god took effect.
+ * @param nanos The time the game took to play, in nanoseconds.
+ */
+public record TournamentGame(int index, GameMode mode, long seed, List<PlayerKind> players, List<String> gods,
+                             int winnerSeat, MatchOutcome outcome, int turns, List<Integer> powers, long nanos) {
+
+    /**
+     * Constructor, copying the seats so later changes to them are not seen.
+     */
+    public TournamentGame {
+        players = List.copyOf(players);
+        gods = List.copyOf(gods);
+        powers = List.copyOf(powers);
+    }
+
+    // Methods
+
+    /**
+     * Checks whether the game had a winner, by play or by forfeit.
+     *
+     * @return True if a seat won the game, false if it was cancelled.
+     */
+    public boolean isDecided() {
+        return winnerSeat >= 0;
+    }
+}
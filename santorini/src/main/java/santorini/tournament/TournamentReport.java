@@ -0,0 +1,300 @@
+package santorini.tournament;
+
+import santorini.engine.EngineProtocol;
+import santorini.game.GameMode;
+import santorini.lobby.MatchOutcome;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The results of a tournament: how fast its games were played, and how often each side won,
+ * with the interval its true win rate lies in. Win rates are taken over the decided games,
+ * cancelled games counting for no one. For each game mode the report gives the win rate of
+ * the first seat, of each god against each other god, and of each kind of player against
+ * each other kind.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class TournamentReport {
+
+    // Constants
+
+    /**
+     * The separator of the two sides of a pairing.
+     */
+    private static final String VERSUS = " vs ";
+
+    // Attributes
+
+    /**
+     * The games, in the order of their index.
+     */
+    private final List<TournamentGame> games;
+
+    /**
+     * The time the whole tournament took, in nanoseconds.
+     */
+    private final long elapsedNanos;
+
+    /**
+     * The number of games played at once.
+     */
+    private final int threads;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param games The games, in the order of their index.
+     * @param elapsedNanos The time the whole tournament took, in nanoseconds.
+     * @param threads The number of games played at once.
+     */
+    public TournamentReport(List<TournamentGame> games, long elapsedNanos, int threads) {
+        this.games = List.copyOf(games);
+        this.elapsedNanos = elapsedNanos;
+        this.threads = threads;
+    }
+
+    // Methods
+
+    /**
+     * Gets the number of games played per second of the whole tournament.
+     *
+     * @return The throughput of the tournament.
+     */
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games.size() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Gets the number of games that ended in a way.
+     *
+     * @param outcome The way the games ended.
+     * @return The number of games.
+     */
+    public int getCount(MatchOutcome outcome) {
+        return (int) games.stream().filter(game -> game.outcome() == outcome).count();
+    }
+
+    /**
+     * Gets how often the first seat won, by game mode.
+     *
+     * @return The win rate of the first seat of each game mode played.
+     */
+    public Map<GameMode, WinRate> getFirstSeatWinRates() {
+        Map<GameMode, WinRate> winRates = new EnumMap<>(GameMode.class);
+        for (TournamentGame game : games) {
+            if (game.isDecided()) {
+                winRates.merge(game.mode(), new WinRate(0, 0).add(game.winnerSeat() == 0), WinRate::combine);
+            }
+        }
+        return winRates;
+    }
+
+    /**
+     * Gets how often each god beat each other god, by game mode. A pairing is named after its
+     * two gods in alphabetical order, such as "Artemis vs Demeter", and its win rate is that of
+     * the first. Games between two of the same god are left out.
+     *
+     * @return The win rate of each pairing of gods of each game mode played.
+     */
+    public Map<GameMode, Map<String, WinRate>> getGodWinRates() {
+        return getPairingWinRates(true);
+    }
+
+    /**
+     * Gets how often each kind of player beat each other kind, by game mode, named and counted
+     * as the gods are. Games between two of the same kind are left out.
+     *
+     * @return The win rate of each pairing of kinds of player of each game mode played.
+     */
+    public Map<GameMode, Map<String, WinRate>> getPlayerWinRates() {
+        return getPairingWinRates(false);
+    }
+
+    /**
+     * Writes a summary of the tournament for people to read.
+     *
+     * @return The summary, over several lines.
+     */
+    public String summarize() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "%d games in %.2f s on %d threads: %.1f games/s",
+            games.size(), elapsedNanos / 1e9, threads, getGamesPerSecond()));
+        lines.add(String.format(Locale.ROOT, "%d won, %d forfeited, %d cancelled",
+            getCount(MatchOutcome.WON), getCount(MatchOutcome.FORFEITED), getCount(MatchOutcome.CANCELLED)));
+
+        Map<GameMode, Map<String, WinRate>> godWinRates = getGodWinRates();
+        Map<GameMode, Map<String, WinRate>> playerWinRates = getPlayerWinRates();
+        for (Map.Entry<GameMode, WinRate> entry : getFirstSeatWinRates().entrySet()) {
+            GameMode mode = entry.getKey();
+            lines.add(EngineProtocol.formatMode(mode) + ": first seat wins " + entry.getValue());
+            godWinRates.getOrDefault(mode, Map.of()).forEach((pairing, winRate) ->
+                lines.add("  " + pairing + ": " + pairing.substring(0, pairing.indexOf(VERSUS)) + " wins " + winRate));
+            playerWinRates.getOrDefault(mode, Map.of()).forEach((pairing, winRate) ->
+                lines.add("  " + pairing + ": " + pairing.substring(0, pairing.indexOf(VERSUS)) + " wins " + winRate));
+        }
+        return String.join(System.lineSeparator(), lines);
+    }
+
+    /**
+     * Writes the result of every game, with the summary too when written as JSON.
+     *
+     * @param format The format to write in.
+     * @param out Where to write.
+     * @throws IOException If the results cannot be written.
+     */
+    public void write(ResultFormat format, Appendable out) throws IOException {
+        switch (format) {
+            case CSV -> writeCsv(out);
+            case JSON -> writeJson(out);
+        }
+    }
+
+    /**
+     * Writes one line per game after a header line.
+     *
+     * @param out Where to write.
+     * @throws IOException If the results cannot be written.
+     */
+    private void writeCsv(Appendable out) throws IOException {
+        int seats = games.isEmpty() ? 0 : games.get(0).players().size();
+        StringBuilder header = new StringBuilder("game,mode,seed");
+        for (int seat = 1; seat <= seats; seat++) {
+            header.append(",player").append(seat);
+        }
+        for (int seat = 1; seat <= seats; seat++) {
+            header.append(",god").append(seat);
+        }
+        header.append(",winner_seat,outcome,turns,millis");
+        for (int seat = 1; seat <= seats; seat++) {
+            header.append(",power").append(seat);
+        }
+        out.append(header).append('\n');
+
+        for (TournamentGame game : games) {
+            StringBuilder line = new StringBuilder();
+            line.append(game.index()).append(',').append(EngineProtocol.formatMode(game.mode())).append(',').append(game.seed());
+            for (PlayerKind player : game.players()) {
+                line.append(',').append(player.getName());
+            }
+            for (String god : game.gods()) {
+                line.append(',').append(god);
+            }
+            line.append(',').append(game.winnerSeat()).append(',').append(game.outcome().name().toLowerCase(Locale.ROOT))
+                .append(',').append(game.turns()).append(',').append(game.nanos() / 1_000_000);
+            for (int powers : game.powers()) {
+                line.append(',').append(powers);
+            }
+            out.append(line).append('\n');
+        }
+    }
+
+    /**
+     * Writes one document holding the throughput, the win rates and every game. Every name
+     * written is a word, so none needs escaping.
+     *
+     * @param out Where to write.
+     * @throws IOException If the results cannot be written.
+     */
+    private void writeJson(Appendable out) throws IOException {
+        StringBuilder builder = new StringBuilder("{");
+        builder.append(String.format(Locale.ROOT, "\"games\":%d,\"threads\":%d,\"seconds\":%.3f,\"gamesPerSecond\":%.3f,",
+            games.size(), threads, elapsedNanos / 1e9, getGamesPerSecond()));
+
+        builder.append("\"winRates\":[");
+        List<String> winRates = new ArrayList<>();
+        getFirstSeatWinRates().forEach((mode, winRate) -> winRates.add(formatWinRate(mode, "first seat", "seat 1", winRate)));
+        getGodWinRates().forEach((mode, pairings) -> pairings.forEach((pairing, winRate) ->
+            winRates.add(formatWinRate(mode, pairing, pairing.substring(0, pairing.indexOf(VERSUS)), winRate))));
+        getPlayerWinRates().forEach((mode, pairings) -> pairings.forEach((pairing, winRate) ->
+            winRates.add(formatWinRate(mode, pairing, pairing.substring(0, pairing.indexOf(VERSUS)), winRate))));
+        builder.append(String.join(",", winRates)).append("],");
+
+        builder.append("\"results\":[");
+        for (int i = 0; i < games.size(); i++) {
+            TournamentGame game = games.get(i);
+            builder.append(i == 0 ? "" : ",").append("{\"game\":").append(game.index())
+                .append(",\"mode\":\"").append(EngineProtocol.formatMode(game.mode()))
+                .append("\",\"seed\":").append(game.seed())
+                .append(",\"players\":[").append(String.join(",", game.players().stream().map(player -> "\"" + player.getName() + "\"").toList()))
+                .append("],\"gods\":[").append(String.join(",", game.gods().stream().map(god -> "\"" + god + "\"").toList()))
+                .append("],\"winnerSeat\":").append(game.winnerSeat())
+                .append(",\"outcome\":\"").append(game.outcome().name().toLowerCase(Locale.ROOT))
+                .append("\",\"turns\":").append(game.turns())
+                .append(",\"millis\":").append(game.nanos() / 1_000_000)
+                .append(",\"powers\":[").append(String.join(",", game.powers().stream().map(String::valueOf).toList())).append("]}");
+        }
+        builder.append("]}\n");
+        out.append(builder);
+    }
+
+    /**
+     * Writes a win rate as a JSON object.
+     *
+     * @param mode The game mode the win rate is of.
+     * @param pairing The sides the win rate is between.
+     * @param side The side the win rate is of.
+     * @param winRate The win rate.
+     * @return The JSON object.
+     */
+    private static String formatWinRate(GameMode mode, String pairing, String side, WinRate winRate) {
+        return String.format(Locale.ROOT,
+            "{\"mode\":\"%s\",\"pairing\":\"%s\",\"side\":\"%s\",\"wins\":%d,\"games\":%d,\"rate\":%.4f,\"lower\":%.4f,\"upper\":%.4f}",
+            EngineProtocol.formatMode(mode), pairing, side, winRate.wins(), winRate.games(), winRate.rate(), winRate.lower(), winRate.upper());
+    }
+
+    /**
+     * Counts how often each side of two-sided games beat the other, by game mode.
+     *
+     * @param gods True to tell the sides apart by god, false to tell them apart by kind of player.
+     * @return The win rate of the alphabetically first side of each pairing of each game mode played.
+     */
+    private Map<GameMode, Map<String, WinRate>> getPairingWinRates(boolean gods) {
+        Map<GameMode, Map<String, WinRate>> winRates = new EnumMap<>(GameMode.class);
+        for (TournamentGame game : games) {
+            if (!game.isDecided() || game.players().size() != 2) {
+                continue;
+            }
+            List<String> sides = gods ? game.gods() : game.players().stream().map(PlayerKind::getName).toList();
+            if (sides.get(0).equals(sides.get(1))) {
+                continue;
+            }
+            List<String> sorted = new ArrayList<>(sides);
+            Collections.sort(sorted);
+            boolean firstWon = sides.get(game.winnerSeat()).equals(sorted.get(0));
+            winRates.computeIfAbsent(game.mode(), mode -> new TreeMap<>())
+                .merge(sorted.get(0) + VERSUS + sorted.get(1), new WinRate(0, 0).add(firstWon), WinRate::combine);
+        }
+        return winRates;
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the games of the tournament.
+     *
+     * @return The games, in the order of their index.
+     */
+    public List<TournamentGame> getGames() {
+        return games;
+    }
+
+    /**
+     * Gets the time the whole tournament took.
+     *
+     * @return The time, in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
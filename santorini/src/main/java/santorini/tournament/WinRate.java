@@ -0,0 +1,102 @@
+package santorini.tournament;
+
+import java.util.Locale;
+
+/**
+ * The number of games a side won out of the games it played, with the 95% Wilson score
+ * interval of its true win rate. The Wilson interval stays within 0 and 1 and is sound for
+ * the small samples a single pairing often has.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param wins The number of games won.
+ * @param games The number of games played.
+ */
+public record WinRate(int wins, int games) {
+
+    // Constants
+
+    /**
+     * The standard score of a two-sided 95% interval.
+     */
+    private static final double Z = 1.959964;
+
+    // Methods
+
+    /**
+     * Gets the share of the games won.
+     *
+     * @return The win rate, or 0 if no game was played.
+     */
+    public double rate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    /**
+     * Gets the lower bound of the interval.
+     *
+     * @return The lower bound, or 0 if no game was played.
+     */
+    public double lower() {
+        return games == 0 ? 0 : center() - halfWidth();
+    }
+
+    /**
+     * Gets the upper bound of the interval.
+     *
+     * @return The upper bound, or 1 if no game was played.
+     */
+    public double upper() {
+        return games == 0 ? 1 : center() + halfWidth();
+    }
+
+    /**
+     * Adds a game to the count.
+     *
+     * @param won Whether the side won the game.
+     * @return The win rate including the game.
+     */
+    public WinRate add(boolean won) {
+        return new WinRate(won ? wins + 1 : wins, games + 1);
+    }
+
+    /**
+     * Adds the games of another count to this one.
+     *
+     * @param other The other count.
+     * @return The win rate over the games of both.
+     */
+    public WinRate combine(WinRate other) {
+        return new WinRate(wins + other.wins, games + other.games);
+    }
+
+    /**
+     * Writes the win rate as a percentage with its interval.
+     *
+     * @return The written win rate, such as "54.0% [49.1%, 58.8%] of 400".
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%.1f%% [%.1f%%, %.1f%%] of %d", rate() * 100, lower() * 100, upper() * 100, games);
+    }
+
+    /**
+     * Gets the center of the interval, which is pulled from the win rate towards one half.
+     *
+     * @return The center.
+     */
+    private double center() {
+        return (rate() + Z * Z / (2.0 * games)) / (1 + Z * Z / games);
+    }
+
+    /**
+     * Gets half the width of the interval.
+     *
+     * @return The half width.
+     */
+    private double halfWidth() {
+        double rate = rate();
+        return Z * Math.sqrt(rate * (1 - rate) / games + Z * Z / (4.0 * games * games)) / (1 + Z * Z / games);
+    }
+}
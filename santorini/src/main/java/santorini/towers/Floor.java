@@ -1,11 +1,7 @@
 package santorini.towers;
 
-import santorini.board.Board;
 import santorini.game.GameMode;
 
-import javax.swing.*;
-import java.awt.*;
-
 /**
  * Represents a floor in a tower, which may be climbed or used as part of gameplay.
  * Each floor has a specific type and corresponding level, image, and climbability.
@@ -15,6 +11,13 @@ import java.awt.*;
  */
 public class Floor {
 
+    // Constants
+
+    /**
+     * The space in pixels left between a floor image and the edge of its cell.
+     */
+    private static final int IMAGE_MARGIN = 5;
+
     // Attributes
 
     /**
@@ -63,19 +66,13 @@ public class Floor {
     }
 
     /**
-     * Renders the floor's image as a scaled ImageIcon for display on the board.
-     * The scaling depends on the standard board dimensions.
+     * Calculates the edge length of floor images so that they fit within a cell of a size,
+     * leaving a margin around the image.
      *
-     * @return The rendered ImageIcon of the floor.
+     * @param cellSize The edge length of the cell in pixels.
+     * @return The edge length of the image in pixels.
      */
-    public ImageIcon draw(Board board) {
-        int horizontalLength = (620 - (board.getWidth() - 1) * 5) / board.getWidth() - 10;
-        int verticalLength = (620 - (board.getHeight() - 1) * 5) / board.getHeight() - 10;
-        int size = Math.min(horizontalLength, verticalLength);
-        Image image = new ImageIcon(getClass().getResource(floorType.getImagePath()))
-                .getImage()
-                .getScaledInstance(size, size, Image.SCALE_SMOOTH);
-        ImageIcon icon = new ImageIcon(image);
-        return icon;
+    public static int getImageSize(int cellSize) {
+        return Math.max(1, cellSize - 2 * IMAGE_MARGIN);
     }
 }
\ No newline at end of file
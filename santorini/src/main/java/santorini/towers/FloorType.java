@@ -92,4 +92,19 @@ public enum FloorType {
         if (this == LEVEL_THREE) return DOME;
         return null;
     }
+
+    /**
+     * Finds the floor type of a level.
+     *
+     * @param level The level of the floor.
+     * @return The FloorType of the level, or null if no floor has the level.
+     */
+    public static FloorType fromLevel(int level) {
+        for (FloorType floorType : values()) {
+            if (floorType.level == level) {
+                return floorType;
+            }
+        }
+        return null;
+    }
 }
@@ -4,8 +4,6 @@ import santorini.board.Board;
 import santorini.game.GameMode;
 import santorini.game.Position;
 
-import javax.swing.*;
-import java.awt.*;
 import java.util.List;
 import java.util.Stack;
 
@@ -25,6 +23,11 @@ public class Tower {
      */
     private static final int MAXIMUM_HEIGHT = 4;
 
+    /**
+     * The resource path of the image drawn in place of a fogged tower.
+     */
+    public static final String FOG_IMAGE_PATH = "/floorfog.png";
+
     // Attributes
 
     /**
@@ -154,23 +157,17 @@ public class Tower {
     }
 
     /**
-     * Renders the tower by drawing its topmost floor.
+     * Gets the resource path of the image the tower is drawn with, which is the fog
+     * if the tower is fogged and unoccupied, or its topmost floor otherwise.
      *
-     * @return The ImageIcon representing the top floor of the tower.
+     * @param board The board the tower is on.
+     * @param position The position of the tower.
+     * @return The resource path of the image.
      */
-    public ImageIcon draw(Board board, Position position) {
+    public String getImagePath(Board board, Position position) {
         if (fogged && !board.isOccupied(position)) {
-            int horizontalLength = (620 - (board.getWidth() - 1) * 5) / board.getWidth() - 10;
-            int verticalLength = (620 - (board.getHeight() - 1) * 5) / board.getHeight() - 10;
-            int size = Math.min(horizontalLength, verticalLength);
-            Image image = new ImageIcon(getClass().getResource("/floorfog.png"))
-                    .getImage()
-                    .getScaledInstance(size, size, Image.SCALE_SMOOTH);
-            ImageIcon icon = new ImageIcon(image);
-            return icon;
-        }
-        else {
-            return floors.peek().draw(board);
+            return FOG_IMAGE_PATH;
         }
+        return floors.peek().getFloorType().getImagePath();
     }
 }
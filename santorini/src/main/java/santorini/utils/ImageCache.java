@@ -0,0 +1,263 @@
+package santorini.utils;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The ImageCache is a shared cache of the game's image resources.
+ * Each resource is decoded once, and every size it is drawn at is scaled once and
+ * kept as a BufferedImage, so redrawing the game never decodes or rescales an image.
+ * Variants of an image for drawing at any pixel size are scaled on a background thread,
+ * and only the few most recently used sizes of each image are kept, so the board can be
+ * resized without scaling images while painting or keeping every intermediate size.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class ImageCache {
+
+    // Constants
+
+    /**
+     * The number of scaled variants of each image kept for drawing at any size.
+     */
+    private static final int MAXIMUM_VARIANTS = 4;
+
+    // Attributes
+
+    /**
+     * The singleton instance of the ImageCache.
+     */
+    private static ImageCache instance;
+
+    /**
+     * The decoded images at their original size, keyed by resource path.
+     */
+    private final Map<String, BufferedImage> originals;
+
+    /**
+     * The scaled icons drawn at fixed sizes, such as god portraits.
+     */
+    private final Map<Key, ImageIcon> icons;
+
+    /**
+     * The scaled variants of each image, keyed by resource path and then by edge length,
+     * in order of least recent use.
+     */
+    private final Map<String, LinkedHashMap<Integer, BufferedImage>> variants;
+
+    /**
+     * The edge length of the variant of each image most recently requested but not yet created.
+     */
+    private final Map<String, Integer> requestedVariants;
+
+    /**
+     * The background thread scaling requested variants.
+     */
+    private final ExecutorService scaler;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     */
+    private ImageCache() {
+        originals = new HashMap<>();
+        icons = new HashMap<>();
+        variants = new HashMap<>();
+        requestedVariants = new HashMap<>();
+        scaler = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "image-scaler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the singleton instance of the ImageCache.
+     * If it does not exist yet, it is created.
+     *
+     * @return The single instance of the ImageCache.
+     */
+    public static synchronized ImageCache getInstance() {
+        if (instance == null) {
+            instance = new ImageCache();
+        }
+        return instance;
+    }
+
+    // Methods
+
+    /**
+     * Gets an image resource at its original size.
+     *
+     * @param resource The path of the image resource.
+     * @return The icon of the image.
+     */
+    public synchronized ImageIcon getIcon(String resource) {
+        return icons.computeIfAbsent(new Key(resource, 0, 0), key -> new ImageIcon(getOriginal(resource)));
+    }
+
+    /**
+     * Gets an image resource scaled to a fixed size.
+     *
+     * @param resource The path of the image resource.
+     * @param width The width to scale the image to.
+     * @param height The height to scale the image to.
+     * @return The icon of the scaled image.
+     */
+    public synchronized ImageIcon getIcon(String resource, int width, int height) {
+        return icons.computeIfAbsent(new Key(resource, width, height),
+            key -> new ImageIcon(scale(getOriginal(resource), width, height)));
+    }
+
+    /**
+     * Gets a square variant of an image resource without waiting for it to be scaled.
+     * If the variant has not been created yet, it is scaled on a background thread and
+     * the callback is run on the event dispatch thread once it is ready. Until then, the
+     * variant closest in size is returned so that the caller can stretch it.
+     *
+     * @param resource The path of the image resource.
+     * @param size The width and height of the variant in pixels.
+     * @param onReady The callback to run once a missing variant is ready.
+     * @return The variant, the closest variant that is ready, or null if the image has not been decoded yet.
+     */
+    public synchronized BufferedImage getVariant(String resource, int size, Runnable onReady) {
+        LinkedHashMap<Integer, BufferedImage> resourceVariants =
+            variants.computeIfAbsent(resource, path -> new LinkedHashMap<>(MAXIMUM_VARIANTS * 2, 0.75f, true));
+        BufferedImage variant = resourceVariants.get(size);
+        if (variant != null) {
+            return variant;
+        }
+
+        // Only the latest requested size of each image is scaled, so sizes passed while resizing are skipped
+        Integer requested = requestedVariants.put(resource, size);
+        if (requested == null || requested != size) {
+            scaler.execute(() -> createVariant(resource, size, onReady));
+        }
+
+        BufferedImage closest = originals.get(resource);
+        for (Map.Entry<Integer, BufferedImage> entry : resourceVariants.entrySet()) {
+            if (closest == null || Math.abs(entry.getKey() - size) < Math.abs(closest.getWidth() - size)) {
+                closest = entry.getValue();
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Removes every scaled icon and variant from the cache, keeping the decoded originals.
+     */
+    public synchronized void clearScaled() {
+        icons.clear();
+        variants.clear();
+    }
+
+    /**
+     * Runs on the background thread, scaling a requested variant unless a different size
+     * has been requested for the image since.
+     *
+     * @param resource The path of the image resource.
+     * @param size The width and height of the variant in pixels.
+     * @param onReady The callback to run once the variant is ready.
+     */
+    private void createVariant(String resource, int size, Runnable onReady) {
+        BufferedImage original;
+        synchronized (this) {
+            Integer requested = requestedVariants.get(resource);
+            if (requested == null || requested != size) {
+                return;
+            }
+            original = getOriginal(resource);
+        }
+
+        BufferedImage scaled = scale(original, size, size);
+
+        synchronized (this) {
+            LinkedHashMap<Integer, BufferedImage> resourceVariants =
+                variants.computeIfAbsent(resource, path -> new LinkedHashMap<>(MAXIMUM_VARIANTS * 2, 0.75f, true));
+            resourceVariants.put(size, scaled);
+            while (resourceVariants.size() > MAXIMUM_VARIANTS) {
+                resourceVariants.remove(resourceVariants.keySet().iterator().next());
+            }
+            requestedVariants.remove(resource, size);
+        }
+        SwingUtilities.invokeLater(onReady);
+    }
+
+    /**
+     * Gets the decoded image of a resource, decoding it the first time it is requested.
+     *
+     * @param resource The path of the image resource.
+     * @return The decoded image.
+     */
+    private BufferedImage getOriginal(String resource) {
+        return originals.computeIfAbsent(resource, path -> {
+            URL url = getClass().getResource(path);
+            if (url == null) {
+                throw new IllegalArgumentException("Missing image resource: " + path);
+            }
+            try {
+                return ImageIO.read(url);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Scales an image to a size. Large reductions are done in halving steps so that
+     * the result stays smooth without the cost of area-averaging the whole image.
+     *
+     * @param image The image to scale.
+     * @param width The width to scale to.
+     * @param height The height to scale to.
+     * @return The scaled image.
+     */
+    private static BufferedImage scale(BufferedImage image, int width, int height) {
+        width = Math.max(1, width);
+        height = Math.max(1, height);
+
+        BufferedImage current = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            if (currentWidth < width * 2 && currentHeight < height * 2) {
+                currentWidth = width;
+                currentHeight = height;
+            }
+
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            graphics.dispose();
+            current = next;
+        } while (currentWidth != width || currentHeight != height);
+
+        return current;
+    }
+
+    /**
+     * Identifies a resource scaled to a size.
+     *
+     * @param resource The path of the image resource.
+     * @param width The scaled width, or 0 for the original size.
+     * @param height The scaled height, or 0 for the original size.
+     */
+    private record Key(String resource, int width, int height) {}
+}
@@ -0,0 +1,325 @@
+package santorini.utils;
+
+import santorini.game.Position;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A log sink that exports every event as one compact JSON object per line.
+ * Events are queued by the logging thread and written in batches by a background
+ * thread, so logging never waits on the disk. The export rolls over to a new file
+ * once the current one reaches its maximum size or age.
+ * If the queue is full, events are dropped and counted rather than blocking the game.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class JsonlEventSink implements LogSink, Closeable {
+
+    // Constants
+
+    /**
+     * The number of events that can be waiting to be written.
+     */
+    private static final int QUEUE_CAPACITY = 8192;
+
+    /**
+     * The largest number of events written in a single batch.
+     */
+    private static final int BATCH_SIZE = 512;
+
+    /**
+     * How long the writer waits for new events before checking for rotation, in milliseconds.
+     */
+    private static final long POLL_INTERVAL = 500;
+
+    // Attributes
+
+    /**
+     * The directory the export files are written to.
+     */
+    private final Path directory;
+
+    /**
+     * The prefix of every export file name.
+     */
+    private final String baseName;
+
+    /**
+     * The size in bytes after which a new export file is started.
+     */
+    private final long maximumFileSize;
+
+    /**
+     * The age in milliseconds after which a new export file is started.
+     */
+    private final long maximumFileAge;
+
+    /**
+     * The events waiting to be written.
+     */
+    private final BlockingQueue<LogEvent> queue;
+
+    /**
+     * The number of events dropped because the queue was full.
+     */
+    private final AtomicLong droppedEvents;
+
+    /**
+     * The background thread writing the events.
+     */
+    private final Thread writerThread;
+
+    /**
+     * Whether the sink has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * The writer of the current export file, or null if no file is open.
+     */
+    private BufferedWriter writer;
+
+    /**
+     * The number of characters written to the current export file.
+     */
+    private long currentFileSize;
+
+    /**
+     * The time the current export file was opened, in milliseconds since the epoch.
+     */
+    private long currentFileOpened;
+
+    /**
+     * The number of export files opened so far, used to keep file names unique.
+     */
+    private int fileSequence;
+
+    // Constructor
+
+    /**
+     * Constructor. Starts the background writer thread.
+     *
+     * @param directory The directory to write the export files to.
+     * @param baseName The prefix of every export file name.
+     * @param maximumFileSize The size in bytes after which a new export file is started.
+     * @param maximumFileAge The age in milliseconds after which a new export file is started.
+     * @throws IOException if the directory cannot be created.
+     */
+    public JsonlEventSink(Path directory, String baseName, long maximumFileSize, long maximumFileAge) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.baseName = baseName;
+        this.maximumFileSize = maximumFileSize;
+        this.maximumFileAge = maximumFileAge;
+        this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        this.droppedEvents = new AtomicLong();
+        this.closed = false;
+
+        this.writerThread = new Thread(this::writeEvents, "event-export");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    // Methods
+
+    /**
+     * Queues an event to be written, dropping it if the queue is full.
+     *
+     * @param event The recorded event.
+     */
+    @Override
+    public void accept(LogEvent event) {
+        if (closed || !queue.offer(event)) {
+            droppedEvents.incrementAndGet();
+        }
+    }
+
+    /**
+     * Gets the number of events dropped because the queue was full or the sink was closed.
+     *
+     * @return The number of dropped events.
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Stops accepting events, writes every queued event and closes the current export file.
+     */
+    @Override
+    public void close() {
+        // The writer thread is not interrupted, as an interrupt would close its file channel
+        closed = true;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Encodes an event as a single line of JSON, without the terminating newline.
+     * Fields that are not set on the event are left out, as is the value of event types
+     * that carry none. Counts are always written, so a count of 0 is not taken for no value.
+     *
+     * @param event The event to encode.
+     * @param builder The builder to append the JSON to.
+     */
+    public static void encode(LogEvent event, StringBuilder builder) {
+        builder.append("{\"time\":").append(event.timestamp())
+            .append(",\"turn\":").append(event.turn())
+            .append(",\"type\":\"").append(event.type().name()).append('"');
+
+        if (event.player() != null) {
+            builder.append(",\"player\":");
+            appendString(builder, event.player());
+        }
+        if (event.from() != null) {
+            builder.append(",\"from\":");
+            appendPosition(builder, event.from());
+        }
+        if (event.to() != null) {
+            builder.append(",\"to\":");
+            appendPosition(builder, event.to());
+        }
+        if (event.type().hasValue()) {
+            builder.append(",\"value\":").append(event.value());
+        }
+        if (event.message() != null) {
+            builder.append(event.type() == LogEventType.POWER ? ",\"god\":" : ",\"message\":");
+            appendString(builder, event.message());
+        }
+        builder.append('}');
+    }
+
+    /**
+     * Runs on the background thread, writing queued events in batches until the sink
+     * is closed and the queue is empty.
+     */
+    private void writeEvents() {
+        List<LogEvent> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder builder = new StringBuilder();
+
+        try {
+            while (!closed || !queue.isEmpty()) {
+                try {
+                    LogEvent first = queue.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        batch.add(first);
+                        queue.drainTo(batch, BATCH_SIZE - 1);
+                    }
+                } catch (InterruptedException e) {
+                    closed = true;
+                    queue.drainTo(batch);
+                }
+
+                if (!batch.isEmpty()) {
+                    writeBatch(batch, builder);
+                    batch.clear();
+                }
+                else if (writer != null && System.currentTimeMillis() - currentFileOpened >= maximumFileAge) {
+                    closeFile();
+                }
+            }
+            closeFile();
+        } catch (IOException e) {
+            closed = true;
+            droppedEvents.addAndGet(batch.size() + queue.size());
+            queue.clear();
+        }
+    }
+
+    /**
+     * Writes a batch of events, starting a new export file first if the current one
+     * is too large or too old, and flushes once at the end of the batch.
+     *
+     * @param batch The events to write.
+     * @param builder A reusable builder for the encoded lines.
+     * @throws IOException if the export file cannot be written.
+     */
+    private void writeBatch(List<LogEvent> batch, StringBuilder builder) throws IOException {
+        builder.setLength(0);
+        for (LogEvent event : batch) {
+            encode(event, builder);
+            builder.append(SaveConfig.NEWLINE);
+        }
+
+        long now = System.currentTimeMillis();
+        if (writer != null && (currentFileSize >= maximumFileSize || now - currentFileOpened >= maximumFileAge)) {
+            closeFile();
+        }
+        if (writer == null) {
+            fileSequence++;
+            Path file = directory.resolve(baseName + "-" + now + "-" + fileSequence + ".jsonl");
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            currentFileSize = 0;
+            currentFileOpened = now;
+        }
+
+        writer.append(builder);
+        writer.flush();
+        currentFileSize += builder.length();
+    }
+
+    /**
+     * Closes the current export file, if one is open.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    private void closeFile() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    /**
+     * Appends a cell as a two element JSON array.
+     *
+     * @param builder The builder to append to.
+     * @param position The cell to append.
+     */
+    private static void appendPosition(StringBuilder builder, Position position) {
+        builder.append('[').append(position.x()).append(',').append(position.y()).append(']');
+    }
+
+    /**
+     * Appends a string as a quoted JSON string, escaping any characters JSON does not allow.
+     *
+     * @param builder The builder to append to.
+     * @param value The string to append.
+     */
+    private static void appendString(StringBuilder builder, String value) {
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < ' ') {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    }
+                    else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        builder.append('"');
+    }
+}
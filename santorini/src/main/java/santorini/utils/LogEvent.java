@@ -0,0 +1,50 @@
+package santorini.utils;
+
+import santorini.game.Position;
+
+/**
+ * A single structured event recorded by the Logger. Events only hold the data
+ * describing what happened, and are rendered as text when they are displayed or saved.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param type The type of the event.
+ * @param timestamp The time the event was logged, in milliseconds since the epoch.
+ * @param turn The turn number during which the event happened.
+ * @param player The name of the player involved, or null if there is none.
+ * @param from The cell the action started from, or null if there is none.
+ * @param to The cell targeted by the action, or null if there is none.
+ * @param value The numeric value of the event, such as the actions remaining.
+ * @param message The free text of a message event, the god of a power event, or null for other events.
+ */
+public record LogEvent(LogEventType type, long timestamp, int turn, String player, Position from, Position to, int value, String message) {
+
+    // Methods
+
+    /**
+     * Renders the event as the text shown in the game log.
+     *
+     * @return The text of the event.
+     */
+    public String render() {
+        return switch (type) {
+            case GAME_START -> "Game Start!";
+            case TURN_NUMBER -> "Turn " + value;
+            case PLAYER_TURN -> player + "'s Turn";
+            case MOVE -> player + "'s worker at (" + from.x() + ", " + from.y() + ") moved to (" + to.x() + ", " + to.y() + ") ";
+            case BUILD -> player + "'s worker at (" + from.x() + ", " + from.y() + ") built at (" + to.x() + ", " + to.y() + ") ";
+            case MOVES_REMAINING -> "Moves Remaining: " + value;
+            case BUILDS_REMAINING -> "Builds Remaining: " + value;
+            case BUILD_PHASE -> "Build Phase Now";
+            case FORCE_END_MOVE -> "Force End Move Phase. Now Build Phase.";
+            case FORCE_END_BUILD -> "Force End Build Phase. Ending Turn.";
+            case BUILD_CHAOS -> "BOARD CHAOS - RANDOM TOWERS HAVE BEEN BUILT!";
+            case DESTROY_CHAOS -> "BOARD CHAOS - RANDOM TOWERS HAVE BEEN DESTROYED!";
+            case FOG_CHAOS -> "FOG CHAOS - RANDOM POSITIONS HAVE BEEN COVERED BY FOG!";
+            case POWER -> player + "'s " + message + " power was triggered";
+            case WINNER -> player + " Wins!";
+            case MESSAGE -> message;
+        };
+    }
+}
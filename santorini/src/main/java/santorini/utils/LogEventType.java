@@ -0,0 +1,85 @@
+package santorini.utils;
+
+/**
+ * Enum representing the kinds of events recorded by the Logger.
+ * Each event type describes how a structured log event is rendered as text,
+ * has the level at which it is logged, and tells whether its events carry a count.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public enum LogEventType {
+
+    // Enum Constants
+
+    GAME_START(LogLevel.INFO),
+    TURN_NUMBER(LogLevel.INFO, true),
+    PLAYER_TURN(LogLevel.INFO),
+    MOVE(LogLevel.INFO),
+    BUILD(LogLevel.INFO),
+    MOVES_REMAINING(LogLevel.DEBUG, true),
+    BUILDS_REMAINING(LogLevel.DEBUG, true),
+    BUILD_PHASE(LogLevel.INFO),
+    FORCE_END_MOVE(LogLevel.INFO),
+    FORCE_END_BUILD(LogLevel.INFO),
+    BUILD_CHAOS(LogLevel.INFO),
+    DESTROY_CHAOS(LogLevel.INFO),
+    FOG_CHAOS(LogLevel.INFO),
+    POWER(LogLevel.DEBUG),
+    WINNER(LogLevel.INFO),
+    MESSAGE(LogLevel.INFO);
+
+    // Attributes
+
+    /**
+     * The level at which events of this type are logged.
+     */
+    private final LogLevel level;
+
+    /**
+     * Whether events of this type carry a count as their value.
+     */
+    private final boolean hasValue;
+
+    // Constructor
+
+    /**
+     * Constructor, for event types that carry no count.
+     *
+     * @param level The level at which events of this type are logged.
+     */
+    LogEventType(LogLevel level) {
+        this(level, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param level The level at which events of this type are logged.
+     * @param hasValue Whether events of this type carry a count as their value.
+     */
+    LogEventType(LogLevel level, boolean hasValue) {
+        this.level = level;
+        this.hasValue = hasValue;
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the level at which events of this type are logged.
+     *
+     * @return The level of the event type.
+     */
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Checks whether events of this type carry a count as their value, zero included.
+     *
+     * @return True if the value of the events is a count, false if they have no value.
+     */
+    public boolean hasValue() {
+        return hasValue;
+    }
+}
@@ -0,0 +1,31 @@
+package santorini.utils;
+
+/**
+ * Enum representing the severity levels of log events, from most to least verbose.
+ * The Logger discards events below its current level before they are created,
+ * and OFF discards every event.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public enum LogLevel {
+
+    // Enum Constants
+
+    DEBUG,
+    INFO,
+    WARN,
+    OFF;
+
+    // Methods
+
+    /**
+     * Checks whether events of a level are recorded when the logger is set to this level.
+     *
+     * @param level The level of the event.
+     * @return True if the event should be recorded, false otherwise.
+     */
+    public boolean isEnabled(LogLevel level) {
+        return this != OFF && level.ordinal() >= ordinal();
+    }
+}
@@ -0,0 +1,19 @@
+package santorini.utils;
+
+/**
+ * Interface for destinations that receive every event recorded by the Logger.
+ * Sinks are called on the thread that logged the event, so they should hand
+ * events off quickly rather than doing slow work such as file writes inline.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public interface LogSink {
+
+    /**
+     * Receives an event recorded by the Logger.
+     *
+     * @param event The recorded event.
+     */
+    void accept(LogEvent event);
+}
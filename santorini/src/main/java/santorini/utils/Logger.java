@@ -1,9 +1,32 @@
 package santorini.utils;
 
+import santorini.game.Position;
+import santorini.players.Player;
+
 import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 /**
  * The Logger class is a utility class used to log in-game messages and debug information.
+ * Messages are kept as structured events in a fixed-capacity ring buffer, so memory and
+ * save size stay constant however long a game runs. Events are only rendered as text
+ * when they are displayed or saved, and older events may optionally be spilled to disk
+ * when they are overwritten.
+ * Lines for the GUI are buffered and flushed to the log text area at most once per
+ * event dispatch cycle, with a single document insert and a capped document length.
+ * Each event has a level, and events below the logger's level are discarded before
+ * anything is allocated, so headless games can switch logging off entirely.
+ * Every recorded event is also passed to the attached sinks, such as an event export.
  * It supports displaying logs in a GUI component and saving them via the Saveable interface.
  *
  * Created by:
@@ -11,6 +34,18 @@ import javax.swing.*;
  */
 public class Logger implements Saveable {
 
+    // Constants
+
+    /**
+     * The number of events kept in memory.
+     */
+    public static final int CAPACITY = 512;
+
+    /**
+     * The largest number of characters kept in the log text area.
+     */
+    public static final int MAXIMUM_DOCUMENT_LENGTH = 32768;
+
     // Attributes
 
     /**
@@ -19,22 +54,75 @@ public class Logger implements Saveable {
     private static Logger instance;
 
     /**
-     * A StringBuilder to hold all logged messages.
+     * The ring buffer holding the most recent events.
+     */
+    private final LogEvent[] events;
+
+    /**
+     * The index of the oldest event in the ring buffer.
      */
-    private StringBuilder logs;
+    private int head;
+
+    /**
+     * The number of events in the ring buffer.
+     */
+    private int size;
+
+    /**
+     * The turn number stamped on new events. Every game sets it as its turns pass, headless
+     * games on many threads included, so it is volatile rather than guarded by the lock.
+     */
+    private volatile int turn;
+
+    /**
+     * The lowest level of events that are recorded.
+     */
+    private volatile LogLevel level;
+
+    /**
+     * The writer that receives events overwritten in the ring buffer, or null if spilling is disabled.
+     */
+    private BufferedWriter spillWriter;
+
+    /**
+     * Whether events have been spilled since the spill file was last flushed.
+     */
+    private boolean spillPending;
 
     /**
      * The JTextArea used to display log messages in the GUI.
      */
     private JTextArea logTextArea;
 
+    /**
+     * The sinks that receive every recorded event.
+     */
+    private final List<LogSink> sinks;
+
+    /**
+     * The rendered lines waiting to be flushed to the log text area.
+     */
+    private final StringBuilder pendingLines;
+
+    /**
+     * Whether a flush of the pending lines has been scheduled on the event dispatch thread.
+     */
+    private boolean flushScheduled;
+
     // Constructor
 
     /**
      * Constructor.
      */
     public Logger() {
-        logs = new StringBuilder();
+        events = new LogEvent[CAPACITY];
+        head = 0;
+        size = 0;
+        turn = 1;
+        level = LogLevel.DEBUG;
+        pendingLines = new StringBuilder();
+        flushScheduled = false;
+        sinks = new CopyOnWriteArrayList<>();
 
         SaveManager.getInstance().registerSaveable(this);
     }
@@ -45,7 +133,7 @@ public class Logger implements Saveable {
      *
      * @return The single instance of the Logger.
      */
-    public static Logger getInstance() {
+    public static synchronized Logger getInstance() {
         if (instance == null) {
             instance = new Logger();
         }
@@ -60,43 +148,236 @@ public class Logger implements Saveable {
      *
      * @param logTextArea The JTextArea component for displaying logs.
      */
-    public void setLogTextArea(JTextArea logTextArea) {
+    public synchronized void setLogTextArea(JTextArea logTextArea) {
         this.logTextArea = logTextArea;
-        if (logTextArea != null && !logs.isEmpty()) {
-            logTextArea.setText(logs.toString());
-            logTextArea.setCaretPosition(logTextArea.getDocument().getLength());
+        pendingLines.setLength(0);
+        if (logTextArea != null && size > 0) {
+            logTextArea.setText("");
+            pendingLines.append(getLogs());
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Sets the turn number stamped on events logged from now on.
+     *
+     * @param turn The current turn number.
+     */
+    public void setTurn(int turn) {
+        this.turn = turn;
+    }
+
+    /**
+     * Sets the lowest level of events that are recorded.
+     *
+     * @param level The new level, or OFF to discard every event.
+     */
+    public void setLevel(LogLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * Gets the lowest level of events that are recorded.
+     *
+     * @return The current level.
+     */
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Checks whether events of a level are currently recorded. Callers that need to
+     * do extra work to build an event can use this to skip it when logging is disabled.
+     *
+     * @param eventLevel The level of the event.
+     * @return True if the event would be recorded, false otherwise.
+     */
+    public boolean isEnabled(LogLevel eventLevel) {
+        return level.isEnabled(eventLevel);
+    }
+
+    /**
+     * Attaches a sink that receives every event recorded from now on.
+     *
+     * @param sink The sink to attach.
+     */
+    public void addSink(LogSink sink) {
+        sinks.add(sink);
+    }
+
+    /**
+     * Detaches a sink.
+     *
+     * @param sink The sink to detach.
+     */
+    public void removeSink(LogSink sink) {
+        sinks.remove(sink);
+    }
+
+    /**
+     * Spills events to a file once they are overwritten in the ring buffer.
+     * Passing null stops spilling, closing the current file.
+     *
+     * @param spillFile The file to append overwritten events to, or null to disable spilling.
+     * @throws IOException if the file cannot be opened.
+     */
+    public synchronized void setSpillFile(Path spillFile) throws IOException {
+        if (spillWriter != null) {
+            BufferedWriter writer = spillWriter;
+            spillWriter = null;
+            spillPending = false;
+            writer.close();
+        }
+        if (spillFile != null) {
+            spillWriter = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
         }
     }
 
     /**
-     * Logs a new message to both the internal log store and the GUI (if attached).
+     * Logs a free text message.
      *
      * @param log The message to log.
      */
     public void log(String log) {
-        String formattedLog = log + "\n";
-        logs.append(formattedLog);
+        if (isEnabled(LogEventType.MESSAGE.getLevel())) {
+            record(LogEventType.MESSAGE, null, null, null, 0, log);
+        }
+    }
 
-        if (logTextArea != null) {
-            logTextArea.append(formattedLog);
-            logTextArea.setCaretPosition(logTextArea.getDocument().getLength());
+    /**
+     * Logs a free text message at a level. The message is only built if the level is enabled.
+     *
+     * @param eventLevel The level of the message.
+     * @param message Supplies the message to log.
+     */
+    public void log(LogLevel eventLevel, Supplier<String> message) {
+        if (isEnabled(eventLevel)) {
+            record(LogEventType.MESSAGE, null, null, null, 0, message.get());
+        }
+    }
+
+    /**
+     * Logs an event that carries no data.
+     *
+     * @param type The type of the event.
+     */
+    public void log(LogEventType type) {
+        if (isEnabled(type.getLevel())) {
+            record(type, null, null, null, 0, null);
+        }
+    }
+
+    /**
+     * Logs an event that carries a numeric value.
+     *
+     * @param type The type of the event.
+     * @param value The value of the event.
+     */
+    public void log(LogEventType type, int value) {
+        if (isEnabled(type.getLevel())) {
+            record(type, null, null, null, value, null);
+        }
+    }
+
+    /**
+     * Logs an event involving a player.
+     *
+     * @param type The type of the event.
+     * @param player The player involved.
+     */
+    public void log(LogEventType type, Player player) {
+        if (isEnabled(type.getLevel())) {
+            record(type, player.getName(), null, null, 0, null);
         }
     }
 
     /**
-     * Retrieves all logs currently stored.
+     * Logs an action performed by a player's worker between two cells.
+     *
+     * @param type The type of the event.
+     * @param player The player involved.
+     * @param from The cell of the worker performing the action.
+     * @param to The cell targeted by the action.
+     */
+    public void log(LogEventType type, Player player, Position from, Position to) {
+        if (isEnabled(type.getLevel())) {
+            record(type, player.getName(), from, to, 0, null);
+        }
+    }
+
+    /**
+     * Logs an event involving a player with additional detail, such as the god whose power was triggered.
+     *
+     * @param type The type of the event.
+     * @param player The player involved.
+     * @param detail The detail of the event.
+     */
+    public void log(LogEventType type, Player player, String detail) {
+        if (isEnabled(type.getLevel())) {
+            record(type, player.getName(), null, null, 0, detail);
+        }
+    }
+
+    /**
+     * Restores previously saved log text, recording each line as a message event.
+     * Only the most recent lines that fit in the ring buffer are kept, and the
+     * restored lines are not passed to the sinks as they were already recorded.
+     *
+     * @param logs The saved log text.
+     */
+    public void restore(String logs) {
+        int start = 0;
+        while (start < logs.length()) {
+            int end = logs.indexOf(SaveConfig.NEWLINE, start);
+            if (end < 0) {
+                end = logs.length();
+            }
+            if (isEnabled(LogEventType.MESSAGE.getLevel())) {
+                store(new LogEvent(LogEventType.MESSAGE, System.currentTimeMillis(), turn, null, null, null, 0, logs.substring(start, end)));
+            }
+            start = end + 1;
+        }
+        flushSpill();
+    }
+
+    /**
+     * Retrieves all logs currently stored, rendered as text.
      *
      * @return A string representing the current logs.
      */
-    public String getLogs() {
-        return logs.toString();
+    public synchronized String getLogs() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            builder.append(events[(head + i) % CAPACITY].render()).append(SaveConfig.NEWLINE);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Retrieves the events currently stored, oldest first.
+     *
+     * @return An array of the current events.
+     */
+    public synchronized LogEvent[] getEvents() {
+        LogEvent[] result = new LogEvent[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = events[(head + i) % CAPACITY];
+        }
+        return result;
     }
 
     /**
      * Clears all logs from both the internal store and the GUI display.
      */
-    public void clearLogs() {
-        logs = new StringBuilder();
+    public synchronized void clearLogs() {
+        for (int i = 0; i < size; i++) {
+            events[(head + i) % CAPACITY] = null;
+        }
+        head = 0;
+        size = 0;
+        turn = 1;
+        pendingLines.setLength(0);
         if (logTextArea != null) {
             logTextArea.setText("");
         }
@@ -104,6 +385,146 @@ public class Logger implements Saveable {
 
     @Override
     public String save() {
-        return logs.toString();
+        return getLogs();
+    }
+
+    /**
+     * Records an event and passes it to every attached sink.
+     *
+     * @param type The type of the event.
+     * @param player The name of the player involved, or null.
+     * @param from The cell the action started from, or null.
+     * @param to The cell targeted by the action, or null.
+     * @param value The numeric value of the event.
+     * @param message The free text of a message event, or null.
+     */
+    private void record(LogEventType type, String player, Position from, Position to, int value, String message) {
+        LogEvent event;
+        synchronized (this) {
+            event = new LogEvent(type, System.currentTimeMillis(), turn, player, from, to, value, message);
+            store(event);
+            flushSpill();
+        }
+        for (LogSink sink : sinks) {
+            sink.accept(event);
+        }
+    }
+
+    /**
+     * Stores an event in the ring buffer, spilling the oldest event if the buffer is full,
+     * and queues it for display in the GUI (if attached).
+     *
+     * @param event The event to store.
+     */
+    private synchronized void store(LogEvent event) {
+        if (size == CAPACITY) {
+            spill(events[head]);
+            events[head] = event;
+            head = (head + 1) % CAPACITY;
+        }
+        else {
+            events[(head + size) % CAPACITY] = event;
+            size++;
+        }
+
+        if (logTextArea != null) {
+            pendingLines.append(event.render()).append(SaveConfig.NEWLINE);
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Schedules a flush of the pending lines on the event dispatch thread,
+     * unless one is already scheduled.
+     */
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            SwingUtilities.invokeLater(this::flushPendingLines);
+        }
+    }
+
+    /**
+     * Appends all pending lines to the log text area with a single document insert,
+     * trims the oldest whole lines if the document exceeds its maximum length and
+     * moves the caret to the end once.
+     * Must be called on the event dispatch thread.
+     */
+    private void flushPendingLines() {
+        JTextArea textArea;
+        String lines;
+        synchronized (this) {
+            flushScheduled = false;
+            textArea = logTextArea;
+            lines = pendingLines.toString();
+            pendingLines.setLength(0);
+        }
+        if (textArea == null || lines.isEmpty()) {
+            return;
+        }
+
+        Document document = textArea.getDocument();
+        try {
+            document.insertString(document.getLength(), lines, null);
+
+            int excess = document.getLength() - MAXIMUM_DOCUMENT_LENGTH;
+            if (excess > 0) {
+                int line = textArea.getLineOfOffset(excess);
+                document.remove(0, textArea.getLineEndOffset(line));
+            }
+        } catch (BadLocationException e) {
+            textArea.setText(getLogs());
+        }
+        textArea.setCaretPosition(document.getLength());
+    }
+
+    /**
+     * Writes an overwritten event to the spill file, if spilling is enabled. The event is
+     * only buffered; the batch is written out by the flush ending the logging call.
+     * Spilling is disabled if the file can no longer be written.
+     *
+     * @param event The event being overwritten.
+     */
+    private void spill(LogEvent event) {
+        if (spillWriter == null) {
+            return;
+        }
+        try {
+            spillWriter.write(event.render());
+            spillWriter.write(SaveConfig.NEWLINE);
+            spillPending = true;
+        } catch (IOException e) {
+            closeSpillWriter();
+        }
+    }
+
+    /**
+     * Writes the events spilled since the last flush out to the spill file, so none is lost
+     * if the process ends. Spilling is disabled if the file can no longer be written.
+     */
+    private synchronized void flushSpill() {
+        if (!spillPending || spillWriter == null) {
+            return;
+        }
+        spillPending = false;
+        try {
+            spillWriter.flush();
+        } catch (IOException e) {
+            closeSpillWriter();
+        }
+    }
+
+    /**
+     * Closes the spill file after it failed, disabling spilling.
+     */
+    private void closeSpillWriter() {
+        BufferedWriter writer = spillWriter;
+        spillWriter = null;
+        spillPending = false;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.err.println("Could not close the log spill file: " + e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
@@ -14,7 +14,4 @@ public class SaveConfig {
     public static final String OUTER_KEY = "santorini.";
     public static final String INNER_KEY = "+";
     public static final String COMMA = ",";
-    public static final String NEWLINE_REGEX = "\\R";
-    public static final String DELIMITER_REGEX = "\\$";
-    public static final String COMMA_REGEX = "\\,";
 }
@@ -0,0 +1,17 @@
+package santorini.utils;
+
+import santorini.game.GameState;
+import santorini.game.modifier.GameModifier;
+
+/**
+ * Holds the components restored from a save file by the SaveParser.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param gameState The restored game state.
+ * @param modifier The game modifier of the saved game.
+ * @param logs The saved game log, or an empty string if there is none.
+ */
+public record SaveData(GameState gameState, GameModifier modifier, String logs) {
+}
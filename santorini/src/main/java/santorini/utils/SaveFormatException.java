@@ -0,0 +1,77 @@
+package santorini.utils;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a save file does not follow the expected save format.
+ * Records the exact line, column and character offset where parsing failed,
+ * so corrupt files can be located and repaired.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class SaveFormatException extends IOException {
+
+    // Attributes
+
+    /**
+     * The line (starting from 1) where the error was found.
+     */
+    private final int line;
+
+    /**
+     * The column (starting from 1) where the error was found.
+     */
+    private final int column;
+
+    /**
+     * The character offset from the start of the file where the error was found.
+     */
+    private final int offset;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param message The description of the error.
+     * @param line The line where the error was found.
+     * @param column The column where the error was found.
+     * @param offset The character offset where the error was found.
+     */
+    public SaveFormatException(String message, int line, int column, int offset) {
+        super(String.format("Line %d, column %d (offset %d): %s", line, column, offset, message));
+        this.line = line;
+        this.column = column;
+        this.offset = offset;
+    }
+
+    // Getters
+
+    /**
+     * Gets the line where the error was found.
+     *
+     * @return The line number, starting from 1.
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * Gets the column where the error was found.
+     *
+     * @return The column number, starting from 1.
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * Gets the character offset where the error was found.
+     *
+     * @return The offset from the start of the file.
+     */
+    public int getOffset() {
+        return offset;
+    }
+}
@@ -0,0 +1,221 @@
+package santorini.utils;
+
+import santorini.board.Board;
+import santorini.game.Game;
+import santorini.game.GameMode;
+import santorini.game.GameState;
+import santorini.game.Position;
+import santorini.players.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The fixed-size metadata header written at the start of every save file.
+ * It summarises a save so that it can be listed without parsing the whole file,
+ * and always occupies exactly HEADER_SIZE bytes so that it can be read with a
+ * single positional read.
+ *
+ * Created by:
+ * author Yuan Yi
+ *
+ * @param mode The name of the game mode.
+ * @param gods The names of each player's god, in player order.
+ * @param turnNumber The turn number of the saved game.
+ * @param currentPlayer The name of the player whose turn it is.
+ * @param timestamp The time the game was saved, in milliseconds since the epoch.
+ * @param winner The name of the winning player, or an empty string if there is none.
+ * @param boardWidth The width of the board.
+ * @param boardHeight The height of the board.
+ * @param thumbnail The height of each tower in row order, or an empty string if the board is too large.
+ */
+public record SaveHeader(String mode, List<String> gods, int turnNumber, String currentPlayer, long timestamp,
+                         String winner, int boardWidth, int boardHeight, String thumbnail) {
+
+    // Constants
+
+    /**
+     * The size of the header in bytes, including its terminating newline.
+     */
+    public static final int HEADER_SIZE = 256;
+
+    /**
+     * The marker at the start of a save file that has a header.
+     */
+    public static final String MAGIC = "#SANTORINI";
+
+    /**
+     * The version of the header format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The largest number of board cells stored in the thumbnail.
+     */
+    private static final int MAXIMUM_THUMBNAIL_CELLS = 100;
+
+    // Methods
+
+    /**
+     * Creates a header summarising the current state of a game.
+     *
+     * @param game The game to summarise.
+     * @param timestamp The time of the save.
+     * @return The header of the game.
+     */
+    public static SaveHeader of(Game game, long timestamp) {
+        GameState gameState = game.getGameState();
+        Board board = gameState.getBoard();
+        GameMode gameMode = GameMode.fromModifier(game.getModifier());
+
+        List<String> gods = new ArrayList<>();
+        for (Player player : gameState.getPlayers()) {
+            gods.add(player.getGod().getName());
+        }
+
+        StringBuilder thumbnail = new StringBuilder();
+        if (board.getWidth() * board.getHeight() <= MAXIMUM_THUMBNAIL_CELLS) {
+            for (int x = 0; x < board.getWidth(); x++) {
+                for (int y = 0; y < board.getHeight(); y++) {
+                    thumbnail.append(board.getTower(new Position(x, y)).getHeight());
+                }
+            }
+        }
+
+        Player winner = gameState.getWinner();
+        return new SaveHeader(
+            gameMode != null ? gameMode.name() : "",
+            gods,
+            gameState.getTurnNumber(),
+            gameState.getCurrentPlayer().getName(),
+            timestamp,
+            winner != null ? winner.getName() : "",
+            board.getWidth(),
+            board.getHeight(),
+            thumbnail.toString()
+        );
+    }
+
+    /**
+     * Reads the header of a save file with a single positional read.
+     *
+     * @param file The save file.
+     * @return The header, or null if the file was saved without one.
+     * @throws IOException if the file cannot be read.
+     */
+    public static SaveHeader read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, buffer.position()) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            return decode(StandardCharsets.US_ASCII.decode(buffer).toString());
+        }
+    }
+
+    /**
+     * Decodes a header from its text form.
+     *
+     * @param text The encoded header, with or without padding.
+     * @return The header, or null if the text is not a valid header.
+     */
+    public static SaveHeader decode(String text) {
+        if (!text.startsWith(MAGIC)) {
+            return null;
+        }
+
+        int end = text.indexOf(SaveConfig.NEWLINE);
+        String[] fields = (end >= 0 ? text.substring(0, end) : text).trim().split("\\" + SaveConfig.DELIMITER, -1);
+        if (fields.length != 11) {
+            return null;
+        }
+
+        try {
+            return new SaveHeader(
+                fields[2],
+                fields[3].isEmpty() ? List.of() : List.of(fields[3].split(SaveConfig.COMMA)),
+                Integer.parseInt(fields[4]),
+                fields[5],
+                Long.parseLong(fields[6]),
+                fields[7],
+                Integer.parseInt(fields[8]),
+                Integer.parseInt(fields[9]),
+                fields[10]
+            );
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Encodes the header as a single line of exactly HEADER_SIZE ASCII characters.
+     * Fields that would overflow the header are truncated, starting with the thumbnail.
+     *
+     * @return The encoded header, including its terminating newline.
+     */
+    public String encode() {
+        List<String> cleanedGods = new ArrayList<>();
+        for (String god : gods) {
+            cleanedGods.add(clean(god));
+        }
+
+        String fields = MAGIC + SaveConfig.DELIMITER
+            + VERSION + SaveConfig.DELIMITER
+            + clean(mode) + SaveConfig.DELIMITER
+            + String.join(SaveConfig.COMMA, cleanedGods) + SaveConfig.DELIMITER
+            + turnNumber + SaveConfig.DELIMITER
+            + clean(currentPlayer) + SaveConfig.DELIMITER
+            + timestamp + SaveConfig.DELIMITER
+            + clean(winner) + SaveConfig.DELIMITER
+            + boardWidth + SaveConfig.DELIMITER
+            + boardHeight + SaveConfig.DELIMITER;
+
+        String encodedThumbnail = fields.length() + thumbnail.length() < HEADER_SIZE ? thumbnail : "";
+        StringBuilder builder = new StringBuilder(HEADER_SIZE);
+        builder.append(fields, 0, Math.min(fields.length(), HEADER_SIZE - 1)).append(encodedThumbnail);
+        while (builder.length() < HEADER_SIZE - 1) {
+            builder.append(' ');
+        }
+        return builder.append(SaveConfig.NEWLINE).toString();
+    }
+
+    /**
+     * Gets the height of a tower from the thumbnail.
+     *
+     * @param x The x-coordinate of the tower.
+     * @param y The y-coordinate of the tower.
+     * @return The height of the tower, or 0 if there is no thumbnail.
+     */
+    public int getThumbnailHeight(int x, int y) {
+        int index = x * boardHeight + y;
+        if (index >= thumbnail.length()) {
+            return 0;
+        }
+        return thumbnail.charAt(index) - '0';
+    }
+
+    /**
+     * Removes characters that cannot be stored in a header field.
+     *
+     * @param value The field value.
+     * @return The value restricted to printable ASCII without delimiters.
+     */
+    private static String clean(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean reserved = c == SaveConfig.DELIMITER.charAt(0) || c == SaveConfig.COMMA.charAt(0);
+            builder.append(c >= ' ' && c < 127 && !reserved ? c : '_');
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,212 @@
+package santorini.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The SaveIndex caches the metadata headers of every save in a directory in an
+ * index file. Refreshing the index only reads the headers of saves that were added
+ * or changed since the last refresh, so large save directories can be listed
+ * without opening every file.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class SaveIndex {
+
+    // Constants
+
+    /**
+     * The name of the index file kept in each save directory.
+     */
+    public static final String INDEX_FILE_NAME = ".santorini-index";
+
+    /**
+     * The separator between the columns of an index line.
+     */
+    private static final String SEPARATOR = "\t";
+
+    /**
+     * The marker used in place of a header for saves that were written without one.
+     */
+    private static final String NO_HEADER = "-";
+
+    // Attributes
+
+    /**
+     * The directory containing the saves.
+     */
+    private final Path directory;
+
+    /**
+     * The cached entries, keyed by file name.
+     */
+    private final Map<String, Entry> entries;
+
+    /**
+     * Whether the index file has been read yet.
+     */
+    private boolean loaded;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param directory The directory containing the saves.
+     */
+    public SaveIndex(Path directory) {
+        this.directory = directory;
+        this.entries = new HashMap<>();
+        this.loaded = false;
+    }
+
+    // Methods
+
+    /**
+     * Brings the index up to date with the save directory and returns its entries,
+     * most recently saved first. Only new or modified saves have their headers read,
+     * and the index file is only rewritten when an entry has changed.
+     *
+     * @return The entries of every save in the directory.
+     * @throws IOException if the directory or index file cannot be accessed.
+     */
+    public synchronized List<Entry> refresh() throws IOException {
+        if (!loaded) {
+            readIndex();
+            loaded = true;
+        }
+
+        boolean changed = false;
+        Set<String> seen = new HashSet<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.txt")) {
+            for (Path file : stream) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (!attributes.isRegularFile()) {
+                    continue;
+                }
+
+                String fileName = file.getFileName().toString();
+                long size = attributes.size();
+                long lastModified = attributes.lastModifiedTime().toMillis();
+                seen.add(fileName);
+
+                Entry entry = entries.get(fileName);
+                if (entry == null || entry.size() != size || entry.lastModified() != lastModified) {
+                    entries.put(fileName, new Entry(fileName, size, lastModified, SaveHeader.read(file)));
+                    changed = true;
+                }
+            }
+        }
+
+        if (entries.keySet().retainAll(seen)) {
+            changed = true;
+        }
+        if (changed) {
+            writeIndex();
+        }
+
+        List<Entry> result = new ArrayList<>(entries.values());
+        result.sort(Comparator.comparingLong(Entry::getSavedAt).reversed());
+        return result;
+    }
+
+    /**
+     * Gets the path of a save in the directory.
+     *
+     * @param entry The entry of the save.
+     * @return The path of the save file.
+     */
+    public Path resolve(Entry entry) {
+        return directory.resolve(entry.fileName());
+    }
+
+    /**
+     * Reads the cached entries from the index file, ignoring any malformed lines.
+     *
+     * @throws IOException if the index file exists but cannot be read.
+     */
+    private void readIndex() throws IOException {
+        Path indexFile = directory.resolve(INDEX_FILE_NAME);
+        if (!Files.exists(indexFile)) {
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split(SEPARATOR, 4);
+                if (columns.length != 4) {
+                    continue;
+                }
+
+                try {
+                    SaveHeader header = columns[3].equals(NO_HEADER) ? null : SaveHeader.decode(columns[3]);
+                    entries.put(columns[0], new Entry(columns[0], Long.parseLong(columns[1]), Long.parseLong(columns[2]), header));
+                } catch (NumberFormatException e) {
+                    // Skip the entry so that the save is indexed again
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the cached entries to a temporary file and moves it over the index file,
+     * so that a partially written index is never read.
+     *
+     * @throws IOException if the index file cannot be written.
+     */
+    private void writeIndex() throws IOException {
+        Path indexFile = directory.resolve(INDEX_FILE_NAME);
+        Path temporaryFile = directory.resolve(INDEX_FILE_NAME + ".tmp");
+
+        try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+            for (Entry entry : entries.values()) {
+                writer.write(entry.fileName());
+                writer.write(SEPARATOR);
+                writer.write(Long.toString(entry.size()));
+                writer.write(SEPARATOR);
+                writer.write(Long.toString(entry.lastModified()));
+                writer.write(SEPARATOR);
+                writer.write(entry.header() != null ? entry.header().encode().trim() : NO_HEADER);
+                writer.write(SaveConfig.NEWLINE);
+            }
+        }
+        Files.move(temporaryFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * A single save in the index.
+     *
+     * @param fileName The name of the save file.
+     * @param size The size of the save file when it was indexed.
+     * @param lastModified The modification time of the save file when it was indexed.
+     * @param header The header of the save, or null if it was saved without one.
+     */
+    public record Entry(String fileName, long size, long lastModified, SaveHeader header) {
+
+        /**
+         * Gets the time the save was made, falling back to the file's modification time.
+         *
+         * @return The time of the save in milliseconds since the epoch.
+         */
+        public long getSavedAt() {
+            return header != null ? header.timestamp() : lastModified;
+        }
+    }
+}
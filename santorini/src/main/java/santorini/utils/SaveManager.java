@@ -1,6 +1,8 @@
 package santorini.utils;
 
+import santorini.game.Game;
 import santorini.game.GameFactory;
+import santorini.game.GameThread;
 
 import javax.swing.*;
 import java.awt.*;
@@ -8,12 +10,13 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 /**
  * The SaveManager class handles saving and loading the game state in the Santorini game.
@@ -33,17 +36,27 @@ public class SaveManager {
     private static SaveManager instance;
 
     /**
-     * List of saveable game components
+     * List of saveable game components. Components may register from the loading thread.
      */
     private List<Saveable> saveables;
 
+    /**
+     * The background executor that writes and parses save files off the event dispatch thread.
+     */
+    private final ExecutorService executor;
+
     // Constructor
 
     /**
      * Constructor.
      */
     public SaveManager() {
-        this.saveables = new ArrayList<>();
+        this.saveables = new CopyOnWriteArrayList<>();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "save-io");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
@@ -51,7 +64,7 @@ public class SaveManager {
      *
      * @return the Game instance
      */
-    public static SaveManager getInstance() {
+    public static synchronized SaveManager getInstance() {
         if (instance == null) {
             instance = new SaveManager();
         }
@@ -82,108 +95,184 @@ public class SaveManager {
 
     /**
      * Prompts the user to select a file location and saves the current game state
-     * to a text file. Each saveable object is saved by its class name and serialized data.
+     * to a text file. Each saveable object is snapshotted on the game thread, between
+     * commands, by its class name and serialized data, then written on the background
+     * executor while a progress indicator is shown. The result is reported back on the event
+     * dispatch thread.
      *
      * @param component the GUI component used to anchor the file dialog.
-     * @return true if saving was successful; false otherwise.
      */
-    public boolean saveGame(Component component) {
+    public void saveGame(Component component) {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Save Game");
         fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("Text Documents (*.txt)", "txt"));
         int selection = fileChooser.showSaveDialog(component);
 
-        if (selection == JFileChooser.APPROVE_OPTION) {
-            File file = fileChooser.getSelectedFile();
-            if (!file.getAbsolutePath().toLowerCase().endsWith(".txt")) {
-                file = new File(file.getAbsolutePath() + ".txt");
-            }
+        if (selection != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
 
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                writer.write(saveables.size() + SaveConfig.NEWLINE);
+        File selectedFile = fileChooser.getSelectedFile();
+        if (!selectedFile.getAbsolutePath().toLowerCase().endsWith(".txt")) {
+            selectedFile = new File(selectedFile.getAbsolutePath() + ".txt");
+        }
+        File file = selectedFile;
 
-                for (Saveable saveable : saveables) {
-                    String className = saveable.getClass().getName();
-                    String data = saveable.save();
+        JDialog progressDialog = showProgressDialog(component, "Saving Game...");
+        GameThread.getInstance().submit(() -> {
+            // Snapshot the header and every saveable while the game state cannot change
+            SaveHeader header = SaveHeader.of(Game.getInstance(), System.currentTimeMillis());
+            List<SaveEntry> entries = new ArrayList<>();
+            for (Saveable saveable : saveables) {
+                entries.add(new SaveEntry(saveable.getClass().getName(), saveable.save()));
+            }
 
-                    writer.write(className + SaveConfig.NEWLINE);
-                    writer.write(data + SaveConfig.NEWLINE);
+            executor.execute(() -> {
+                boolean result;
+                try {
+                    writeSave(file, header, entries);
+                    result = true;
+                } catch (IOException e) {
+                    result = false;
                 }
 
-                JOptionPane.showMessageDialog(component, "Game has been Saved!");
-                return true;
-            } catch (IOException e) {
-                JOptionPane.showMessageDialog(component, "Failed to Save Game!", "Save Error", JOptionPane.ERROR_MESSAGE);
-                return false;
-            }
-        }
-        return false;
+                boolean saved = result;
+                SwingUtilities.invokeLater(() -> {
+                    progressDialog.dispose();
+                    if (saved) {
+                        JOptionPane.showMessageDialog(component, "Game has been Saved!");
+                    }
+                    else {
+                        JOptionPane.showMessageDialog(component, "Failed to Save Game!", "Save Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
+            });
+        });
     }
 
     /**
-     * Prompts the user to select a save file and loads the game state using the GameFactory.
+     * Prompts the user to select a save file and loads it.
      *
      * @param component the GUI component used to anchor the file dialog.
-     * @return true if loading was successful; false otherwise.
+     * @param onLoaded the callback run on the event dispatch thread once the game has been loaded.
      */
-    public boolean loadGame(Component component) {
+    public void loadGame(Component component, Runnable onLoaded) {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Load Game");
         fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("Text Documents (*.txt)", "txt"));
         int selection = fileChooser.showOpenDialog(component);
 
         if (selection == JFileChooser.APPROVE_OPTION) {
-            File file = fileChooser.getSelectedFile();
+            loadGame(component, fileChooser.getSelectedFile(), onLoaded);
+        }
+    }
 
-            GameFactory gameFactory = new GameFactory();
-            boolean result = gameFactory.loadGame(file);
+    /**
+     * Loads a save file. The file is parsed on the background executor while a progress
+     * indicator is shown, and the loaded game is swapped in on the game thread in a single step.
+     *
+     * @param component the GUI component used to anchor the progress dialog.
+     * @param file the save file to load.
+     * @param onLoaded the callback run on the event dispatch thread once the game has been loaded.
+     */
+    public void loadGame(Component component, File file, Runnable onLoaded) {
+        JDialog progressDialog = showProgressDialog(component, "Loading Game...");
+        executor.execute(() -> {
+            try {
+                SaveData saveData = SaveParser.parse(file);
 
-            if (result) {
-                JOptionPane.showMessageDialog(component, "Game has been Loaded!");
-                return true;
+                GameThread.getInstance().submit(() -> new GameFactory().loadGame(saveData))
+                    .whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> {
+                        progressDialog.dispose();
+                        if (error == null) {
+                            JOptionPane.showMessageDialog(component, "Game has been Loaded!");
+                            onLoaded.run();
+                        }
+                        else {
+                            JOptionPane.showMessageDialog(component, "Failed to Load Game!\n" + error.getMessage(), "Load Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }));
+            } catch (IOException | RuntimeException e) {
+                SwingUtilities.invokeLater(() -> {
+                    progressDialog.dispose();
+                    JOptionPane.showMessageDialog(component, "Failed to Load Game!\n" + e.getMessage(), "Load Error", JOptionPane.ERROR_MESSAGE);
+                });
             }
-            else {
-                JOptionPane.showMessageDialog(component, "Failed to Load Game!", "Load Error", JOptionPane.ERROR_MESSAGE);
-                return false;
+        });
+    }
+
+    /**
+     * Refreshes a save index on the background executor and reports its entries
+     * back on the event dispatch thread.
+     *
+     * @param component the GUI component used to anchor error messages.
+     * @param saveIndex the index of the save directory.
+     * @param onRefreshed the callback receiving the entries of every save in the directory.
+     */
+    public void refreshIndex(Component component, SaveIndex saveIndex, Consumer<List<SaveIndex.Entry>> onRefreshed) {
+        executor.execute(() -> {
+            try {
+                List<SaveIndex.Entry> entries = saveIndex.refresh();
+                SwingUtilities.invokeLater(() -> onRefreshed.accept(entries));
+            } catch (IOException e) {
+                SwingUtilities.invokeLater(() ->
+                    JOptionPane.showMessageDialog(component, "Failed to List Saves!\n" + e.getMessage(), "Load Error", JOptionPane.ERROR_MESSAGE));
             }
-        }
-        return false;
+        });
     }
 
     /**
-     * Parses the contents of a save file into a map of class names to serialized data blocks.
-     * Used by the GameFactory to reconstruct game objects.
+     * Writes a header and snapshotted save entries to a file.
      *
-     * @param file the file to parse.
-     * @return a map of class names to their respective saved data strings.
-     * @throws IOException if an error occurs while reading the file.
+     * @param file the file to write to.
+     * @param header the metadata header of the save.
+     * @param entries the snapshotted class names and data of each saveable.
+     * @throws IOException if an error occurs while writing the file.
      */
-    public static Map<String, String> parseFile(File file) throws IOException {
-        Map<String, String> buildStringMap = new HashMap<>();
-        List<String> lines = Files.readAllLines(Paths.get(file.getAbsolutePath()));
-
-        int numberOfObjects = Integer.parseInt(lines.get(0));
-        int parsedObjects = 0;
-        int startingIndex = 1;
-
-        while (startingIndex < lines.size() && parsedObjects < numberOfObjects) {
-            String className = lines.get(startingIndex++).trim();
-            StringBuilder dataBuilder = new StringBuilder();
-
-            while (startingIndex < lines.size()) {
-                String line = lines.get(startingIndex).trim();
-                if (line.startsWith(SaveConfig.OUTER_KEY)) {
-                    break;
-                }
+    private void writeSave(File file, SaveHeader header, List<SaveEntry> entries) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8))) {
+            writer.write(header.encode());
+            writer.write(entries.size() + SaveConfig.NEWLINE);
 
-                dataBuilder.append(line).append(SaveConfig.NEWLINE);
-                startingIndex++;
+            for (SaveEntry entry : entries) {
+                writer.write(entry.className() + SaveConfig.NEWLINE);
+                writer.write(entry.data() + SaveConfig.NEWLINE);
             }
-
-            buildStringMap.put(className, dataBuilder.toString().trim());
-            parsedObjects++;
         }
+    }
+
+    /**
+     * Shows an indeterminate progress indicator that blocks input to the application
+     * until it is disposed. The dialog is shown through the event queue, so it is always
+     * shown before a completion callback queued by the background executor disposes it.
+     *
+     * @param component the GUI component used to anchor the dialog.
+     * @param message the message to display.
+     * @return the progress dialog.
+     */
+    private JDialog showProgressDialog(Component component, String message) {
+        Window owner = SwingUtilities.getWindowAncestor(component);
+        JDialog dialog = new JDialog(owner, message, Dialog.ModalityType.APPLICATION_MODAL);
+        dialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+
+        JProgressBar progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
-        return buildStringMap;
+        dialog.add(progressBar);
+        dialog.setSize(300, 80);
+        dialog.setLocationRelativeTo(component);
+
+        SwingUtilities.invokeLater(() -> dialog.setVisible(true));
+        return dialog;
+    }
+
+    /**
+     * A snapshot of a single saveable object taken on the game thread.
+     *
+     * @param className the class name of the saveable.
+     * @param data the serialized data of the saveable.
+     */
+    private record SaveEntry(String className, String data) {
     }
 }
@@ -0,0 +1,558 @@
+package santorini.utils;
+
+import santorini.board.Board;
+import santorini.game.Game;
+import santorini.game.GameState;
+import santorini.game.Position;
+import santorini.game.modifier.GameModifier;
+import santorini.players.God;
+import santorini.players.Player;
+import santorini.players.Worker;
+import santorini.towers.Tower;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The SaveParser reads a text save file in a single forward pass using a cursor
+ * over a CharBuffer. Numbers, booleans and keys are read in place without regular
+ * expressions, line lists or intermediate strings, and any corrupt input is reported
+ * through a SaveFormatException with its exact line and column.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class SaveParser {
+
+    // Constants
+
+    /**
+     * The delimiter between fields on a line.
+     */
+    private static final char DELIMITER = SaveConfig.DELIMITER.charAt(0);
+
+    /**
+     * The separator between the values of a single field.
+     */
+    private static final char COMMA = SaveConfig.COMMA.charAt(0);
+
+    /**
+     * The prefix of a nested component key.
+     */
+    private static final char INNER_KEY = SaveConfig.INNER_KEY.charAt(0);
+
+    // Attributes
+
+    /**
+     * The characters of the save file.
+     */
+    private final CharBuffer buffer;
+
+    /**
+     * The current cursor offset into the buffer.
+     */
+    private int position;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param buffer The characters to be parsed.
+     */
+    public SaveParser(CharBuffer buffer) {
+        this.buffer = buffer;
+        this.position = 0;
+    }
+
+    // Methods
+
+    /**
+     * Maps a save file into memory and parses it.
+     *
+     * @param file The save file to parse.
+     * @return The components restored from the file.
+     * @throws IOException if the file cannot be read or is not a valid save.
+     */
+    public static SaveData parse(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new SaveParser(StandardCharsets.UTF_8.decode(bytes)).parse();
+        }
+    }
+
+    /**
+     * Parses the whole buffer. Components are read in the order they were saved.
+     * If a component appears more than once, the last one is used.
+     *
+     * @return The components restored from the buffer.
+     * @throws SaveFormatException if the buffer is not a valid save.
+     */
+    public SaveData parse() throws SaveFormatException {
+        GameState gameState = null;
+        GameModifier modifier = null;
+        String logs = "";
+
+        // Skip the metadata header, which is only used to list saves
+        if (regionStartsWith(position, buffer.limit(), SaveHeader.MAGIC)) {
+            readToLineEnd();
+        }
+
+        skipBlankLines();
+        int numberOfObjects = readInt();
+        expectLineEnd();
+
+        for (int i = 0; i < numberOfObjects; i++) {
+            skipBlankLines();
+            if (isAtEnd()) {
+                break;
+            }
+
+            skipInlineWhitespace();
+            int keyStart = position;
+            int keyEnd = readToLineEnd();
+
+            if (regionEquals(keyStart, keyEnd, GameState.class.getName())) {
+                gameState = parseGameState();
+            }
+            else if (regionEquals(keyStart, keyEnd, Game.class.getName())) {
+                modifier = parseModifier();
+            }
+            else if (regionEquals(keyStart, keyEnd, Logger.class.getName())) {
+                logs = parseLogs();
+            }
+            else if (regionStartsWith(keyStart, keyEnd, SaveConfig.OUTER_KEY)) {
+                skipSection();
+            }
+            else {
+                throw error("Expected a component name", keyStart);
+            }
+        }
+
+        if (gameState == null) {
+            throw error("No game state found in save", position);
+        }
+        return new SaveData(gameState, modifier, logs);
+    }
+
+    /**
+     * Parses the game modifier saved by the game.
+     *
+     * @return The game modifier of the saved game.
+     * @throws SaveFormatException if the modifier is missing or unknown.
+     */
+    private GameModifier parseModifier() throws SaveFormatException {
+        skipInlineWhitespace();
+        expect(INNER_KEY);
+
+        int nameStart = position;
+        int nameEnd = readToLineEnd();
+        int simpleNameStart = nameStart;
+        for (int i = nameStart; i < nameEnd; i++) {
+            if (buffer.get(i) == '.') {
+                simpleNameStart = i + 1;
+            }
+        }
+
+        GameModifier modifier = GameModifier.parseName(buffer.subSequence(simpleNameStart, nameEnd).toString());
+        if (modifier == null) {
+            throw error("Unknown game modifier", simpleNameStart);
+        }
+        return modifier;
+    }
+
+    /**
+     * Parses the game state, including its board and players.
+     *
+     * @return The restored game state.
+     * @throws SaveFormatException if the game state is malformed.
+     */
+    private GameState parseGameState() throws SaveFormatException {
+        skipInlineWhitespace();
+        int turnNumber = readInt();
+        expect(DELIMITER);
+        int indexStart = position;
+        int currentPlayerIndex = readInt();
+        expectLineEnd();
+
+        expectKey(Board.class.getName());
+        Board board = parseBoard();
+
+        expectKey(Player.class.getName());
+        List<Player> players = parsePlayers(board);
+
+        if (currentPlayerIndex >= players.size()) {
+            throw error("Current player index is out of range", indexStart);
+        }
+
+        GameState gameState = new GameState(board, players, currentPlayerIndex);
+        gameState.setTurnNumber(turnNumber);
+        return gameState;
+    }
+
+    /**
+     * Parses the board dimensions and the height and fog of every tower.
+     *
+     * @return The restored board.
+     * @throws SaveFormatException if the board is malformed.
+     */
+    private Board parseBoard() throws SaveFormatException {
+        skipInlineWhitespace();
+        int width = readInt();
+        expect(DELIMITER);
+        int height = readInt();
+        expectLineEnd();
+
+        Board board = new Board(width, height);
+
+        for (int x = 0; x < width; x++) {
+            skipInlineWhitespace();
+            for (int y = 0; y < height; y++) {
+                int heightStart = position;
+                int towerHeight = readInt();
+                if (towerHeight > 4) {
+                    throw error("Tower height must be between 0 and 4", heightStart);
+                }
+                expect(COMMA);
+                boolean fogged = readBoolean();
+                expect(DELIMITER);
+
+                Tower tower = board.getTower(new Position(x, y));
+                tower.setFogged(fogged);
+                for (int i = 0; i < towerHeight; i++) {
+                    tower.buildFloor();
+                }
+            }
+            expectLineEnd();
+        }
+        return board;
+    }
+
+    /**
+     * Parses every player and places their workers on the board.
+     *
+     * @param board The board to place the workers on.
+     * @return The restored list of players.
+     * @throws SaveFormatException if a player or worker is malformed.
+     */
+    private List<Player> parsePlayers(Board board) throws SaveFormatException {
+        skipInlineWhitespace();
+        int numberOfPlayers = readInt();
+        expect(DELIMITER);
+        int numberOfWorkers = readInt();
+        expectLineEnd();
+
+        List<Player> players = new ArrayList<>(numberOfPlayers);
+
+        for (int i = 0; i < numberOfPlayers; i++) {
+            skipInlineWhitespace();
+            int nameStart = position;
+            int nameEnd = readUntil(DELIMITER);
+            int godStart = position;
+            int godEnd = readUntil(DELIMITER);
+            boolean canSelectWorker = readBoolean();
+            expect(DELIMITER);
+            expectLineEnd();
+
+            God god = God.parseName(buffer.subSequence(godStart, godEnd).toString());
+            if (god == null) {
+                throw error("Unknown god", godStart);
+            }
+
+            Player player = new Player(buffer.subSequence(nameStart, nameEnd).toString());
+            player.setGod(god);
+            player.setCanSelectWorker(canSelectWorker);
+
+            for (int j = 0; j < numberOfWorkers; j++) {
+                skipInlineWhitespace();
+                int positionStart = position;
+                expect('(');
+                int x = readInt();
+                expect(COMMA);
+                int y = readInt();
+                expect(')');
+                expectLineEnd();
+
+                Position workerPosition = new Position(x, y);
+                if (!board.isValidPosition(workerPosition) || board.isOccupied(workerPosition)) {
+                    throw error("Worker position is outside the board or already occupied", positionStart);
+                }
+
+                Worker worker = new Worker();
+                player.addWorker(worker);
+                board.addWorker(workerPosition, worker);
+            }
+            player.initialiseWorkerIcon(i);
+            players.add(player);
+        }
+        return players;
+    }
+
+    /**
+     * Reads the saved log text up to the next component.
+     *
+     * @return The saved log text.
+     */
+    private String parseLogs() {
+        int start = position;
+        int end = skipSection();
+        return buffer.subSequence(start, end).toString().trim();
+    }
+
+    /**
+     * Skips every line until the next component name or the end of the buffer.
+     *
+     * @return The offset at which the skipped section ends.
+     */
+    private int skipSection() {
+        while (!isAtEnd()) {
+            int start = position;
+            skipInlineWhitespace();
+            if (regionStartsWith(position, buffer.limit(), SaveConfig.OUTER_KEY)) {
+                position = start;
+                return start;
+            }
+            readToLineEnd();
+        }
+        return position;
+    }
+
+    // Cursor Methods
+
+    /**
+     * Checks whether the cursor has reached the end of the buffer.
+     *
+     * @return true if there are no characters left, false otherwise.
+     */
+    private boolean isAtEnd() {
+        return position >= buffer.limit();
+    }
+
+    /**
+     * Reads a non-negative decimal integer at the cursor.
+     *
+     * @return The integer read.
+     * @throws SaveFormatException if there is no integer at the cursor.
+     */
+    private int readInt() throws SaveFormatException {
+        int start = position;
+        long value = 0;
+
+        while (!isAtEnd()) {
+            char c = buffer.get(position);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw error("Number is too large", start);
+            }
+            position++;
+        }
+
+        if (position == start) {
+            throw error("Expected a number", start);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads the literal true or false at the cursor.
+     *
+     * @return The boolean read.
+     * @throws SaveFormatException if there is no boolean at the cursor.
+     */
+    private boolean readBoolean() throws SaveFormatException {
+        if (regionStartsWith(position, buffer.limit(), "true")) {
+            position += 4;
+            return true;
+        }
+        if (regionStartsWith(position, buffer.limit(), "false")) {
+            position += 5;
+            return false;
+        }
+        throw error("Expected true or false", position);
+    }
+
+    /**
+     * Advances the cursor past the next occurrence of a delimiter on the current line.
+     *
+     * @param delimiter The delimiter to read up to.
+     * @return The offset of the delimiter, which ends the field that was read.
+     * @throws SaveFormatException if the line ends before the delimiter.
+     */
+    private int readUntil(char delimiter) throws SaveFormatException {
+        while (!isAtEnd()) {
+            char c = buffer.get(position);
+            if (c == delimiter) {
+                return position++;
+            }
+            if (c == '\n') {
+                break;
+            }
+            position++;
+        }
+        throw error("Expected '" + delimiter + "'", position);
+    }
+
+    /**
+     * Advances the cursor to the start of the next line.
+     *
+     * @return The offset at which the current line's content ends, excluding trailing whitespace.
+     */
+    private int readToLineEnd() {
+        int end = position;
+        while (!isAtEnd()) {
+            char c = buffer.get(position);
+            if (c == '\n') {
+                nextLine();
+                return end;
+            }
+            position++;
+            if (!Character.isWhitespace(c)) {
+                end = position;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Expects a nested component key on its own line.
+     *
+     * @param key The name of the nested component.
+     * @throws SaveFormatException if the key is not found.
+     */
+    private void expectKey(String key) throws SaveFormatException {
+        skipBlankLines();
+        skipInlineWhitespace();
+        expect(INNER_KEY);
+        int start = position;
+        int end = readToLineEnd();
+        if (!regionEquals(start, end, key)) {
+            throw error("Expected " + SaveConfig.INNER_KEY + key, start);
+        }
+    }
+
+    /**
+     * Expects a specific character at the cursor and advances past it.
+     *
+     * @param expected The character expected.
+     * @throws SaveFormatException if a different character is found.
+     */
+    private void expect(char expected) throws SaveFormatException {
+        if (isAtEnd() || buffer.get(position) != expected) {
+            throw error("Expected '" + expected + "'", position);
+        }
+        position++;
+    }
+
+    /**
+     * Expects only whitespace until the end of the current line and advances to the next line.
+     *
+     * @throws SaveFormatException if other characters remain on the line.
+     */
+    private void expectLineEnd() throws SaveFormatException {
+        skipInlineWhitespace();
+        if (isAtEnd()) {
+            return;
+        }
+        if (buffer.get(position) != '\n') {
+            throw error("Unexpected character '" + buffer.get(position) + "'", position);
+        }
+        nextLine();
+    }
+
+    /**
+     * Skips spaces, tabs and carriage returns on the current line.
+     */
+    private void skipInlineWhitespace() {
+        while (!isAtEnd()) {
+            char c = buffer.get(position);
+            if (c != ' ' && c != '\t' && c != '\r') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    /**
+     * Skips any lines containing only whitespace.
+     */
+    private void skipBlankLines() {
+        while (!isAtEnd()) {
+            int start = position;
+            skipInlineWhitespace();
+            if (isAtEnd() || buffer.get(position) != '\n') {
+                position = start;
+                return;
+            }
+            nextLine();
+        }
+    }
+
+    /**
+     * Moves the cursor past a newline character.
+     */
+    private void nextLine() {
+        position++;
+    }
+
+    /**
+     * Compares a region of the buffer against a string without copying it.
+     *
+     * @param start The start offset of the region.
+     * @param end The end offset of the region.
+     * @param value The string to compare against.
+     * @return true if the region equals the string, false otherwise.
+     */
+    private boolean regionEquals(int start, int end, String value) {
+        return end - start == value.length() && regionStartsWith(start, end, value);
+    }
+
+    /**
+     * Checks whether a region of the buffer starts with a string without copying it.
+     *
+     * @param start The start offset of the region.
+     * @param end The end offset of the region.
+     * @param prefix The prefix to compare against.
+     * @return true if the region starts with the prefix, false otherwise.
+     */
+    private boolean regionStartsWith(int start, int end, String prefix) {
+        if (end - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (buffer.get(start + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates an exception describing an error at an offset. The line and column are
+     * only counted here, so that valid files pay nothing for error reporting.
+     *
+     * @param message The description of the error.
+     * @param offset The offset where the error was found.
+     * @return The exception to be thrown.
+     */
+    private SaveFormatException error(String message, int offset) {
+        int line = 1;
+        int lineStart = 0;
+        for (int i = 0; i < offset && i < buffer.limit(); i++) {
+            if (buffer.get(i) == '\n') {
+                line++;
+                lineStart = i + 1;
+            }
+        }
+        return new SaveFormatException(message, line, offset - lineStart + 1, offset);
+    }
+}
@@ -0,0 +1,259 @@
+package santorini.utils;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A hierarchical timing wheel running the timeouts of every game on a single thread.
+ * Each level of the wheel has 64 slots, each slot of a level spanning a whole turn of the
+ * level below, so scheduling and cancelling a timeout costs the same however many are
+ * pending, and four levels of 10 millisecond ticks cover more than two days. Timeouts
+ * run on the wheel's thread, at the first tick at or after their deadline, so their tasks
+ * must be short and hand any real work over to the thread that owns it.
+ * The thread parks while no timeout is pending.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public final class TimingWheel {
+
+    // Constants
+
+    /**
+     * The duration of a tick of the shared wheel.
+     */
+    public static final Duration DEFAULT_TICK = Duration.ofMillis(10);
+
+    /**
+     * The number of bits of a tick used to pick a slot at each level.
+     */
+    private static final int SLOT_BITS = 6;
+
+    /**
+     * The number of slots at each level.
+     */
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    /**
+     * The mask picking a slot from the bits of a tick.
+     */
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    /**
+     * The number of levels of the wheel.
+     */
+    private static final int LEVELS = 4;
+
+    /**
+     * The furthest a timeout is placed ahead of the current tick. Later timeouts are placed
+     * in the last slot of the top level and placed again as the wheel turns.
+     */
+    private static final long MAXIMUM_TICKS = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    // Attributes
+
+    /**
+     * The shared wheel, created on first use.
+     */
+    private static TimingWheel instance;
+
+    /**
+     * The duration of a tick, in nanoseconds.
+     */
+    private final long tickNanos;
+
+    /**
+     * The time the wheel was created, from System.nanoTime().
+     */
+    private final long startNanos;
+
+    /**
+     * The timeouts placed in each slot of each level, only used on the wheel's thread.
+     */
+    private final Queue<WheelTimeout>[][] slots;
+
+    /**
+     * The timeouts scheduled since the wheel's thread last placed them.
+     */
+    private final Queue<WheelTimeout> scheduled;
+
+    /**
+     * The thread turning the wheel.
+     */
+    private final Thread thread;
+
+    /**
+     * The last tick the wheel has processed, only used on the wheel's thread.
+     */
+    private long currentTick;
+
+    /**
+     * The number of timeouts placed in the slots, only used on the wheel's thread.
+     */
+    private int placedCount;
+
+    // Constructor
+
+    /**
+     * Constructor. Starts the wheel's thread, which is a daemon thread.
+     *
+     * @param tick The duration of a tick, which is the precision of the timeouts.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(Duration tick) {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("The tick must be positive");
+        }
+        this.tickNanos = tick.toNanos();
+        this.startNanos = System.nanoTime();
+        this.slots = new Queue[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots[level][slot] = new ArrayDeque<>();
+            }
+        }
+        this.scheduled = new ConcurrentLinkedQueue<>();
+        this.thread = new Thread(this::run, "timing-wheel");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    // Methods
+
+    /**
+     * Gets the shared wheel, creating it on first use.
+     *
+     * @return The shared timing wheel.
+     */
+    public static synchronized TimingWheel getInstance() {
+        if (instance == null) {
+            instance = new TimingWheel(DEFAULT_TICK);
+        }
+        return instance;
+    }
+
+    /**
+     * Schedules a task to run once a delay has passed. Can be called from any thread.
+     *
+     * @param task The task, run on the wheel's thread.
+     * @param delay The delay, rounded up to whole ticks.
+     * @return The timeout, which can be cancelled until the task has run.
+     */
+    public WheelTimeout schedule(Runnable task, Duration delay) {
+        long deadlineNanos = System.nanoTime() + Math.max(0, delay.toNanos()) - startNanos;
+        WheelTimeout timeout = new WheelTimeout(task, Math.ceilDiv(deadlineNanos, tickNanos));
+        scheduled.add(timeout);
+        LockSupport.unpark(thread);
+        return timeout;
+    }
+
+    /**
+     * Runs on the wheel's thread, processing every tick as its time comes.
+     */
+    private void run() {
+        while (true) {
+            long nowTick = (System.nanoTime() - startNanos) / tickNanos;
+
+            // With nothing pending the wheel can skip ahead instead of processing empty ticks
+            if (placedCount == 0 && scheduled.isEmpty()) {
+                currentTick = Math.max(currentTick, nowTick);
+                LockSupport.park(this);
+                continue;
+            }
+            if (currentTick >= nowTick) {
+                long wakeNanos = startNanos + (currentTick + 1) * tickNanos;
+                LockSupport.parkNanos(this, wakeNanos - System.nanoTime());
+                placeScheduled();
+                continue;
+            }
+
+            currentTick++;
+            placeScheduled();
+            cascade();
+            expireSlot(slots[0][(int) (currentTick & SLOT_MASK)]);
+        }
+    }
+
+    /**
+     * Places the timeouts scheduled since the last tick in the slots, running those already due.
+     */
+    private void placeScheduled() {
+        WheelTimeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            place(timeout);
+        }
+    }
+
+    /**
+     * Places a timeout in the slot of the lowest level that turns to it before its deadline,
+     * or runs it if it is due.
+     *
+     * @param timeout The timeout.
+     */
+    private void place(WheelTimeout timeout) {
+        if (timeout.isCancelled()) {
+            return;
+        }
+        long ticks = timeout.getDeadlineTick() - currentTick;
+        if (ticks <= 0) {
+            expire(timeout);
+            return;
+        }
+
+        long deadline = currentTick + Math.min(ticks, MAXIMUM_TICKS);
+        int level = 0;
+        while (level < LEVELS - 1 && ticks >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        slots[level][(int) ((deadline >> (SLOT_BITS * level)) & SLOT_MASK)].add(timeout);
+        placedCount++;
+    }
+
+    /**
+     * Moves the timeouts of the slots of higher levels that the wheel has turned to into lower levels.
+     * A level turns to its next slot each time the level below has gone all the way round.
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                return;
+            }
+            Queue<WheelTimeout> slot = slots[level][(int) ((currentTick >> (SLOT_BITS * level)) & SLOT_MASK)];
+            Queue<WheelTimeout> moved = new ArrayDeque<>(slot);
+            placedCount -= slot.size();
+            slot.clear();
+            for (WheelTimeout timeout : moved) {
+                place(timeout);
+            }
+        }
+    }
+
+    /**
+     * Runs every timeout of a slot of the lowest level.
+     *
+     * @param slot The slot.
+     */
+    private void expireSlot(Queue<WheelTimeout> slot) {
+        WheelTimeout timeout;
+        while ((timeout = slot.poll()) != null) {
+            placedCount--;
+            expire(timeout);
+        }
+    }
+
+    /**
+     * Runs the task of a timeout, keeping the wheel turning if the task fails.
+     *
+     * @param timeout The timeout.
+     */
+    private void expire(WheelTimeout timeout) {
+        try {
+            timeout.expire();
+        } catch (RuntimeException e) {
+            Logger.getInstance().log(LogLevel.WARN, () -> "Timeout failed: " + e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package santorini.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A task scheduled on a timing wheel, which can be cancelled until it has run.
+ *
+ * Created by:
+ * author Yuan Yi
+ */
+public class WheelTimeout {
+
+    // Constants
+
+    /**
+     * The state of a timeout waiting to run.
+     */
+    private static final int PENDING = 0;
+
+    /**
+     * The state of a timeout that has been cancelled.
+     */
+    private static final int CANCELLED = 1;
+
+    /**
+     * The state of a timeout that has run.
+     */
+    private static final int EXPIRED = 2;
+
+    // Attributes
+
+    /**
+     * The task to run.
+     */
+    private final Runnable task;
+
+    /**
+     * The tick of the wheel at which the task runs.
+     */
+    private final long deadlineTick;
+
+    /**
+     * Whether the timeout is pending, cancelled or expired.
+     */
+    private final AtomicInteger state;
+
+    // Constructor
+
+    /**
+     * Constructor.
+     *
+     * @param task The task to run.
+     * @param deadlineTick The tick of the wheel at which the task runs.
+     */
+    WheelTimeout(Runnable task, long deadlineTick) {
+        this.task = task;
+        this.deadlineTick = deadlineTick;
+        this.state = new AtomicInteger(PENDING);
+    }
+
+    // Methods
+
+    /**
+     * Cancels the timeout, so that its task never runs.
+     *
+     * @return True if the timeout was cancelled, false if it had already run or been cancelled.
+     */
+    public boolean cancel() {
+        return state.compareAndSet(PENDING, CANCELLED);
+    }
+
+    /**
+     * Checks whether the timeout has been cancelled.
+     *
+     * @return True if the timeout has been cancelled, false otherwise.
+     */
+    public boolean isCancelled() {
+        return state.get() == CANCELLED;
+    }
+
+    /**
+     * Checks whether the task of the timeout has run.
+     *
+     * @return True if the task has run, false otherwise.
+     */
+    public boolean isExpired() {
+        return state.get() == EXPIRED;
+    }
+
+    /**
+     * Runs the task unless the timeout has been cancelled. Called on the wheel's thread.
+     */
+    void expire() {
+        if (state.compareAndSet(PENDING, EXPIRED)) {
+            task.run();
+        }
+    }
+
+    // Getters and Setters
+
+    /**
+     * Gets the tick of the wheel at which the task runs.
+     *
+     * @return The deadline tick.
+     */
+    long getDeadlineTick() {
+        return deadlineTick;
+    }
+}
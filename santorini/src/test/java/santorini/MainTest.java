@@ -1,26 +1,135 @@
 package santorini;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.ImageIcon;
+import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import santorini.actions.BuildAction;
 import santorini.actions.MoveAction;
 import santorini.board.Board;
+import santorini.board.BoardSnapshot;
+import santorini.engine.BestTurn;
+import santorini.engine.EngineHost;
+import santorini.engine.EngineInfo;
+import santorini.engine.EngineMatch;
+import santorini.engine.EnginePosition;
+import santorini.engine.EngineProtocol;
+import santorini.engine.GreedyEngine;
+import santorini.engine.SearchLimits;
+import santorini.game.ClockSnapshot;
 import santorini.game.Game;
+import santorini.game.GameClock;
+import santorini.game.GameChange;
 import santorini.game.GameFactory;
+import santorini.game.GameMode;
 import santorini.game.GameState;
+import santorini.game.GameThread;
 import santorini.game.Position;
+import santorini.game.PositionNotation;
+import santorini.game.Subscriber;
+import santorini.game.events.GameEvent;
+import santorini.game.events.GameEventBus;
+import santorini.game.events.GameWon;
+import santorini.game.events.MoveExecuted;
+import santorini.game.StateHash;
+import santorini.game.TurnCodec;
+import santorini.game.TurnExecutor;
+import santorini.game.TurnDriver;
+import santorini.game.TimeControl;
+import santorini.lobby.Lobby;
+import santorini.lobby.LobbyGauges;
+import santorini.lobby.LobbyInput;
+import santorini.lobby.LobbyPlayer;
+import santorini.lobby.MatchOutcome;
+import santorini.lobby.MatchResult;
+import santorini.lobby.RandomLobbyPlayer;
+import santorini.network.BotPlayer;
+import santorini.network.LockstepBot;
+import santorini.network.LockstepInput;
+import santorini.network.LockstepLink;
+import santorini.network.LockstepSession;
+import santorini.network.LockstepStart;
+import santorini.network.ErrorCode;
+import santorini.network.Frame;
+import santorini.network.MatchClient;
+import santorini.network.MatchListener;
+import santorini.network.MatchServer;
+import santorini.network.MatchStart;
+import santorini.network.MatchSnapshot;
+import santorini.network.MatchSpectator;
+import santorini.network.Protocol;
+import santorini.network.SpectatorDelta;
+import santorini.network.SpectatorKeyframe;
+import santorini.network.TurnHash;
+import santorini.panels.BoardView;
 import santorini.players.Artemis;
 import santorini.players.Demeter;
 import santorini.players.God;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import santorini.players.Player;
 import santorini.players.Worker;
 import santorini.towers.Tower;
+import santorini.tournament.BalanceAnalyzer;
+import santorini.tournament.BalanceStats;
+import santorini.tournament.PlayerKind;
+import santorini.tournament.ResultColumns;
+import santorini.tournament.ResultFormat;
+import santorini.tournament.Tournament;
+import santorini.tournament.TournamentConfig;
+import santorini.tournament.TournamentGame;
+import santorini.tournament.TournamentReport;
+import santorini.tournament.WinRate;
+import santorini.utils.ImageCache;
+import santorini.utils.JsonlEventSink;
+import santorini.utils.LogEvent;
+import santorini.utils.LogEventType;
+import santorini.utils.LogLevel;
+import santorini.utils.Logger;
+import santorini.utils.SaveData;
+import santorini.utils.SaveFormatException;
+import santorini.utils.SaveHeader;
+import santorini.utils.SaveParser;
+import santorini.utils.TimingWheel;
+import santorini.utils.WheelTimeout;
 
 class MainTest {
     @Test
@@ -263,4 +372,1207 @@ class MainTest {
         assertTrue(downMove.execute(player, worker, board));
         assertEquals(groundPos, board.getPositionOf(worker));
     }
+
+    @Test
+    void testSaveParserLoadsLegacySave() throws Exception {
+        String save = "3\n"
+            + "santorini.game.Game\n"
+            + "+santorini.game.modifier.ChaosModifier\n"
+            + "\n"
+            + "santorini.game.GameState\n"
+            + "7$1\n"
+            + "+santorini.board.Board\n"
+            + "3$3\n"
+            + "0,false$1,false$2,true$\n"
+            + "3,false$4,false$0,false$\n"
+            + "0,false$0,true$1,false$\n"
+            + "+santorini.players.Player\n"
+            + "2$1\n"
+            + "Player 1$Artemis$true$\n"
+            + "(0,0)\n"
+            + "Player 2$Triton$false$\n"
+            + "(2,2)\n"
+            + "\n"
+            + "santorini.utils.Logger\n"
+            + "Game Start!\n"
+            + "Turn 1\n";
+
+        SaveData saveData = new SaveParser(CharBuffer.wrap(save)).parse();
+        GameState gameState = saveData.gameState();
+        Board board = gameState.getBoard();
+
+        // Check the game state and board
+        assertEquals(7, gameState.getTurnNumber());
+        assertEquals(1, gameState.getCurrentPlayerIndex());
+        assertEquals(3, board.getWidth());
+        assertEquals(2, board.getTower(new Position(0, 2)).getHeight());
+        assertTrue(board.getTower(new Position(0, 2)).getFogged());
+        assertTrue(board.getTower(new Position(1, 1)).isComplete());
+        assertTrue(board.getTower(new Position(2, 1)).getFogged());
+
+        // Check the players and workers
+        Player player2 = gameState.getPlayer(1);
+        assertEquals("Player 2", player2.getName());
+        assertEquals("Triton", player2.getGod().getName());
+        assertEquals(new Position(2, 2), board.getPositionOf(player2.getWorkers().get(0)));
+
+        assertEquals("ChaosModifier", saveData.modifier().getClass().getSimpleName());
+        assertEquals("Game Start!\nTurn 1", saveData.logs());
+    }
+
+    @Test
+    void testSaveParserReportsErrorPosition() {
+        String save = "1\n"
+            + "santorini.game.GameState\n"
+            + "0$0\n"
+            + "+santorini.board.Board\n"
+            + "2$2\n"
+            + "0,false$1,false$\n"
+            + "0,false$x,false$\n";
+
+        SaveFormatException exception = assertThrows(SaveFormatException.class,
+            () -> new SaveParser(CharBuffer.wrap(save)).parse());
+
+        assertEquals(7, exception.getLine());
+        assertEquals(9, exception.getColumn());
+    }
+
+    @Test
+    void testSaveHeaderIsFixedSize() {
+        SaveHeader header = new SaveHeader("CHAOS", List.of("Artemis", "Triton"), 9, "Player 2",
+            1700000000000L, "", 2, 2, "0134");
+
+        // Check the header always occupies the same number of bytes
+        String encoded = header.encode();
+        assertEquals(SaveHeader.HEADER_SIZE, encoded.length());
+        assertTrue(encoded.endsWith("\n"));
+
+        // Check the header can be read back
+        SaveHeader decoded = SaveHeader.decode(encoded);
+        assertEquals(header, decoded);
+        assertEquals(3, decoded.getThumbnailHeight(1, 0));
+    }
+
+    @Test
+    void testLoggerKeepsMostRecentEvents() {
+        Logger logger = new Logger();
+        logger.log(LogEventType.GAME_START);
+        for (int i = 1; i <= Logger.CAPACITY; i++) {
+            logger.log(LogEventType.TURN_NUMBER, i);
+        }
+
+        // Check the oldest event was overwritten once the buffer was full
+        assertEquals(Logger.CAPACITY, logger.getEvents().length);
+        assertTrue(logger.getLogs().startsWith("Turn 1\n"));
+        assertTrue(logger.getLogs().endsWith("Turn " + Logger.CAPACITY + "\n"));
+
+        // Check restored logs are kept line by line
+        logger.clearLogs();
+        logger.restore("Game Start!\nTurn 1");
+        assertEquals(2, logger.getEvents().length);
+        assertEquals("Game Start!\nTurn 1\n", logger.getLogs());
+    }
+
+    @Test
+    void testLoggerDiscardsDisabledLevels() {
+        Logger logger = new Logger();
+        logger.setLevel(LogLevel.INFO);
+        logger.log(LogEventType.MOVES_REMAINING, 1);
+        logger.log(LogEventType.TURN_NUMBER, 1);
+        assertEquals("Turn 1\n", logger.getLogs());
+
+        // Check message suppliers are not called when logging is off
+        logger.setLevel(LogLevel.OFF);
+        logger.log(LogLevel.WARN, () -> {
+            throw new AssertionError("Message built while logging is off");
+        });
+        logger.log(LogEventType.GAME_START);
+        assertEquals(1, logger.getEvents().length);
+    }
+
+    @Test
+    void testJsonlEventEncoding() {
+        StringBuilder builder = new StringBuilder();
+        JsonlEventSink.encode(new LogEvent(LogEventType.MOVE, 1700000000000L, 3, "Player \"1\"",
+            new Position(0, 1), new Position(1, 2), 0, null), builder);
+
+        assertEquals("{\"time\":1700000000000,\"turn\":3,\"type\":\"MOVE\",\"player\":\"Player \\\"1\\\"\","
+            + "\"from\":[0,1],\"to\":[1,2]}", builder.toString());
+
+        // Check a count of 0 is written, unlike the value of events that carry none
+        builder.setLength(0);
+        JsonlEventSink.encode(new LogEvent(LogEventType.MOVES_REMAINING, 1700000000000L, 3, null, null, null, 0, null), builder);
+        assertEquals("{\"time\":1700000000000,\"turn\":3,\"type\":\"MOVES_REMAINING\",\"value\":0}", builder.toString());
+    }
+
+    @Test
+    void testImageCacheScalesOnce() {
+        ImageCache cache = ImageCache.getInstance();
+
+        // Check each size is scaled once and reused
+        ImageIcon icon = cache.getIcon("/worker1.png", 40, 40);
+        assertEquals(40, icon.getIconWidth());
+        assertSame(icon, cache.getIcon("/worker1.png", 40, 40));
+
+        // Check a cleared size is scaled again
+        cache.clearScaled();
+        assertNotSame(icon, cache.getIcon("/worker1.png", 40, 40));
+    }
+
+    @Test
+    void testBoardViewHitTesting() {
+        BoardView boardView = new BoardView();
+        boardView.setBounds(0, 0, 620, 620);
+        boardView.setBoard(BoardSnapshot.of(new Board(5, 5), true));
+
+        // Check clicks map to the cell under the mouse, with rows as x-coordinates
+        assertEquals(120, boardView.getCellSize());
+        assertEquals(new Position(0, 0), boardView.getCellAt(0, 0));
+        assertEquals(new Position(0, 1), boardView.getCellAt(130, 2));
+        assertEquals(new Position(4, 2), boardView.getCellAt(260, 619));
+
+        // Check clicks in the gaps between cells are ignored
+        assertNull(boardView.getCellAt(122, 10));
+        assertNull(boardView.getCellAt(10, 700));
+    }
+
+    @Test
+    void testBoardViewDispatchesOnlyTargets() {
+        Board board = new Board(5, 5);
+        BoardView boardView = new BoardView();
+        boardView.setBounds(0, 0, 620, 620);
+        boardView.setBoard(BoardSnapshot.of(board, true));
+
+        List<Position> clicked = new ArrayList<>();
+        boardView.setCellHandler(clicked::add);
+        BitSet targets = new BitSet();
+        targets.set(board.getIndex(new Position(1, 2)));
+        boardView.setTargets(targets, Color.GREEN);
+
+        // Check only clicks on target cells reach the handler
+        boardView.clickCell(boardView.getCellIndexAt(130, 0));
+        boardView.clickCell(boardView.getCellIndexAt(260, 130));
+        boardView.clickCell(boardView.getCellIndexAt(122, 10));
+        assertEquals(List.of(new Position(1, 2)), clicked);
+
+        // Check clearing the targets disables every cell
+        boardView.clearTargets();
+        boardView.clickCell(boardView.getCellIndexAt(260, 130));
+        assertEquals(1, clicked.size());
+        assertTrue(boardView.getTargets().isEmpty());
+    }
+
+    @Test
+    void testGameThreadRunsCommandsInOrder() throws Exception {
+        GameThread gameThread = GameThread.getInstance();
+        assertFalse(gameThread.isGameThread());
+
+        // Check commands run one at a time on the game thread, in the order they were submitted
+        List<Integer> order = new ArrayList<>();
+        List<Boolean> onGameThread = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int command = i;
+            gameThread.submit(() -> {
+                order.add(command);
+                onGameThread.add(gameThread.isGameThread());
+            });
+        }
+        gameThread.submit(() -> {}).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(0, 1, 2, 3, 4), order);
+        assertFalse(onGameThread.contains(false));
+
+        // Check an error fails its command without stopping the game thread
+        CompletableFuture<Void> failed = gameThread.submit(() -> {
+            throw new AssertionError("Command failed on purpose");
+        });
+        assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        gameThread.submit(() -> order.add(5)).get(5, TimeUnit.SECONDS);
+        assertEquals(6, order.size());
+
+        // Check a snapshot keeps showing the board as it was when taken
+        Board board = new Board(3, 3);
+        Worker worker = new Worker();
+        worker.setIconPath("/worker1.png");
+        board.addWorker(new Position(1, 1), worker);
+        BoardSnapshot snapshot = BoardSnapshot.of(board, false);
+        board.moveWorker(new Position(2, 2), worker);
+        assertEquals("/worker1.png", snapshot.getWorkerImage(snapshot.getIndex(new Position(1, 1))));
+        assertNull(snapshot.getWorkerImage(snapshot.getIndex(new Position(2, 2))));
+        assertEquals(9, snapshot.getChangedCells().size());
+    }
+
+    @Test
+    void testBoardViewScalesToFit() throws Exception {
+        BoardView boardView = new BoardView();
+        boardView.setBounds(0, 0, 1240, 1040);
+        boardView.setBoard(BoardSnapshot.of(new Board(5, 5), true));
+
+        // Check the grid grows with the component and is centred in it
+        assertEquals(204, boardView.getCellSize());
+        assertEquals(new Position(0, 0), boardView.getCellAt(100, 0));
+        assertNull(boardView.getCellAt(50, 10));
+        assertEquals(new Rectangle(100 + 209, 209, 204, 204), boardView.getCellBounds(new Position(1, 1)));
+
+        // Check a missing image variant is scaled in the background, with a stand-in until then
+        ImageCache cache = ImageCache.getInstance();
+        cache.getIcon("/floor2.png");
+        CountDownLatch ready = new CountDownLatch(1);
+        assertNotNull(cache.getVariant("/floor2.png", 37, ready::countDown));
+        assertTrue(ready.await(5, TimeUnit.SECONDS));
+        BufferedImage variant = cache.getVariant("/floor2.png", 37, () -> {});
+        assertEquals(37, variant.getWidth());
+        assertSame(variant, cache.getVariant("/floor2.png", 37, () -> {}));
+    }
+
+    @Test
+    void testBoardTracksDirtyCells() {
+        Board board = new Board(3, 3);
+        Worker worker = new Worker();
+
+        // Check a new board is entirely dirty
+        assertEquals(9, board.takeDirtyCells().size());
+        assertTrue(board.takeDirtyCells().isEmpty());
+
+        // Check moves dirty their source and target, and builds their target
+        board.addWorker(new Position(0, 0), worker);
+        board.takeDirtyCells();
+        board.moveWorker(new Position(1, 1), worker);
+        board.buildFloor(new Position(2, 1));
+        assertEquals(List.of(new Position(0, 0), new Position(1, 1), new Position(2, 1)), board.takeDirtyCells());
+    }
+
+    @Test
+    void testGameCoalescesBatchedUpdates() {
+        GameFactory gameFactory = new GameFactory();
+        gameFactory.createStandardGame();
+        Game game = Game.getInstance();
+
+        List<Set<GameChange>> updates = new ArrayList<>();
+        Subscriber subscriber = new Subscriber() {
+            @Override
+            public void update(GameState gameState) {}
+
+            @Override
+            public void update(GameState gameState, Set<GameChange> changes) {
+                updates.add(changes);
+            }
+
+            @Override
+            public boolean isInterestedIn(Set<GameChange> changes) {
+                return changes.contains(GameChange.PHASE) || changes.contains(GameChange.TURN);
+            }
+        };
+        game.addSubscriber(subscriber);
+        GameState gameState = game.getGameState();
+        gameState.setSelectedWorker(gameState.getCurrentPlayer().getWorkers().get(0));
+
+        try {
+            // Check ending both phases in one batch delivers a single update
+            game.runBatch(() -> {
+                game.forceEndPhase();
+                game.forceEndPhase();
+                game.processTurn(null, null, null);
+            });
+            assertEquals(1, updates.size());
+            assertTrue(updates.get(0).containsAll(Set.of(GameChange.PHASE, GameChange.TURN)));
+
+            // Check subscribers are not notified of changes they filtered out
+            game.processTurn();
+            assertEquals(1, updates.size());
+        } finally {
+            game.removeSubscriber(subscriber);
+        }
+    }
+
+    @Test
+    void testGameEventBusDeliversTypedEvents() throws InterruptedException {
+        try (GameEventBus eventBus = new GameEventBus()) {
+            List<MoveExecuted> moves = new ArrayList<>();
+            List<GameEvent> asyncEvents = new ArrayList<>();
+            CountDownLatch delivered = new CountDownLatch(2);
+
+            eventBus.subscribe(MoveExecuted.class, moves::add);
+            eventBus.subscribeAsync(GameEvent.class, event -> {
+                asyncEvents.add(event);
+                delivered.countDown();
+            });
+
+            eventBus.publish(new MoveExecuted(1, "Player 1", new Position(0, 0), new Position(0, 1)));
+            eventBus.publish(new GameWon(1, "Player 1"));
+
+            // Check synchronous subscribers only receive their type, before publish returns
+            assertEquals(1, moves.size());
+
+            // Check asynchronous subscribers receive every event in order
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+            assertEquals(GameWon.class, asyncEvents.get(1).getClass());
+        }
+    }
+
+    @Test
+    void testMatchServerHostsConcurrentMatches() throws Exception {
+        LogLevel level = Logger.getInstance().getLevel();
+        Logger.getInstance().setLevel(LogLevel.OFF);
+        MatchServer server = new MatchServer(0);
+        server.start();
+
+        try {
+            // Pair up bots on loopback, each playing one match to the end
+            List<CompletableFuture<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                results.add(new BotPlayer(GameMode.STANDARD, 1, i).play("localhost", server.getPort()));
+            }
+            int wins = 0;
+            for (CompletableFuture<Integer> result : results) {
+                wins += result.get(30, TimeUnit.SECONDS);
+            }
+
+            // Check every match was played once and had exactly one winner, once the server has counted the last one
+            assertEquals(20, wins);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (server.getFinishedMatchCount() < 20 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(20, server.getFinishedMatchCount());
+            assertEquals(0, server.getMatchCount());
+        } finally {
+            server.close();
+            Logger.getInstance().setLevel(level);
+        }
+    }
+
+    @Test
+    void testLockstepPeersStayInSync() throws Exception {
+        LogLevel level = Logger.getInstance().getLevel();
+        Logger.getInstance().setLevel(LogLevel.OFF);
+        MatchServer server = new MatchServer(0);
+        server.start();
+
+        try {
+            // Pair up lockstep bots on loopback, each peer running its own copy of the game
+            List<LockstepBot> bots = new ArrayList<>();
+            List<CompletableFuture<LockstepSession>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                LockstepBot bot = new LockstepBot(GameMode.STANDARD, i);
+                bots.add(bot);
+                results.add(bot.play("localhost", server.getPort()));
+            }
+            List<LockstepSession> sessions = new ArrayList<>();
+            for (CompletableFuture<LockstepSession> result : results) {
+                sessions.add(result.get(30, TimeUnit.SECONDS));
+            }
+
+            // Check both peers of every match checked each other's turns and ended in the same state
+            for (int i = 0; i < sessions.size(); i++) {
+                LockstepSession session = sessions.get(i);
+                assertFalse(session.isDesynced());
+                assertTrue(session.isFinished());
+                for (LockstepSession other : sessions) {
+                    if (other != session && other.getMatchId() == session.getMatchId()) {
+                        assertEquals(StateHash.of(session.getGameState()), StateHash.of(other.getGameState()));
+                        assertTrue(session.getHashesChecked() + other.getHashesChecked() > 0);
+                    }
+                }
+
+                // Check only a few bytes are sent per turn
+                int turns = session.getGameState().getTurnNumber() + 1;
+                assertTrue(bots.get(i).getBytesSent() < 64L * turns);
+            }
+        } finally {
+            server.close();
+            Logger.getInstance().setLevel(level);
+        }
+
+        // Check a peer whose state differs is caught at the end of its turn
+        List<LockstepSession> peers = new ArrayList<>();
+        LockstepLink tamperedLink = new LockstepLink() {
+            @Override
+            public void sendInput(LockstepInput input) {
+                peers.get(1).receiveInput(input);
+            }
+
+            @Override
+            public void sendTurnHash(TurnHash turnHash) {
+                peers.get(1).receiveTurnHash(new TurnHash(turnHash.sequence(), turnHash.hash() ^ 1));
+            }
+        };
+        LockstepLink unusedLink = new LockstepLink() {
+            @Override
+            public void sendInput(LockstepInput input) {
+            }
+
+            @Override
+            public void sendTurnHash(TurnHash turnHash) {
+            }
+        };
+        peers.add(new LockstepSession(new LockstepStart(1, 0, GameMode.STANDARD, 42), tamperedLink));
+        peers.add(new LockstepSession(new LockstepStart(1, 1, GameMode.STANDARD, 42), unusedLink));
+        assertEquals(StateHash.of(peers.get(0).getGameState()), StateHash.of(peers.get(1).getGameState()));
+
+        Random random = new Random(7);
+        while (peers.get(0).isLocalTurn()) {
+            BitSet targets = peers.get(0).getTurnDriver().getTargets();
+            if (targets.isEmpty()) {
+                assertTrue(peers.get(0).endPhase());
+                continue;
+            }
+            int skip = random.nextInt(targets.cardinality());
+            int index = targets.nextSetBit(0);
+            for (int i = 0; i < skip; i++) {
+                index = targets.nextSetBit(index + 1);
+            }
+            assertTrue(peers.get(0).pick(peers.get(0).getGameState().getBoard().getPosition(index)));
+        }
+        assertFalse(peers.get(0).isDesynced());
+        assertTrue(peers.get(1).isDesynced());
+    }
+
+    @Test
+    void testSpectatorsDoNotSlowMatches() throws Exception {
+        LogLevel level = Logger.getInstance().getLevel();
+        Logger.getInstance().setLevel(LogLevel.OFF);
+        MatchServer server = new MatchServer(0);
+        server.start();
+
+        try {
+            // Play a featured match unwatched, then one watched by a crowd of spectators
+            long[] unwatched = playFeaturedMatch(server, 0);
+            long[] watched = playFeaturedMatch(server, 200);
+
+            // Check the fan-out to spectators is kept off the match's turns: each turn input sends one state to each player, watched or not
+            assertTrue(unwatched[0] > 0 && watched[0] > 0);
+            assertEquals(2 * unwatched[0], unwatched[1]);
+            assertEquals(2 * watched[0], watched[1]);
+            assertEquals(0, server.getResyncCount());
+
+            // Stall a spectator that stops reading over featured matches, until its queue has passed the backlog limit
+            try (Socket stalled = new Socket()) {
+                stalled.setReceiveBufferSize(1);
+                stalled.connect(new InetSocketAddress("localhost", server.getPort()));
+                stalled.setSoTimeout(30_000);
+                int finished = server.getFinishedMatchCount();
+                BotPlayer first = null;
+                for (int i = 0; i < 20 && server.getResyncCount() == 0; i++) {
+                    writeFrame(stalled, Protocol.encodeSpectate(0));
+                    first = new BotPlayer(GameMode.STANDARD, 1, 20 + 2 * i);
+                    BotPlayer second = new BotPlayer(GameMode.STANDARD, 1, 21 + 2 * i);
+                    CompletableFuture<Integer> firstWins = first.play("localhost", server.getPort());
+                    CompletableFuture<Integer> secondWins = second.play("localhost", server.getPort());
+                    assertEquals(1, firstWins.get(30, TimeUnit.SECONDS) + secondWins.get(30, TimeUnit.SECONDS));
+                    finished++;
+                }
+                assertTrue(server.getResyncCount() > 0);
+
+                // Once the last match has ended on the server, ask for a match that does not exist to mark the end of the feed
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (server.getFinishedMatchCount() < finished && System.nanoTime() < deadline) {
+                    Thread.sleep(5);
+                }
+                assertEquals(finished, server.getFinishedMatchCount());
+                writeFrame(stalled, Protocol.encodeSpectate(Integer.MAX_VALUE));
+
+                // Read everything the spectator was sent, applying deltas that follow the state it has
+                ByteBuffer buffer = ByteBuffer.allocate(Protocol.MAXIMUM_FRAME_LENGTH);
+                MatchSnapshot seen = null;
+                int sequence = 0;
+                int catchUps = 0;
+                boolean ended = false;
+                while (!ended) {
+                    for (Object message : readSpectatorFrames(stalled, buffer)) {
+                        if (message instanceof SpectatorKeyframe keyframe) {
+                            seen = keyframe.snapshot();
+                            sequence = keyframe.sequence();
+                            if (sequence > 0) {
+                                catchUps++;
+                            }
+                        }
+                        else if (message instanceof SpectatorDelta delta && seen != null && delta.sequence() == sequence + 1) {
+                            seen = delta.applyTo(seen);
+                            sequence = delta.sequence();
+                        }
+                        else if (message == ErrorCode.NO_SUCH_MATCH) {
+                            ended = true;
+                        }
+                    }
+                }
+
+                // Check the spectator was caught up part way through a match and still rebuilt the final state of the last one
+                assertTrue(catchUps > 0);
+                assertArrayEquals(first.getLastSnapshot().cells(), seen.cells());
+                assertEquals(first.getLastSnapshot().winnerSeat(), seen.winnerSeat());
+            }
+        } finally {
+            server.close();
+            Logger.getInstance().setLevel(level);
+        }
+    }
+
+    /**
+     * Plays a match between two bots on a match server while spectators watch it as the featured match,
+     * checking every spectator rebuilt the final state of the match from its deltas.
+     *
+     * @param server The match server.
+     * @param spectatorCount The number of spectators.
+     * @return The number of turn inputs the server handled in the match, and the number of frames it sent the players for them.
+     * @throws Exception If a client cannot connect or the match does not end in time.
+     */
+    private static long[] playFeaturedMatch(MatchServer server, int spectatorCount) throws Exception {
+        // Gather the spectators before the match starts, so they watch it from its first turn
+        List<MatchSpectator> spectators = new ArrayList<>();
+        List<CompletableFuture<MatchSnapshot>> views = new ArrayList<>();
+        for (int i = 0; i < spectatorCount; i++) {
+            MatchSpectator spectator = new MatchSpectator();
+            spectators.add(spectator);
+            views.add(spectator.watch("localhost", server.getPort(), 0));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (server.getSpectatorCount() < spectatorCount && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(spectatorCount, server.getSpectatorCount());
+
+        long inputs = server.getTurnInputCount();
+        long frames = server.getTurnFrameCount();
+        BotPlayer first = new BotPlayer(GameMode.STANDARD, 1, 11);
+        BotPlayer second = new BotPlayer(GameMode.STANDARD, 1, 12);
+        CompletableFuture<Integer> firstWins = first.play("localhost", server.getPort());
+        CompletableFuture<Integer> secondWins = second.play("localhost", server.getPort());
+        assertEquals(1, firstWins.get(30, TimeUnit.SECONDS) + secondWins.get(30, TimeUnit.SECONDS));
+
+        MatchSnapshot result = first.getLastSnapshot();
+        for (int i = 0; i < spectatorCount; i++) {
+            MatchSnapshot seen = views.get(i).get(30, TimeUnit.SECONDS);
+            assertArrayEquals(result.cells(), seen.cells());
+            assertEquals(result.winnerSeat(), seen.winnerSeat());
+            assertEquals(1, spectators.get(i).getKeyframes());
+            assertTrue(spectators.get(i).getDeltas() > 0);
+        }
+        return new long[] {server.getTurnInputCount() - inputs, server.getTurnFrameCount() - frames};
+    }
+
+    /**
+     * Writes a frame to a client socket.
+     *
+     * @param socket The socket.
+     * @param frame The frame.
+     * @throws IOException If the frame cannot be written.
+     */
+    private static void writeFrame(Socket socket, ByteBuffer frame) throws IOException {
+        byte[] bytes = new byte[frame.remaining()];
+        frame.get(bytes);
+        socket.getOutputStream().write(bytes);
+    }
+
+    /**
+     * Reads from a spectator's socket once and decodes the frames that are complete.
+     *
+     * @param socket The socket of the spectator.
+     * @param buffer The bytes read that did not make a complete frame yet, kept from call to call.
+     * @return The keyframes, deltas and errors read, in order.
+     * @throws IOException If the socket cannot be read or a frame is invalid.
+     */
+    private static List<Object> readSpectatorFrames(Socket socket, ByteBuffer buffer) throws IOException {
+        int read = socket.getInputStream().read(buffer.array(), buffer.position(), buffer.remaining());
+        if (read < 0) {
+            throw new EOFException("The spectator was disconnected");
+        }
+        buffer.position(buffer.position() + read).flip();
+        List<Object> messages = new ArrayList<>();
+        Frame frame;
+        while ((frame = Protocol.readFrame(buffer)) != null) {
+            switch (frame.type()) {
+                case KEYFRAME -> messages.add(Protocol.decodeKeyframe(frame.payload()));
+                case DELTA -> messages.add(Protocol.decodeDelta(frame.payload()));
+                case ERROR -> messages.add(Protocol.decodeError(frame.payload()));
+                default -> throw new IOException("Unexpected frame " + frame.type());
+            }
+        }
+        buffer.compact();
+        return messages;
+    }
+
+    @Test
+    void testLobbyPairsByModeAndRatingBand() throws Exception {
+        LogLevel level = Logger.getInstance().getLevel();
+        Logger.getInstance().setLevel(LogLevel.OFF);
+        try (Lobby lobby = new Lobby(Duration.ofMillis(200), 200)) {
+            // Check players are only paired within the same game mode and rating band
+            CompletableFuture<MatchResult> low = lobby.enqueue(new RandomLobbyPlayer("low", 1000, 1), GameMode.STANDARD);
+            CompletableFuture<MatchResult> high = lobby.enqueue(new RandomLobbyPlayer("high", 1500, 2), GameMode.STANDARD);
+            CompletableFuture<MatchResult> chaos = lobby.enqueue(new RandomLobbyPlayer("chaos", 1050, 3), GameMode.CHAOS);
+            assertEquals(3, lobby.getGauges().queueDepth());
+            assertEquals(2, lobby.getQueueDepth(GameMode.STANDARD));
+
+            CompletableFuture<MatchResult> lowOpponent = lobby.enqueue(new RandomLobbyPlayer("low opponent", 1150, 4), GameMode.STANDARD);
+            MatchResult played = low.get(30, TimeUnit.SECONDS);
+            assertSame(played, lowOpponent.get(30, TimeUnit.SECONDS));
+            assertEquals(MatchOutcome.WON, played.outcome());
+            assertEquals(List.of("low", "low opponent"), played.players());
+            assertNotNull(played.getWinner());
+
+            // Check a player who does not answer in time forfeits to its opponent
+            LobbyPlayer idle = new LobbyPlayer() {
+                @Override
+                public String getName() {
+                    return "idle";
+                }
+
+                @Override
+                public int getRating() {
+                    return 1450;
+                }
+
+                @Override
+                public CompletableFuture<LobbyInput> chooseInput(MatchSnapshot snapshot) {
+                    return new CompletableFuture<>();
+                }
+            };
+            lobby.enqueue(idle, GameMode.STANDARD);
+            MatchResult forfeited = high.get(30, TimeUnit.SECONDS);
+            assertEquals(MatchOutcome.FORFEITED, forfeited.outcome());
+            assertEquals("high", forfeited.getWinner());
+
+            // Check a queued player who gives up leaves the queue
+            chaos.cancel(false);
+            LobbyGauges gauges = lobby.getGauges();
+            assertEquals(0, gauges.queueDepth());
+            assertEquals(0, gauges.activeMatches());
+            assertEquals(2, gauges.finishedMatches());
+            assertEquals(4, gauges.pairedPlayers());
+            assertTrue(gauges.maximumPairingNanos() >= gauges.meanPairingNanos());
+        } finally {
+            Logger.getInstance().setLevel(level);
+        }
+    }
+
+    @Test
+    void testLobbyHoldsIdleMatchesOnVirtualThreads() throws Exception {
+        LogLevel level = Logger.getInstance().getLevel();
+        Logger.getInstance().setLevel(LogLevel.OFF);
+        int platformThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+        AtomicInteger asked = new AtomicInteger();
+        LobbyPlayer idle = new LobbyPlayer() {
+            @Override
+            public String getName() {
+                return "idle";
+            }
+
+            @Override
+            public int getRating() {
+                return 1200;
+            }
+
+            @Override
+            public CompletableFuture<LobbyInput> chooseInput(MatchSnapshot snapshot) {
+                asked.incrementAndGet();
+                return new CompletableFuture<>();
+            }
+        };
+
+        Lobby lobby = new Lobby(Duration.ofMinutes(5), 200);
+        List<CompletableFuture<MatchResult>> results = new ArrayList<>();
+        try {
+            // Start many matches whose players never answer, each parked on its own virtual thread
+            for (int i = 0; i < 20_000; i++) {
+                results.add(lobby.enqueue(idle, i % 2 == 0 ? GameMode.STANDARD : GameMode.CHAOS));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (asked.get() < 10_000 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(10_000, asked.get());
+            assertEquals(10_000, lobby.getGauges().activeMatches());
+            assertTrue(ManagementFactory.getThreadMXBean().getThreadCount() < platformThreads + 32);
+        } finally {
+            lobby.close();
+            Logger.getInstance().setLevel(level);
+        }
+
+        // Check closing the lobby cancels every match cleanly
+        for (CompletableFuture<MatchResult> result : results) {
+            assertEquals(MatchOutcome.CANCELLED, result.get(5, TimeUnit.SECONDS).outcome());
+        }
+        assertEquals(0, lobby.getGauges().activeMatches());
+        assertThrows(IllegalStateException.class, () -> lobby.enqueue(idle, GameMode.STANDARD));
+    }
+
+    @Test
+    void testTimingWheelFiresAcrossLevels() throws Exception {
+        // A 50 microsecond tick puts 20 milliseconds on the second level and 300 on the third
+        TimingWheel wheel = new TimingWheel(Duration.ofNanos(50_000));
+        long[] delays = {0, 1, 20, 300};
+        List<CompletableFuture<Long>> fired = new ArrayList<>();
+        long start = System.nanoTime();
+        for (long delay : delays) {
+            CompletableFuture<Long> elapsed = new CompletableFuture<>();
+            wheel.schedule(() -> elapsed.complete(System.nanoTime() - start), Duration.ofMillis(delay));
+            fired.add(elapsed);
+        }
+
+        // Check a cancelled timeout never runs, and cannot be cancelled twice
+        AtomicInteger cancelledRuns = new AtomicInteger();
+        WheelTimeout cancelled = wheel.schedule(cancelledRuns::incrementAndGet, Duration.ofMillis(50));
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+
+        // Check many timeouts all fire, none before its deadline
+        Random random = new Random(7);
+        AtomicInteger early = new AtomicInteger();
+        CountDownLatch remaining = new CountDownLatch(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            long delayNanos = TimeUnit.MILLISECONDS.toNanos(random.nextInt(400));
+            long deadline = System.nanoTime() + delayNanos;
+            wheel.schedule(() -> {
+                if (System.nanoTime() < deadline) {
+                    early.incrementAndGet();
+                }
+                remaining.countDown();
+            }, Duration.ofNanos(delayNanos));
+        }
+
+        for (int i = 0; i < delays.length; i++) {
+            long elapsed = fired.get(i).get(5, TimeUnit.SECONDS);
+            assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(delays[i]));
+        }
+        assertTrue(remaining.await(5, TimeUnit.SECONDS));
+        assertEquals(0, early.get());
+        Thread.sleep(100);
+        assertEquals(0, cancelledRuns.get());
+        assertTrue(cancelled.isCancelled());
+    }
+
+    @Test
+    void testClockFlagFallLosesTheGame() throws Exception {
+        // Check the clock charges the running player, adds the increment and flags at zero
+        AtomicLong now = new AtomicLong();
+        GameClock clock = new GameClock(TimeControl.parse("10+2"), 2, now::get);
+        clock.start(0);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(3));
+        clock.switchTo(1);
+        assertEquals(9_000, clock.getRemainingMillis(0));
+        assertEquals(1, clock.getRunningIndex());
+        now.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        assertTrue(clock.isFlagged());
+        ClockSnapshot snapshot = clock.snapshot();
+        assertEquals(1, snapshot.flaggedIndex());
+        assertEquals("0.0", snapshot.format(1));
+        assertEquals("9.0", snapshot.format(0));
+        assertEquals(TimeControl.perTurn(Duration.ofSeconds(30)), TimeControl.parse("30/turn"));
+        assertThrows(IllegalArgumentException.class, () -> TimeControl.parse("fast"));
+
+        // Check a player who lets their time run out loses a local game
+        LogLevel level = Logger.getInstance().getLevel();
+        Logger.getInstance().setLevel(LogLevel.OFF);
+        MatchServer server = new MatchServer(0, TimeControl.perTurn(Duration.ofMillis(200)));
+        MatchClient idle = null;
+        try {
+            Game game = new GameFactory(3).createGame(GameMode.STANDARD);
+            CompletableFuture<Player> winner = new CompletableFuture<>();
+            game.startClock(TimeControl.perTurn(Duration.ofMillis(50)), check -> {
+                check.run();
+                if (game.getWinner() != null) {
+                    winner.complete(game.getWinner());
+                }
+            });
+            assertSame(game.getGameState().getPlayer(1), winner.get(5, TimeUnit.SECONDS));
+            assertEquals(0, game.getGameState().getClock().getFlaggedIndex());
+
+            // Check a server match is won by the player who keeps playing against one who never does
+            server.start();
+            idle = MatchClient.connect("localhost", server.getPort(), new MatchListener() {
+                @Override
+                public void onMatchStarted(MatchStart start) {
+                }
+
+                @Override
+                public void onState(MatchSnapshot state) {
+                }
+
+                @Override
+                public void onError(ErrorCode code) {
+                }
+
+                @Override
+                public void onClosed() {
+                }
+            });
+            idle.join(GameMode.STANDARD);
+            BotPlayer bot = new BotPlayer(GameMode.STANDARD, 1, 5);
+            assertEquals(1, bot.play("localhost", server.getPort()).get(10, TimeUnit.SECONDS));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (server.getFinishedMatchCount() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, server.getFinishedMatchCount());
+        } finally {
+            if (idle != null) {
+                idle.close();
+            }
+            server.close();
+            Logger.getInstance().setLevel(level);
+        }
+    }
+
+    @Test
+    void testEngineProtocolDrivesExternalEngines() throws Exception {
+        // Check the notation of cells, positions, searches and progress reads back what it writes
+        assertEquals("c4", EngineProtocol.formatCell(new Position(2, 3)));
+        assertEquals(new Position(2, 3), EngineProtocol.parseCell("c4"));
+        assertThrows(IllegalArgumentException.class, () -> EngineProtocol.parseCell("4c"));
+        EnginePosition position = EnginePosition.start(GameMode.STANDARD, 11).after("b2:c3:c4");
+        assertEquals("position standard 11 turns b2:c3:c4", position.toCommand());
+        assertEquals(position, EnginePosition.parse(position.toCommand()));
+        assertEquals(new SearchLimits(50, 200), EngineProtocol.parseGo(EngineProtocol.formatGo(new SearchLimits(50, 200))));
+        EngineInfo info = new EngineInfo(1, 42, -300, "b2:c3:-:c4");
+        assertEquals(info, EngineProtocol.parseInfo(EngineProtocol.formatInfo(info) + " hashfull 0"));
+
+        LogLevel level = Logger.getInstance().getLevel();
+        Logger.getInstance().setLevel(LogLevel.OFF);
+        AtomicInteger infoLines = new AtomicInteger();
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        EngineHost host = EngineHost.start(List.of(java, "-cp", System.getProperty("java.class.path"), "santorini.App", "--engine"),
+            progress -> infoLines.incrementAndGet());
+        try {
+            assertEquals(GreedyEngine.NAME, host.introduction().get(30, TimeUnit.SECONDS));
+
+            // Check pipelined searches are answered in order, as the built-in engine answers them in-process
+            GreedyEngine engine = new GreedyEngine();
+            SearchLimits limits = SearchLimits.nodes(40);
+            EnginePosition start = EnginePosition.start(GameMode.STANDARD, 5);
+            String firstTurn = engine.choose(start, limits, progress -> { }).turn();
+            EnginePosition next = start.after(firstTurn);
+            CompletableFuture<BestTurn> first = host.search(start, limits);
+            CompletableFuture<BestTurn> second = host.search(next, limits);
+            CompletableFuture<Void> ready = host.isReady();
+            assertEquals(firstTurn, first.get(30, TimeUnit.SECONDS).turn());
+            assertEquals(engine.choose(next, limits, progress -> { }).turn(), second.get(30, TimeUnit.SECONDS).turn());
+            assertNotNull(second.get().info());
+            ready.get(30, TimeUnit.SECONDS);
+            assertTrue(infoLines.get() >= 2);
+
+            // Check the external engine plays a whole match against the built-in one
+            MatchResult result = EngineMatch.play(List.of(host, engine), GameMode.STANDARD, 5, limits);
+            assertEquals(MatchOutcome.WON, result.outcome());
+            assertEquals(List.of(GreedyEngine.NAME, GreedyEngine.NAME), result.players());
+            assertTrue(result.turns() > 0);
+        } finally {
+            host.close();
+            Logger.getInstance().setLevel(level);
+        }
+
+        // Check a closed engine fails the searches sent to it
+        assertThrows(Exception.class, () -> host.search(EnginePosition.start(GameMode.STANDARD, 1), SearchLimits.nodes(1)).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testPositionNotationRoundTrips() {
+        // Check a written position reads into the board, players and turn it describes
+        String fixture = "00100/0A200/00030/00004/00000 b2,c3/d4,e5 Artemis/Demeter 1 6 m11 3,0,5";
+        GameState gameState = PositionNotation.parse(fixture);
+        Board board = gameState.getBoard();
+        assertEquals(1, board.getTower(new Position(2, 4)).getHeight());
+        assertTrue(board.getTower(new Position(1, 3)).getFogged());
+        assertEquals(4, board.getTower(new Position(4, 1)).getHeight());
+        assertSame(gameState.getPlayer(1).getWorkers().get(0), board.getWorkerAt(new Position(3, 3)));
+        assertEquals("Demeter", gameState.getPlayer(1).getGod().getName());
+        assertEquals(1, gameState.getCurrentPlayerIndex());
+        assertEquals(6, gameState.getTurnNumber());
+        assertEquals(fixture, PositionNotation.write(PositionNotation.toGame(fixture, new Random(1))));
+        assertThrows(IllegalArgumentException.class, () -> PositionNotation.parse("000/00 a1/b1 Artemis/Demeter 0 0 m11 -"));
+        assertThrows(IllegalArgumentException.class, () -> PositionNotation.parse("00/00 a1/a1 Artemis/Demeter 0 0 m11 -"));
+        assertThrows(IllegalArgumentException.class, () -> PositionNotation.parse("00/00 a1/b1 Zeus/Demeter 0 0 m11 -"));
+
+        // Check every position of a played chaos game, mid-turn ones included, reads back the same
+        LogLevel level = Logger.getInstance().getLevel();
+        Logger.getInstance().setLevel(LogLevel.OFF);
+        try {
+            TurnDriver turnDriver = new TurnDriver(new GameFactory(9).createGame(GameMode.CHAOS));
+            Game game = turnDriver.getGame();
+            Random random = new Random(9);
+            for (int input = 0; input < 200 && game.getWinner() == null; input++) {
+                String notation = PositionNotation.write(game);
+                Game restored = PositionNotation.toGame(notation, new Random(0));
+                assertEquals(notation, PositionNotation.write(restored));
+                assertEquals(StateHash.of(game.getGameState()), StateHash.of(restored.getGameState()));
+
+                BitSet targets = turnDriver.getTargets();
+                if (turnDriver.canEndPhase() && (targets.isEmpty() || random.nextInt(4) == 0)) {
+                    turnDriver.endPhase();
+                }
+                else if (!targets.isEmpty()) {
+                    turnDriver.pick(game.getGameState().getBoard().getPosition(BotPlayer.pickTarget(targets, random)));
+                }
+            }
+        } finally {
+            Logger.getInstance().setLevel(level);
+        }
+
+        // Check the built-in engine finds the winning climb in a written position
+        EnginePosition position = EnginePosition.of("00000/00000/00000/00032/00000 e2,a5/a1,b1 Artemis/Demeter 0 0 m11 -", 3);
+        assertEquals(position, EnginePosition.parse(position.toCommand()));
+        BestTurn bestTurn = new GreedyEngine().choose(position, SearchLimits.nodes(1000), progress -> { });
+        assertEquals("e2:d2", bestTurn.turn());
+        assertEquals(GreedyEngine.WIN_SCORE, bestTurn.info().score());
+    }
+
+    @Test
+    void testTurnCodecPlaysAndRevertsTurns() {
+        // Check a turn packs its worker, moves and builds into a long
+        long turn = TurnCodec.withBuild(TurnCodec.withMove(TurnCodec.withMove(TurnCodec.of(3), 12), 13), 18);
+        assertEquals(3, TurnCodec.getWorkerId(turn));
+        assertEquals(2, TurnCodec.getMoveCount(turn));
+        assertEquals(13, TurnCodec.getMove(turn, 1));
+        assertEquals(1, TurnCodec.getBuildCount(turn));
+        assertEquals(18, TurnCodec.getBuild(turn, 0));
+        assertEquals("w3 m12 m13 b18", TurnCodec.toString(turn));
+        assertThrows(IllegalArgumentException.class, () -> TurnCodec.withMove(turn, 14));
+        assertThrows(IllegalArgumentException.class, () -> TurnCodec.of(TurnCodec.MAXIMUM_WORKERS));
+        assertThrows(IllegalArgumentException.class, () -> TurnCodec.withBuild(turn, TurnCodec.MAXIMUM_BOARD_CELLS));
+
+        LogLevel level = Logger.getInstance().getLevel();
+        Logger.getInstance().setLevel(LogLevel.OFF);
+        try {
+            TurnDriver played = new TurnDriver(new GameFactory(21).createGame(GameMode.STANDARD));
+            TurnDriver replayed = new TurnDriver(new GameFactory(21).createGame(GameMode.STANDARD));
+            Random random = new Random(21);
+            int turns = 0;
+            while (played.getGame().getWinner() == null && turns < 100) {
+                GameState before = PositionNotation.parse(PositionNotation.write(played.getGame()));
+                int turnNumber = played.getGame().getGameState().getTurnNumber();
+                while (played.getGame().getGameState().getTurnNumber() == turnNumber && played.getGame().getWinner() == null) {
+                    BitSet targets = played.getTargets();
+                    if (played.canEndPhase() && (targets.isEmpty() || random.nextInt(4) == 0)) {
+                        played.endPhase();
+                    }
+                    else {
+                        assertFalse(targets.isEmpty());
+                        played.pick(played.getGame().getGameState().getBoard().getPosition(BotPlayer.pickTarget(targets, random)));
+                    }
+                }
+                long lastTurn = played.getLastTurn();
+                if (lastTurn == TurnCodec.NONE) {
+                    break;
+                }
+                turns++;
+
+                // Check the encoded turn plays through the rules to the same game
+                assertTrue(replayed.play(lastTurn));
+                assertEquals(StateHash.of(played.getGame().getGameState()), StateHash.of(replayed.getGame().getGameState()));
+
+                // Check the executor plays the turn onto the board as the rules did, then takes it back
+                long hashBefore = StateHash.of(before);
+                TurnExecutor executor = new TurnExecutor(before);
+                executor.apply(lastTurn);
+                String[] expected = PositionNotation.write(played.getGame()).split(" ");
+                String[] applied = PositionNotation.write(before, null).split(" ");
+                assertEquals(expected[0] + " " + expected[1], applied[0] + " " + applied[1]);
+                executor.revert(lastTurn);
+                assertEquals(0, executor.getDepth());
+                assertEquals(hashBefore, StateHash.of(before));
+            }
+            assertTrue(turns > 10);
+            assertFalse(replayed.play(TurnCodec.of(0)));
+        } finally {
+            Logger.getInstance().setLevel(level);
+        }
+    }
+
+    @Test
+    void testTournamentPlaysSeededGamesAcrossThreads() throws Exception {
+        // Check the Wilson interval of a win rate
+        WinRate half = new WinRate(50, 100);
+        assertEquals(0.5, half.rate());
+        assertEquals(0.4038, half.lower(), 1e-3);
+        assertEquals(0.5962, half.upper(), 1e-3);
+        assertEquals(1.0, new WinRate(0, 0).upper());
+
+        // Check bad command lines are refused
+        assertThrows(IllegalArgumentException.class, () -> TournamentConfig.parse(List.of("--rounds", "3")));
+        assertThrows(IllegalArgumentException.class, () -> TournamentConfig.parse(List.of("--gods", "Artemis/Zeus")));
+        assertThrows(IllegalArgumentException.class, () -> TournamentConfig.parse(List.of("--players", "random")));
+        assertThrows(IllegalArgumentException.class, () -> TournamentConfig.parse(List.of("--games")));
+
+        LogLevel level = Logger.getInstance().getLevel();
+        Logger.getInstance().setLevel(LogLevel.OFF);
+        try {
+            List<String> options = List.of("--games", "24", "--players", "random/random", "--gods", "all", "--modes", "all",
+                "--seed", "3", "--max-turns", "300");
+            List<String> parallel = new ArrayList<>(options);
+            parallel.addAll(List.of("--threads", "4"));
+            List<String> serial = new ArrayList<>(options);
+            serial.addAll(List.of("--threads", "1"));
+            Tournament tournament = new Tournament(TournamentConfig.parse(parallel));
+            TournamentReport report = tournament.run();
+
+            // Check every pairing is played from both seats in both modes, the same way on any number of threads
+            List<TournamentGame> games = report.getGames();
+            assertEquals(24, games.size());
+            List<TournamentGame> serialGames = new Tournament(TournamentConfig.parse(serial)).run().getGames();
+            Set<String> matchups = new HashSet<>();
+            for (int i = 0; i < games.size(); i++) {
+                TournamentGame game = games.get(i);
+                TournamentGame serialGame = serialGames.get(i);
+                assertEquals(i, game.index());
+                assertEquals(List.of(game.mode(), game.seed(), game.gods(), game.winnerSeat(), game.outcome(), game.turns()),
+                    List.of(serialGame.mode(), serialGame.seed(), serialGame.gods(), serialGame.winnerSeat(), serialGame.outcome(), serialGame.turns()));
+                assertEquals(List.of(PlayerKind.RANDOM, PlayerKind.RANDOM), game.players());
+                assertNotEquals(game.gods().get(0), game.gods().get(1));
+                matchups.add(game.mode() + " " + game.gods());
+            }
+            assertEquals(12, matchups.size());
+            assertEquals(games.get(5).turns(), tournament.playGame(5).turns());
+
+            // Check the win rates count every decided game
+            int decided = report.getCount(MatchOutcome.WON) + report.getCount(MatchOutcome.FORFEITED);
+            assertEquals(decided, report.getFirstSeatWinRates().values().stream().mapToInt(WinRate::games).sum());
+            assertEquals(decided, report.getGodWinRates().values().stream()
+                .flatMap(pairings -> pairings.values().stream()).mapToInt(WinRate::games).sum());
+            assertTrue(report.getGodWinRates().get(GameMode.CHAOS).containsKey("Artemis vs Demeter"));
+            assertTrue(report.getGamesPerSecond() > 0);
+            assertTrue(report.summarize().contains("Demeter vs Triton: Demeter wins"));
+
+            // Check the results are written as CSV and JSON
+            StringBuilder csv = new StringBuilder();
+            report.write(ResultFormat.CSV, csv);
+            String[] lines = csv.toString().split("\n");
+            assertEquals(25, lines.length);
+            assertEquals("game,mode,seed,player1,player2,god1,god2,winner_seat,outcome,turns,millis,power1,power2", lines[0]);
+            assertTrue(lines[1].startsWith("0,standard," + games.get(0).seed() + ",random,random,"));
+            StringBuilder json = new StringBuilder();
+            report.write(ResultFormat.JSON, json);
+            assertTrue(json.toString().startsWith("{\"games\":24,"));
+            assertTrue(json.toString().contains("\"pairing\":\"Artemis vs Triton\""));
+
+            // Check the built-in engine plays tournament games to the end
+            TournamentConfig engines = TournamentConfig.parse(List.of("--players", "greedy/random", "--nodes", "20", "--threads", "1"));
+            assertNotEquals(MatchOutcome.FORFEITED, new Tournament(engines).playGame(0).outcome());
+        } finally {
+            Logger.getInstance().setLevel(level);
+        }
+    }
+
+    @Test
+    void testBalanceAnalyzerMergesShardedResults(@TempDir Path directory) throws Exception {
+        LogLevel level = Logger.getInstance().getLevel();
+        Logger.getInstance().setLevel(LogLevel.OFF);
+        try {
+            // Write two tournaments as shards of one run, next to a file that is not a result
+            BalanceStats expected = new BalanceStats();
+            String header = null;
+            for (int shard = 0; shard < 2; shard++) {
+                TournamentReport report = new Tournament(TournamentConfig.parse(List.of("--games", "24", "--players", "random/random",
+                    "--gods", "all", "--modes", "all", "--seed", String.valueOf(shard), "--max-turns", "300", "--threads", "2"))).run();
+                report.getGames().forEach(expected::add);
+                StringBuilder csv = new StringBuilder();
+                report.write(ResultFormat.CSV, csv);
+                Files.writeString(directory.resolve("shard-" + shard + ".csv"), csv);
+                header = csv.substring(0, csv.indexOf("\n"));
+
+                // Check a game reads back as it was written
+                TournamentGame game = report.getGames().get(7);
+                TournamentGame read = ResultColumns.of(header).read(csv.toString().split("\n")[8]);
+                assertEquals(List.of(game.index(), game.mode(), game.seed(), game.players(), game.gods(), game.winnerSeat(), game.outcome(), game.turns(), game.powers()),
+                    List.of(read.index(), read.mode(), read.seed(), read.players(), read.gods(), read.winnerSeat(), read.outcome(), read.turns(), read.powers()));
+            }
+            Files.writeString(directory.resolve("notes.txt"), "not a result");
+
+            // Check the shards are counted in parallel exactly as the games are counted one by one
+            BalanceStats stats = BalanceAnalyzer.analyze(List.of(directory));
+            assertEquals(48, stats.getGames());
+            assertEquals(expected.summarize(), stats.summarize());
+            for (GameMode mode : GameMode.values()) {
+                assertEquals(24, stats.getGames(mode));
+                assertEquals(stats.getDecidedGames(mode), stats.getFirstSeatWinRate(mode).games());
+                assertEquals(2 * stats.getDecidedGames(mode), stats.getGodWinRates(mode).values().stream().mapToInt(WinRate::games).sum());
+                assertEquals(stats.getDecidedGames(mode), stats.getPairingWinRates(mode).values().stream().mapToInt(WinRate::games).sum());
+                assertTrue(stats.getAverageTurns(mode) > 0);
+            }
+            assertTrue(stats.getPowersPerTurn(GameMode.STANDARD).values().stream().anyMatch(rate -> rate > 0));
+
+            // Check results written before powers were counted are still read
+            ResultColumns older = ResultColumns.of(header.substring(0, header.indexOf(",power1")));
+            assertEquals(-1, older.power());
+            assertEquals(List.of(), older.read("0,standard,5,random,greedy,Artemis,Triton,1,won,40,12").powers());
+            assertThrows(IllegalArgumentException.class, () -> older.read("0,standard,5,random"));
+            assertThrows(IllegalArgumentException.class, () -> BalanceAnalyzer.analyze(List.of(Files.createDirectory(directory.resolve("empty")))));
+        } finally {
+            Logger.getInstance().setLevel(level);
+        }
+    }
+
+    @Test
+    void testLoggerSpillsOverwrittenEvents(@TempDir Path directory) throws Exception {
+        Logger logger = new Logger();
+        Path spillFile = directory.resolve("spill.log");
+        logger.setSpillFile(spillFile);
+        try {
+            for (int i = 1; i <= Logger.CAPACITY + 10; i++) {
+                logger.log(LogEventType.TURN_NUMBER, i);
+            }
+
+            // Check the ten oldest events were spilled, in order, without closing the file
+            List<String> spilled = Files.readAllLines(spillFile);
+            assertEquals(10, spilled.size());
+            assertEquals("Turn 1", spilled.get(0));
+            assertEquals("Turn 10", spilled.get(9));
+            assertEquals(Logger.CAPACITY, logger.getEvents().length);
+            assertTrue(logger.getLogs().startsWith("Turn 11\n"));
+        } finally {
+            logger.setSpillFile(null);
+        }
+
+        // Check nothing more is spilled once spilling stops
+        logger.log(LogEventType.TURN_NUMBER, 0);
+        assertEquals(10, Files.readAllLines(spillFile).size());
+    }
+
+    @Test
+    void testLoggerCoalescesTextAreaUpdates() throws Exception {
+        Logger logger = new Logger();
+        JTextArea textArea = new JTextArea();
+        logger.setLogTextArea(textArea);
+        AtomicInteger inserts = new AtomicInteger();
+        textArea.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                inserts.incrementAndGet();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+
+        // Check the lines logged during one event dispatch cycle reach the text area in one insert
+        SwingUtilities.invokeAndWait(() -> {
+            for (int i = 1; i <= 100; i++) {
+                logger.log(LogEventType.TURN_NUMBER, i);
+            }
+        });
+        SwingUtilities.invokeAndWait(() -> { });
+        assertEquals(1, inserts.get());
+        assertTrue(textArea.getText().startsWith("Turn 1\n"));
+        assertTrue(textArea.getText().endsWith("Turn 100\n"));
+
+        // Check the oldest whole lines are trimmed once the text area is over its cap
+        String padding = "x".repeat(90);
+        SwingUtilities.invokeAndWait(() -> {
+            for (int i = 0; i < 500; i++) {
+                logger.log(String.format("Line %03d %s", i, padding));
+            }
+        });
+        SwingUtilities.invokeAndWait(() -> { });
+        assertEquals(2, inserts.get());
+        String text = textArea.getText();
+        assertTrue(text.length() <= Logger.MAXIMUM_DOCUMENT_LENGTH);
+        assertTrue(text.endsWith(String.format("Line 499 %s\n", padding)));
+        for (String line : text.split("\n")) {
+            assertTrue(line.matches("Line \\d{3} x{90}"), line);
+        }
+        logger.setLogTextArea(null);
+    }
 }